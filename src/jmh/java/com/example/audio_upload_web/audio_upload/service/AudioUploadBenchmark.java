@@ -0,0 +1,64 @@
+package com.example.audio_upload_web.audio_upload.service;
+
+import com.example.audio_upload_web.bench.BenchMetrics;
+import com.example.audio_upload_web.bench.Payloads;
+import com.example.audio_upload_web.common.storage.LocalObjectStorage;
+import com.example.audio_upload_web.common.storage.StorageVolumes;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AudioService.upload (Files.copy)
+ * */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AudioUploadBenchmark {
+
+    @Param({Payloads.CHUNK_3S, Payloads.CHUNK_10S})
+    public int chunkBytes;
+
+    private MockMultipartFile file;
+    private Path dir;
+    private AudioService service;
+
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        file = new MockMultipartFile("file", "audio.webm", "audio/webm", Payloads.opus(chunkBytes));
+        dir = Files.createTempDirectory("audio-bench");
+        service = new AudioService();
+        ReflectionTestUtils.setField(service, "objectStorage", new LocalObjectStorage(
+                new StorageVolumes(dir.toString(), dir.resolve("tmp").toString(), "most-free", 256)));
+        ReflectionTestUtils.setField(service, "uploadMetrics", BenchMetrics.INSTANCE);
+        // 목록 기록은 측정 대상이 아님 (@PostConstruct 를 호출하지 않은 상태로 두어 기록하지 않음)
+        ReflectionTestUtils.setField(service, "audioCatalogService", new AudioCatalogService());
+    }
+
+    @TearDown(Level.Iteration)
+    public void clean() throws IOException {
+        Payloads.deleteTree(dir);
+        Files.createDirectories(dir);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Payloads.deleteTree(dir);
+    }
+
+
+    @Benchmark
+    public Map<String, Object> upload() throws IOException {
+        return service.upload(file, "audio/webm");
+    }
+}
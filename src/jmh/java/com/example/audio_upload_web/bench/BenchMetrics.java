@@ -0,0 +1,15 @@
+package com.example.audio_upload_web.bench;
+
+import com.example.audio_upload_web.common.metrics.UploadMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * 스프링 컨텍스트 없이 서비스에 주입할 지표 객체
+ * */
+public final class BenchMetrics {
+
+    public static final UploadMetrics INSTANCE =
+            new UploadMetrics(new SimpleMeterRegistry(), Long.MAX_VALUE);
+
+    private BenchMetrics() {}
+}
@@ -0,0 +1,58 @@
+package com.example.audio_upload_web.bench;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * 벤치마크 입력 데이터
+ * */
+public final class Payloads {
+
+    /*
+     * 클라이언트 녹음 설정 128kbps 기준 청크 크기 (3초 / 10초)
+     * */
+    public static final String CHUNK_3S = "49152";
+    public static final String CHUNK_10S = "163840";
+
+    private Payloads() {}
+
+
+    /**
+     * opus 데이터와 비슷하게 거의 압축되지 않는 데이터
+     * */
+    public static byte[] opus(int bytes) {
+        byte[] b = new byte[bytes];
+        new Random(bytes).nextBytes(b);
+        return b;
+    }
+
+    /**
+     * 클라이언트(JSZip)와 같은 단일 entry zip
+     * */
+    public static byte[] zip(byte[] data) {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream(data.length + 256);
+        try (ZipOutputStream zos = new ZipOutputStream(bos)) {
+            zos.putNextEntry(new ZipEntry("chunk.webm"));
+            zos.write(data);
+            zos.closeEntry();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bos.toByteArray();
+    }
+
+    public static void deleteTree(Path dir) throws IOException {
+        if (!Files.exists(dir)) return;
+        try (Stream<Path> s = Files.walk(dir)) {
+            s.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+}
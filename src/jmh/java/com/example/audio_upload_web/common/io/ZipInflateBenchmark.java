@@ -0,0 +1,64 @@
+package com.example.audio_upload_web.common.io;
+
+import com.example.audio_upload_web.bench.Payloads;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RTC 청크 압축 해제 (기존 unzipToMultipart 를 대체한 ZipEntryInflater)<br/>
+ * 파일 기록 비용을 빼고 압축 해제만 측정
+ * */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ZipInflateBenchmark {
+
+    @Param({Payloads.CHUNK_3S, Payloads.CHUNK_10S})
+    public int chunkBytes;
+
+    private byte[] zipped;
+    private BufferPool bufferPool;
+    private final NullChannel sink = new NullChannel();
+
+
+    @Setup(Level.Trial)
+    public void setup() {
+        zipped = Payloads.zip(Payloads.opus(chunkBytes));
+        bufferPool = new BufferPool(65536, 256);
+    }
+
+
+    @Benchmark
+    public long inflate() throws IOException {
+        return ZipEntryInflater.inflateSingleEntry(new ByteArrayInputStream(zipped), sink, bufferPool, 16 << 20);
+    }
+
+
+    /*
+     * 기록한 데이터를 버리는 채널
+     * */
+    private static final class NullChannel implements WritableByteChannel {
+        @Override
+        public int write(ByteBuffer src) {
+            int n = src.remaining();
+            src.position(src.limit());
+            return n;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {}
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.audio_upload_web.common.session;
+
+import com.example.audio_upload_web.bench.Payloads;
+import com.example.audio_upload_web.common.io.BufferPool;
+import com.example.audio_upload_web.common.io.ChannelCopy;
+import com.example.audio_upload_web.common.io.ZipEntryInflater;
+import com.example.audio_upload_web.constant.UploadSource;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * saveChunk 이어붙이기 경로 (RealTimeService: 그대로 복사, RTCService: 압축 해제하며 복사)<br/>
+ * 한번에 청크 2개를 순서대로 또는 뒤바뀐 순서로 보내 chunks 디렉터리 보관 경로까지 측정
+ * */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ChunkAppendBenchmark {
+
+    /*
+     * 세션 하나에 이어붙일 최대 청크 수 (stream 파일이 계속 커지지 않도록 새 세션으로 교체)
+     * */
+    private static final int ROLL = 256;
+
+    @Param({Payloads.CHUNK_3S, Payloads.CHUNK_10S})
+    public int chunkBytes;
+
+    @Param({"REAL_TIME", "RTC"})
+    public UploadSource source;
+
+    @Param({"IN_ORDER", "REVERSED"})
+    public String order;
+
+    private byte[] raw;
+    private byte[] zipped;
+    private Path dir;
+    private ChunkAssembler assembler;
+    private BufferPool bufferPool;
+    private UploadSession session;
+    private int seq;
+
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        raw = Payloads.opus(chunkBytes);
+        zipped = Payloads.zip(raw);
+        dir = Files.createTempDirectory("chunk-bench");
+        assembler = new ChunkAssembler();
+        ReflectionTestUtils.setField(assembler, "maxAhead", 1024);
+        bufferPool = new BufferPool(65536, 256);
+        roll();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        session.closeStream();
+        Payloads.deleteTree(dir);
+    }
+
+
+    @Benchmark
+    public int append() throws IOException {
+        if (seq + 2 > ROLL) roll();
+        int first = seq + 1;
+        int second = seq + 2;
+        if (order.equals("REVERSED")) {
+            write(second);
+            write(first);
+        } else {
+            write(first);
+            write(second);
+        }
+        seq = second;
+        return session.getCommittedChunks();
+    }
+
+
+    private void write(int n) throws IOException {
+        if (source == UploadSource.RTC) {
+            assembler.accept(session, n, out ->
+                    ZipEntryInflater.inflateSingleEntry(new ByteArrayInputStream(zipped), out, bufferPool, 16 << 20));
+        } else {
+            assembler.accept(session, n, out ->
+                    ChannelCopy.copy(new ByteArrayInputStream(raw), out, bufferPool, 4));
+        }
+    }
+
+    private void roll() throws IOException {
+        if (session != null) {
+            session.closeStream();
+            Payloads.deleteTree(session.getSessionDir());
+        }
+        String id = UUID.randomUUID().toString();
+        session = new UploadSession(id, source, dir.resolve(id), UploadStatus.UPLOADING);
+        Files.createDirectories(session.getChunkDir());
+        seq = 0;
+    }
+}
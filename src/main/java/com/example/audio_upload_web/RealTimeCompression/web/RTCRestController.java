@@ -1,10 +1,17 @@
 package com.example.audio_upload_web.RealTimeCompression.web;
 
 import com.example.audio_upload_web.RealTimeCompression.service.RTCService;
+import com.example.audio_upload_web.common.job.FinalizeJob;
+import com.example.audio_upload_web.common.session.ChunkResult;
+import com.example.audio_upload_web.common.session.ChunkStatus;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -38,7 +45,7 @@ public class RTCRestController {
      * @param uploadId 업로드 될 파일의 UUID값
      * @param seq 청크 파일 업로드 순번
      * @param file 압축된 청크 파일
-     * @return {"ok":boolean}
+     * @return {"ok":boolean, "seq":int, "result":String(COMMITTED, BUFFERED, DUPLICATE)}
      * @throws IOException 청크 파일 저장 예외
      * */
     @PostMapping(value="/chunk", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
@@ -53,22 +60,78 @@ public class RTCRestController {
         }
 
         // 청크 파일 저장
-        RTCService.saveChunk(uploadId, seq, file);
-        return ResponseEntity.ok(Map.of("ok", true));
+        ChunkResult result = RTCService.saveChunk(uploadId, seq, file);
+        return ResponseEntity.ok(Map.of("ok", true, "seq", seq, "result", result.name()));
     }
 
 
 
     /**
-     * 모든 청크 파일 업로드 완료 신호를 받는 컨트롤러
+     * 수신 상태 조회 (전송 실패 후 이어받기 위치 확인, HEAD 요청은 헤더만 응답)
+     * @param uploadId 업로드 될 파일의 UUID값
+     * @return {"ok":boolean, "committedChunks":int, "committedBytes":long, "received":[int], "partial":{seq:long}}<br/>
+     *         Upload-Offset 헤더 : stream 파일 크기, Upload-Committed 헤더 : 이어붙여진 청크 수
+     * @throws IOException chunks 디렉터리 조회 예외
+     * */
+    @GetMapping("/session")
+    public ResponseEntity<Map<String, Object>> status(@RequestParam String uploadId) throws IOException {
+        ChunkStatus status = RTCService.status(uploadId);
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                .header("Upload-Offset", String.valueOf(status.committedBytes()))
+                .header("Upload-Committed", String.valueOf(status.committedChunks()))
+                .body(Map.of(
+                        "ok", true,
+                        "committedChunks", status.committedChunks(),
+                        "committedBytes", status.committedBytes(),
+                        "received", status.received(),
+                        "partial", status.partial()
+                ));
+    }
+
+
+    /**
+     * 청크 이어받기 (본문 = zip 으로 압축된 청크의 offset 부터 나머지, multipart 아님)<br/>
+     * 연결이 끊겨도 받은 부분은 남아 있으므로 /session 으로 확인한 위치부터 다시 보내면 됨
+     * @param uploadId 업로드 될 파일의 UUID값
+     * @param seq 청크 파일 업로드 순번
+     * @param offset 본문이 시작하는 청크 내 위치 (서버가 받아둔 크기와 다르면 409 OFFSET_MISMATCH)
+     * @param length 청크 전체 크기
+     * @param crc 청크 전체의 CRC32C (16진수, 다르면 422 CHECKSUM_MISMATCH 후 처음부터 다시 받음)
+     * @return {"ok":boolean, "seq":int, "result":String(COMMITTED, BUFFERED, DUPLICATE, PARTIAL)}
+     * @throws IOException 본문 읽기 / 청크 파일 저장 예외
+     * */
+    @PutMapping(value="/chunk", consumes = {"application/zip", MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public ResponseEntity<Map<String, Object>> resumeChunk(
+            @RequestParam String uploadId,
+            @RequestParam int seq,
+            @RequestParam(defaultValue = "0") long offset,
+            @RequestParam long length,
+            @RequestParam(required = false) String crc,
+            HttpServletRequest request) throws IOException {
+
+        ChunkResult result = RTCService.resumeChunk(uploadId, seq, offset, length, crc, request.getInputStream());
+        return ResponseEntity.ok(Map.of("ok", true, "seq", seq, "result", result.name()));
+    }
+
+
+    /**
+     * 모든 청크 파일 업로드 완료 신호를 받는 컨트롤러<br/>
+     * 병합/변환은 작업 스레드에서 처리되며 결과는 /jobs/{jobId} 또는 /jobs/{jobId}/events 로 확인
      * @param uploadId 업로드 될 파일의 UUID값
      * @param totalChunks 업로드된 모든 청크 파일 수
-     * @return {"ok":boolean, "id":String, "key":String "contentType":String, "size":long}
+     * @return 202 {"ok":boolean, "jobId":String, "statusUrl":String, "eventsUrl":String}
      * */
     @PostMapping("/finalize")
     public ResponseEntity<Map<String, Object>> finalizeUpload(
             @RequestParam String uploadId,
-            @RequestParam Integer totalChunks) throws Exception {
-        return ResponseEntity.ok(RTCService.finalize(uploadId, totalChunks));
+            @RequestParam Integer totalChunks) {
+        FinalizeJob job = RTCService.finalize(uploadId, totalChunks);
+        return ResponseEntity.accepted().body(Map.of(
+                "ok", true,
+                "jobId", job.getJobId(),
+                "statusUrl", "/jobs/" + job.getJobId(),
+                "eventsUrl", "/jobs/" + job.getJobId() + "/events"
+        ));
     }
 }
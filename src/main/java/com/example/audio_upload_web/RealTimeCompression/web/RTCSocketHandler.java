@@ -0,0 +1,37 @@
+package com.example.audio_upload_web.RealTimeCompression.web;
+
+import com.example.audio_upload_web.RealTimeCompression.service.RTCService;
+import com.example.audio_upload_web.common.session.ChunkResult;
+import com.example.audio_upload_web.common.web.ChunkSocketHandler;
+import com.example.audio_upload_web.constant.UploadSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * 실시간 녹음 (zip 압축 청크) 수신 WebSocket (/rtc/ws)
+ * */
+@Component
+public class RTCSocketHandler extends ChunkSocketHandler {
+
+    @Autowired
+    private RTCService rtcService;
+
+
+    @Override
+    protected UploadSource source() {
+        return UploadSource.RTC;
+    }
+
+    @Override
+    protected String createSession() throws IOException {
+        return rtcService.createSession();
+    }
+
+    @Override
+    protected ChunkResult saveChunk(String uploadId, int seq, ByteBuffer payload) throws IOException {
+        return rtcService.saveChunk(uploadId, seq, payload);
+    }
+}
@@ -1,7 +1,39 @@
 package com.example.audio_upload_web.audio_upload.dao;
 
+import com.example.audio_upload_web.audio_upload.dto.AudioDTO;
+import com.example.audio_upload_web.audio_upload.mapper.AudioMapper;
+import com.example.audio_upload_web.constant.UploadSource;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.List;
+
 @Repository
 public class AudioDAO {
+
+    @Autowired
+    private AudioMapper audioMapper;
+
+
+    /**
+     * 업로드 목록 일괄 기록 (multi-row INSERT 한번)
+     * @param audios 기록할 목록
+     * @return 기록된 건수
+     * */
+    public int insertAudios(List<AudioDTO> audios) {
+        if (audios.isEmpty()) return 0;
+        return audioMapper.insertAudios(audios);
+    }
+
+    /**
+     * 날짜별 업로드 목록 (id 순)
+     * @param uploadDate 조회 날짜
+     * @param source 업로드 방식 (null 이면 전체)
+     * @param afterId 이전 페이지의 마지막 id (null 이면 처음부터)
+     * @param limit 최대 건수
+     * */
+    public List<AudioDTO> selectAudiosByDate(LocalDate uploadDate, UploadSource source, Long afterId, int limit) {
+        return audioMapper.selectAudiosByDate(uploadDate, source, afterId, limit);
+    }
 }
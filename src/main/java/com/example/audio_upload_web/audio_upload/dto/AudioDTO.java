@@ -0,0 +1,145 @@
+package com.example.audio_upload_web.audio_upload.dto;
+
+import com.example.audio_upload_web.constant.UploadSource;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 업로드 목록 (audio_upload 테이블) 한 건
+ * */
+public class AudioDTO {
+
+    /*
+     * 목록 순서 / 페이지 기준 (AUTO_INCREMENT)
+     * */
+    private Long id;
+
+    /*
+     * 업로드 UUID (일괄 업로드는 저장 파일명, 세션 업로드는 세션 uploadId)
+     * */
+    private String uploadId;
+
+    /*
+     * 저장소 key (ObjectStorage.open 으로 다시 읽을 수 있음)
+     * */
+    private String storageKey;
+
+    private long size;
+    private String contentType;
+
+    /*
+     * 음성 길이 (ms, 확인하지 않은 경우 null)
+     * */
+    private Long durationMs;
+
+    private UploadSource source;
+
+    /*
+     * 목록 조회 기준일 (createdAt 의 날짜)
+     * */
+    private LocalDate uploadDate;
+
+    /*
+     * 업로드 시작 (요청 수신 / 세션 생성) / 저장 완료 시각
+     * */
+    private LocalDateTime startedAt;
+    private LocalDateTime createdAt;
+
+
+    public AudioDTO() {}
+
+    public AudioDTO(String uploadId, String storageKey, long size, String contentType, Long durationMs,
+                    UploadSource source, LocalDateTime startedAt, LocalDateTime createdAt) {
+        this.uploadId = uploadId;
+        this.storageKey = storageKey;
+        this.size = size;
+        this.contentType = contentType;
+        this.durationMs = durationMs;
+        this.source = source;
+        this.uploadDate = createdAt.toLocalDate();
+        this.startedAt = startedAt;
+        this.createdAt = createdAt;
+    }
+
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getUploadId() {
+        return uploadId;
+    }
+
+    public void setUploadId(String uploadId) {
+        this.uploadId = uploadId;
+    }
+
+    public String getStorageKey() {
+        return storageKey;
+    }
+
+    public void setStorageKey(String storageKey) {
+        this.storageKey = storageKey;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public void setSize(long size) {
+        this.size = size;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public void setContentType(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public Long getDurationMs() {
+        return durationMs;
+    }
+
+    public void setDurationMs(Long durationMs) {
+        this.durationMs = durationMs;
+    }
+
+    public UploadSource getSource() {
+        return source;
+    }
+
+    public void setSource(UploadSource source) {
+        this.source = source;
+    }
+
+    public LocalDate getUploadDate() {
+        return uploadDate;
+    }
+
+    public void setUploadDate(LocalDate uploadDate) {
+        this.uploadDate = uploadDate;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(LocalDateTime startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
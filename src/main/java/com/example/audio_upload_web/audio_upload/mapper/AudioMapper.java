@@ -1,7 +1,35 @@
-//package com.example.audio_upload_web.audio_upload.mapper;
-//
-//import org.apache.ibatis.annotations.Mapper;
-//
-//@Mapper
-//public interface AudioMapper {
-//}
+package com.example.audio_upload_web.audio_upload.mapper;
+
+import com.example.audio_upload_web.audio_upload.dto.AudioDTO;
+import com.example.audio_upload_web.constant.UploadSource;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 업로드 목록 (mapper/audio/AudioQuery_SQL.xml)
+ * */
+@Mapper
+public interface AudioMapper {
+
+    /**
+     * 여러 건을 INSERT 한번으로 기록
+     * @param list 기록할 목록 (비어있지 않아야 함)
+     * @return 기록된 건수
+     * */
+    int insertAudios(@Param("list") List<AudioDTO> list);
+
+    /**
+     * 날짜별 목록 조회 (id 순, keyset 페이지)
+     * @param uploadDate 조회 날짜
+     * @param source 업로드 방식 (null 이면 전체)
+     * @param afterId 이전 페이지의 마지막 id (null 이면 처음부터)
+     * @param limit 최대 건수
+     * */
+    List<AudioDTO> selectAudiosByDate(@Param("uploadDate") LocalDate uploadDate,
+                                      @Param("source") UploadSource source,
+                                      @Param("afterId") Long afterId,
+                                      @Param("limit") int limit);
+}
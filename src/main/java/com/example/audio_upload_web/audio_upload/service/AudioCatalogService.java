@@ -0,0 +1,188 @@
+package com.example.audio_upload_web.audio_upload.service;
+
+import com.example.audio_upload_web.audio_upload.dao.AudioDAO;
+import com.example.audio_upload_web.audio_upload.dto.AudioDTO;
+import com.example.audio_upload_web.constant.UploadSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 업로드 목록 기록 / 조회 (네 가지 업로드 방식 공통)<br/>
+ * 업로드 응답이 DB 를 기다리지 않도록 저장이 끝난 업로드를 대기열에 넣고,
+ * 전용 스레드가 쌓인 만큼(최대 batch-size) 모아 multi-row INSERT 한번으로 기록함
+ *
+ * <pre>
+ * 대기열이 가득 차면 기록하지 않고 버림 (upload.catalog.dropped)
+ * 기록 실패 시 재시도하지 않음 (upload.catalog.failed, 파일은 저장소에 그대로 남음)
+ * 종료 시 대기열에 남은 목록은 모두 기록
+ * </pre>
+ * */
+@Service
+@Log4j2
+public class AudioCatalogService {
+
+    @Value("${upload.catalog.enabled:true}")
+    private boolean enabled;
+
+    @Value("${upload.catalog.queue-capacity:10000}")
+    private int queueCapacity;
+
+    /*
+     * INSERT 한번에 기록할 최대 건수
+     * */
+    @Value("${upload.catalog.batch-size:200}")
+    private int batchSize;
+
+    /*
+     * 목록 조회 한번의 최대 건수
+     * */
+    @Value("${upload.catalog.max-page-size:500}")
+    private int maxPageSize;
+
+    @Autowired
+    private AudioDAO audioDAO;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private BlockingQueue<AudioDTO> queue;
+    private Thread writer;
+    private volatile boolean running;
+
+    private Counter written;
+    private Counter dropped;
+    private Counter failed;
+    private Timer batchTimer;
+
+
+    @PostConstruct
+    public void init() {
+        if (!enabled) return;
+
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        Gauge.builder("upload.catalog.queue.depth", queue, BlockingQueue::size)
+                .description("기록을 기다리는 업로드 목록 수")
+                .register(meterRegistry);
+        written = Counter.builder("upload.catalog.written").register(meterRegistry);
+        dropped = Counter.builder("upload.catalog.dropped").register(meterRegistry);
+        failed = Counter.builder("upload.catalog.failed").register(meterRegistry);
+        batchTimer = Timer.builder("upload.catalog.batch")
+                .description("목록 INSERT 한번의 실행 시간")
+                .register(meterRegistry);
+
+        running = true;
+        writer = new Thread(this::run, "audio-catalog");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    public void destroy() throws InterruptedException {
+        if (writer == null) return;
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+
+        // 남은 목록 기록
+        List<AudioDTO> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) write(batch);
+    }
+
+
+    /**
+     * 업로드 목록 기록 요청 (대기열에 넣고 바로 반환)
+     * @param source 업로드 방식
+     * @param uploadId 업로드 UUID
+     * @param key 저장소 key
+     * @param size 저장된 크기
+     * @param contentType 파일 형태
+     * @param durationMs 음성 길이 (모르면 null)
+     * @param startedAt 업로드 시작 시각 (epoch ms)
+     * */
+    public void record(UploadSource source, String uploadId, String key, long size, String contentType,
+                       Long durationMs, long startedAt) {
+        if (!enabled) return;
+
+        AudioDTO audio = new AudioDTO(uploadId, key, size, contentType, durationMs, source,
+                toDateTime(startedAt), LocalDateTime.now());
+        if (!queue.offer(audio)) {
+            dropped.increment();
+            log.warn("업로드 목록 대기열 가득 참, 기록하지 않음 : " + key);
+        }
+    }
+
+
+    /**
+     * 날짜별 업로드 목록 조회 (id 순)
+     * @param uploadDate 조회 날짜
+     * @param source 업로드 방식 (null 이면 전체)
+     * @param afterId 이전 응답의 next (null 이면 처음부터)
+     * @param limit 최대 건수 (max-page-size 까지)
+     * @return {"ok":boolean, "items":List, "next":Long} (마지막 페이지면 next 는 null)
+     * */
+    public Map<String, Object> list(LocalDate uploadDate, UploadSource source, Long afterId, int limit) {
+        int size = Math.max(1, Math.min(limit, maxPageSize));
+        List<AudioDTO> items = audioDAO.selectAudiosByDate(uploadDate, source, afterId, size);
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("ok", true);
+        body.put("items", items);
+        body.put("next", items.size() == size ? items.get(size - 1).getId() : null);
+        return body;
+    }
+
+
+    /*
+     * 대기열에 쌓인 만큼 모아서 기록 (기다리는 동안 쌓인 목록이 다음 batch 가 됨)
+     * */
+    private void run() {
+        List<AudioDTO> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                AudioDTO first = queue.poll(500, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void write(List<AudioDTO> batch) {
+        try {
+            batchTimer.record(() -> audioDAO.insertAudios(batch));
+            written.increment(batch.size());
+        } catch (RuntimeException e) {
+            failed.increment(batch.size());
+            log.error("업로드 목록 기록 오류 (" + batch.size() + "건) : " + e.getMessage());
+        } finally {
+            batch.clear();
+        }
+    }
+
+    private static LocalDateTime toDateTime(long epochMs) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMs), ZoneId.systemDefault());
+    }
+}
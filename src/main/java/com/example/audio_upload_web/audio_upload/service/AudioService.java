@@ -1,22 +1,36 @@
 package com.example.audio_upload_web.audio_upload.service;
 
-import com.example.audio_upload_web.constant.UploadPaths;
+import com.example.audio_upload_web.common.metrics.UploadMetrics;
+import com.example.audio_upload_web.common.storage.ObjectStorage;
+import com.example.audio_upload_web.common.storage.StorageUpload;
+import com.example.audio_upload_web.constant.UploadSource;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.*;
-import java.nio.file.*;
-import java.time.LocalDate;
 import java.util.*;
-import java.nio.file.StandardCopyOption;
 
 @Service
 public class AudioService {
 
     /*
-    * 최종적으로 파일이 업로드 될 위치 (두 업로드 방식 공통)
+    * 최종 파일 저장소 (로컬 저장 볼륨 또는 S3, 두 업로드 방식 공통)
     * */
-    private final Path uploadRoot = UploadPaths.uploadRoot.getPath();
+    @Autowired
+    private ObjectStorage objectStorage;
+
+    /*
+     * 단계별 처리 시간/바이트 지표
+     * */
+    @Autowired
+    private UploadMetrics uploadMetrics;
+
+    /*
+     * 업로드 목록 기록 (DB 기록은 비동기)
+     * */
+    @Autowired
+    private AudioCatalogService audioCatalogService;
     
     
 
@@ -27,23 +41,64 @@ public class AudioService {
      * @throws IOException 파일 저장 예외
      * */
     public Map<String, Object> upload(MultipartFile file, String contentType) throws IOException {
-        // 저장 (UUID 파일명)
-        String ext = guessExt(contentType); // 간단 추정: webm/ogg/wav/mp3
-        String fileName = UUID.randomUUID() + (ext != null ? "." + ext : ".webm");
-        Path dateDir = uploadRoot.resolve(LocalDate.now().toString());
-        Files.createDirectories(dateDir);
-        Path dest = dateDir.resolve(fileName);
-        Files.copy(file.getInputStream(), dest, StandardCopyOption.REPLACE_EXISTING);
+        long startedAt = System.currentTimeMillis();
+        String uploadId = UUID.randomUUID().toString();
+        try (StorageUpload upload = objectStorage.begin(fileName(uploadId, contentType))) {
+            // 업로드 스트림을 그대로 저장소에 기록 (S3 는 part 단위로 바로 전송)
+            uploadMetrics.time(UploadSource.AUDIO, "receive", () -> {
+                try (InputStream in = file.getInputStream(); OutputStream os = upload.openStream()) {
+                    return in.transferTo(os);
+                }
+            });
+            return complete(upload, uploadId, contentType, file.getSize(), startedAt);
+        }
+    }
+
+
+    /**
+     * 스트리밍 업로드 기록 시작 (요청 본문을 getPath 에 직접 기록)
+     * @param uploadId 업로드 UUID (저장 파일명)
+     * @param contentType 내용으로 확인한 파일 형태
+     * @return 기록 핸들 (호출한 쪽에서 close)
+     * @throws IOException 저장 위치 준비 예외
+     * */
+    public StorageUpload beginStream(String uploadId, String contentType) throws IOException {
+        return objectStorage.begin(fileName(uploadId, contentType));
+    }
+
+    /**
+     * 기록 완료 후 응답 생성 (일괄 / 스트리밍 업로드 공통)
+     * @param upload 기록 핸들
+     * @param uploadId 업로드 UUID
+     * @param contentType 파일 형태
+     * @param size 받은 크기
+     * @param startedAt 요청 수신 시각 (epoch ms)
+     * @throws IOException 기록 / 전송 예외
+     * */
+    public Map<String, Object> complete(StorageUpload upload, String uploadId, String contentType, long size,
+                                        long startedAt) throws IOException {
+        uploadMetrics.time(UploadSource.AUDIO, "store", upload::complete);
+        uploadMetrics.bytes(UploadSource.AUDIO, "raw", size);
+        audioCatalogService.record(UploadSource.AUDIO, uploadId, upload.getKey(), size, contentType, null, startedAt);
 
         // 응답
         return Map.of(
             "ok", true,
-            "storedPath", dest.toString(),
+            "storedPath", upload.getLocation(),
+            "key", upload.getKey(),
             "contentType", contentType,
-            "size", file.getSize()
+            "size", size
         );
     }
 
+    /*
+     * 저장 파일명 (UUID 파일명)
+     * */
+    private String fileName(String uploadId, String contentType) {
+        String ext = guessExt(contentType); // 간단 추정: webm/ogg/wav/mp3
+        return uploadId + (ext != null ? "." + ext : ".webm");
+    }
+
 
     /**
      * 파일 형식 추정
@@ -0,0 +1,48 @@
+package com.example.audio_upload_web.audio_upload.web;
+
+import com.example.audio_upload_web.audio_upload.service.AudioCatalogService;
+import com.example.audio_upload_web.constant.UploadSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.util.Locale;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/audio/catalog")
+public class AudioCatalogRestController {
+
+    @Autowired
+    private AudioCatalogService audioCatalogService;
+
+
+    /**
+     * 날짜별 업로드 목록 조회 (id 순, 다음 페이지는 응답의 next 를 after 로 전달)
+     * @param date 조회 날짜 (yyyy-MM-dd)
+     * @param source 업로드 방식 (AUDIO, COMPRESSION, REAL_TIME, RTC / 없으면 전체)
+     * @param after 이전 응답의 next
+     * @param limit 최대 건수
+     * @return {"ok":boolean, "items":List, "next":Long}
+     * */
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> list(@RequestParam("date") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+                                                    @RequestParam(value = "source", required = false) String source,
+                                                    @RequestParam(value = "after", required = false) Long after,
+                                                    @RequestParam(value = "limit", defaultValue = "100") int limit) {
+        UploadSource uploadSource = null;
+        if (source != null && !source.isBlank()) {
+            try {
+                uploadSource = UploadSource.valueOf(source.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().body(Map.of("ok", false, "error", "잘못된 source"));
+            }
+        }
+        return ResponseEntity.ok(audioCatalogService.list(date, uploadSource, after, limit));
+    }
+}
@@ -0,0 +1,459 @@
+package com.example.audio_upload_web.audio_upload.web;
+
+import com.example.audio_upload_web.audio_upload.service.AudioService;
+import com.example.audio_upload_web.common.io.AudioSniffer;
+import com.example.audio_upload_web.common.io.BufferPool;
+import com.example.audio_upload_web.common.metrics.UploadMetrics;
+import com.example.audio_upload_web.common.ratelimit.RateLimiter;
+import com.example.audio_upload_web.common.storage.StorageUpload;
+import com.example.audio_upload_web.constant.UploadSource;
+import com.example.audio_upload_web.exception.RateLimitedException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.CompletionHandler;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * 음성 파일 스트리밍 업로드 (POST /audio/stream, StreamUploadConfiguration 에서 등록)<br/>
+ * multipart 업로드(/audio)는 컨테이너가 본문 전체를 임시 파일에 기록한 뒤 다시 최종 위치로 복사하므로,
+ * 큰 파일은 요청 본문(multipart 아님)을 받는 즉시 최종 파일에 기록함
+ *
+ * <pre>
+ * 요청 : Content-Type = audio/* 또는 application/octet-stream, 본문 = 파일 내용
+ * 응답 : /audio 와 같음 ({"ok":true, "storedPath", "contentType", "size"})
+ *        400 빈 파일, 413 크기 초과, 415 오디오 아님, 408 시간 초과, 429 전송량 초과
+ *
+ * 읽기 : 비동기 servlet I/O (데이터가 도착했을 때만 읽으므로 느린 클라이언트를 기다리는 스레드가 없음)
+ * 기록 : 버퍼 두 개를 번갈아 사용 (하나를 AsynchronousFileChannel 로 기록하는 동안 다른 하나에 읽음)
+ *        두 버퍼가 모두 차면 기록이 끝날 때까지 읽지 않음 (클라이언트 전송은 TCP 흐름 제어로 늦춰짐)
+ * 검사 : 앞부분으로 형식 확인 후 저장소를 열고 (Content-Type 은 확인된 형식으로 응답), 받은 크기가 max-bytes 를 넘으면 바로 중단
+ * 제한 : RateLimitFilter 가 Content-Length 로 미리 사용하지 못한 크기(chunked 전송 등)는 받는 대로 클라이언트 전송량에서 사용,
+ *        한도를 넘으면 남은 본문은 읽지 않고 429
+ * 실패 / 연결 끊김 시 기록한 내용은 버림
+ * </pre>
+ * */
+@Component
+@Log4j2
+public class AudioStreamServlet extends HttpServlet {
+
+    /*
+     * 최대 파일 크기
+     * */
+    @Value("${upload.audio-stream.max-bytes:1073741824}")
+    private long maxBytes;
+
+    /*
+     * 요청 하나의 최대 처리 시간 (전송 시작부터 응답까지)
+     * */
+    @Value("${upload.audio-stream.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    /*
+     * 파일 기록 완료 처리 스레드 수 (기록 중에만 사용되므로 요청 수와 관계없음)
+     * */
+    @Value("${upload.audio-stream.io-threads:4}")
+    private int ioThreads;
+
+    @Autowired
+    private AudioService audioService;
+
+    @Autowired
+    private UploadMetrics uploadMetrics;
+
+    @Autowired
+    private BufferPool bufferPool;
+
+    @Autowired
+    private RateLimiter rateLimiter;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final ThreadPoolTaskExecutor io = new ThreadPoolTaskExecutor();
+
+
+    @PostConstruct
+    public void initExecutor() {
+        io.setCorePoolSize(ioThreads);
+        io.setMaxPoolSize(ioThreads);
+        io.setThreadNamePrefix("audio-stream-");
+        io.initialize();
+    }
+
+    @PreDestroy
+    public void destroyExecutor() {
+        io.shutdown();
+    }
+
+
+    @Override
+    protected void doPost(HttpServletRequest req, HttpServletResponse res) throws IOException {
+        // 검증 (본문을 읽기 전에 확인 가능한 것)
+        String contentType = req.getContentType() == null ? null
+                : req.getContentType().split(";", 2)[0].trim().toLowerCase(Locale.ROOT); // 예: audio/webm;codecs=opus
+        if (contentType == null || !(contentType.startsWith("audio/") || contentType.equals("application/octet-stream"))) {
+            write(res, HttpServletResponse.SC_UNSUPPORTED_MEDIA_TYPE, "오디오 파일만 허용");
+            return;
+        }
+        long length = req.getContentLengthLong();
+        if (length == 0) {
+            write(res, HttpServletResponse.SC_BAD_REQUEST, "빈 파일");
+            return;
+        }
+        if (length > maxBytes) {
+            write(res, HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE, "파일 크기 초과");
+            return;
+        }
+
+        AsyncContext async = req.startAsync();
+        async.setTimeout(timeoutMs);
+        String client = rateLimiter.clientKey(req::getHeader, req.getRemoteAddr());
+        Ingest ingest = new Ingest(async, req.getInputStream(), client, Math.max(length, 0));
+        async.addListener(ingest);
+        req.getInputStream().setReadListener(ingest);
+    }
+
+
+    private void write(HttpServletResponse res, int status, String error) throws IOException {
+        write(res, status, Map.of("ok", false, "error", error));
+    }
+
+    private void write(HttpServletResponse res, int status, Map<String, Object> body) throws IOException {
+        res.setStatus(status);
+        if (status >= 400) res.setHeader(HttpHeaders.CONNECTION, "close"); // 남은 본문은 받지 않음
+        res.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(res.getOutputStream(), body);
+    }
+
+
+    /*
+     * 요청 하나의 수신 / 기록 상태 (this 로 잠금)
+     * 읽기는 컨테이너 스레드(onDataAvailable) 또는 기록 완료 스레드(버퍼가 모두 차서 멈췄던 경우)에서만 하며 동시에 하지 않음
+     * */
+    private class Ingest implements ReadListener, AsyncListener, CompletionHandler<Integer, ByteBuffer> {
+
+        private final AsyncContext async;
+        private final ServletInputStream in;
+        private final Timer.Sample sample = uploadMetrics.start();
+        private final long startedAt = System.currentTimeMillis();
+        private final String uploadId = UUID.randomUUID().toString();
+
+        /*
+         * 요청 제한 클라이언트 키, 전송량 제한에 사용한 크기 (RateLimitFilter 가 Content-Length 만큼 미리 사용)
+         * */
+        private final String client;
+        private long charged;
+
+        /*
+         * 읽는 중인 버퍼, 비어 있는 버퍼 (기록 중이면 null), 기록 중인 버퍼
+         * */
+        private ByteBuffer filling = bufferPool.acquire();
+        private ByteBuffer spare = bufferPool.acquire();
+        private ByteBuffer writing;
+
+        /*
+         * 받은 크기, 다음 기록 위치
+         * */
+        private long received;
+        private long position;
+
+        /*
+         * 내용으로 확인한 형식 (확인 전 null), 최종 파일 (첫 기록 시 열림)
+         * */
+        private String contentType;
+        private StorageUpload upload;
+        private AsynchronousFileChannel channel;
+
+        /*
+         * 본문 끝, 두 버퍼가 모두 차서 읽기를 멈춘 상태, 완료 / 실패로 더 이상 처리하지 않는 상태
+         * */
+        private boolean eof;
+        private boolean paused;
+        private boolean closed;
+
+
+        Ingest(AsyncContext async, ServletInputStream in, String client, long charged) {
+            this.async = async;
+            this.in = in;
+            this.client = client;
+            this.charged = charged;
+        }
+
+
+        @Override
+        public synchronized void onDataAvailable() {
+            try {
+                pump();
+            } catch (IOException | RuntimeException e) {
+                fail(e);
+            }
+        }
+
+        @Override
+        public synchronized void onAllDataRead() {
+            try {
+                allRead();
+            } catch (IOException | RuntimeException e) {
+                fail(e);
+            }
+        }
+
+        @Override
+        public synchronized void onError(Throwable t) {
+            // 클라이언트 연결 끊김 등 (응답할 수 없으므로 정리만 함)
+            if (closed) return;
+            closed = true;
+            log.debug("스트리밍 업로드 수신 오류 : " + t.getMessage());
+            uploadMetrics.error(t instanceof Exception e ? e : new IOException(t));
+            io.execute(() -> close(null, 0));
+        }
+
+
+        /*
+         * 읽을 수 있는 만큼 읽음 (두 버퍼가 모두 차면 멈추고, 기록 완료 시 이어서 읽음)
+         * */
+        private void pump() throws IOException {
+            while (!closed) {
+                if (!filling.hasRemaining() && !flush()) {
+                    paused = true;
+                    return;
+                }
+                if (in.isFinished()) {
+                    allRead();
+                    return;
+                }
+                // false 이면 데이터가 도착했을 때 onDataAvailable 이 다시 호출됨
+                if (!in.isReady()) return;
+
+                int n = in.read(filling.array(), filling.arrayOffset() + filling.position(), filling.remaining());
+                if (n < 0) {
+                    allRead();
+                    return;
+                }
+                filling.position(filling.position() + n);
+                received += n;
+                if (received > maxBytes) {
+                    reject(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE, "파일 크기 초과");
+                    return;
+                }
+                if (received > charged) {
+                    long wait = rateLimiter.acquireBytes(client, received - charged);
+                    if (wait > 0) {
+                        limited(wait);
+                        return;
+                    }
+                    charged = received;
+                }
+                if (contentType == null && received >= AudioSniffer.SNIFF_BYTES && !sniff()) return;
+            }
+        }
+
+        private void allRead() throws IOException {
+            if (eof || closed) return;
+            eof = true;
+            uploadMetrics.stop(sample, UploadSource.AUDIO, "receive");
+            if (received == 0) {
+                reject(HttpServletResponse.SC_BAD_REQUEST, "빈 파일");
+                return;
+            }
+            if (contentType == null && !sniff()) return; // SNIFF_BYTES 보다 짧은 파일
+            if (writing == null) drain();
+        }
+
+        /*
+         * 형식 확인 (첫 기록 전이므로 앞부분은 항상 filling 의 처음에 있음)
+         * */
+        private boolean sniff() {
+            contentType = AudioSniffer.sniff(filling.array(), filling.arrayOffset(), filling.position());
+            if (contentType != null) return true;
+            reject(HttpServletResponse.SC_UNSUPPORTED_MEDIA_TYPE, "오디오 파일만 허용");
+            return false;
+        }
+
+        /*
+         * 채운 버퍼 기록 시작
+         * @return 이미 기록 중이면 false
+         * */
+        private boolean flush() throws IOException {
+            if (writing != null) return false;
+            if (channel == null) {
+                upload = audioService.beginStream(uploadId, contentType);
+                channel = AsynchronousFileChannel.open(upload.getPath(), Set.of(StandardOpenOption.CREATE,
+                        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING), io.getThreadPoolExecutor());
+            }
+            writing = filling.flip();
+            filling = spare;
+            spare = null;
+            channel.write(writing, position, writing, this);
+            return true;
+        }
+
+        /*
+         * 본문을 모두 받은 뒤 남은 내용 기록 또는 완료
+         * */
+        private void drain() throws IOException {
+            if (filling.position() > 0) flush();
+            else finish();
+        }
+
+
+        @Override
+        public synchronized void completed(Integer n, ByteBuffer buf) {
+            if (closed) {
+                bufferPool.release(buf);
+                return;
+            }
+            position += n;
+            try {
+                if (buf.hasRemaining()) {
+                    channel.write(buf, position, buf, this);
+                    return;
+                }
+                writing = null;
+                spare = buf.clear();
+                if (eof) {
+                    drain();
+                } else if (paused) {
+                    paused = false;
+                    pump();
+                }
+            } catch (IOException | RuntimeException e) {
+                fail(e);
+            }
+        }
+
+        @Override
+        public synchronized void failed(Throwable t, ByteBuffer buf) {
+            if (closed) {
+                bufferPool.release(buf);
+                return;
+            }
+            writing = null;
+            spare = buf;
+            fail(t instanceof Exception e ? e : new IOException(t));
+        }
+
+
+        /*
+         * 기록 완료 후 응답 (원격 저장소는 남은 구간 전송을 기다리므로 기록 완료 스레드에서 처리)
+         * */
+        private void finish() {
+            closed = true;
+            io.execute(() -> {
+                Map<String, Object> body;
+                try {
+                    channel.close();
+                    body = audioService.complete(upload, uploadId, contentType, received, startedAt);
+                } catch (IOException | RuntimeException e) {
+                    uploadMetrics.error(e);
+                    log.warn("스트리밍 업로드 저장 실패 : " + e.getMessage());
+                    close(Map.of("ok", false, "error", "저장 실패"), HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+                    return;
+                }
+                close(body, HttpServletResponse.SC_OK);
+            });
+        }
+
+        /*
+         * 본문 검사 실패 (남은 본문은 읽지 않음)
+         * */
+        private void reject(int status, String error) {
+            if (closed) return;
+            closed = true;
+            io.execute(() -> close(Map.of("ok", false, "error", error), status));
+        }
+
+        /*
+         * 전송량 초과 (ApiExceptionHandler 와 같은 형식, 남은 본문은 읽지 않음)
+         * */
+        private void limited(long wait) {
+            if (closed) return;
+            closed = true;
+            RateLimitedException e = new RateLimitedException(wait);
+            uploadMetrics.error(e);
+            io.execute(() -> {
+                ((HttpServletResponse) async.getResponse()).setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()));
+                close(Map.of("ok", false, "error", e.getMessage(), "retryAfter", e.getRetryAfterSeconds(), "retryAfterMs", wait),
+                        HttpServletResponse.SC_TOO_MANY_REQUESTS);
+            });
+        }
+
+        private void fail(Exception e) {
+            if (closed) return;
+            uploadMetrics.error(e);
+            log.warn("스트리밍 업로드 기록 실패 : " + e.getMessage());
+            closed = true;
+            io.execute(() -> close(Map.of("ok", false, "error", "저장 실패"), HttpServletResponse.SC_INTERNAL_SERVER_ERROR));
+        }
+
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            synchronized (this) {
+                if (closed) return;
+                closed = true;
+            }
+            close(Map.of("ok", false, "error", "시간 초과"), HttpServletResponse.SC_REQUEST_TIMEOUT);
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {}
+
+        @Override
+        public void onError(AsyncEvent event) {}
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {}
+
+
+        /*
+         * 응답 후 정리 (closed 이후 한번만 호출됨, 완료되지 않은 기록은 버림)
+         * */
+        private void close(Map<String, Object> body, int status) {
+            ByteBuffer a, b;
+            synchronized (this) {
+                a = filling;
+                b = spare;
+                filling = spare = null;
+            }
+            try {
+                if (body != null) write((HttpServletResponse) async.getResponse(), status, body);
+            } catch (IOException | RuntimeException e) {
+                log.debug("스트리밍 업로드 응답 실패 : " + e.getMessage());
+            } finally {
+                try {
+                    if (channel != null) channel.close();
+                } catch (IOException ignore) {}
+                if (upload != null) upload.close();
+                bufferPool.release(a);
+                bufferPool.release(b);
+                async.complete();
+            }
+        }
+    }
+}
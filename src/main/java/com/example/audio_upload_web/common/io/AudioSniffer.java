@@ -0,0 +1,48 @@
+package com.example.audio_upload_web.common.io;
+
+/**
+ * 파일 앞부분(magic number)으로 오디오 형식 확인<br/>
+ * 클라이언트가 보낸 Content-Type 대신 실제 내용으로 판단하기 위함
+ *
+ * <pre>
+ * audio/webm : 1A 45 DF A3 (EBML, WebM / Matroska)
+ * audio/ogg  : "OggS"
+ * audio/wav  : "RIFF" ???? "WAVE"
+ * audio/mpeg : "ID3" 또는 MPEG 프레임 동기 (11 bit)
+ * </pre>
+ * */
+public final class AudioSniffer {
+
+    /*
+     * 형식 확인에 필요한 byte 수
+     * */
+    public static final int SNIFF_BYTES = 12;
+
+    private AudioSniffer() {}
+
+
+    /**
+     * 형식 확인
+     * @param head 파일 앞부분
+     * @param off 시작 위치
+     * @param len 길이 (SNIFF_BYTES 보다 짧으면 확인 가능한 형식만 확인)
+     * @return Content-Type (알 수 없는 형식이면 null)
+     * */
+    public static String sniff(byte[] head, int off, int len) {
+        if (starts(head, off, len, 0, 0x1A, 0x45, 0xDF, 0xA3)) return "audio/webm";
+        if (starts(head, off, len, 0, 'O', 'g', 'g', 'S')) return "audio/ogg";
+        if (starts(head, off, len, 0, 'R', 'I', 'F', 'F') && starts(head, off, len, 8, 'W', 'A', 'V', 'E')) return "audio/wav";
+        if (starts(head, off, len, 0, 'I', 'D', '3')) return "audio/mpeg";
+        if (len >= 2 && (head[off] & 0xFF) == 0xFF && (head[off + 1] & 0xE0) == 0xE0) return "audio/mpeg";
+        return null;
+    }
+
+
+    private static boolean starts(byte[] head, int off, int len, int at, int... magic) {
+        if (len < at + magic.length) return false;
+        for (int i = 0; i < magic.length; i++) {
+            if ((head[off + at + i] & 0xFF) != magic[i]) return false;
+        }
+        return true;
+    }
+}
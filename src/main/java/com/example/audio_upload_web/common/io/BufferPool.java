@@ -0,0 +1,71 @@
+package com.example.audio_upload_web.common.io;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * 청크 처리용 버퍼 풀<br/>
+ * 요청마다 버퍼를 새로 할당하지 않고 재사용하기 위함
+ * */
+@Component
+public class BufferPool {
+
+    /*
+     * 버퍼 하나의 크기
+     * */
+    private final int bufferSize;
+
+    /*
+     * 반납된 버퍼 보관소 (가득 차면 반납된 버퍼는 버림)
+     * */
+    private final BlockingQueue<ByteBuffer> pool;
+
+    /*
+     * 반납된 direct 버퍼 보관소 (파일 채널 기록용, 할당 비용이 크므로 따로 보관)
+     * */
+    private final BlockingQueue<ByteBuffer> directPool;
+
+
+    public BufferPool(@Value("${upload.buffer.size:65536}") int bufferSize,
+                      @Value("${upload.buffer.max-pooled:256}") int maxPooled) {
+        this.bufferSize = bufferSize;
+        this.pool = new ArrayBlockingQueue<>(maxPooled);
+        this.directPool = new ArrayBlockingQueue<>(maxPooled);
+    }
+
+
+    /**
+     * 버퍼 대여 (position 0, limit = capacity 상태)
+     * @return 힙 버퍼 (array() 사용 가능)
+     * */
+    public ByteBuffer acquire() {
+        ByteBuffer buf = pool.poll();
+        return buf != null ? buf.clear() : ByteBuffer.allocate(bufferSize);
+    }
+
+
+    /**
+     * direct 버퍼 대여 (position 0, limit = capacity 상태)<br/>
+     * 파일 채널에 기록할 때 JVM 내부 임시 버퍼로 한번 더 복사되지 않음
+     * @return direct 버퍼 (array() 사용 불가)
+     * */
+    public ByteBuffer acquireDirect() {
+        ByteBuffer buf = directPool.poll();
+        return buf != null ? buf.clear() : ByteBuffer.allocateDirect(bufferSize);
+    }
+
+
+    /**
+     * 버퍼 반납 (힙 / direct 버퍼 모두)
+     * @param buf 대여했던 버퍼
+     * */
+    public void release(ByteBuffer buf) {
+        if (buf == null || buf.capacity() != bufferSize) return;
+        if (buf.isDirect()) directPool.offer(buf);
+        else pool.offer(buf);
+    }
+}
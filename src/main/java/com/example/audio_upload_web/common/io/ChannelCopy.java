@@ -0,0 +1,61 @@
+package com.example.audio_upload_web.common.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * 입력 스트림을 direct 버퍼 여러 개에 나누어 읽은 뒤 한번의 gathering write 로 기록함<br/>
+ * 청크 하나를 기록하는 write 호출 수를 버퍼 개수만큼 줄이기 위함
+ * */
+public final class ChannelCopy {
+
+    private ChannelCopy() {}
+
+
+    /**
+     * 복사
+     * @param in 입력 스트림 (닫지 않음)
+     * @param out 기록할 채널 (현재 위치부터 기록)
+     * @param pool 버퍼 풀
+     * @param gather 한번에 기록할 버퍼 개수
+     * @return 기록한 byte 수
+     * @throws IOException 읽기 / 기록 예외
+     * */
+    public static long copy(InputStream in, GatheringByteChannel out, BufferPool pool, int gather) throws IOException {
+        // FileInputStream 이면 파일 채널을 그대로 사용하므로 힙 배열을 거치지 않음
+        ReadableByteChannel src = Channels.newChannel(in);
+        ByteBuffer[] bufs = new ByteBuffer[Math.max(1, gather)];
+        for (int i = 0; i < bufs.length; i++) bufs[i] = pool.acquireDirect();
+
+        try {
+            long written = 0;
+            while (true) {
+                // 버퍼를 모두 채우거나 입력이 끝날 때까지 읽음
+                int used = 0;
+                boolean eof = false;
+                while (used < bufs.length) {
+                    if (src.read(bufs[used]) < 0) {
+                        eof = true;
+                        break;
+                    }
+                    if (!bufs[used].hasRemaining()) used++;
+                }
+                if (used < bufs.length && bufs[used].position() > 0) used++;
+
+                long len = 0;
+                for (int i = 0; i < used; i++) len += bufs[i].flip().remaining();
+                for (long left = len; left > 0; ) left -= out.write(bufs, 0, used);
+                written += len;
+
+                if (eof) return written;
+                for (ByteBuffer buf : bufs) buf.clear();
+            }
+        } finally {
+            for (ByteBuffer buf : bufs) pool.release(buf);
+        }
+    }
+}
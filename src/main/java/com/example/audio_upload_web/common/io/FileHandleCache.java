@@ -0,0 +1,155 @@
+package com.example.audio_upload_web.common.io;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Objects;
+
+/**
+ * 다운로드용 열린 파일 채널 캐시 (최근 사용 순, 최대 open-files 개)<br/>
+ * 브라우저의 재생 위치 이동처럼 같은 파일에 Range 요청이 이어질 때 매번 열고 닫지 않도록 함
+ *
+ * <pre>
+ * - 요청마다 파일 속성(크기, 수정 시각, inode)을 확인하여 바뀐 파일이면 다시 엶
+ * - 캐시와 사용중인 요청이 참조 수를 나누어 가지며, 캐시에서 밀려나도 사용중이면 사용이 끝난 뒤 닫음
+ * - 채널은 위치 지정 읽기(transferTo(position, ...))로만 사용하므로 여러 요청이 함께 사용 가능
+ * </pre>
+ * */
+@Component
+@Log4j2
+public class FileHandleCache {
+
+    private final int maxOpen;
+
+    /*
+     * 경로 -> 열린 파일 (접근 순서, 객체를 잠근 상태로만 접근)
+     * */
+    private final LinkedHashMap<Path, Handle> handles = new LinkedHashMap<>(16, 0.75f, true);
+
+
+    public FileHandleCache(@Value("${upload.download.open-files:256}") int maxOpen) {
+        this.maxOpen = Math.max(0, maxOpen);
+    }
+
+    @PreDestroy
+    public synchronized void destroy() {
+        handles.values().forEach(Handle::release);
+        handles.clear();
+    }
+
+
+    /**
+     * 파일 채널 조회 (없거나 바뀐 파일이면 새로 엶)
+     * @param path 파일 경로
+     * @return 열린 파일 (사용 후 close)
+     * @throws NoSuchFileException 파일 미존재 (일반 파일이 아닌 경우 포함)
+     * @throws IOException 파일 열기 예외
+     * */
+    public Handle acquire(Path path) throws IOException {
+        BasicFileAttributes attrs = Files.readAttributes(path, BasicFileAttributes.class);
+        if (!attrs.isRegularFile()) throw new NoSuchFileException(path.toString());
+        synchronized (this) {
+            Handle cached = handles.get(path);
+            if (cached != null && cached.matches(attrs)) {
+                cached.refs++;
+                return cached;
+            }
+        }
+
+        Handle opened = new Handle(FileChannel.open(path, StandardOpenOption.READ), attrs);
+        synchronized (this) {
+            // 캐시와 호출한 쪽의 참조
+            opened.refs = 2;
+            Handle old = handles.put(path, opened);
+            if (old != null) old.release();
+
+            Iterator<Handle> it = handles.values().iterator();
+            while (handles.size() > maxOpen && it.hasNext()) {
+                Handle eldest = it.next();
+                it.remove();
+                eldest.release();
+            }
+        }
+        return opened;
+    }
+
+    public synchronized int size() {
+        return handles.size();
+    }
+
+
+    /**
+     * 열린 파일 (close 는 참조 해제, 마지막 참조일 때 채널을 닫음)
+     * */
+    public class Handle implements AutoCloseable {
+
+        private final FileChannel channel;
+        private final long size;
+        private final long lastModified;
+        private final Object fileKey;
+
+        /*
+         * 캐시 + 사용중인 요청 수 (FileHandleCache 를 잠근 상태로만 접근)
+         * */
+        private int refs;
+
+        private Handle(FileChannel channel, BasicFileAttributes attrs) {
+            this.channel = channel;
+            this.size = attrs.size();
+            this.lastModified = attrs.lastModifiedTime().toMillis();
+            this.fileKey = attrs.fileKey();
+        }
+
+        public FileChannel getChannel() {
+            return channel;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        public long getLastModified() {
+            return lastModified;
+        }
+
+        /**
+         * 파일 내용이 바뀌면 달라지는 값 (크기 + 수정 시각)
+         * */
+        public String getETag() {
+            return "\"" + Long.toHexString(size) + "-" + Long.toHexString(lastModified) + "\"";
+        }
+
+        @Override
+        public void close() {
+            synchronized (FileHandleCache.this) {
+                release();
+            }
+        }
+
+        private boolean matches(BasicFileAttributes attrs) {
+            return attrs.size() == size
+                    && attrs.lastModifiedTime().toMillis() == lastModified
+                    && Objects.equals(attrs.fileKey(), fileKey);
+        }
+
+        private void release() {
+            if (--refs > 0) return;
+            try {
+                channel.close();
+            } catch (IOException e) {
+                log.warn("다운로드 파일 닫기 오류 : " + e.getMessage());
+            }
+        }
+    }
+}
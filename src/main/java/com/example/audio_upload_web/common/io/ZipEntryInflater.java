@@ -0,0 +1,61 @@
+package com.example.audio_upload_web.common.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipInputStream;
+
+/**
+ * 파일 하나만 담긴 zip 을 메모리에 모으지 않고 대상 채널로 바로 압축 해제함
+ * */
+public final class ZipEntryInflater {
+
+    private ZipEntryInflater() {}
+
+
+    /**
+     * 압축 해제 (스트리밍)<br/>
+     * 파일이 여러 개이거나 해제된 크기가 제한을 넘으면 읽는 도중 중단함
+     * @param zipped 압축된 데이터
+     * @param out 압축 해제한 데이터를 기록할 채널
+     * @param pool 버퍼 풀
+     * @param maxBytes 압축 해제 후 허용 최대 크기
+     * @return 기록한 byte 수
+     * @throws ZipException 빈 압축 파일, 여러 파일 포함, 크기 초과 예외
+     * @throws IOException 압축 해제 및 기록 예외
+     * */
+    public static long inflateSingleEntry(InputStream zipped, WritableByteChannel out,
+                                          BufferPool pool, long maxBytes) throws IOException {
+        ByteBuffer buf = pool.acquire();
+        try (ZipInputStream zis = new ZipInputStream(zipped)) {
+            byte[] arr = buf.array();
+            boolean found = false;
+            long written = 0;
+
+            ZipEntry entry;
+            while ((entry = zis.getNextEntry()) != null) {
+                if (entry.isDirectory()) continue;
+                if (found) throw new ZipException("압축 파일에 여러 파일이 포함되어 있습니다. " + entry.getName());
+                if (entry.getSize() > maxBytes) throw new ZipException("압축 해제 크기 초과 : " + entry.getSize());
+                found = true;
+
+                int len;
+                while ((len = zis.read(arr, 0, arr.length)) > 0) {
+                    written += len;
+                    if (written > maxBytes) throw new ZipException("압축 해제 크기 초과 : " + written);
+
+                    buf.clear().limit(len);
+                    while (buf.hasRemaining()) out.write(buf);
+                }
+            }
+
+            if (!found) throw new ZipException("파일이 존재하지 않습니다.");
+            return written;
+        } finally {
+            pool.release(buf);
+        }
+    }
+}
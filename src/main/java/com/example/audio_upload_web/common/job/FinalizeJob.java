@@ -0,0 +1,174 @@
+package com.example.audio_upload_web.common.job;
+
+import com.example.audio_upload_web.constant.UploadSource;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * 비동기 finalize 작업 하나의 진행 상태<br/>
+ * 상태 조회(/jobs/{jobId}) 및 SSE(/jobs/{jobId}/events) 응답에 사용
+ * */
+public class FinalizeJob {
+
+    /*
+     * 작업 상태
+     *
+     * 1. QUEUED : 작업 대기열에서 대기중
+     * 2. RUNNING : 병합/변환 처리중
+     * 3. DONE : 처리 완료 (result 사용 가능)
+     * 4. FAILED : 처리 실패 (error 사용 가능)
+     * */
+    public enum State { QUEUED, RUNNING, DONE, FAILED }
+
+    private final String jobId = UUID.randomUUID().toString();
+    private final String uploadId;
+    private final UploadSource source;
+
+    private State state = State.QUEUED;
+    private String stage = "QUEUED";
+    private long processedMs;
+    private Map<String, Object> result;
+    private String error;
+
+    /*
+     * SSE 구독자들
+     * */
+    private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+
+
+    FinalizeJob(String uploadId, UploadSource source) {
+        this.uploadId = uploadId;
+        this.source = source;
+    }
+
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    public String getUploadId() {
+        return uploadId;
+    }
+
+    public UploadSource getSource() {
+        return source;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * 변환된 음성 길이 (ffmpeg 진행 시간 / JVM remux 결과, 알 수 없으면 0)
+     * */
+    public synchronized long getProcessedMs() {
+        return processedMs;
+    }
+
+
+    /**
+     * 처리 단계 변경 (예: WAITING_CHUNKS, TRANSCODING)
+     * @param stage 단계명
+     * */
+    public void stage(String stage) {
+        synchronized (this) {
+            this.state = State.RUNNING;
+            this.stage = stage;
+        }
+        publish("progress");
+    }
+
+
+    /**
+     * ffmpeg 변환 진행 시간 갱신
+     * @param processedMs 변환된 음성 길이 (ms)
+     * */
+    public void progress(long processedMs) {
+        synchronized (this) {
+            this.processedMs = processedMs;
+        }
+        publish("progress");
+    }
+
+
+    void complete(Map<String, Object> result) {
+        synchronized (this) {
+            this.state = State.DONE;
+            this.stage = "DONE";
+            this.result = result;
+        }
+        publish("done");
+        emitters.forEach(SseEmitter::complete);
+        emitters.clear();
+    }
+
+    void fail(Throwable e) {
+        synchronized (this) {
+            this.state = State.FAILED;
+            this.stage = "FAILED";
+            this.error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+        }
+        publish("failed");
+        emitters.forEach(SseEmitter::complete);
+        emitters.clear();
+    }
+
+
+    /**
+     * SSE 구독 등록 (이미 끝난 작업이면 마지막 상태만 보내고 종료)
+     * @param emitter SSE 연결
+     * */
+    void subscribe(SseEmitter emitter) {
+        emitter.onCompletion(() -> emitters.remove(emitter));
+        emitter.onTimeout(() -> emitters.remove(emitter));
+        emitters.add(emitter);
+
+        State current = getState();
+        String event = current == State.DONE ? "done" : current == State.FAILED ? "failed" : "progress";
+        send(emitter, event, snapshot());
+        if (current == State.DONE || current == State.FAILED) {
+            emitters.remove(emitter);
+            emitter.complete();
+        }
+    }
+
+
+    /**
+     * 현재 상태 응답
+     * @return {"ok":boolean, "jobId":String, "uploadId":String, "state":String, "stage":String, "processedMs":long, "result":Map, "error":String}
+     * */
+    public synchronized Map<String, Object> snapshot() {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("ok", state != State.FAILED);
+        body.put("jobId", jobId);
+        body.put("uploadId", uploadId);
+        body.put("state", state.name());
+        body.put("stage", stage);
+        body.put("processedMs", processedMs);
+        if (result != null) body.put("result", result);
+        if (error != null) body.put("error", error);
+        return body;
+    }
+
+
+    private void publish(String event) {
+        if (emitters.isEmpty()) return;
+        Map<String, Object> body = snapshot();
+        for (SseEmitter emitter : emitters) send(emitter, event, body);
+    }
+
+    private void send(SseEmitter emitter, String event, Map<String, Object> body) {
+        try {
+            emitter.send(SseEmitter.event().name(event).data(body));
+        } catch (IOException | IllegalStateException e) {
+            // 연결이 끊긴 구독자 제거
+            emitters.remove(emitter);
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.audio_upload_web.common.job;
+
+import com.example.audio_upload_web.common.transcode.TranscodeScheduler;
+import com.example.audio_upload_web.constant.UploadSource;
+import com.example.audio_upload_web.exception.TranscodeBusyException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * finalize 작업을 요청 스레드(Tomcat)와 분리된 작업 스레드에서 처리함<br/>
+ * 요청은 작업 id만 받아 바로 반환되고, 결과는 상태 조회/SSE로 전달됨
+ * */
+@Service
+@Log4j2
+public class FinalizeJobService {
+
+    /*
+     * finalize 작업 스레드 수
+     * */
+    @Value("${upload.finalize.workers:#{T(java.lang.Runtime).getRuntime().availableProcessors()}}")
+    private int workers;
+
+    /*
+     * 전역 변환 실행 제한 (ffmpeg / ffprobe 실행만 제한하며, 접수된 작업이 가득 차면 등록 거절)
+     * */
+    @Autowired
+    private TranscodeScheduler transcodeScheduler;
+
+    /*
+     * 끝난 작업의 상태를 남겨둘 시간
+     * */
+    @Value("${upload.finalize.job-retention-ms:600000}")
+    private long retentionMs;
+
+    /*
+     * SSE 연결 최대 유지 시간
+     * */
+    @Value("${upload.finalize.sse-timeout-ms:300000}")
+    private long sseTimeoutMs;
+
+    /*
+     * jobId -> 작업
+     * */
+    private final Map<String, FinalizeJob> jobs = new ConcurrentHashMap<>();
+
+    private final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+
+    /*
+     * 끝난 작업 상태를 제거하기 위한 스레드 스케줄러
+     * */
+    private final ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+
+
+    @PostConstruct
+    public void init() {
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setThreadNamePrefix("finalize-");
+        executor.initialize();
+
+        scheduler.setPoolSize(1);
+        scheduler.initialize();
+    }
+
+    @PreDestroy
+    public void destroy() {
+        executor.shutdown();
+        scheduler.shutdown();
+    }
+
+
+
+    /**
+     * finalize 작업 등록<br/>
+     * 선행 조건이 끝날 때까지는 작업 스레드를 사용하지 않고 WAITING_CHUNKS 단계로 남아 있으며,
+     * 조건이 끝나면(실패 / 시간 초과 포함) 작업 스레드에서 task 를 실행함 (조건의 결과 확인은 task 에서 처리)
+     * @param uploadId 업로드 될 파일의 UUID값
+     * @param source 업로드 방식
+     * @param ready 선행 조건 (모든 청크가 stream 파일에 이어붙여짐)
+     * @param task 작업 본문
+     * @return 등록된 작업
+     * @throws TranscodeBusyException 접수된 작업(청크 대기 포함)이 가득 찬 경우
+     * */
+    public FinalizeJob submit(String uploadId, UploadSource source, CompletionStage<?> ready, FinalizeTask task) {
+        transcodeScheduler.admit();
+
+        FinalizeJob job = new FinalizeJob(uploadId, source);
+        jobs.put(job.getJobId(), job);
+        job.stage("WAITING_CHUNKS");
+
+        // 조건을 완료시킨 스레드(청크 수신, 시간 초과 타이머)에서는 작업 등록만 수행
+        ready.whenComplete((r, e) -> execute(job, task));
+        return job;
+    }
+
+
+    /**
+     * 작업 조회
+     * @param jobId 작업 id
+     * @return 작업 (없으면 null)
+     * */
+    public FinalizeJob find(String jobId) {
+        return jobs.get(jobId);
+    }
+
+
+    /**
+     * 작업 진행 상태 SSE 구독
+     * @param jobId 작업 id
+     * @return SSE 연결 (작업이 없으면 null)
+     * */
+    public SseEmitter subscribe(String jobId) {
+        FinalizeJob job = jobs.get(jobId);
+        if (job == null) return null;
+
+        SseEmitter emitter = new SseEmitter(sseTimeoutMs);
+        job.subscribe(emitter);
+        return emitter;
+    }
+
+
+    private void execute(FinalizeJob job, FinalizeTask task) {
+        try {
+            executor.execute(() -> {
+                try {
+                    job.stage("RUNNING");
+                    job.complete(task.run(job));
+                } catch (Exception e) {
+                    log.error("finalize 실패 uploadId=" + job.getUploadId() + " : " + e.getMessage());
+                    job.fail(e);
+                } finally {
+                    finish(job);
+                }
+            });
+        } catch (RuntimeException e) {
+            // 종료중인 경우
+            log.error("finalize 등록 실패 uploadId=" + job.getUploadId() + " : " + e.getMessage());
+            job.fail(e);
+            finish(job);
+        }
+    }
+
+    /*
+     * 접수 반납 후 일정 시간 뒤 상태 제거
+     * */
+    private void finish(FinalizeJob job) {
+        transcodeScheduler.complete();
+        scheduler.schedule(() -> jobs.remove(job.getJobId()),
+                new Date(System.currentTimeMillis() + retentionMs));
+    }
+}
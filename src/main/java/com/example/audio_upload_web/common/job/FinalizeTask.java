@@ -0,0 +1,17 @@
+package com.example.audio_upload_web.common.job;
+
+import java.util.Map;
+
+/**
+ * finalize 작업 본문 (작업 스레드에서 실행)
+ * */
+@FunctionalInterface
+public interface FinalizeTask {
+
+    /**
+     * @param job 진행 상태를 갱신할 작업
+     * @return 파일 병합 처리 상태 {"ok":boolean, "id":String, "key":String, "contentType":String, "size":long}
+     * @throws Exception 병합/변환 예외
+     * */
+    Map<String, Object> run(FinalizeJob job) throws Exception;
+}
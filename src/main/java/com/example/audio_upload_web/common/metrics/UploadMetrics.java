@@ -0,0 +1,167 @@
+package com.example.audio_upload_web.common.metrics;
+
+import com.example.audio_upload_web.common.storage.StorageVolumes;
+import com.example.audio_upload_web.common.storage.Volume;
+import com.example.audio_upload_web.constant.UploadSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * 업로드/finalize 단계별 지표 (/actuator/prometheus)
+ *
+ * <pre>
+ * upload.stage{source, stage} : 단계별 처리 시간 (receive, unzip, append, resume, chunk_wait, live_finish, remux_native,
+ *                               ffprobe, ffmpeg, probe_content_type, fsync)
+ * upload.bytes{source, kind} : 처리한 바이트 수 (raw, compressed, decompressed)
+ * upload.errors{exception} : 예외 종류별 발생 수
+ * upload.sessions.active : 유지중인 실시간 업로드 세션 수 (UploadSessionRegistry 에서 등록)
+ * upload.tmp.bytes : 임시 디렉터리 사용량 (임시 볼륨 전체)
+ * </pre>
+ * */
+@Component
+public class UploadMetrics {
+
+    /*
+     * 단계 실행 함수 (예외 타입을 그대로 전달)
+     * */
+    @FunctionalInterface
+    public interface Stage<T, E extends Exception> {
+        T run() throws E;
+    }
+
+    private final MeterRegistry registry;
+
+    /*
+     * 청크 파일이 임시로 저장될 볼륨들
+     * */
+    @Autowired(required = false)
+    private StorageVolumes storageVolumes;
+
+    /*
+     * 임시 디렉터리 사용량 재계산 간격 (조회마다 디렉터리를 순회하지 않도록 함)
+     * */
+    private final long tmpScanIntervalMs;
+    private volatile long tmpBytes;
+    private volatile long tmpScannedAt;
+
+    /*
+     * 태그 조합별 미터 (조회 시마다 registry 검색을 하지 않도록 보관)
+     * */
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+
+    public UploadMetrics(MeterRegistry registry,
+                         @Value("${upload.metrics.tmp-scan-interval-ms:30000}") long tmpScanIntervalMs) {
+        this.registry = registry;
+        this.tmpScanIntervalMs = tmpScanIntervalMs;
+
+        Gauge.builder("upload.tmp.bytes", this, UploadMetrics::tmpUsage)
+                .description("임시 디렉터리 사용량")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+
+    /**
+     * 단계 실행 시간 기록
+     * @param source 업로드 방식
+     * @param stage 단계명
+     * @param body 단계 실행 함수
+     * @return 실행 결과
+     * */
+    public <T, E extends Exception> T time(UploadSource source, String stage, Stage<T, E> body) throws E {
+        Timer.Sample sample = Timer.start(registry);
+        try {
+            return body.run();
+        } finally {
+            sample.stop(timer(source, stage));
+        }
+    }
+
+    /**
+     * 단계 시작 (한 메서드 안에서 일부 구간만 기록할 때 stop 과 함께 사용)
+     * */
+    public Timer.Sample start() {
+        return Timer.start(registry);
+    }
+
+    public void stop(Timer.Sample sample, UploadSource source, String stage) {
+        sample.stop(timer(source, stage));
+    }
+
+
+    /**
+     * 처리한 바이트 수 기록
+     * @param source 업로드 방식
+     * @param kind raw(압축 없음), compressed(압축 상태), decompressed(압축 해제 후)
+     * @param bytes 바이트 수
+     * */
+    public void bytes(UploadSource source, String kind, long bytes) {
+        if (bytes <= 0) return;
+        counters.computeIfAbsent("bytes:" + source + ":" + kind, k -> Counter.builder("upload.bytes")
+                        .tag("source", tag(source))
+                        .tag("kind", kind)
+                        .baseUnit("bytes")
+                        .register(registry))
+                .increment(bytes);
+    }
+
+    /**
+     * 예외 발생 수 기록
+     * @param e 발생한 예외
+     * */
+    public void error(Exception e) {
+        String type = e.getClass().getSimpleName();
+        counters.computeIfAbsent("error:" + type, k -> Counter.builder("upload.errors")
+                        .tag("exception", type)
+                        .register(registry))
+                .increment();
+    }
+
+
+    private Timer timer(UploadSource source, String stage) {
+        return timers.computeIfAbsent(source + ":" + stage, k -> Timer.builder("upload.stage")
+                .tag("source", tag(source))
+                .tag("stage", stage)
+                .publishPercentileHistogram()
+                .register(registry));
+    }
+
+    private static String tag(UploadSource source) {
+        return source.name().toLowerCase();
+    }
+
+    private double tmpUsage() {
+        long now = System.currentTimeMillis();
+        if (storageVolumes != null && now - tmpScannedAt >= tmpScanIntervalMs) {
+            tmpScannedAt = now;
+            long total = 0;
+            for (Volume volume : storageVolumes.getTmpVolumes()) {
+                try (Stream<Path> s = Files.walk(volume.getRoot())) {
+                    total += s.filter(Files::isRegularFile).mapToLong(p -> {
+                        try {
+                            return Files.size(p);
+                        } catch (IOException e) {
+                            return 0; // 순회 도중 삭제된 파일
+                        }
+                    }).sum();
+                } catch (IOException | RuntimeException ignore) {}
+            }
+            tmpBytes = total;
+        }
+        return tmpBytes;
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.audio_upload_web.common.ratelimit;
+
+import com.example.audio_upload_web.common.metrics.UploadMetrics;
+import com.example.audio_upload_web.exception.RateLimitedException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 업로드 API 요청 제한 (/audio, /compression, /real-time, /rtc 의 POST / PUT 요청, WebSocket handshake)<br/>
+ * multipart 파싱 전에 확인하여, 거절된 요청은 본문을 읽지 않고 429 로 응답함
+ * (전송량은 Content-Length 기준, handshake 는 요청 수만 사용하여 연결을 반복해서 여는 클라이언트도 제한함)<br/>
+ * Content-Length 없이 보내는 /audio/stream 본문은 AudioStreamServlet 이 받는 대로 전송량을 사용함
+ * */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final List<String> UPLOAD_PATHS = List.of("/audio", "/compression", "/real-time/", "/rtc/");
+
+    @Autowired
+    private RateLimiter rateLimiter;
+
+    @Autowired
+    private UploadMetrics uploadMetrics;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!HttpMethod.POST.matches(request.getMethod()) && !HttpMethod.PUT.matches(request.getMethod())
+                && !isWebSocketHandshake(request)) return true;
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (String prefix : UPLOAD_PATHS) {
+            if (path.startsWith(prefix)) return false;
+        }
+        return true;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String client = rateLimiter.clientKey(request::getHeader, request.getRemoteAddr());
+        long wait = rateLimiter.acquire(client, Math.max(request.getContentLengthLong(), 0));
+        if (wait == 0) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        // 429 Too Many Requests (ApiExceptionHandler 와 같은 형식)
+        RateLimitedException e = new RateLimitedException(wait);
+        uploadMetrics.error(e);
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()));
+        response.setHeader(HttpHeaders.CONNECTION, "close");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(),
+                Map.of("ok", false, "error", e.getMessage(), "retryAfter", e.getRetryAfterSeconds(), "retryAfterMs", wait));
+    }
+
+
+    private static boolean isWebSocketHandshake(HttpServletRequest request) {
+        return HttpMethod.GET.matches(request.getMethod()) && "websocket".equalsIgnoreCase(request.getHeader(HttpHeaders.UPGRADE));
+    }
+}
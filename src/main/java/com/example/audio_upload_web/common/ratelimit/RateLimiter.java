@@ -0,0 +1,223 @@
+package com.example.audio_upload_web.common.ratelimit;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.UnaryOperator;
+
+/**
+ * 클라이언트(또는 세션)별 요청 수 / 전송량 제한 (업로드 API, WebSocket handshake / 프레임 공통)<br/>
+ * 키마다 요청 수, byte 수 토큰 버킷을 하나씩 두며, 한 클라이언트가 한도를 넘겨도 다른 클라이언트의 버킷에는 영향이 없음
+ *
+ * <pre>
+ * 키 저장소는 max-keys 개까지만 유지함
+ *  - 가득 차면 가득 찬(한동안 요청이 없던) 버킷을 정리 (sweep-interval-ms 에 한번만)
+ *  - 정리 후에도 가득 차 있으면 새 키는 공용 버킷 하나를 함께 사용
+ * </pre>
+ * */
+@Component
+public class RateLimiter {
+
+    /*
+     * 제한 사용 여부
+     * */
+    @Value("${upload.rate-limit.enabled:true}")
+    private boolean enabled;
+
+    /*
+     * 키별 초당 요청 수 / 한번에 허용할 요청 수
+     * */
+    @Value("${upload.rate-limit.requests-per-sec:20}")
+    private long requestsPerSec;
+
+    @Value("${upload.rate-limit.request-burst:40}")
+    private long requestBurst;
+
+    /*
+     * 키별 초당 전송량 / 한번에 허용할 전송량
+     * */
+    @Value("${upload.rate-limit.bytes-per-sec:20971520}")
+    private long bytesPerSec;
+
+    @Value("${upload.rate-limit.byte-burst:67108864}")
+    private long byteBurst;
+
+    /*
+     * 유지할 최대 키 수 (키당 수십 byte)
+     * */
+    @Value("${upload.rate-limit.max-keys:100000}")
+    private int maxKeys;
+
+    /*
+     * 키 저장소가 가득 찼을 때 정리 최소 간격
+     * */
+    @Value("${upload.rate-limit.sweep-interval-ms:1000}")
+    private long sweepIntervalMs;
+
+    /*
+     * 프록시 뒤에서 클라이언트 주소를 담는 헤더 (예: X-Forwarded-For, 비어 있으면 접속 주소 사용)
+     * */
+    @Value("${upload.rate-limit.client-header:}")
+    private String clientHeader;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /*
+     * 키 -> 버킷
+     * */
+    private final Map<String, Limits> limits = new ConcurrentHashMap<>();
+
+    /*
+     * 키 저장소가 가득 찼을 때 새 키가 함께 사용하는 버킷
+     * */
+    private Limits overflow;
+
+    /*
+     * 마지막 정리 시각 (CAS 로 정리할 스레드 하나만 선택)
+     * */
+    private final AtomicLong lastSweep = new AtomicLong();
+
+
+    @PostConstruct
+    public void init() {
+        overflow = newLimits();
+        Gauge.builder("upload.rate_limit.keys", limits, Map::size)
+                .description("요청 제한 중인 클라이언트/세션 수")
+                .register(meterRegistry);
+    }
+
+
+    /**
+     * 요청 허용 여부 확인 (허용 시 토큰 사용)
+     * @param key 클라이언트 또는 세션 키
+     * @param bytes 요청 크기 (모르면 0)
+     * @return 0 이면 허용, 아니면 다시 시도할 수 있을 때까지의 시간 (ms)
+     * */
+    public long acquire(String key, long bytes) {
+        return acquire(bytes, key);
+    }
+
+    /**
+     * 여러 키에 함께 속한 요청의 허용 여부 확인 (예: WebSocket 프레임은 클라이언트와 세션)<br/>
+     * 모든 키에서 허용될 때만 토큰을 사용하며, 거절되면 앞의 키에서 사용한 토큰은 돌려줌
+     * @param bytes 요청 크기 (모르면 0)
+     * @param keys 요청이 속한 키들
+     * @return 0 이면 허용, 아니면 거절한 키에서 다시 시도할 수 있을 때까지의 시간 (ms)
+     * */
+    public long acquire(long bytes, String... keys) {
+        if (!enabled) return 0;
+
+        long now = System.nanoTime();
+        long size = Math.max(bytes, 0);
+        Limits[] acquired = new Limits[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            Limits l = limits(keys[i], now);
+            long wait = l.tryAcquire(size, now);
+            if (wait > 0) {
+                for (int j = 0; j < i; j++) acquired[j].refund(size);
+                return toMillis(wait);
+            }
+            acquired[i] = l;
+        }
+        return 0;
+    }
+
+    /**
+     * 이미 허용된 요청의 전송량만 추가로 확인 (요청 수는 사용하지 않음)<br/>
+     * Content-Length 없이 보내는 본문처럼 요청 허용 시 크기를 알 수 없었던 경우 받는 대로 호출
+     * @param key 클라이언트 키
+     * @param bytes 추가로 받은 크기
+     * @return 0 이면 허용, 아니면 다시 시도할 수 있을 때까지의 시간 (ms)
+     * */
+    public long acquireBytes(String key, long bytes) {
+        if (!enabled || bytes <= 0) return 0;
+
+        long now = System.nanoTime();
+        long wait = limits(key, now).bytes().tryAcquire(bytes, now);
+        return wait > 0 ? toMillis(wait) : 0;
+    }
+
+    /**
+     * 요청 제한 키로 사용할 클라이언트 주소 (client-header 가 있으면 첫번째 주소)
+     * @param headers 요청 헤더 조회 함수 (HTTP 요청 / WebSocket handshake)
+     * @param remoteAddr 접속 주소
+     * @return 클라이언트 키
+     * */
+    public String clientKey(UnaryOperator<String> headers, String remoteAddr) {
+        if (!clientHeader.isEmpty()) {
+            String forwarded = headers.apply(clientHeader);
+            if (forwarded != null && !forwarded.isBlank()) {
+                int comma = forwarded.indexOf(',');
+                return (comma < 0 ? forwarded : forwarded.substring(0, comma)).trim();
+            }
+        }
+        return remoteAddr;
+    }
+
+
+    private Limits limits(String key, long now) {
+        Limits l = limits.get(key);
+        if (l != null) return l;
+
+        if (limits.size() >= maxKeys) {
+            sweep(now);
+            if (limits.size() >= maxKeys) return overflow;
+        }
+        return limits.computeIfAbsent(key, k -> newLimits());
+    }
+
+    /*
+     * 가득 찬 버킷 정리 (새 버킷과 같으므로 지워도 제한이 풀리지 않음)
+     * */
+    private void sweep(long now) {
+        long last = lastSweep.get();
+        if (now - last < TimeUnit.MILLISECONDS.toNanos(sweepIntervalMs) && last != 0) return;
+        if (!lastSweep.compareAndSet(last, now)) return;
+        limits.values().removeIf(l -> l.requests.isIdle(now) && l.bytes.isIdle(now));
+    }
+
+    private Limits newLimits() {
+        return new Limits(new TokenBucket(requestsPerSec, requestBurst), new TokenBucket(bytesPerSec, byteBurst));
+    }
+
+    private static long toMillis(long nanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toMillis(nanos + 999_999));
+    }
+
+
+    /*
+     * 키 하나의 요청 수 / 전송량 버킷
+     * */
+    private record Limits(TokenBucket requests, TokenBucket bytes) {
+
+        /*
+         * @return 0 이면 허용, 아니면 대기 시간 (ns)
+         * */
+        long tryAcquire(long size, long now) {
+            long wait = requests.tryAcquire(1, now);
+            if (wait > 0) return wait;
+
+            wait = bytes.tryAcquire(size, now);
+            if (wait > 0) {
+                // 전송량 초과로 거절된 요청은 요청 수에서도 빼줌
+                requests.refund(1);
+                return wait;
+            }
+            return 0;
+        }
+
+        void refund(long size) {
+            requests.refund(1);
+            bytes.refund(size);
+        }
+    }
+}
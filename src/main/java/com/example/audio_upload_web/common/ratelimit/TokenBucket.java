@@ -0,0 +1,74 @@
+package com.example.audio_upload_web.common.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 잠금 없는 토큰 버킷 (GCRA)<br/>
+ * 남은 토큰 수 대신 "버킷이 가득 차는 시각" 하나만 CAS 로 갱신하므로 동시 요청에도 잠금이 필요 없고,
+ * 거절 시 허용될 때까지의 대기 시간을 정확히 계산할 수 있음
+ * */
+final class TokenBucket {
+
+    /*
+     * 토큰 하나가 채워지는 시간 (ns)
+     * */
+    private final double nanosPerToken;
+
+    /*
+     * 버킷 크기를 시간으로 환산한 값 (ns)
+     * */
+    private final long burstNanos;
+
+    /*
+     * 버킷이 가득 차는 시각 (System.nanoTime 기준, 현재보다 이전이면 가득 찬 상태)
+     * */
+    private final AtomicLong full = new AtomicLong(Long.MIN_VALUE);
+
+
+    /**
+     * @param ratePerSec 초당 채워지는 토큰 수
+     * @param burst 버킷 크기 (한번에 쓸 수 있는 최대 토큰 수)
+     * */
+    TokenBucket(long ratePerSec, long burst) {
+        this.nanosPerToken = 1_000_000_000d / ratePerSec;
+        this.burstNanos = (long) (burst * nanosPerToken);
+    }
+
+
+    /**
+     * 토큰 사용<br/>
+     * 버킷 크기보다 큰 요청은 버킷이 가득 찬 경우에만 허용하고, 이후 요청이 그만큼 더 기다림
+     * @param tokens 사용할 토큰 수
+     * @param now 현재 시각 (System.nanoTime)
+     * @return 0 이면 허용, 아니면 허용될 때까지 기다려야 하는 시간 (ns)
+     * */
+    long tryAcquire(long tokens, long now) {
+        long cost = cost(tokens);
+        while (true) {
+            long current = full.get();
+            long next = Math.max(current, now) + cost;
+            long wait = next - now - burstNanos;
+            if (wait > 0 && current > now) return Math.min(wait, current - now);
+            if (full.compareAndSet(current, next)) return 0;
+        }
+    }
+
+    /**
+     * 사용한 토큰 반환 (다른 버킷에서 거절된 경우)
+     * */
+    void refund(long tokens) {
+        full.addAndGet(-cost(tokens));
+    }
+
+    /**
+     * 가득 찬 상태 여부 (새로 만든 버킷과 같으므로 정리 대상)
+     * */
+    boolean isIdle(long now) {
+        return full.get() <= now;
+    }
+
+
+    private long cost(long tokens) {
+        return (long) (tokens * nanosPerToken);
+    }
+}
@@ -0,0 +1,230 @@
+package com.example.audio_upload_web.common.session;
+
+import com.example.audio_upload_web.common.io.BufferPool;
+import com.example.audio_upload_web.exception.AlreadyFinalizedException;
+import com.example.audio_upload_web.exception.NoSessionException;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * seq 기반 청크 재조립기 (RealTimeService, RTCService 공통)<br/>
+ * 청크가 병렬/역순으로 도착해도 seq 순서대로 stream 파일에 이어붙이며,
+ * 재전송된 청크는 무시함
+ * */
+@Component
+@Log4j2
+public class ChunkAssembler {
+
+    /*
+     * 아직 이어붙이지 못한 seq 보다 얼마나 앞선 청크까지 받아둘지 (비트맵 크기 제한)
+     * */
+    @Value("${upload.chunk.max-ahead:1024}")
+    private int maxAhead;
+
+    /*
+     * 청크 병합 완료 시 알림 받을 리스너들 (실시간 변환 등)
+     * */
+    @Autowired(required = false)
+    private List<ChunkCommitListener> listeners = List.of();
+
+    /*
+     * stream 파일 fsync 정책 (없으면 fsync 하지 않음)
+     * */
+    @Autowired(required = false)
+    private StreamSync streamSync;
+
+    /*
+     * 저널 기록용 CRC 계산 버퍼
+     * */
+    @Autowired
+    private BufferPool bufferPool;
+
+
+    /**
+     * 청크 수신 처리<br/>
+     * 다음 순번이면 바로 stream 파일에 이어붙이고, 앞선 순번이 비어 있으면 chunks 디렉터리에 보관 후
+     * 연속된 구간이 채워지는 시점에 한번에 이어붙임
+     * @param session 업로드 세션
+     * @param seq 청크 파일의 순서 (1부터 시작)
+     * @param writer 청크 데이터 기록 함수
+     * @return 처리 결과
+     * @throws IllegalArgumentException 범위를 벗어난 seq 예외
+     * @throws AlreadyFinalizedException 병합중인 세션에 전체 청크 수보다 큰 seq 가 도착한 경우
+     * @throws NoSessionException 만료되어 정리중인 세션
+     * @throws IOException 청크 파일 저장 예외
+     * */
+    public ChunkResult accept(UploadSession session, int seq, ChunkWriter writer) throws IOException {
+        if (seq < 1) throw new IllegalArgumentException("잘못된 seq : " + seq);
+
+        boolean next;
+        synchronized (session) {
+            // 조회 후 만료된 세션 (stream 파일 채널이 닫히고 디렉터리가 삭제되는 중)
+            if (session.isClosed()) throw new NoSessionException();
+
+            // 병합이 시작된 뒤 도착한 범위 밖 청크 (stream 파일 뒤에 붙지 않도록 거절)
+            if (session.totalChunks > 0 && seq > session.totalChunks) throw new AlreadyFinalizedException();
+
+            // 재시작 전 보관된 청크로 이어붙일 수 있는 구간이 남아있으면 먼저 이어붙임
+            if (drainable(session)) drain(session, session.stream());
+            if (seq >= session.nextSeq + maxAhead) throw new IllegalArgumentException("잘못된 seq : " + seq);
+
+            // 이미 받은 청크 (재전송)
+            if (seq < session.nextSeq || session.received.get(seq)) return ChunkResult.DUPLICATE;
+
+            // 다음 순번이면 세션이 열어둔 stream 파일 채널에 바로 이어붙임
+            next = seq == session.nextSeq;
+            FileChannel out = next ? session.stream() : null;
+            session.received.set(seq);
+            if (next) {
+                long start = out.size();
+                long length;
+                try {
+                    length = writer.writeTo(out);
+                } catch (IOException | RuntimeException e) {
+                    // 일부만 기록된 경우 잘라내고 재전송을 받을 수 있도록 되돌림
+                    out.truncate(start);
+                    session.received.clear(seq);
+                    throw e;
+                }
+                commit(session, out, start, length);
+                drain(session, out);
+            }
+        }
+
+        // fsync 정책 적용 (잠금 밖에서 수행하여 다른 청크 수신을 막지 않음)
+        if (next) {
+            synced(session);
+            return ChunkResult.COMMITTED;
+        }
+
+        // 앞선 청크가 비어 있으므로 잠금 없이 chunks 디렉터리에 보관
+        Path part = session.getChunkFile(seq);
+        try (FileChannel out = FileChannel.open(part, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            long length = writer.writeTo(out);
+            if (session.journal != null) {
+                try {
+                    session.journal.buffered(session, seq, length, crc(out, 0, length));
+                } catch (IOException e) {
+                    log.warn("세션 저널 기록 오류 : " + e.getMessage());
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(part);
+            synchronized (session) {
+                session.received.clear(seq);
+            }
+            throw e;
+        }
+
+        boolean drained;
+        synchronized (session) {
+            // 보관하는 동안 만료된 세션 (삭제중인 디렉터리에 청크 파일이 남지 않도록 지움)
+            if (session.isClosed()) {
+                Files.deleteIfExists(part);
+                throw new NoSessionException();
+            }
+            session.ready.set(seq);
+            drained = drainable(session);
+            if (drained) drain(session, session.stream());
+        }
+        if (drained) synced(session);
+        return ChunkResult.BUFFERED;
+    }
+
+
+    /**
+     * 보관중인 청크 중 nextSeq 부터 연속된 구간을 stream 파일에 이어붙임
+     * @param session 업로드 세션 (잠금 상태)
+     * @param out stream 파일 채널
+     * @throws IOException 청크 파일 병합 예외
+     * */
+    private void drain(UploadSession session, FileChannel out) throws IOException {
+        while (drainable(session)) {
+            int seq = session.nextSeq;
+            Path part = session.getChunkFile(seq);
+            long start = out.size();
+            long size;
+            try (FileChannel in = FileChannel.open(part, StandardOpenOption.READ)) {
+                size = in.size();
+                long pos = 0;
+                while (pos < size) pos += in.transferTo(pos, size - pos, out);
+            } catch (IOException e) {
+                // 일부만 이어붙여진 경우 잘라내고 보관중인 청크는 그대로 둠
+                out.truncate(start);
+                throw e;
+            }
+            Files.deleteIfExists(part);
+            session.ready.clear(seq);
+            commit(session, out, start, size);
+        }
+    }
+
+
+    /**
+     * nextSeq 청크가 보관중이고 이어붙일 수 있는지 여부 (병합중이면 전체 청크 수까지만)
+     * @param session 업로드 세션 (잠금 상태)
+     * */
+    private static boolean drainable(UploadSession session) {
+        return session.ready.get(session.nextSeq)
+                && (session.totalChunks == 0 || session.nextSeq <= session.totalChunks);
+    }
+
+
+    /**
+     * nextSeq 청크의 병합 완료 처리 및 리스너 알림
+     * @param session 업로드 세션 (잠금 상태)
+     * @param out stream 파일 채널
+     * @param offset stream 파일 내 청크 시작 위치
+     * @param length 청크 크기
+     * */
+    private void commit(UploadSession session, FileChannel out, long offset, long length) {
+        int seq = session.nextSeq++;
+        session.committedBytes += length;
+        session.signalCommitted();
+
+        if (session.journal != null) {
+            try {
+                session.journal.committed(session, seq, offset, length, crc(out, offset, length));
+            } catch (IOException e) {
+                // 저널 기록 실패는 재시작 시 해당 청크부터 다시 받게 될 뿐이므로 청크 수신은 실패시키지 않음
+                log.warn("세션 저널 기록 오류 : " + e.getMessage());
+            }
+        }
+
+        for (ChunkCommitListener listener : listeners) {
+            try {
+                listener.onCommit(session, out, seq, offset, length);
+            } catch (RuntimeException e) {
+                // 부가 기능 오류로 청크 수신이 실패하지 않도록 함
+                log.warn("청크 병합 리스너 오류 : " + e.getMessage());
+            }
+        }
+    }
+
+    /*
+     * 방금 기록한 구간의 CRC (page cache 에서 읽음)
+     * */
+    private int crc(FileChannel ch, long offset, long length) throws IOException {
+        ByteBuffer buf = bufferPool.acquire();
+        try {
+            return SessionJournal.crc(ch, offset, length, buf);
+        } finally {
+            bufferPool.release(buf);
+        }
+    }
+
+    private void synced(UploadSession session) throws IOException {
+        if (streamSync != null) streamSync.committed(session);
+    }
+}
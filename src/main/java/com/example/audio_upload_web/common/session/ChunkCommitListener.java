@@ -0,0 +1,20 @@
+package com.example.audio_upload_web.common.session;
+
+import java.nio.channels.FileChannel;
+
+/**
+ * 청크가 stream 파일에 이어붙여질 때마다 호출되는 리스너<br/>
+ * (세션 객체를 잠근 상태로 호출되므로 오래 걸리는 작업은 별도 스레드에서 처리해야 함)
+ * */
+public interface ChunkCommitListener {
+
+    /**
+     * 청크 병합 완료
+     * @param session 업로드 세션
+     * @param stream stream 파일 채널 (위치 지정 읽기만 사용, 닫거나 위치를 옮기지 않아야 함)
+     * @param seq 이어붙인 청크 순번
+     * @param offset stream 파일 내 청크 시작 위치
+     * @param length 청크 크기
+     * */
+    void onCommit(UploadSession session, FileChannel stream, int seq, long offset, long length);
+}
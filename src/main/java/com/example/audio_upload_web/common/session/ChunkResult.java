@@ -0,0 +1,16 @@
+package com.example.audio_upload_web.common.session;
+
+/*
+ * 청크 수신 처리 결과
+ *
+ * 1. COMMITTED : stream 파일에 바로 이어붙임
+ * 2. BUFFERED : 앞선 청크가 아직 도착하지 않아 chunks 디렉터리에 보관
+ * 3. DUPLICATE : 이미 수신한 seq (재전송) 이므로 무시
+ * 4. PARTIAL : 청크 일부만 수신 (이어받기, 나머지를 받으면 1 ~ 3 중 하나로 처리)
+ * */
+public enum ChunkResult {
+    COMMITTED,
+    BUFFERED,
+    DUPLICATE,
+    PARTIAL
+}
@@ -0,0 +1,13 @@
+package com.example.audio_upload_web.common.session;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 세션의 수신 상태 (이어받기 시 클라이언트가 다시 보낼 청크 / 위치 확인용)
+ * @param committedChunks stream 파일에 이어붙여진 청크 수 (1번부터 연속)
+ * @param committedBytes stream 파일 크기
+ * @param received committedChunks 이후 수신한 seq (보관중 / 처리중)
+ * @param partial 일부만 받은 seq -> 받은 크기
+ * */
+public record ChunkStatus(int committedChunks, long committedBytes, List<Integer> received, Map<Integer, Long> partial) {}
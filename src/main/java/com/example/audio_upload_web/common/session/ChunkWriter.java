@@ -0,0 +1,20 @@
+package com.example.audio_upload_web.common.session;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+
+/**
+ * 청크 데이터를 대상 파일 채널에 기록하는 함수<br/>
+ * (일반 청크는 그대로 복사, 압축 청크는 압축 해제하며 기록)
+ * */
+@FunctionalInterface
+public interface ChunkWriter {
+
+    /**
+     * 청크 데이터 기록
+     * @param channel 기록할 파일 채널 (현재 위치부터 기록)
+     * @return 기록한 byte 수
+     * @throws IOException 청크 파일 저장 예외
+     * */
+    long writeTo(FileChannel channel) throws IOException;
+}
@@ -0,0 +1,220 @@
+package com.example.audio_upload_web.common.session;
+
+import com.example.audio_upload_web.common.io.BufferPool;
+import com.example.audio_upload_web.exception.AlreadyFinalizedException;
+import com.example.audio_upload_web.exception.ChecksumMismatchException;
+import com.example.audio_upload_web.exception.ChunkTooLargeException;
+import com.example.audio_upload_web.exception.NoSessionException;
+import com.example.audio_upload_web.exception.OffsetMismatchException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/**
+ * 청크 이어받기 (RealTimeService, RTCService 공통)<br/>
+ * 청크 하나를 여러 요청에 나누어 받을 수 있도록 받은 만큼 chunks 디렉터리의 {seq}.partial 에 남겨두고,
+ * 모두 받으면 CRC 확인 후 ChunkAssembler 로 넘김
+ *
+ * <pre>
+ * 1. 전송 실패 시 클라이언트는 status 로 이어붙여진 청크 / 받은 seq / 받다 만 청크의 크기를 확인
+ * 2. 이미 받은 청크는 다시 보내지 않고, 받다 만 청크는 받은 크기(offset)부터 나머지만 전송
+ * 3. offset 이 서버가 받아둔 크기와 다르면 거절 (OffsetMismatchException, 현재 크기 전달)
+ * </pre>
+ * */
+@Component
+public class ResumableChunks {
+
+    /*
+     * 아직 이어붙이지 못한 seq 보다 얼마나 앞선 청크까지 받아둘지 (ChunkAssembler 와 같은 값)
+     * */
+    @Value("${upload.chunk.max-ahead:1024}")
+    private int maxAhead;
+
+    /*
+     * 청크 하나의 최대 크기 (length 가 더 크면 .partial 파일을 만들기 전에 거절)
+     * */
+    @Value("${upload.chunk.max-bytes:8388608}")
+    private long maxBytes;
+
+    @Autowired
+    private ChunkAssembler chunkAssembler;
+
+    /*
+     * 본문 복사 / CRC 계산 버퍼
+     * */
+    @Autowired
+    private BufferPool bufferPool;
+
+
+    /**
+     * 수신 상태 조회
+     * @param session 업로드 세션
+     * @return 이어붙여진 청크 수 / 크기, 이후 받은 seq, 받다 만 청크의 크기
+     * @throws IOException chunks 디렉터리 조회 예외
+     * */
+    public ChunkStatus status(UploadSession session) throws IOException {
+        int committed;
+        long committedBytes;
+        BitSet received;
+        synchronized (session) {
+            committed = session.nextSeq - 1;
+            committedBytes = session.committedBytes;
+            received = (BitSet) session.received.clone();
+        }
+
+        List<Integer> ahead = new ArrayList<>();
+        for (int s = received.nextSetBit(committed + 1); s >= 0; s = received.nextSetBit(s + 1)) ahead.add(s);
+
+        Map<Integer, Long> partial = new TreeMap<>();
+        try (DirectoryStream<Path> dir = Files.newDirectoryStream(session.getChunkDir(), "*" + UploadSession.PARTIAL_SUFFIX)) {
+            for (Path file : dir) {
+                String name = file.getFileName().toString();
+                int seq;
+                try {
+                    seq = Integer.parseInt(name.substring(0, name.length() - UploadSession.PARTIAL_SUFFIX.length()));
+                } catch (NumberFormatException e) {
+                    continue;
+                }
+                // 모두 받아 넘긴 뒤 삭제 전인 파일은 제외
+                if (seq <= committed || received.get(seq)) continue;
+                try {
+                    partial.put(seq, Files.size(file));
+                } catch (NoSuchFileException ignore) {}
+            }
+        } catch (NoSuchFileException ignore) {
+            // 정리된 세션
+        }
+        return new ChunkStatus(committed, committedBytes, ahead, partial);
+    }
+
+
+    /**
+     * 청크 일부 수신<br/>
+     * 이미 받은 청크면 본문을 읽지 않고 DUPLICATE, 연결이 끊겨 본문을 다 받지 못해도 받은 부분은 남겨둠
+     * @param session 업로드 세션
+     * @param seq 청크 파일의 순서 (1부터 시작)
+     * @param offset 본문이 시작하는 청크 내 위치 (서버가 받아둔 크기와 같아야 함)
+     * @param length 청크 전체 크기
+     * @param crc 청크 전체의 CRC32C (null 이면 확인하지 않음)
+     * @param body 요청 본문 (offset 부터 나머지 전체 또는 일부)
+     * @param source 모두 받은 청크 파일을 stream 파일에 기록하는 함수 (압축 해제 등)
+     * @return 처리 결과 (아직 모두 받지 않았으면 PARTIAL)
+     * @throws IllegalArgumentException 범위를 벗어난 seq / offset, 본문이 length 보다 큰 경우
+     * @throws AlreadyFinalizedException 병합중인 세션에 전체 청크 수보다 큰 seq 가 도착한 경우
+     * @throws NoSessionException 만료되어 정리중인 세션
+     * @throws ChunkTooLargeException length 가 upload.chunk.max-bytes 초과
+     * @throws OffsetMismatchException offset 이 받아둔 크기와 다르거나 같은 seq 를 다른 요청이 받는 중
+     * @throws ChecksumMismatchException 모두 받은 청크의 CRC 불일치 (받아둔 부분은 버림)
+     * @throws IOException 본문 읽기 / 청크 파일 저장 예외
+     * */
+    public ChunkResult accept(UploadSession session, int seq, long offset, long length, Integer crc,
+                              InputStream body, Function<Path, ChunkWriter> source) throws IOException {
+        if (seq < 1) throw new IllegalArgumentException("잘못된 seq : " + seq);
+        if (length <= 0 || offset < 0 || offset > length) throw new IllegalArgumentException("잘못된 offset : " + offset + "/" + length);
+        if (length > maxBytes) throw new ChunkTooLargeException(maxBytes);
+
+        Path file = session.getPartialFile(seq);
+        synchronized (session) {
+            if (session.isClosed()) throw new NoSessionException();
+            if (session.totalChunks > 0 && seq > session.totalChunks) throw new AlreadyFinalizedException();
+            if (seq < session.nextSeq || session.received.get(seq)) return ChunkResult.DUPLICATE;
+            if (seq >= session.nextSeq + maxAhead) throw new IllegalArgumentException("잘못된 seq : " + seq);
+            // 끊긴 이전 요청이 아직 처리중인 경우 (클라이언트는 상태 확인 후 다시 시도)
+            if (session.resuming.get(seq)) throw new OffsetMismatchException(size(file));
+            session.resuming.set(seq);
+        }
+
+        try {
+            try (FileChannel ch = FileChannel.open(file, StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                long size = ch.size();
+                if (size > length) {
+                    // 청크 크기가 바뀐 경우 (처음부터 다시 받음)
+                    ch.truncate(0);
+                    size = 0;
+                }
+                if (offset != size) throw new OffsetMismatchException(size);
+
+                size += copy(body, ch, size, length - size);
+                if (size < length) return ChunkResult.PARTIAL;
+
+                if (crc != null) {
+                    ByteBuffer buf = bufferPool.acquire();
+                    try {
+                        if (SessionJournal.crc(ch, 0, length, buf) != crc) throw new ChecksumMismatchException();
+                    } finally {
+                        bufferPool.release(buf);
+                    }
+                }
+            }
+
+            ChunkResult result = chunkAssembler.accept(session, seq, source.apply(file));
+            Files.deleteIfExists(file);
+            return result;
+        } catch (ChecksumMismatchException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        } finally {
+            synchronized (session) {
+                session.resuming.clear(seq);
+            }
+        }
+    }
+
+
+    /**
+     * CRC 파라미터 변환
+     * @param hex CRC32C (16진수 8자리, 없으면 null)
+     * @throws IllegalArgumentException 잘못된 형식
+     * */
+    public static Integer parseCrc(String hex) {
+        if (hex == null || hex.isBlank()) return null;
+        return Integer.parseUnsignedInt(hex.trim(), 16);
+    }
+
+
+    /*
+     * 본문을 position 부터 기록 (max 를 넘는 본문은 거절하되 그 전까지 받은 부분은 남김)
+     * */
+    private long copy(InputStream in, FileChannel out, long position, long max) throws IOException {
+        ByteBuffer buf = bufferPool.acquire();
+        try {
+            long copied = 0;
+            while (true) {
+                int n = in.read(buf.array(), buf.arrayOffset(), (int) Math.min(buf.capacity(), max - copied + 1));
+                if (n < 0) return copied;
+
+                int accepted = (int) Math.min(n, max - copied);
+                buf.clear().limit(accepted);
+                while (buf.hasRemaining()) copied += out.write(buf, position + copied);
+                if (n > accepted) throw new IllegalArgumentException("청크 크기 초과");
+            }
+        } finally {
+            bufferPool.release(buf);
+        }
+    }
+
+    private static long size(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+}
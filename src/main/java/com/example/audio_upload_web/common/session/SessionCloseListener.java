@@ -0,0 +1,13 @@
+package com.example.audio_upload_web.common.session;
+
+/**
+ * 세션 정리(만료) 시 호출되는 리스너<br/>
+ * 세션별로 유지하던 자원(실시간 변환 프로세스, 인덱스 등)을 해제하기 위함
+ * */
+public interface SessionCloseListener {
+
+    /**
+     * @param session 정리되는 세션 (임시 디렉터리 삭제 전)
+     * */
+    void onClose(UploadSession session);
+}
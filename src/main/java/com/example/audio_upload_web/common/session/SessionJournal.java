@@ -0,0 +1,409 @@
+package com.example.audio_upload_web.common.session;
+
+import com.example.audio_upload_web.constant.UploadSource;
+import lombok.extern.log4j.Log4j2;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.zip.CRC32C;
+
+/**
+ * 세션 상태 변경과 청크 병합을 기록하는 append-only 저널<br/>
+ * 서버 재시작 시 디렉터리 조회나 stream 파일 전체를 다시 읽지 않고 세션 상태(다음 seq, 이어붙여진 크기)를 복구하기 위함
+ *
+ * <pre>
+ * 파일 : [magic "SJ2\n"][레코드...]
+ * 레코드 : [type 1][uuid msb 8][uuid lsb 8][body][crc 4 (type ~ body 의 CRC32C)]
+ *  - C : 세션 생성 (body = UploadSource ordinal 1)
+ *  - S : 상태 전환 (body = UploadStatus ordinal 1)
+ *  - R : 세션 제거 (body 없음)
+ *  - K : 청크 병합 (body = seq 4, stream 파일 내 위치 8, 크기 8, 청크 데이터 CRC32C 4)
+ *  - B : 순서가 맞지 않아 chunks 디렉터리에 보관한 청크 (body = seq 4, 크기 8, 청크 데이터 CRC32C 4)
+ *
+ * CRC 가 맞지 않거나 잘린 레코드부터는 신뢰하지 않음 (재시작 시 compact 로 잘라냄)
+ * magic 이 없는 파일은 이전 형식(고정 18 byte, C/S/R 만 기록)으로 읽음
+ *
+ * 실행 중에도 파일이 max-bytes 를 넘으면 기록해온 상태(live)로 다시 작성함
+ *  - 제거된 세션, 이어붙여진 보관 청크, 지난 상태 전환은 버림
+ *  - 청크 병합 기록은 stream 파일 fsync 이후의 것만 세션별 최대 MAX_COMMITS 개 남김
+ *    (fsync 전에 유실된 청크가 있으면 재시작 시 남은 기록 중 온전한 청크까지 되돌림)
+ * </pre>
+ * */
+@Log4j2
+class SessionJournal implements Closeable {
+
+    private static final byte[] MAGIC = {'S', 'J', '2', '\n'};
+
+    private static final int HEAD_SIZE = 17;
+    private static final int CRC_SIZE = 4;
+    private static final int LEGACY_RECORD_SIZE = 18;
+    private static final int READ_BUFFER = 1 << 16;
+
+    /*
+     * 실행 중 정리 시 세션별로 남길 최대 청크 병합 기록 수
+     * */
+    static final int MAX_COMMITS = 256;
+
+    private static final byte CREATE = 'C';
+    private static final byte STATUS = 'S';
+    private static final byte REMOVE = 'R';
+    private static final byte COMMIT = 'K';
+    private static final byte BUFFER = 'B';
+
+    /*
+     * 저널 파일 경로
+     * */
+    private final Path file;
+
+    /*
+     * 실행 중 다시 작성하는 기준 크기 (0 이하이면 재시작 시에만 정리)
+     * */
+    private final long maxBytes;
+
+    /*
+     * append 모드로 열어둔 저널 채널
+     * */
+    private FileChannel channel;
+
+    /*
+     * 레코드 작성 버퍼 (this 로 잠금)
+     * */
+    private final ByteBuffer record = ByteBuffer.allocate(HEAD_SIZE + 24 + CRC_SIZE);
+    private final CRC32C crc = new CRC32C();
+
+    /*
+     * 저널에 기록된 살아있는 세션 상태 / 현재 파일 크기 / 다음 정리 기준 크기 (this 로 잠금, compact 이후 사용)
+     * */
+    private Map<String, Entry> live = new LinkedHashMap<>();
+    private long size;
+    private long compactAt;
+
+
+    SessionJournal(Path file, long maxBytes) {
+        this.file = file;
+        this.maxBytes = maxBytes;
+    }
+
+
+    /**
+     * 저널 재생 (기록 순서대로 상태를 덮어씀, 파일 전체를 메모리에 올리지 않고 순서대로 읽음)<br/>
+     * 잘렸거나 CRC 가 맞지 않는 레코드 이후는 무시
+     * @return uploadId별 마지막 상태 (제거된 세션 제외)
+     * @throws IOException 저널 읽기 예외
+     * */
+    Map<String, Entry> replay() throws IOException {
+        Map<String, Entry> entries = new LinkedHashMap<>();
+        if (!Files.exists(file)) return entries;
+
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buf = ByteBuffer.allocate(READ_BUFFER).flip();
+            if (!fill(ch, buf, 1)) return entries;
+            fill(ch, buf, MAGIC.length);
+            if (!hasMagic(buf)) return replayLegacy(ch, buf, entries);
+            buf.position(MAGIC.length);
+
+            CRC32C check = new CRC32C();
+            while (fill(ch, buf, HEAD_SIZE + CRC_SIZE)) {
+                byte type = buf.get(buf.position());
+                int bodySize = bodySize(type);
+                if (bodySize < 0 || !fill(ch, buf, HEAD_SIZE + bodySize + CRC_SIZE)) break;
+
+                int start = buf.position();
+                check.reset();
+                check.update(buf.array(), start, HEAD_SIZE + bodySize);
+                if ((int) check.getValue() != buf.getInt(start + HEAD_SIZE + bodySize)) break; // 손상된 구간 이후는 신뢰하지 않음
+
+                buf.get();
+                String uploadId = new UUID(buf.getLong(), buf.getLong()).toString();
+                int value = 0;
+                Chunk chunk = null;
+                switch (type) {
+                    case CREATE, STATUS -> value = buf.get();
+                    case COMMIT -> chunk = new Chunk(buf.getInt(), buf.getLong(), buf.getLong(), buf.getInt());
+                    case BUFFER -> chunk = new Chunk(buf.getInt(), -1, buf.getLong(), buf.getInt());
+                    default -> {}
+                }
+                apply(entries, type, uploadId, value, chunk);
+                buf.position(start + HEAD_SIZE + bodySize + CRC_SIZE);
+            }
+        }
+        return entries;
+    }
+
+    private static Map<String, Entry> replayLegacy(FileChannel ch, ByteBuffer buf, Map<String, Entry> entries) throws IOException {
+        while (fill(ch, buf, LEGACY_RECORD_SIZE)) {
+            byte type = buf.get();
+            String uploadId = new UUID(buf.getLong(), buf.getLong()).toString();
+            int value = buf.get();
+            if (type != CREATE && type != STATUS && type != REMOVE) break;
+            apply(entries, type, uploadId, value, null);
+        }
+        return entries;
+    }
+
+    /*
+     * 레코드 하나를 상태에 반영
+     * */
+    private static void apply(Map<String, Entry> entries, byte type, String uploadId, int value, Chunk chunk) {
+        Entry e = entries.get(uploadId);
+        switch (type) {
+            case CREATE -> entries.put(uploadId, new Entry(UploadSource.values()[value]));
+            case STATUS -> {
+                if (e != null) e.status = UploadStatus.values()[value];
+            }
+            case REMOVE -> entries.remove(uploadId);
+            case COMMIT -> {
+                if (e != null) {
+                    e.commits.add(chunk);
+                    e.buffered.remove(chunk.seq());
+                }
+            }
+            case BUFFER -> {
+                if (e != null) e.buffered.put(chunk.seq(), chunk);
+            }
+            default -> {}
+        }
+    }
+
+    /*
+     * buf(읽기 상태)에 need byte 이상 남도록 파일에서 이어 읽음
+     * @return 파일 끝이라 채우지 못한 경우 false
+     * */
+    private static boolean fill(FileChannel ch, ByteBuffer buf, int need) throws IOException {
+        if (buf.remaining() >= need) return true;
+        buf.compact();
+        while (buf.position() < need && ch.read(buf) >= 0) {}
+        buf.flip();
+        return buf.remaining() >= need;
+    }
+
+
+    /**
+     * 살아있는 세션만 남기도록 저널을 다시 작성하고 append 모드로 엶<br/>
+     * 이후 기록하는 레코드는 live 에도 반영하여 실행 중 다시 작성할 때 사용
+     * @param live uploadId별 복구된 상태 (청크 병합 기록은 세션별 최대 MAX_COMMITS 개 기록)
+     * @throws IOException 저널 작성 예외
+     * */
+    synchronized void compact(Map<String, Entry> live) throws IOException {
+        close();
+        rewrite(live);
+        this.live = live;
+        compactAt = Math.max(maxBytes, size * 2);
+    }
+
+    /*
+     * 임시 파일에 상태를 기록한 뒤 저널과 교체 (append 모드로 다시 엶)
+     * */
+    private void rewrite(Map<String, Entry> live) throws IOException {
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            write(ch, ByteBuffer.wrap(MAGIC));
+            for (Map.Entry<String, Entry> m : live.entrySet()) {
+                String uploadId = m.getKey();
+                Entry e = m.getValue();
+                write(ch, CREATE, uploadId, e.source.ordinal(), null);
+                trim(e.commits, MAX_COMMITS);
+                for (Chunk c : e.commits) write(ch, COMMIT, uploadId, 0, c);
+                for (Chunk c : e.buffered.values()) write(ch, BUFFER, uploadId, 0, c);
+                if (e.status != UploadStatus.UPLOADING) write(ch, STATUS, uploadId, e.status.ordinal(), null);
+            }
+            ch.force(true);
+            size = ch.position();
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+
+    void created(UploadSession s) throws IOException {
+        append(CREATE, s.getUploadId(), s.getSource().ordinal(), null);
+    }
+
+    void status(UploadSession s, UploadStatus status) throws IOException {
+        append(STATUS, s.getUploadId(), status.ordinal(), null);
+    }
+
+    void removed(UploadSession s) throws IOException {
+        append(REMOVE, s.getUploadId(), 0, null);
+    }
+
+    /**
+     * 청크 병합 기록 (stream 파일에 기록된 후 호출)
+     * */
+    void committed(UploadSession s, int seq, long offset, long length, int dataCrc) throws IOException {
+        append(COMMIT, s.getUploadId(), 0, new Chunk(seq, offset, length, dataCrc));
+    }
+
+    /**
+     * 보관 청크 기록 (chunks 디렉터리에 기록된 후 호출)
+     * */
+    void buffered(UploadSession s, int seq, long length, int dataCrc) throws IOException {
+        append(BUFFER, s.getUploadId(), 0, new Chunk(seq, -1, length, dataCrc));
+    }
+
+    /**
+     * stream 파일 fsync 완료 (seq 이전 청크 병합 기록은 다시 작성할 때 남기지 않음)
+     * @param s 업로드 세션
+     * @param seq fsync 전에 이어붙여진 마지막 청크 순번
+     * */
+    synchronized void synced(UploadSession s, int seq) {
+        Entry e = live.get(s.getUploadId());
+        if (e == null) return;
+        int keep = 0;
+        while (keep < e.commits.size() - 1 && e.commits.get(keep + 1).seq() <= seq) keep++;
+        e.commits.subList(0, keep).clear();
+    }
+
+    /**
+     * 저널 디스크 기록 (stream 파일 fsync 정책을 따름)
+     * */
+    void sync() throws IOException {
+        FileChannel ch;
+        synchronized (this) {
+            ch = channel;
+        }
+        if (ch != null && ch.isOpen()) ch.force(false);
+    }
+
+
+    /**
+     * 파일 구간의 CRC32C 계산
+     * @param ch 대상 파일 채널
+     * @param offset 시작 위치
+     * @param length 크기
+     * @param buf 읽기 버퍼 (heap)
+     * @return CRC32C
+     * @throws IOException 파일 읽기 예외 (구간이 파일보다 긴 경우 포함)
+     * */
+    static int crc(FileChannel ch, long offset, long length, ByteBuffer buf) throws IOException {
+        CRC32C c = new CRC32C();
+        long pos = offset;
+        long end = offset + length;
+        while (pos < end) {
+            buf.clear().limit((int) Math.min(buf.capacity(), end - pos));
+            int n = ch.read(buf, pos);
+            if (n < 0) throw new IOException("파일 크기 부족 : " + pos);
+            c.update(buf.array(), buf.arrayOffset(), n);
+            pos += n;
+        }
+        return (int) c.getValue();
+    }
+
+
+    private synchronized void append(byte type, String uploadId, int value, Chunk chunk) throws IOException {
+        if (channel == null) return;
+        size += write(channel, type, uploadId, value, chunk);
+
+        apply(live, type, uploadId, value, chunk);
+        Entry e = live.get(uploadId);
+        if (type == COMMIT && e != null) trim(e.commits, MAX_COMMITS);
+        if (maxBytes > 0 && size >= compactAt) {
+            long before = size;
+            close();
+            rewrite(live);
+            compactAt = Math.max(maxBytes, size * 2);
+            log.info("세션 저널 정리 : " + before + " -> " + size + " bytes (" + live.size() + "건)");
+        }
+    }
+
+    /*
+     * 오래된 청크 병합 기록 제거 (마지막 max 개만 남김)
+     * */
+    private static void trim(List<Chunk> commits, int max) {
+        if (commits.size() > max) commits.subList(0, commits.size() - max).clear();
+    }
+
+    /*
+     * 레코드 기록
+     * @return 기록한 byte 수
+     * */
+    private int write(FileChannel ch, byte type, String uploadId, int value, Chunk chunk) throws IOException {
+        UUID id = UUID.fromString(uploadId);
+        record.clear();
+        record.put(type)
+                .putLong(id.getMostSignificantBits())
+                .putLong(id.getLeastSignificantBits());
+        switch (type) {
+            case CREATE, STATUS -> record.put((byte) value);
+            case COMMIT -> record.putInt(chunk.seq()).putLong(chunk.offset()).putLong(chunk.length()).putInt(chunk.crc());
+            case BUFFER -> record.putInt(chunk.seq()).putLong(chunk.length()).putInt(chunk.crc());
+            default -> {}
+        }
+        crc.reset();
+        crc.update(record.array(), 0, record.position());
+        record.putInt((int) crc.getValue());
+        record.flip();
+        int length = record.remaining();
+        write(ch, record);
+        return length;
+    }
+
+    private static void write(FileChannel ch, ByteBuffer buf) throws IOException {
+        while (buf.hasRemaining()) ch.write(buf);
+    }
+
+    private static int bodySize(byte type) {
+        return switch (type) {
+            case CREATE, STATUS -> 1;
+            case REMOVE -> 0;
+            case COMMIT -> 24;
+            case BUFFER -> 16;
+            default -> -1;
+        };
+    }
+
+    private static boolean hasMagic(ByteBuffer buf) {
+        if (buf.remaining() < MAGIC.length) return false;
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (buf.get(i) != MAGIC[i]) return false;
+        }
+        return true;
+    }
+
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+    }
+
+
+    /*
+     * 저널 재생 결과 (세션 하나의 마지막 상태)
+     *
+     * commits : 기록 순서대로의 청크 병합 (compact 이후에는 stream 파일 fsync 시점의 기록부터)
+     * buffered : seq -> 아직 이어붙이지 않은 보관 청크
+     * */
+    static final class Entry {
+        final UploadSource source;
+        UploadStatus status = UploadStatus.UPLOADING;
+        final List<Chunk> commits = new ArrayList<>();
+        final Map<Integer, Chunk> buffered = new TreeMap<>();
+
+        Entry(UploadSource source) {
+            this.source = source;
+        }
+    }
+
+    /*
+     * 청크 기록 (보관 청크는 offset = -1)
+     * */
+    record Chunk(int seq, long offset, long length, int crc) {}
+}
@@ -0,0 +1,227 @@
+package com.example.audio_upload_web.common.session;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * 세션 임시 파일 정리기 (hashed timing wheel)<br/>
+ * 세션마다 타이머를 만들지 않고 만료 시각이 속한 칸(bucket)에만 넣어두며,
+ * 칸이 돌아올 때 실제 만료 시각(마지막 활동 기준)을 다시 계산하여 아직이면 다른 칸으로 옮김
+ *
+ * <pre>
+ * UPLOADING   : 마지막 청크 이후 idle-timeout 동안 활동이 없으면 정리 (finalize 없이 중단된 녹음)
+ * FINALIZING  : 병합중이므로 정리하지 않음
+ * FINALIZED   : 병합 완료 후 finalized-retention 이 지나면 정리
+ * </pre>
+ * */
+@Component
+@Log4j2
+public class SessionSweeper {
+
+    /*
+     * 한 칸의 시간 / 칸 수
+     * */
+    private final long tickMs;
+    private final int wheelSize;
+
+    /*
+     * 만료 기준 시간
+     * */
+    private final long idleTimeoutMs;
+    private final long finalizedRetentionMs;
+
+    /*
+     * 세션 정리 시 알림 받을 리스너들 (실시간 변환, WebM 인덱스 등)
+     * */
+    @Autowired(required = false)
+    private List<SessionCloseListener> listeners = List.of();
+
+    /*
+     * 칸별 세션 목록 (칸을 처리할 때 통째로 교체, lock 으로 보호)
+     * */
+    private final List<List<UploadSession>> buckets;
+
+    /*
+     * 다음에 처리할 칸 번호 (wheel 이 시작된 후 지난 tick 수, lock 으로 보호)
+     * */
+    private long cursor;
+    private final long startedAt = System.currentTimeMillis();
+    private final Object lock = new Object();
+
+    /*
+     * tick 처리 스레드 / 디렉터리 삭제 스레드 (요청 처리 스레드와 분리)
+     * */
+    private final ScheduledExecutorService ticker;
+    private final ExecutorService deleter;
+
+    /*
+     * 만료된 세션을 저장소에서 제거하는 함수 (UploadSessionRegistry 가 등록)
+     * */
+    private volatile Consumer<UploadSession> onExpire = s -> {};
+
+
+    public SessionSweeper(@Value("${upload.session.sweep.tick-ms:1000}") long tickMs,
+                          @Value("${upload.session.sweep.wheel-size:512}") int wheelSize,
+                          @Value("${upload.session.idle-timeout-ms:1800000}") long idleTimeoutMs,
+                          @Value("${upload.session.finalized-retention-ms:60000}") long finalizedRetentionMs,
+                          @Value("${upload.session.sweep.delete-threads:2}") int deleteThreads) {
+        this.tickMs = tickMs;
+        this.wheelSize = wheelSize;
+        this.idleTimeoutMs = idleTimeoutMs;
+        this.finalizedRetentionMs = finalizedRetentionMs;
+
+        this.buckets = new ArrayList<>(wheelSize);
+        for (int i = 0; i < wheelSize; i++) buckets.add(new ArrayList<>());
+
+        this.ticker = Executors.newSingleThreadScheduledExecutor(daemon("session-sweeper"));
+        this.deleter = Executors.newFixedThreadPool(Math.max(1, deleteThreads), daemon("session-delete-"));
+        ticker.scheduleAtFixedRate(this::tick, tickMs, tickMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        ticker.shutdownNow();
+        deleter.shutdown();
+    }
+
+
+    /**
+     * 만료 시 호출할 제거 함수 등록
+     * @param onExpire 세션 제거 함수
+     * */
+    void setOnExpire(Consumer<UploadSession> onExpire) {
+        this.onExpire = onExpire;
+    }
+
+
+    /**
+     * 세션을 만료 시각에 맞는 칸에 등록 (상태가 바뀌어 만료 시각이 앞당겨질 때도 호출)
+     * @param session 세션
+     * */
+    void track(UploadSession session) {
+        place(session, deadline(session));
+    }
+
+
+    /**
+     * 서버 시작 시 저장소에 없는 세션 디렉터리 정리 (재시작으로 잃어버린 정리 작업 복구)
+     * @param tmpRoot 임시 디렉터리
+     * @param live 복구된 세션 ID 들
+     * @return 정리 대상 디렉터리 수
+     * */
+    int reclaimOrphans(Path tmpRoot, Set<String> live) {
+        int count = 0;
+        try (DirectoryStream<Path> dirs = Files.newDirectoryStream(tmpRoot, Files::isDirectory)) {
+            for (Path dir : dirs) {
+                if (live.contains(dir.getFileName().toString())) continue;
+                deleter.execute(() -> deleteTree(dir));
+                count++;
+            }
+        } catch (IOException e) {
+            log.warn("임시 디렉터리 조회 오류 : " + e.getMessage());
+        }
+        return count;
+    }
+
+
+    /**
+     * 현재 칸의 세션들을 확인하여 만료된 세션은 정리, 아니면 다시 등록
+     * */
+    private void tick() {
+        try {
+            long now = System.currentTimeMillis();
+            while (true) {
+                long current;
+                List<UploadSession> due;
+                synchronized (lock) {
+                    if (cursor > (now - startedAt) / tickMs) break;
+                    current = cursor++;
+                    due = buckets.set((int) (current % wheelSize), new ArrayList<>());
+                }
+
+                for (UploadSession session : due) {
+                    // 상태 변경으로 다른 칸에 다시 등록된 경우 (오래된 항목)
+                    if (session.sweepTick != current || session.isClosed()) continue;
+
+                    long deadline = deadline(session);
+                    if (deadline > now) place(session, deadline);
+                    else expire(session);
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("세션 정리 오류 : " + e.getMessage());
+        }
+    }
+
+    private void place(UploadSession session, long deadline) {
+        // 이미 지난 칸에는 넣을 수 없으므로 최소 다음 칸,
+        // 한 바퀴보다 먼 만료 시각은 마지막 칸에 넣고 그때 다시 계산
+        synchronized (lock) {
+            long tick = Math.max((deadline - startedAt + tickMs - 1) / tickMs, cursor);
+            tick = Math.min(tick, cursor + wheelSize - 1);
+            session.sweepTick = tick;
+            buckets.get((int) (tick % wheelSize)).add(session);
+        }
+    }
+
+    private long deadline(UploadSession session) {
+        return switch (session.getStatus()) {
+            case FINALIZED -> session.getLastActivity() + finalizedRetentionMs;
+            // 병합중인 세션은 만료시키지 않고 한 바퀴 뒤에 다시 확인
+            case FINALIZING -> System.currentTimeMillis() + tickMs * wheelSize;
+            default -> session.getLastActivity() + idleTimeoutMs;
+        };
+    }
+
+    private void expire(UploadSession session) {
+        if (!session.close()) return;
+        deleter.execute(() -> {
+            onExpire.accept(session);
+            for (SessionCloseListener listener : listeners) {
+                try {
+                    listener.onClose(session);
+                } catch (RuntimeException e) {
+                    log.warn("세션 정리 리스너 오류 : " + e.getMessage());
+                }
+            }
+            deleteTree(session.getSessionDir());
+        });
+    }
+
+
+    private static void deleteTree(Path dir) {
+        try (Stream<Path> s = Files.walk(dir)) {
+            s.sorted(Comparator.reverseOrder())
+                    .forEach(p -> { try { Files.deleteIfExists(p); } catch (IOException ignore) {} });
+        } catch (IOException ignore) {}
+    }
+
+    private static ThreadFactory daemon(String prefix) {
+        AtomicInteger seq = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, prefix.endsWith("-") ? prefix + seq.incrementAndGet() : prefix);
+            t.setDaemon(true);
+            return t;
+        };
+    }
+}
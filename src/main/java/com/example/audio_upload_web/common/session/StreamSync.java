@@ -0,0 +1,133 @@
+package com.example.audio_upload_web.common.session;
+
+import com.example.audio_upload_web.common.metrics.UploadMetrics;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * stream 파일 디스크 기록(fsync) 정책 (RealTimeService, RTCService 공통)<br/>
+ * 운영 환경에 맞게 내구성과 IOPS 사이에서 선택할 수 있도록 함
+ *
+ * <pre>
+ * none     : fsync 하지 않음 (OS 에 맡김)
+ * chunk    : 청크가 이어붙여질 때마다 fsync 후 응답
+ * group    : group-commit-ms 마다 기록된 세션들을 모아서 fsync
+ * finalize : 병합 시작 시 한번만 fsync
+ * </pre>
+ * */
+@Component
+@Log4j2
+public class StreamSync implements SessionCloseListener {
+
+    public enum Policy { NONE, CHUNK, GROUP, FINALIZE }
+
+    private final Policy policy;
+
+    /*
+     * group 정책에서 마지막 fsync 이후 청크가 이어붙여진 세션들
+     * */
+    private final Set<UploadSession> dirty = ConcurrentHashMap.newKeySet();
+
+    /*
+     * group 정책 전용 fsync 스레드
+     * */
+    private final ScheduledExecutorService flusher;
+
+    @Autowired
+    private UploadMetrics uploadMetrics;
+
+
+    public StreamSync(@Value("${upload.stream.fsync:finalize}") String policy,
+                      @Value("${upload.stream.group-commit-ms:200}") long groupCommitMs) {
+        this.policy = Policy.valueOf(policy.trim().toUpperCase(Locale.ROOT));
+
+        if (this.policy == Policy.GROUP) {
+            flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "stream-sync");
+                t.setDaemon(true);
+                return t;
+            });
+            flusher.scheduleWithFixedDelay(this::flush, groupCommitMs, groupCommitMs, TimeUnit.MILLISECONDS);
+        } else {
+            flusher = null;
+        }
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (flusher != null) flusher.shutdownNow();
+        flush();
+    }
+
+
+    public Policy getPolicy() {
+        return policy;
+    }
+
+
+    /**
+     * 청크 이어붙이기 완료 후 호출 (ChunkAssembler)
+     * @param session 업로드 세션
+     * @throws IOException chunk 정책의 fsync 예외
+     * */
+    void committed(UploadSession session) throws IOException {
+        switch (policy) {
+            case CHUNK -> sync(session);
+            case GROUP -> dirty.add(session);
+            default -> {}
+        }
+    }
+
+
+    /**
+     * 병합 시작 전 호출 - 모든 청크가 이어붙여진 상태이므로 fsync 후 채널을 닫음<br/>
+     * (병합이 실패해 abortFinalize 되면 다시 청크를 받으며 채널을 열 수 있음)
+     * @param session 병합중인 세션
+     * @throws IOException fsync 예외
+     * */
+    public void finish(UploadSession session) throws IOException {
+        dirty.remove(session);
+        if (policy != Policy.NONE) sync(session);
+        session.closeStream();
+    }
+
+
+    @Override
+    public void onClose(UploadSession session) {
+        dirty.remove(session);
+        session.closeStream();
+    }
+
+
+    private void flush() {
+        Iterator<UploadSession> it = dirty.iterator();
+        while (it.hasNext()) {
+            UploadSession session = it.next();
+            it.remove();
+            try {
+                sync(session);
+            } catch (IOException e) {
+                log.warn("stream 파일 fsync 오류 : " + e.getMessage());
+            }
+        }
+    }
+
+    private void sync(UploadSession session) throws IOException {
+        Timer.Sample sample = uploadMetrics.start();
+        session.syncStream();
+        uploadMetrics.stop(sample, session.getSource(), "fsync");
+    }
+}
@@ -0,0 +1,284 @@
+package com.example.audio_upload_web.common.session;
+
+import com.example.audio_upload_web.constant.UploadSource;
+
+import java.io.IOException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 실시간 업로드 세션 하나의 상태<br/>
+ * 청크 업로드 때마다 status.txt를 읽는 대신 메모리에서 상태를 확인하기 위함
+ * */
+public class UploadSession {
+
+    /*
+     * 청크 파일을 병합하기 위한 파일
+     * */
+    private static final String STREAM_FILE = "stream.webm";
+
+    /*
+     * 순서가 맞지 않게 도착한 청크 파일이 임시로 저장될 디렉터리
+     * */
+    private static final String CHUNK_DIR = "chunks";
+
+    /*
+     * 이어받는 중인 청크 파일 확장자 (chunks 디렉터리)
+     * */
+    static final String PARTIAL_SUFFIX = ".partial";
+
+    /*
+     * 업로드 될 파일의 UUID값
+     * */
+    private final String uploadId;
+
+    /*
+     * 세션을 생성한 업로드 방식 (real-time / rtc)
+     * */
+    private final UploadSource source;
+
+    /*
+     * 청크 파일이 임시로 저장될 위치
+     * */
+    private final Path sessionDir;
+
+    /*
+     * 현재 업로드 처리 단계 (상태 전환은 CAS로만 수행)
+     * */
+    private final AtomicReference<UploadStatus> status;
+
+    /*
+     * 청크 재조립 상태 (ChunkAssembler에서 세션 객체를 잠근 상태로만 접근)
+     *
+     * received : 수신(처리중 포함)된 seq 비트맵
+     * ready : chunks 디렉터리에 저장 완료되어 병합을 기다리는 seq 비트맵
+     * resuming : 이어받기 요청을 처리중인 seq 비트맵 (ResumableChunks)
+     * nextSeq : stream 파일에 다음으로 이어붙일 seq
+     * */
+    final BitSet received = new BitSet();
+    final BitSet ready = new BitSet();
+    final BitSet resuming = new BitSet();
+    int nextSeq = 1;
+    long committedBytes;
+
+    /*
+     * finalize 요청의 전체 청크 수 (병합중이 아니면 0, 세션 객체를 잠근 상태로만 접근)
+     * 병합이 시작된 뒤 도착한 청크가 stream 파일 뒤에 붙지 않도록 이보다 큰 seq 는 거절
+     * */
+    int totalChunks;
+
+    /*
+     * 청크 병합을 기록할 저널 (저널을 사용하지 않으면 null)
+     * */
+    SessionJournal journal;
+
+    /*
+     * 열어둔 stream 파일 채널 (청크마다 열고 닫지 않도록 세션이 유지, 세션 객체를 잠근 상태로만 접근)
+     * */
+    private FileChannel stream;
+
+    /*
+     * stream 파일 채널을 다시 열지 않는 상태 (병합 시작, 세션 정리 후)
+     * */
+    private boolean streamClosed;
+
+    /*
+     * finalize 가 기다리는 청크 수와 완료 신호
+     * */
+    private int expectedChunks;
+    private CompletableFuture<Void> committedFuture;
+
+    /*
+     * 세션 생성 시각 (재시작 후 복구된 세션은 복구 시각)
+     * */
+    private final long createdAt = System.currentTimeMillis();
+
+    /*
+     * 마지막 활동 시각 (세션 생성, 청크 수신, 병합 완료) - 만료 판단 기준
+     * */
+    private volatile long lastActivity = System.currentTimeMillis();
+
+    /*
+     * SessionSweeper 에 등록된 칸 번호 / 정리 여부
+     * */
+    volatile long sweepTick = -1;
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+
+    UploadSession(String uploadId, UploadSource source, Path sessionDir, UploadStatus status) {
+        this.uploadId = uploadId;
+        this.source = source;
+        this.sessionDir = sessionDir;
+        this.status = new AtomicReference<>(status);
+    }
+
+
+    public String getUploadId() {
+        return uploadId;
+    }
+
+    public UploadSource getSource() {
+        return source;
+    }
+
+    public Path getSessionDir() {
+        return sessionDir;
+    }
+
+    public UploadStatus getStatus() {
+        return status.get();
+    }
+
+    public Path getStreamFile() {
+        return sessionDir.resolve(STREAM_FILE);
+    }
+
+    Path getChunkDir() {
+        return sessionDir.resolve(CHUNK_DIR);
+    }
+
+    Path getChunkFile(int seq) {
+        return getChunkDir().resolve(seq + ".part");
+    }
+
+    Path getPartialFile(int seq) {
+        return getChunkDir().resolve(seq + PARTIAL_SUFFIX);
+    }
+
+    /**
+     * 열어둔 stream 파일 채널 조회 (닫혀 있으면 파일 끝부터 이어서 쓰도록 다시 엶, 잠금 상태)
+     * @throws ClosedChannelException closeStream 이후 호출 (병합 시작, 세션 정리 후)
+     * */
+    FileChannel stream() throws IOException {
+        if (streamClosed) throw new ClosedChannelException();
+        if (stream == null || !stream.isOpen()) {
+            // 저널 CRC 계산을 위해 읽기도 허용 (READ 와 APPEND 는 함께 쓸 수 없으므로 끝으로 이동)
+            FileChannel ch = FileChannel.open(getStreamFile(), StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            ch.position(ch.size());
+            stream = ch;
+        }
+        return stream;
+    }
+
+    /**
+     * stream 파일 및 저널 디스크 기록 (fsync)<br/>
+     * 기록하는 동안 청크 이어붙이기를 막지 않도록 잠금 밖에서 수행
+     * */
+    void syncStream() throws IOException {
+        FileChannel ch;
+        int seq;
+        synchronized (this) {
+            ch = stream;
+            seq = nextSeq - 1;
+        }
+        boolean synced = false;
+        if (ch != null) {
+            try {
+                ch.force(false);
+                synced = true;
+            } catch (ClosedChannelException ignore) {
+                // 이미 닫힌 경우 (병합 시작 시 기록 후 닫았거나 정리된 세션)
+            }
+        }
+        // 저널은 stream 파일 다음에 기록 (저널에 남은 청크는 stream 파일에도 있어야 함)
+        if (journal != null) {
+            journal.sync();
+            if (synced) journal.synced(this, seq);
+        }
+    }
+
+    /**
+     * stream 파일 채널 닫기 (병합 시작, 세션 정리 시)<br/>
+     * 이후 stream() 은 채널을 다시 열지 않음 (병합 실패 시 reopenStream)
+     * */
+    synchronized void closeStream() {
+        streamClosed = true;
+        if (stream == null) return;
+        try {
+            stream.close();
+        } catch (IOException ignore) {}
+        stream = null;
+    }
+
+    /**
+     * 병합 실패로 다시 청크를 받을 때 stream 파일 채널을 열 수 있도록 되돌림 (정리된 세션 제외)
+     * */
+    synchronized void reopenStream() {
+        if (!isClosed()) streamClosed = false;
+    }
+
+    /**
+     * stream 파일에 이어붙여진 청크 수 (1번부터 연속된 청크만 집계)
+     * */
+    public synchronized int getCommittedChunks() {
+        return nextSeq - 1;
+    }
+
+    public synchronized long getCommittedBytes() {
+        return committedBytes;
+    }
+
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    public long getLastActivity() {
+        return lastActivity;
+    }
+
+    void touch() {
+        lastActivity = System.currentTimeMillis();
+    }
+
+    boolean isClosed() {
+        return closed.get();
+    }
+
+    /**
+     * 정리 표시 (한번만 성공)
+     * */
+    boolean close() {
+        return closed.compareAndSet(false, true);
+    }
+
+
+    /**
+     * 1번부터 totalChunks 번까지 모든 청크가 stream 파일에 이어붙여지면 완료되는 신호
+     * @param totalChunks 전체 청크 파일 개수
+     * @return 완료 신호 (이미 모두 이어붙여졌으면 완료된 상태)
+     * */
+    public synchronized CompletableFuture<Void> whenCommitted(int totalChunks) {
+        if (nextSeq - 1 >= totalChunks) return CompletableFuture.completedFuture(null);
+        if (committedFuture == null || committedFuture.isDone()) committedFuture = new CompletableFuture<>();
+        expectedChunks = totalChunks;
+        return committedFuture;
+    }
+
+    /**
+     * 청크 병합 후 호출 (잠금 상태)
+     * */
+    void signalCommitted() {
+        if (committedFuture != null && nextSeq - 1 >= expectedChunks) {
+            committedFuture.complete(null);
+            committedFuture = null;
+        }
+    }
+
+
+    /**
+     * 상태 전환 (원자적)
+     * @param expect 현재 상태로 기대하는 값
+     * @param next 전환할 상태
+     * @return 전환 성공 여부
+     * */
+    boolean transition(UploadStatus expect, UploadStatus next) {
+        return status.compareAndSet(expect, next);
+    }
+}
@@ -0,0 +1,346 @@
+package com.example.audio_upload_web.common.session;
+
+import com.example.audio_upload_web.common.storage.StorageVolumes;
+import com.example.audio_upload_web.common.storage.Volume;
+import com.example.audio_upload_web.constant.UploadSource;
+import com.example.audio_upload_web.exception.AlreadyFinalizedException;
+import com.example.audio_upload_web.exception.NoSessionException;
+import jakarta.annotation.PostConstruct;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 실시간 업로드 세션 저장소 (RealTimeService, RTCService 공통)<br/>
+ * 청크 업로드 시 세션 확인을 파일 조회 없이 해시 조회 한번으로 처리함
+ * */
+@Component
+@Log4j2
+public class UploadSessionRegistry {
+
+    /*
+     * 세션 상태 저널 파일명
+     * */
+    private static final String JOURNAL = "sessions.journal";
+
+    /*
+     * 복구 시 CRC 확인용 버퍼 크기
+     * */
+    private static final int RECOVER_BUFFER = 1 << 16;
+
+    /*
+     * uploadId -> 세션
+     * */
+    private final Map<String, UploadSession> sessions = new ConcurrentHashMap<>();
+
+    /*
+     * 재시작 후 상태 복구를 위한 저널 사용 여부
+     * */
+    @Value("${upload.session.journal.enabled:true}")
+    private boolean journalEnabled;
+
+    /*
+     * 실행 중 저널을 다시 작성하는 기준 크기 (0 이하이면 재시작 시에만 정리)
+     * */
+    @Value("${upload.session.journal.max-bytes:16777216}")
+    private long journalMaxBytes;
+
+    private SessionJournal journal;
+
+    /*
+     * 세션 임시 디렉터리를 나누어 둘 볼륨들
+     * */
+    @Autowired
+    private StorageVolumes storageVolumes;
+
+    /*
+     * 만료 세션 정리기
+     * */
+    @Autowired
+    private SessionSweeper sweeper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+
+    /**
+     * 서버 시작시 초기화할 내용.<br/>
+     * (저널 재생으로 세션 및 청크 재조립 상태 복구, 정리)
+     * */
+    @PostConstruct
+    public void init() throws IOException {
+        sweeper.setOnExpire(this::remove);
+        Gauge.builder("upload.sessions.active", sessions, Map::size)
+                .description("유지중인 실시간 업로드 세션 수")
+                .register(meterRegistry);
+
+        if (journalEnabled) {
+            long started = System.nanoTime();
+            journal = new SessionJournal(storageVolumes.getTmpRoot().resolve(JOURNAL), journalMaxBytes);
+            Map<String, SessionJournal.Entry> entries = journal.replay();
+            ByteBuffer buf = ByteBuffer.allocate(RECOVER_BUFFER);
+
+            Iterator<Map.Entry<String, SessionJournal.Entry>> it = entries.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<String, SessionJournal.Entry> m = it.next();
+                String uploadId = m.getKey();
+                SessionJournal.Entry e = m.getValue();
+                Path sessionDir = storageVolumes.restoreSessionDir(uploadId);
+                if (sessionDir == null) {
+                    it.remove();
+                    continue;
+                }
+
+                // 병합 도중 종료된 세션은 다시 finalize 할 수 있도록 되돌림
+                if (e.status == UploadStatus.FINALIZING) e.status = UploadStatus.UPLOADING;
+                UploadSession session = new UploadSession(uploadId, e.source, sessionDir, e.status);
+                try {
+                    if (e.status == UploadStatus.UPLOADING) recover(session, e, buf);
+                } catch (IOException ex) {
+                    log.warn("세션 복구 실패 (" + uploadId + ") : " + ex.getMessage());
+                    storageVolumes.releaseSessionDir(sessionDir);
+                    it.remove();
+                    continue;
+                }
+                session.journal = journal;
+                sessions.put(uploadId, session);
+            }
+            journal.compact(entries);
+            log.info("세션 저널 복구 완료 : " + sessions.size() + "건 ("
+                    + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started) + "ms)");
+        }
+
+        // 복구된 세션은 다시 만료 대상으로 등록하고, 그 외 세션 디렉터리는 정리
+        sessions.values().forEach(sweeper::track);
+        int orphans = 0;
+        for (Volume volume : storageVolumes.getTmpVolumes()) {
+            orphans += sweeper.reclaimOrphans(volume.getRoot(), sessions.keySet());
+        }
+        if (orphans > 0) log.info("남아있던 임시 세션 디렉터리 정리 : " + orphans + "건");
+    }
+
+    @PreDestroy
+    public void destroy() throws IOException {
+        if (journal != null) journal.close();
+    }
+
+
+
+    /**
+     * 세션 생성 및 청크 파일 저장 위치 생성
+     * @param source 업로드 방식
+     * @return 생성된 세션
+     * @throws IOException 청크 파일 저장 위치 생성 예외
+     * */
+    public UploadSession create(UploadSource source) throws IOException {
+        String uploadId = UUID.randomUUID().toString();
+        Path sessionDir = storageVolumes.allocateSessionDir(uploadId);
+        UploadSession session = new UploadSession(uploadId, source, sessionDir, UploadStatus.UPLOADING);
+        try {
+            Files.createDirectories(session.getChunkDir());
+        } catch (IOException e) {
+            storageVolumes.releaseSessionDir(sessionDir);
+            throw e;
+        }
+
+        session.journal = journal;
+        sessions.put(uploadId, session);
+        record(session, null);
+        sweeper.track(session);
+        return session;
+    }
+
+
+    /**
+     * 청크 업로드가 가능한 세션 조회<br/>
+     * finalize 요청보다 늦게 도착하는 청크가 있을 수 있으므로 FINALIZING 상태까지 허용
+     * (FINALIZING 상태에서는 finalize 요청의 전체 청크 수 이내의 seq 만 받음)
+     * @param uploadId 업로드 될 파일의 UUID값
+     * @param source 업로드 방식
+     * @return 세션
+     * @throws NoSessionException 세션 미존재 예외
+     * @throws AlreadyFinalizedException 비 정상 상태 호출 예외
+     * */
+    public UploadSession acquire(String uploadId, UploadSource source) {
+        UploadSession session = find(uploadId, source);
+        if (session.getStatus() == UploadStatus.FINALIZED) throw new AlreadyFinalizedException();
+        session.touch();
+        return session;
+    }
+
+
+    /**
+     * 병합 시작 (UPLOADING -> FINALIZING)<br/>
+     * 동시에 여러번 호출되어도 하나의 요청만 성공함
+     * @param uploadId 업로드 될 파일의 UUID값
+     * @param source 업로드 방식
+     * @param totalChunks 전체 청크 파일 개수 (이후 도착하는 더 큰 seq 는 거절)
+     * @return 세션
+     * @throws NoSessionException 세션 미존재 예외
+     * @throws AlreadyFinalizedException 비 정상 상태 호출 예외
+     * */
+    public UploadSession beginFinalize(String uploadId, UploadSource source, int totalChunks) {
+        UploadSession session = find(uploadId, source);
+        if (!session.transition(UploadStatus.UPLOADING, UploadStatus.FINALIZING)) {
+            throw new AlreadyFinalizedException();
+        }
+        synchronized (session) {
+            session.totalChunks = totalChunks;
+        }
+        record(session, UploadStatus.FINALIZING);
+        return session;
+    }
+
+
+    /**
+     * 병합 완료 (FINALIZING -> FINALIZED)
+     * @param session 세션
+     * */
+    public void completeFinalize(UploadSession session) {
+        if (session.transition(UploadStatus.FINALIZING, UploadStatus.FINALIZED)) {
+            record(session, UploadStatus.FINALIZED);
+            // 보관 시간이 지나면 정리되도록 만료 시각을 앞당김
+            session.touch();
+            sweeper.track(session);
+        }
+    }
+
+
+    /**
+     * 병합 실패 시 다시 시도할 수 있도록 되돌림 (FINALIZING -> UPLOADING)
+     * @param session 세션
+     * */
+    public void abortFinalize(UploadSession session) {
+        if (session.transition(UploadStatus.FINALIZING, UploadStatus.UPLOADING)) {
+            synchronized (session) {
+                session.totalChunks = 0;
+            }
+            session.reopenStream();
+            record(session, UploadStatus.UPLOADING);
+        }
+    }
+
+
+    /**
+     * 세션 제거 (SessionSweeper 가 임시 파일 삭제 전 호출)
+     * @param session 세션
+     * */
+    public void remove(UploadSession session) {
+        if (!sessions.remove(session.getUploadId(), session)) return;
+        storageVolumes.releaseSessionDir(session.getSessionDir());
+        if (journal != null) {
+            try {
+                journal.removed(session);
+            } catch (IOException e) {
+                log.warn("세션 저널 기록 오류 : " + e.getMessage());
+            }
+        }
+    }
+
+
+    /**
+     * 세션 조회 (만료 시각은 갱신하지 않음, 실시간 청취 등 조회 용도)
+     * @param uploadId 업로드 될 파일의 UUID값
+     * @param source 업로드 방식
+     * @return 세션
+     * @throws NoSessionException 세션 미존재 예외
+     * */
+    public UploadSession find(String uploadId, UploadSource source) {
+        UploadSession session = uploadId == null ? null : sessions.get(uploadId);
+        if (session == null || session.getSource() != source) throw new NoSessionException();
+        return session;
+    }
+
+    /**
+     * 저널 기록으로 청크 재조립 상태(nextSeq, 이어붙여진 크기, 보관 청크) 복구<br/>
+     * stream 파일은 마지막 청크만 CRC 로 확인하고, 저널에 기록되지 않은 뒷부분(기록 도중 종료)은 잘라냄
+     * @param session 복구할 세션
+     * @param e 저널 재생 결과 (복구 결과에 맞게 정리됨)
+     * @param buf CRC 계산 버퍼
+     * @throws IOException stream 파일 읽기/자르기 예외
+     * */
+    private void recover(UploadSession session, SessionJournal.Entry e, ByteBuffer buf) throws IOException {
+        List<SessionJournal.Chunk> commits = e.commits;
+        Path stream = session.getStreamFile();
+
+        if (!commits.isEmpty() || Files.exists(stream)) {
+            try (FileChannel ch = FileChannel.open(stream, StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                long size = ch.size();
+
+                // fsync 전 데이터가 유실된 경우(전원 차단 등) 파일에 온전히 남아있는 청크까지 되돌림
+                int last = commits.size() - 1;
+                while (last >= 0) {
+                    SessionJournal.Chunk c = commits.get(last);
+                    if (c.offset() + c.length() <= size
+                            && SessionJournal.crc(ch, c.offset(), c.length(), buf) == c.crc()) break;
+                    last--;
+                }
+                if (last < commits.size() - 1) {
+                    log.warn("세션 복구 (" + session.getUploadId() + ") : 유실된 청크 " + (commits.size() - 1 - last) + "개 제외");
+                    commits.subList(last + 1, commits.size()).clear();
+                }
+
+                SessionJournal.Chunk base = last >= 0 ? commits.get(last) : null;
+                long end = base == null ? 0 : base.offset() + base.length();
+                if (size > end) ch.truncate(end);
+                // 복구된 상태를 디스크에 기록하고 마지막 청크 기록만 남김 (이전 기록은 compact 에서 버림)
+                if (end > 0 || size > 0) ch.force(false);
+                if (last > 0) commits.subList(0, last).clear();
+
+                session.nextSeq = base == null ? 1 : base.seq() + 1;
+                session.committedBytes = end;
+            }
+        }
+
+        // 보관 청크는 크기와 CRC 가 맞는 것만 다시 사용 (그 외는 클라이언트가 재전송)
+        Iterator<SessionJournal.Chunk> it = e.buffered.values().iterator();
+        while (it.hasNext()) {
+            SessionJournal.Chunk c = it.next();
+            Path part = session.getChunkFile(c.seq());
+            if (c.seq() >= session.nextSeq && intact(part, c, buf)) {
+                session.received.set(c.seq());
+                session.ready.set(c.seq());
+            } else {
+                Files.deleteIfExists(part);
+                it.remove();
+            }
+        }
+    }
+
+    private static boolean intact(Path part, SessionJournal.Chunk c, ByteBuffer buf) throws IOException {
+        try (FileChannel in = FileChannel.open(part, StandardOpenOption.READ)) {
+            return in.size() == c.length() && SessionJournal.crc(in, 0, c.length(), buf) == c.crc();
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+    }
+
+    private void record(UploadSession session, UploadStatus status) {
+        if (journal == null) return;
+        try {
+            if (status == null) journal.created(session);
+            else journal.status(session, status);
+        } catch (IOException e) {
+            log.warn("세션 저널 기록 오류 : " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.audio_upload_web.common.session;
+
+/*
+ * 업로드 처리 과정 3단계
+ *
+ * 1. UPLOADING : 파일이 업로드 중
+ * 2. FINALIZING : 파일 병합 처리과정 중
+ * 3. FINALIZED : 파일 병합 완료
+ * */
+public enum UploadStatus {
+    UPLOADING,
+    FINALIZING,
+    FINALIZED
+}
@@ -0,0 +1,163 @@
+package com.example.audio_upload_web.common.storage;
+
+import lombok.extern.log4j.Log4j2;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * 내용 주소 저장소의 해시 색인 (해시 -> blob key / 크기 / 참조 수)<br/>
+ * 메모리에 보관하고 변경될 때마다 로그 파일에 한 줄씩 추가하며, 처음 사용할 때 로그를 읽어 만듦
+ *
+ * <pre>
+ * 로그 : {hash} {refs} {size} {key} (같은 해시는 마지막 줄이 유효, refs 0 은 삭제)
+ *  - 읽은 뒤 유효한 줄만 남도록 다시 작성 (기록 중 종료로 잘린 마지막 줄은 무시)
+ *  - 로그가 없으면 blob 디렉터리를 순회하여 다시 만듦 (참조 수를 알 수 없으므로 PINNED)
+ * </pre>
+ * 복합 연산(조회 후 변경)은 호출하는 쪽에서 이 객체로 synchronized
+ * */
+@Log4j2
+final class BlobIndex {
+
+    /*
+     * 참조 수를 알 수 없는 blob (삭제하지 않음)
+     * */
+    static final int PINNED = -1;
+
+    record Blob(String key, long size, int refs) {
+
+        Blob retain() {
+            return refs == PINNED ? this : new Blob(key, size, refs + 1);
+        }
+
+        Blob release() {
+            return refs == PINNED ? this : new Blob(key, size, refs - 1);
+        }
+    }
+
+    private final Path file;
+
+    /*
+     * 로그가 없을 때 blob 디렉터리를 순회하여 만드는 함수
+     * */
+    private final Supplier<Map<String, Blob>> rebuild;
+
+    /*
+     * 해시 -> blob, key -> 해시 (처음 사용 전 null)
+     * */
+    private Map<String, Blob> blobs;
+    private Map<String, String> hashes;
+
+    /*
+     * 로그 파일 (이어서 기록)
+     * */
+    private Writer out;
+
+
+    BlobIndex(Path file, Supplier<Map<String, Blob>> rebuild) {
+        this.file = file;
+        this.rebuild = rebuild;
+    }
+
+
+    synchronized Blob get(String hash) throws IOException {
+        load();
+        return blobs.get(hash);
+    }
+
+    synchronized String hashOf(String key) throws IOException {
+        load();
+        return hashes.get(key);
+    }
+
+    /**
+     * blob 기록 / 변경 (refs 0 이면 삭제)
+     * @param hash 내용 해시
+     * @param blob blob 정보
+     * @throws IOException 로그 기록 예외
+     * */
+    synchronized void put(String hash, Blob blob) throws IOException {
+        load();
+        out.write(line(hash, blob));
+        out.flush();
+        apply(hash, blob);
+    }
+
+    synchronized void close() {
+        if (out == null) return;
+        try {
+            out.close();
+        } catch (IOException e) {
+            log.warn("blob 색인 로그 닫기 오류 : " + e.getMessage());
+        }
+        out = null;
+        blobs = null;
+        hashes = null;
+    }
+
+
+    private void load() throws IOException {
+        if (blobs != null) return;
+        blobs = new HashMap<>();
+        hashes = new HashMap<>();
+        try {
+            read();
+            // 유효한 줄만 남기고 이후 변경은 이어서 기록
+            Files.createDirectories(file.getParent());
+            Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+            try (BufferedWriter w = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+                for (Map.Entry<String, Blob> e : blobs.entrySet()) w.write(line(e.getKey(), e.getValue()));
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            out = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+        } catch (IOException | RuntimeException e) {
+            // 다음 사용 시 다시 시도
+            blobs = null;
+            hashes = null;
+            throw e;
+        }
+    }
+
+    private void read() throws IOException {
+        try (BufferedReader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                String[] f = line.split(" ", 4);
+                try {
+                    apply(f[0], new Blob(f[3], Long.parseLong(f[2]), Integer.parseInt(f[1])));
+                } catch (RuntimeException e) {
+                    log.warn("blob 색인 로그의 잘못된 줄 무시 : " + line);
+                }
+            }
+        } catch (NoSuchFileException e) {
+            try {
+                rebuild.get().forEach(this::apply);
+            } catch (UncheckedIOException ue) {
+                throw ue.getCause();
+            }
+            log.info("blob 색인 재구성 : " + blobs.size() + "개");
+        }
+    }
+
+    private void apply(String hash, Blob blob) {
+        Blob old = blob.refs() == 0 ? blobs.remove(hash) : blobs.put(hash, blob);
+        if (old != null) hashes.remove(old.key());
+        if (blob.refs() != 0) hashes.put(blob.key(), hash);
+    }
+
+    private static String line(String hash, Blob blob) {
+        return hash + " " + blob.refs() + " " + blob.size() + " " + blob.key() + "\n";
+    }
+}
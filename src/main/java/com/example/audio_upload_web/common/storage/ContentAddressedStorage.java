@@ -0,0 +1,276 @@
+package com.example.audio_upload_web.common.storage;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 저장 볼륨에 내용(SHA-256) 기준으로 최종 파일을 기록하는 저장소 (upload.storage.backend=cas)<br/>
+ * 같은 내용의 파일이 다시 업로드되면 새로 기록한 파일은 버리고 기존 blob 의 key 를 발급함
+ *
+ * <pre>
+ * 1. begin : cas/tmp 에 임시 파일 할당
+ * 2. openStream 으로 기록하면 기록하면서 해시 계산 (getPath 로 기록한 경우 complete 에서 파일을 읽어 계산)
+ * 3. complete : 색인에 같은 해시 / 크기의 blob 이 있으면 참조 수 증가 후 임시 파일 삭제,
+ *               없으면 임시 파일을 blob 위치로 이동 (같은 볼륨 내 rename)
+ * 4. delete : 참조 수 감소, 마지막 참조일 때만 blob 삭제
+ *
+ * key   : {볼륨 번호}/cas/{해시 앞 2자리}/{해시}.{확장자}
+ * 색인  : 첫번째 볼륨의 cas/index.log (BlobIndex)
+ * </pre>
+ * */
+@Component
+@ConditionalOnProperty(name = "upload.storage.backend", havingValue = "cas")
+@Log4j2
+public class ContentAddressedStorage implements ObjectStorage {
+
+    static final String CAS_DIR = "cas";
+    private static final String TMP_DIR = CAS_DIR + "/tmp";
+    private static final String INDEX_LOG = "index.log";
+    private static final String HASH = "SHA-256";
+
+    private final StorageVolumes storageVolumes;
+    private final BlobIndex index;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter savedBytes;
+
+
+    public ContentAddressedStorage(StorageVolumes storageVolumes, MeterRegistry meterRegistry) {
+        this.storageVolumes = storageVolumes;
+        this.index = new BlobIndex(storageVolumes.getUploadVolumes().get(0).getRoot().resolve(CAS_DIR).resolve(INDEX_LOG), this::scan);
+        this.hits = Counter.builder("upload.storage.dedup").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("upload.storage.dedup").tag("result", "miss").register(meterRegistry);
+        this.savedBytes = Counter.builder("upload.storage.dedup.saved").baseUnit("bytes").register(meterRegistry);
+        cleanTmp();
+    }
+
+    @PreDestroy
+    public void destroy() {
+        index.close();
+    }
+
+
+    @Override
+    public StorageUpload begin(String fileName) throws IOException {
+        return new CasUpload(storageVolumes.allocateIn(TMP_DIR, UUID.randomUUID() + "-" + fileName), extension(fileName));
+    }
+
+    @Override
+    public InputStream open(String key) throws IOException {
+        return Files.newInputStream(storageVolumes.resolve(key));
+    }
+
+    @Override
+    public Path localPath(String key) {
+        return storageVolumes.resolve(key);
+    }
+
+    @Override
+    public boolean delete(String key) throws IOException {
+        Path path = storageVolumes.resolve(key);
+        synchronized (index) {
+            String hash = index.hashOf(key);
+            if (hash == null) {
+                // 색인에 없는 blob 은 참조 수를 알 수 없으므로 유지, 그 외(local 저장소에서 옮겨온 key)는 바로 삭제
+                if (isBlob(key)) return false;
+                return Files.deleteIfExists(path);
+            }
+
+            BlobIndex.Blob blob = index.get(hash).release();
+            if (blob.refs() == BlobIndex.PINNED) return false;
+            index.put(hash, blob);
+            return blob.refs() == 0 && Files.deleteIfExists(path);
+        }
+    }
+
+
+    /*
+     * 기록을 마친 임시 파일을 blob 으로 등록
+     * @return blob key
+     * */
+    private String commit(StoredFile tmp, String hash, long size, String ext) throws IOException {
+        synchronized (index) {
+            BlobIndex.Blob blob = index.get(hash);
+            if (blob != null && blob.size() == size && Files.exists(storageVolumes.resolve(blob.key()))) {
+                index.put(hash, blob.retain());
+                Files.deleteIfExists(tmp.getPath());
+                hits.increment();
+                savedBytes.increment(size);
+                return blob.key();
+            }
+
+            Volume volume = tmp.getVolume();
+            String relative = CAS_DIR + "/" + hash.substring(0, 2) + "/" + hash + ext;
+            Path target = volume.getRoot().resolve(relative);
+            Files.createDirectories(target.getParent());
+            // 색인 기록 전 종료되어 색인에 없는 blob 이 남아 있으면 이미 발급된 key 가 있을 수 있으므로 삭제하지 않는 blob 으로 둠
+            boolean orphan = Files.exists(target);
+            Files.move(tmp.getPath(), target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            String key = volume.getIndex() + "/" + relative;
+            index.put(hash, new BlobIndex.Blob(key, size, orphan ? BlobIndex.PINNED : 1));
+            misses.increment();
+            return key;
+        }
+    }
+
+    /*
+     * 색인 로그가 없을 때 blob 디렉터리 순회 (참조 수를 알 수 없으므로 PINNED)
+     * */
+    private Map<String, BlobIndex.Blob> scan() {
+        Map<String, BlobIndex.Blob> blobs = new HashMap<>();
+        for (Volume volume : storageVolumes.getUploadVolumes()) {
+            Path casDir = volume.getRoot().resolve(CAS_DIR);
+            try (DirectoryStream<Path> dirs = Files.newDirectoryStream(casDir, "??")) {
+                for (Path dir : dirs) {
+                    if (!Files.isDirectory(dir)) continue;
+                    try (DirectoryStream<Path> files = Files.newDirectoryStream(dir)) {
+                        for (Path file : files) {
+                            String name = file.getFileName().toString();
+                            int dot = name.indexOf('.');
+                            String hash = dot < 0 ? name : name.substring(0, dot);
+                            String key = volume.getIndex() + "/" + CAS_DIR + "/" + dir.getFileName() + "/" + name;
+                            blobs.put(hash, new BlobIndex.Blob(key, Files.size(file), BlobIndex.PINNED));
+                        }
+                    }
+                }
+            } catch (NoSuchFileException ignore) {
+                // blob 이 없는 볼륨
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return blobs;
+    }
+
+    /*
+     * 종료 전 complete 되지 않은 임시 파일 정리
+     * */
+    private void cleanTmp() {
+        for (Volume volume : storageVolumes.getUploadVolumes()) {
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(volume.getRoot().resolve(TMP_DIR))) {
+                for (Path file : files) Files.deleteIfExists(file);
+            } catch (NoSuchFileException ignore) {
+            } catch (IOException e) {
+                log.warn("cas 임시 파일 정리 오류 : " + e.getMessage());
+            }
+        }
+    }
+
+    private static boolean isBlob(String key) {
+        int slash = key.indexOf('/');
+        return slash > 0 && key.startsWith(CAS_DIR + "/", slash + 1);
+    }
+
+    private static String extension(String fileName) {
+        int dot = fileName.lastIndexOf('.');
+        return dot < 0 ? "" : fileName.substring(dot);
+    }
+
+    private static MessageDigest digest() {
+        try {
+            return MessageDigest.getInstance(HASH);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /*
+     * getPath 로 기록된 파일의 해시
+     * */
+    private static byte[] hash(Path file) throws IOException {
+        MessageDigest digest = digest();
+        ByteBuffer buf = ByteBuffer.allocate(64 << 10);
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            while (ch.read(buf.clear()) >= 0) digest.update(buf.flip());
+        }
+        return digest.digest();
+    }
+
+
+    /*
+     * cas/tmp 에 기록 후 complete 에서 blob 으로 등록
+     * */
+    private class CasUpload implements StorageUpload {
+
+        private final StoredFile tmp;
+        private final String ext;
+
+        /*
+         * openStream 으로 기록하는 경우 기록하면서 계산한 해시
+         * */
+        private MessageDigest digest;
+        private String key;
+
+        CasUpload(StoredFile tmp, String ext) {
+            this.tmp = tmp;
+            this.ext = ext;
+        }
+
+        @Override
+        public String getKey() {
+            if (key == null) throw new IllegalStateException("complete 전에는 key 가 정해지지 않음");
+            return key;
+        }
+
+        @Override
+        public String getLocation() {
+            return storageVolumes.resolve(getKey()).toString();
+        }
+
+        @Override
+        public Path getPath() {
+            return tmp.getPath();
+        }
+
+        @Override
+        public OutputStream openStream() throws IOException {
+            digest = digest();
+            return new DigestOutputStream(Files.newOutputStream(tmp.getPath()), digest);
+        }
+
+        @Override
+        public long complete() throws IOException {
+            long size = Files.size(tmp.getPath());
+            byte[] hash = digest != null ? digest.digest() : hash(tmp.getPath());
+            key = commit(tmp, HexFormat.of().formatHex(hash), size, ext);
+            return size;
+        }
+
+        @Override
+        public void close() {
+            tmp.close();
+            if (key != null) return;
+            try {
+                Files.deleteIfExists(tmp.getPath());
+            } catch (IOException e) {
+                log.warn("기록 실패 파일 삭제 오류 : " + e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.audio_upload_web.common.storage;
+
+import lombok.extern.log4j.Log4j2;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * 저장 볼륨에 최종 파일을 기록하는 저장소 (upload.storage.backend=local, 기본값)
+ * */
+@Component
+@ConditionalOnProperty(name = "upload.storage.backend", havingValue = "local", matchIfMissing = true)
+@Log4j2
+public class LocalObjectStorage implements ObjectStorage {
+
+    private final StorageVolumes storageVolumes;
+
+
+    public LocalObjectStorage(StorageVolumes storageVolumes) {
+        this.storageVolumes = storageVolumes;
+    }
+
+
+    @Override
+    public StorageUpload begin(String fileName) throws IOException {
+        return new LocalUpload(storageVolumes.allocate(fileName));
+    }
+
+    @Override
+    public InputStream open(String key) throws IOException {
+        return Files.newInputStream(storageVolumes.resolve(key));
+    }
+
+    @Override
+    public Path localPath(String key) {
+        return storageVolumes.resolve(key);
+    }
+
+    @Override
+    public boolean delete(String key) throws IOException {
+        return Files.deleteIfExists(storageVolumes.resolve(key));
+    }
+
+
+    /*
+     * 할당받은 볼륨 경로에 바로 기록
+     * */
+    private static class LocalUpload implements StorageUpload {
+
+        private final StoredFile stored;
+        private boolean completed;
+
+        LocalUpload(StoredFile stored) {
+            this.stored = stored;
+        }
+
+        @Override
+        public String getKey() {
+            return stored.getKey();
+        }
+
+        @Override
+        public String getLocation() {
+            return stored.getPath().toString();
+        }
+
+        @Override
+        public Path getPath() {
+            return stored.getPath();
+        }
+
+        @Override
+        public OutputStream openStream() throws IOException {
+            return Files.newOutputStream(stored.getPath());
+        }
+
+        @Override
+        public long complete() throws IOException {
+            long size = Files.size(stored.getPath());
+            completed = true;
+            return size;
+        }
+
+        @Override
+        public void close() {
+            stored.close();
+            if (completed) return;
+            try {
+                Files.deleteIfExists(stored.getPath());
+            } catch (IOException e) {
+                log.warn("기록 실패 파일 삭제 오류 : " + e.getMessage());
+            }
+        }
+    }
+}
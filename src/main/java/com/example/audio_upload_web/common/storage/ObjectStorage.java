@@ -0,0 +1,55 @@
+package com.example.audio_upload_web.common.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+
+/**
+ * 최종 파일 저장소 (upload.storage.backend)<br/>
+ * 업로드 방식과 관계없이 최종 파일은 이 저장소를 통해서만 기록하고, 응답의 key 로 다시 읽음
+ *
+ * <pre>
+ * local : 저장 볼륨(StorageVolumes)에 기록 (기본값)
+ * s3    : S3 호환 저장소에 multipart 로 기록 (웹 서버 간 공유 디스크 불필요)
+ * cas   : 저장 볼륨에 내용(SHA-256) 기준으로 기록 (같은 내용은 한번만 저장하고 같은 key 를 발급)
+ * </pre>
+ * */
+public interface ObjectStorage {
+
+    /**
+     * 최종 파일 기록 시작
+     * @param fileName 파일명
+     * @return 기록 핸들 (complete 하지 않고 close 하면 기록한 내용은 버려짐)
+     * @throws IOException 저장 위치 준비 예외
+     * */
+    StorageUpload begin(String fileName) throws IOException;
+
+    /**
+     * key 로 최종 파일 읽기
+     * @param key complete 된 기록의 key
+     * @return 파일 내용
+     * @throws IOException 파일 미존재, 읽기 예외
+     * @throws IllegalArgumentException 잘못된 key 예외
+     * */
+    InputStream open(String key) throws IOException;
+
+    /**
+     * key 참조 해제 (최종 파일 삭제)<br/>
+     * 내용 주소 저장소는 같은 내용을 참조하는 업로드가 남아 있으면 파일을 지우지 않음
+     * @param key complete 된 기록의 key
+     * @return 파일 삭제 여부
+     * @throws IOException 삭제 예외
+     * @throws IllegalArgumentException 잘못된 key 예외
+     * */
+    boolean delete(String key) throws IOException;
+
+    /**
+     * key 의 로컬 파일 경로 (파일을 직접 보낼 수 있는 저장소만 지원)
+     * @param key complete 된 기록의 key
+     * @return 파일 경로 (원격 저장소는 null)
+     * @throws IllegalArgumentException 잘못된 key 예외
+     * */
+    default Path localPath(String key) {
+        return null;
+    }
+}
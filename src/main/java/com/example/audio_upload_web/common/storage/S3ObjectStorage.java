@@ -0,0 +1,165 @@
+package com.example.audio_upload_web.common.storage;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3ClientBuilder;
+import software.amazon.awssdk.services.s3.S3Configuration;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * S3 호환 저장소에 최종 파일을 기록하는 저장소 (upload.storage.backend=s3)<br/>
+ * 전체 파일이 완성되기를 기다리지 않고 part-size 단위로 완성된 구간부터 병렬 multipart 전송함
+ *
+ * <pre>
+ * key : {yyyy-MM-dd}/{해시}/{파일명} (버킷 내 경로는 prefix + key)
+ * </pre>
+ * */
+@Component
+@ConditionalOnProperty(name = "upload.storage.backend", havingValue = "s3")
+@Log4j2
+public class S3ObjectStorage implements ObjectStorage {
+
+    /*
+     * S3 multipart 최소 part 크기 (마지막 part 제외)
+     * */
+    static final int MIN_PART_SIZE = 5 << 20;
+
+    final S3Client client;
+    final String bucket;
+    final String prefix;
+    final int partSize;
+
+    /*
+     * 업로드 하나가 동시에 전송(메모리에 보관)할 수 있는 최대 part 수
+     * */
+    final int maxInflightParts;
+
+    /*
+     * 날짜 디렉터리 아래 해시 하위 디렉터리 수 (1 이하면 나누지 않음)
+     * */
+    private final int fanout;
+
+    /*
+     * 파일로 기록하는 생산자(ffmpeg 등)가 기록할 임시 파일 위치 (재시작 시 세션 디렉터리와 함께 정리됨)
+     * */
+    private final Path spoolDir;
+
+    /*
+     * part 전송 스레드 / 기록중인 파일 확인 스레드
+     * */
+    final ExecutorService partUploader;
+    final ScheduledExecutorService tailer;
+
+    /*
+     * 기록중인 파일 확인 간격
+     * */
+    final long tailIntervalMs;
+
+
+    public S3ObjectStorage(StorageVolumes storageVolumes,
+                           @Value("${upload.storage.s3.endpoint:}") String endpoint,
+                           @Value("${upload.storage.s3.region:us-east-1}") String region,
+                           @Value("${upload.storage.s3.bucket}") String bucket,
+                           @Value("${upload.storage.s3.prefix:}") String prefix,
+                           @Value("${upload.storage.s3.access-key:}") String accessKey,
+                           @Value("${upload.storage.s3.secret-key:}") String secretKey,
+                           @Value("${upload.storage.s3.path-style:false}") boolean pathStyle,
+                           @Value("${upload.storage.s3.part-size:8388608}") int partSize,
+                           @Value("${upload.storage.s3.upload-threads:8}") int uploadThreads,
+                           @Value("${upload.storage.s3.max-inflight-parts:4}") int maxInflightParts,
+                           @Value("${upload.storage.s3.tail-interval-ms:200}") long tailIntervalMs,
+                           @Value("${upload.storage.fanout:256}") int fanout) {
+        AwsCredentialsProvider credentials = accessKey.isBlank()
+                ? DefaultCredentialsProvider.create()
+                : StaticCredentialsProvider.create(AwsBasicCredentials.create(accessKey, secretKey));
+        S3ClientBuilder builder = S3Client.builder()
+                .region(Region.of(region))
+                .credentialsProvider(credentials)
+                .serviceConfiguration(S3Configuration.builder().pathStyleAccessEnabled(pathStyle).build());
+        if (!endpoint.isBlank()) builder.endpointOverride(URI.create(endpoint));
+
+        this.client = builder.build();
+        this.bucket = bucket;
+        this.prefix = prefix.isEmpty() || prefix.endsWith("/") ? prefix : prefix + "/";
+        this.partSize = Math.max(partSize, MIN_PART_SIZE);
+        this.maxInflightParts = Math.max(1, maxInflightParts);
+        this.tailIntervalMs = tailIntervalMs;
+        this.fanout = fanout;
+
+        this.spoolDir = storageVolumes.getTmpRoot().resolve("spool");
+
+        AtomicInteger seq = new AtomicInteger();
+        this.partUploader = Executors.newFixedThreadPool(Math.max(1, uploadThreads), r -> {
+            Thread t = new Thread(r, "s3-part-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        this.tailer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "s3-tail");
+            t.setDaemon(true);
+            return t;
+        });
+
+        log.info("S3 저장소 : " + bucket + "/" + this.prefix + " (part " + this.partSize + " bytes)");
+    }
+
+    @PreDestroy
+    public void destroy() {
+        tailer.shutdownNow();
+        partUploader.shutdown();
+        client.close();
+    }
+
+
+    @Override
+    public StorageUpload begin(String fileName) {
+        String key = LocalDate.now() + "/" + StorageVolumes.hashDir(fileName, fanout) + fileName;
+        Path spool = spoolDir.resolve(UUID.randomUUID() + "-" + fileName);
+        return new S3Upload(this, key, prefix + key, spool);
+    }
+
+    @Override
+    public InputStream open(String key) throws IOException {
+        if (key.contains("..")) throw new IllegalArgumentException("잘못된 key : " + key);
+        try {
+            return client.getObject(b -> b.bucket(bucket).key(prefix + key));
+        } catch (NoSuchKeyException e) {
+            throw new FileNotFoundException(key);
+        } catch (SdkException e) {
+            throw new IOException("S3 읽기 오류 : " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public boolean delete(String key) throws IOException {
+        if (key.contains("..")) throw new IllegalArgumentException("잘못된 key : " + key);
+        try {
+            client.deleteObject(b -> b.bucket(bucket).key(prefix + key));
+            return true;
+        } catch (SdkException e) {
+            throw new IOException("S3 삭제 오류 : " + e.getMessage(), e);
+        }
+    }
+}
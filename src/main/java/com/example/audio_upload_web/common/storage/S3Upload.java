@@ -0,0 +1,392 @@
+package com.example.audio_upload_web.common.storage;
+
+import lombok.extern.log4j.Log4j2;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.UploadPartResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * S3 multipart 기록 핸들 (S3ObjectStorage.begin)
+ *
+ * <pre>
+ * openStream : part-size 만큼 모이면 바로 전송 (메모리에는 max-inflight-parts 개까지만 보관)
+ * getPath    : 생산자가 임시 파일에 기록하는 동안 주기적으로 크기를 확인하여 완성된 part 부터 전송
+ *              - 첫 part 는 헤더가 다시 기록될 수 있으므로 complete 시 마지막에 전송
+ *              - 기록 도중에는 한 part 만큼 늦게 전송 (ffmpeg 이 클러스터 크기를 되돌아가 기록)
+ *              - 파일이 교체되거나 줄어들면 (remux 실패 후 ffmpeg 재기록 등) 처음부터 다시 전송
+ *              - 전송중인 part 가 max-inflight-parts 개면 기다리지 않고 다음 확인 때 이어서 전송
+ *                (남은 part 를 기다려 전송하는 것은 complete 에서만)
+ * </pre>
+ * */
+@Log4j2
+class S3Upload implements StorageUpload {
+
+    private final S3ObjectStorage storage;
+    private final String key;
+    private final String objectKey;
+    private final Path spool;
+
+    /*
+     * multipart 상태 (this 로 잠금, 완료된 part 는 part 번호 순으로 보관)
+     * */
+    private String uploadId;
+    private final Map<Integer, CompletedPart> parts = new ConcurrentSkipListMap<>();
+    private final List<Future<?>> pending = new ArrayList<>();
+    private final Semaphore inflight;
+
+    /*
+     * 파일 모드 : 다음에 전송할 구간 시작 위치 (첫 part 이후부터), 기록중인 파일 식별자, 확인 작업
+     * */
+    private long shipped;
+    private Object fileKey;
+    private ScheduledFuture<?> tailTask;
+    private volatile IOException tailError;
+
+    /*
+     * 스트림 모드
+     * */
+    private PartStream stream;
+
+    private boolean completed;
+
+
+    S3Upload(S3ObjectStorage storage, String key, String objectKey, Path spool) {
+        this.storage = storage;
+        this.key = key;
+        this.objectKey = objectKey;
+        this.spool = spool;
+        this.inflight = new Semaphore(storage.maxInflightParts);
+        this.shipped = storage.partSize;
+    }
+
+
+    @Override
+    public String getKey() {
+        return key;
+    }
+
+    @Override
+    public String getLocation() {
+        return "s3://" + storage.bucket + "/" + objectKey;
+    }
+
+    @Override
+    public synchronized Path getPath() throws IOException {
+        if (stream != null) throw new IllegalStateException("스트림으로 기록중");
+        if (tailTask == null) {
+            // 재시작 시 남아있던 임시 파일과 함께 정리될 수 있으므로 매번 확인
+            Files.createDirectories(spool.getParent());
+            tailTask = storage.tailer.scheduleWithFixedDelay(this::tailQuietly,
+                    storage.tailIntervalMs, storage.tailIntervalMs, TimeUnit.MILLISECONDS);
+        }
+        return spool;
+    }
+
+    @Override
+    public synchronized OutputStream openStream() {
+        if (tailTask != null) throw new IllegalStateException("파일로 기록중");
+        if (stream == null) stream = new PartStream();
+        return stream;
+    }
+
+
+    @Override
+    public long complete() throws IOException {
+        long size;
+        if (tailTask != null) {
+            tailTask.cancel(false);
+            if (tailError != null) throw tailError;
+            size = tail(true);
+        } else if (stream != null) {
+            size = stream.finish();
+        } else {
+            throw new IllegalStateException("기록된 내용 없음");
+        }
+
+        try {
+            synchronized (this) {
+                await();
+                if (size == 0) {
+                    // multipart 는 빈 파일을 만들 수 없으므로 단일 요청으로 기록
+                    abortMultipart();
+                    storage.client.putObject(b -> b.bucket(storage.bucket).key(objectKey), RequestBody.empty());
+                } else {
+                    String id = uploadId;
+                    List<CompletedPart> completedParts = List.copyOf(parts.values());
+                    storage.client.completeMultipartUpload(b -> b.bucket(storage.bucket).key(objectKey)
+                            .uploadId(id).multipartUpload(m -> m.parts(completedParts)));
+                }
+                completed = true;
+            }
+        } catch (SdkException e) {
+            throw new IOException("S3 전송 오류 : " + e.getMessage(), e);
+        }
+        Files.deleteIfExists(spool);
+        return size;
+    }
+
+
+    @Override
+    public void close() {
+        if (tailTask != null) tailTask.cancel(false);
+        synchronized (this) {
+            if (completed) return;
+            try {
+                await();
+            } catch (IOException ignore) {}
+            abortMultipart();
+        }
+        try {
+            Files.deleteIfExists(spool);
+        } catch (IOException e) {
+            log.warn("S3 임시 파일 삭제 오류 : " + e.getMessage());
+        }
+    }
+
+
+    private void tailQuietly() {
+        try {
+            tail(false);
+        } catch (IOException | RuntimeException e) {
+            tailError = e instanceof IOException io ? io : new IOException(e.getMessage(), e);
+            tailTask.cancel(false);
+        }
+    }
+
+    /**
+     * 임시 파일에서 완성된 구간 전송
+     * @param last 기록이 끝난 상태 (남은 구간과 첫 part 까지 전송)
+     * @return 파일 크기
+     * */
+    private synchronized long tail(boolean last) throws IOException {
+        BasicFileAttributes attrs;
+        try {
+            attrs = Files.readAttributes(spool, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            if (last) throw new FileNotFoundException(spool.toString());
+            return 0; // 아직 생성되지 않았거나 교체중
+        }
+
+        long size = attrs.size();
+        boolean replaced = fileKey != null && !Objects.equals(fileKey, attrs.fileKey());
+        if (replaced || (shipped > storage.partSize && size < shipped)) restart();
+        fileKey = attrs.fileKey();
+
+        int partSize = storage.partSize;
+        long lag = last ? 0 : partSize;
+        try (FileChannel ch = FileChannel.open(spool, StandardOpenOption.READ)) {
+            while (shipped + partSize + lag <= size) {
+                // 기록 도중에는 전송 자리가 없으면 남은 part 는 다음 확인 때 전송 (공용 확인 스레드를 막지 않음)
+                if (!acquire(last)) break;
+                ship(partNumber(shipped), ch, shipped, partSize);
+                shipped += partSize;
+            }
+            if (last && size > 0) {
+                if (shipped < size) {
+                    int n = (int) (size - shipped);
+                    acquire(true);
+                    ship(partNumber(shipped), ch, shipped, n);
+                    shipped = size;
+                }
+                int first = (int) Math.min(partSize, size);
+                acquire(true);
+                ship(1, ch, 0, first);
+            }
+        }
+        return size;
+    }
+
+    /**
+     * 임시 파일이 다시 기록되는 경우 지금까지 전송한 part 를 버리고 처음부터 전송
+     * */
+    private synchronized void restart() {
+        log.debug("S3 전송 재시작 (임시 파일 재기록) : " + objectKey);
+        try {
+            await();
+        } catch (IOException ignore) {}
+        abortMultipart();
+        shipped = storage.partSize;
+        fileKey = null;
+    }
+
+
+    /**
+     * 전송 자리 획득
+     * @param wait 자리가 날 때까지 대기 (false 면 자리가 없을 때 바로 false)
+     * @return 획득 여부
+     * */
+    private boolean acquire(boolean wait) throws IOException {
+        if (!wait) return inflight.tryAcquire();
+        try {
+            inflight.acquire();
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("S3 전송 대기 중단");
+        }
+    }
+
+    /**
+     * 임시 파일 구간을 읽어 전송 (전송 자리를 얻은 상태에서 호출)
+     * */
+    private void ship(int partNumber, FileChannel ch, long position, int length) throws IOException {
+        byte[] data;
+        try {
+            data = read(ch, position, length);
+        } catch (IOException | RuntimeException e) {
+            inflight.release();
+            throw e;
+        }
+        submit(partNumber, data, length);
+    }
+
+    /**
+     * part 전송 요청 (전송 자리를 얻은 상태에서 호출, 전송이 끝나거나 요청에 실패하면 자리 반납)
+     * */
+    private synchronized void submit(int partNumber, byte[] data, int length) throws IOException {
+        try {
+            String id = uploadId();
+            pending.add(storage.partUploader.submit(() -> {
+                try {
+                    UploadPartResponse r = storage.client.uploadPart(b -> b.bucket(storage.bucket).key(objectKey)
+                                    .uploadId(id).partNumber(partNumber).contentLength((long) length),
+                            RequestBody.fromInputStream(new ByteArrayInputStream(data, 0, length), length));
+                    parts.put(partNumber, CompletedPart.builder().partNumber(partNumber).eTag(r.eTag()).build());
+                } finally {
+                    inflight.release();
+                }
+            }));
+        } catch (IOException | RuntimeException e) {
+            inflight.release();
+            throw e;
+        }
+    }
+
+    private synchronized String uploadId() throws IOException {
+        if (uploadId == null) {
+            try {
+                uploadId = storage.client.createMultipartUpload(b -> b.bucket(storage.bucket).key(objectKey)).uploadId();
+            } catch (SdkException e) {
+                throw new IOException("S3 multipart 시작 오류 : " + e.getMessage(), e);
+            }
+        }
+        return uploadId;
+    }
+
+    /**
+     * 전송중인 part 완료 대기
+     * @throws IOException part 전송 실패
+     * */
+    private synchronized void await() throws IOException {
+        IOException error = null;
+        for (Future<?> f : pending) {
+            try {
+                f.get();
+            } catch (ExecutionException e) {
+                if (error == null) error = new IOException("S3 part 전송 오류 : " + e.getCause().getMessage(), e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("S3 전송 대기 중단");
+            }
+        }
+        pending.clear();
+        if (error != null) throw error;
+    }
+
+    private synchronized void abortMultipart() {
+        if (uploadId == null) return;
+        String id = uploadId;
+        uploadId = null;
+        parts.clear();
+        try {
+            storage.client.abortMultipartUpload(b -> b.bucket(storage.bucket).key(objectKey).uploadId(id));
+        } catch (SdkException e) {
+            log.warn("S3 multipart 취소 오류 : " + e.getMessage());
+        }
+    }
+
+    private int partNumber(long offset) {
+        return (int) (offset / storage.partSize) + 1;
+    }
+
+    private static byte[] read(FileChannel ch, long position, int length) throws IOException {
+        byte[] data = new byte[length];
+        ByteBuffer buf = ByteBuffer.wrap(data);
+        while (buf.hasRemaining()) {
+            if (ch.read(buf, position + buf.position()) < 0) throw new EOFException();
+        }
+        return data;
+    }
+
+
+    /*
+     * part-size 만큼 모이면 바로 전송하는 스트림
+     * */
+    private class PartStream extends OutputStream {
+
+        private byte[] buf = new byte[storage.partSize];
+        private int len;
+        private int nextPart = 1;
+        private long total;
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int n) throws IOException {
+            while (n > 0) {
+                int c = Math.min(n, buf.length - len);
+                System.arraycopy(b, off, buf, len, c);
+                len += c;
+                off += c;
+                n -= c;
+                total += c;
+                if (len == buf.length) flushPart();
+            }
+        }
+
+        private void flushPart() throws IOException {
+            // 생산자 스레드에서 대기 (S3Upload 는 잠그지 않음)
+            acquire(true);
+            submit(nextPart++, buf, len);
+            buf = new byte[storage.partSize];
+            len = 0;
+        }
+
+        /**
+         * 남은 구간 전송
+         * @return 전체 크기
+         * */
+        long finish() throws IOException {
+            if (len > 0) flushPart();
+            return total;
+        }
+    }
+}
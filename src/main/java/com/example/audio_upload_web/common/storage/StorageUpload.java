@@ -0,0 +1,48 @@
+package com.example.audio_upload_web.common.storage;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+
+/**
+ * 최종 파일 하나의 기록 핸들 (ObjectStorage.begin)<br/>
+ * 생산자에 맞게 getPath(파일로 기록하는 ffmpeg, remux 등) 또는 openStream(업로드 스트림 복사) 중 하나만 사용함
+ * */
+public interface StorageUpload extends AutoCloseable {
+
+    /**
+     * 응답으로 전달할 key (ObjectStorage.open 으로 다시 읽을 수 있음)
+     * */
+    String getKey();
+
+    /**
+     * 저장 위치 표시용 문자열 (로컬 경로 또는 s3://bucket/key)
+     * */
+    String getLocation();
+
+    /**
+     * 생산자가 기록할 로컬 파일 경로 (상위 디렉터리는 생성된 상태)<br/>
+     * 원격 저장소는 기록되는 동안 완성된 구간부터 전송을 시작함
+     * @throws IOException 경로 준비 예외
+     * */
+    Path getPath() throws IOException;
+
+    /**
+     * 파일 내용을 직접 기록할 스트림 (close 후 complete)
+     * @throws IOException 스트림 준비 예외
+     * */
+    OutputStream openStream() throws IOException;
+
+    /**
+     * 기록 완료 (원격 저장소는 남은 구간 전송까지 대기)
+     * @return 파일 크기
+     * @throws IOException 기록 / 전송 예외
+     * */
+    long complete() throws IOException;
+
+    /**
+     * complete 되지 않았으면 기록한 내용을 버림
+     * */
+    @Override
+    void close();
+}
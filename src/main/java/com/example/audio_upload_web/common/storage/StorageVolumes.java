@@ -0,0 +1,232 @@
+package com.example.audio_upload_web.common.storage;
+
+import com.example.audio_upload_web.constant.UploadPaths;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 저장 볼륨 관리 (최종 파일, 세션 임시 파일 공통)<br/>
+ * 여러 디스크에 파일을 나누어 저장하여 디스크 대역폭을 늘리고,
+ * 날짜 디렉터리 아래를 해시 하위 디렉터리로 나누어 디렉터리 하나에 파일이 몰리지 않도록 함
+ *
+ * <pre>
+ * 최종 파일 key : {볼륨 번호}/{yyyy-MM-dd}/{해시}/{파일명}
+ *  - 볼륨 번호는 설정 순서이므로 볼륨은 뒤에만 추가해야 함
+ *  - 볼륨 번호가 없는 기존 key ({yyyy-MM-dd}/{파일명}, {파일명}) 는 첫번째 볼륨 기준으로 찾음
+ * 세션 임시 디렉터리 : {임시 볼륨}/{uploadId}
+ * </pre>
+ * */
+@Component
+@Log4j2
+public class StorageVolumes {
+
+    /*
+     * 볼륨 선택 방식
+     *
+     * MOST_FREE : 남은 공간이 가장 많은 볼륨
+     * LEAST_LOADED : 부하(기록중인 파일 / 유지중인 세션)가 가장 적은 볼륨, 같으면 남은 공간 기준
+     * */
+    public enum Placement { MOST_FREE, LEAST_LOADED }
+
+    private final List<Volume> uploadVolumes;
+    private final List<Volume> tmpVolumes;
+    private final Placement placement;
+
+    /*
+     * 날짜 디렉터리 아래 해시 하위 디렉터리 수 (1 이하면 나누지 않음)
+     * */
+    private final int fanout;
+
+
+    public StorageVolumes(@Value("${upload.storage.upload-volumes:}") String uploadVolumes,
+                          @Value("${upload.storage.tmp-volumes:}") String tmpVolumes,
+                          @Value("${upload.storage.placement:most-free}") String placement,
+                          @Value("${upload.storage.fanout:256}") int fanout) throws IOException {
+        this.uploadVolumes = volumes(uploadVolumes, UploadPaths.uploadRoot.getPath());
+        this.tmpVolumes = volumes(tmpVolumes, UploadPaths.tmpRoot.getPath());
+        this.placement = Placement.valueOf(placement.trim().replace('-', '_').toUpperCase(Locale.ROOT));
+        this.fanout = fanout;
+
+        log.info("저장 볼륨 : " + this.uploadVolumes.stream().map(Volume::getRoot).toList()
+                + ", 임시 볼륨 : " + this.tmpVolumes.stream().map(Volume::getRoot).toList()
+                + ", 선택 방식 : " + this.placement);
+    }
+
+
+    public List<Volume> getUploadVolumes() {
+        return uploadVolumes;
+    }
+
+    public List<Volume> getTmpVolumes() {
+        return tmpVolumes;
+    }
+
+    /**
+     * 세션 저널 등 볼륨에 속하지 않는 임시 파일 위치 (첫번째 임시 볼륨)
+     * */
+    public Path getTmpRoot() {
+        return tmpVolumes.get(0).getRoot();
+    }
+
+
+    /**
+     * 최종 파일 저장 위치 할당 (상위 디렉터리 생성)
+     * @param fileName 파일명
+     * @return 저장 위치 (기록 후 close)
+     * @throws IOException 디렉터리 생성 예외
+     * */
+    public StoredFile allocate(String fileName) throws IOException {
+        Volume volume = pick(uploadVolumes);
+        String relative = LocalDate.now() + "/" + hashDir(fileName, fanout) + fileName;
+        Path path = volume.getRoot().resolve(relative);
+        Files.createDirectories(path.getParent());
+        return new StoredFile(volume.getIndex() + "/" + relative, path, volume);
+    }
+
+
+    /**
+     * 볼륨의 고정 디렉터리 아래 저장 위치 할당 (날짜 / 해시 디렉터리 없음, 상위 디렉터리 생성)<br/>
+     * 내용 주소 저장소처럼 key 를 직접 정하는 경우 사용
+     * @param dir 볼륨 루트 기준 디렉터리
+     * @param fileName 파일명
+     * @return 저장 위치 (기록 후 close)
+     * @throws IOException 디렉터리 생성 예외
+     * */
+    public StoredFile allocateIn(String dir, String fileName) throws IOException {
+        Volume volume = pick(uploadVolumes);
+        String relative = dir + "/" + fileName;
+        Path path = volume.getRoot().resolve(relative);
+        Files.createDirectories(path.getParent());
+        return new StoredFile(volume.getIndex() + "/" + relative, path, volume);
+    }
+
+
+    /**
+     * key 로 최종 파일 경로 조회
+     * @param key allocate 시 발급한 key (또는 볼륨 번호가 없는 기존 key)
+     * @return 파일 경로 (존재 여부는 확인하지 않음)
+     * @throws IllegalArgumentException 볼륨 밖을 가리키는 key 예외
+     * */
+    public Path resolve(String key) {
+        Volume volume = uploadVolumes.get(0);
+        String relative = key;
+
+        int slash = key.indexOf('/');
+        if (slash > 0 && isDigits(key, slash)) {
+            int index = Integer.parseInt(key.substring(0, slash));
+            if (index >= uploadVolumes.size()) throw new IllegalArgumentException("잘못된 key : " + key);
+            volume = uploadVolumes.get(index);
+            relative = key.substring(slash + 1);
+        }
+
+        Path path = volume.getRoot().resolve(relative).normalize();
+        if (!path.startsWith(volume.getRoot())) throw new IllegalArgumentException("잘못된 key : " + key);
+        return path;
+    }
+
+
+    /**
+     * 세션 임시 디렉터리 할당 (디렉터리 생성은 호출하는 쪽에서 수행)
+     * @param uploadId 업로드 될 파일의 UUID값
+     * @return 세션 디렉터리 경로
+     * */
+    public Path allocateSessionDir(String uploadId) {
+        Volume volume = pick(tmpVolumes);
+        volume.acquire();
+        return volume.getRoot().resolve(uploadId);
+    }
+
+    /**
+     * 재시작 후 복구할 세션 디렉터리 조회 (임시 볼륨을 차례로 확인)
+     * @param uploadId 업로드 될 파일의 UUID값
+     * @return 세션 디렉터리 경로 (없으면 null)
+     * */
+    public Path restoreSessionDir(String uploadId) {
+        for (Volume volume : tmpVolumes) {
+            Path dir = volume.getRoot().resolve(uploadId);
+            if (Files.isDirectory(dir)) {
+                volume.acquire();
+                return dir;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 세션 정리 시 볼륨 부하 집계에서 제외
+     * @param sessionDir 세션 디렉터리 경로
+     * */
+    public void releaseSessionDir(Path sessionDir) {
+        for (Volume volume : tmpVolumes) {
+            if (sessionDir.startsWith(volume.getRoot())) {
+                volume.release();
+                return;
+            }
+        }
+    }
+
+
+    private Volume pick(List<Volume> volumes) {
+        if (volumes.size() == 1) return volumes.get(0);
+
+        Volume best = null;
+        long bestFree = -1;
+        int bestLoad = Integer.MAX_VALUE;
+        for (Volume volume : volumes) {
+            long free = volume.getUsableSpace();
+            int load = volume.getLoad();
+            boolean better = placement == Placement.LEAST_LOADED
+                    ? load < bestLoad || (load == bestLoad && free > bestFree)
+                    : free > bestFree;
+            if (better) {
+                best = volume;
+                bestFree = free;
+                bestLoad = load;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * 해시 하위 디렉터리 (파일명 해시 기준, 마지막에 / 포함)
+     * @param fileName 파일명
+     * @param fanout 하위 디렉터리 수 (1 이하면 나누지 않음)
+     * */
+    static String hashDir(String fileName, int fanout) {
+        if (fanout <= 1) return "";
+        return String.format("%02x/", Math.floorMod(fileName.hashCode(), fanout));
+    }
+
+    private static boolean isDigits(String s, int end) {
+        for (int i = 0; i < end; i++) {
+            if (!Character.isDigit(s.charAt(i))) return false;
+        }
+        return true;
+    }
+
+    private static List<Volume> volumes(String config, Path fallback) throws IOException {
+        List<Path> roots = new ArrayList<>();
+        for (String s : config.split(",")) {
+            if (!s.isBlank()) roots.add(Path.of(s.trim()));
+        }
+        if (roots.isEmpty()) roots.add(fallback);
+
+        List<Volume> volumes = new ArrayList<>(roots.size());
+        for (Path root : roots) {
+            Path abs = root.toAbsolutePath().normalize();
+            Files.createDirectories(abs);
+            volumes.add(new Volume(volumes.size(), abs));
+        }
+        return Collections.unmodifiableList(volumes);
+    }
+}
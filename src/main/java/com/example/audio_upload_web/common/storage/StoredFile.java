@@ -0,0 +1,50 @@
+package com.example.audio_upload_web.common.storage;
+
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 최종 파일 저장 위치 (StorageVolumes.allocate)<br/>
+ * 기록이 끝나면 close 하여 볼륨 부하 집계에서 제외함
+ * */
+public class StoredFile implements AutoCloseable {
+
+    /*
+     * 응답으로 전달할 key (StorageVolumes.resolve 로 다시 경로를 찾을 수 있음)
+     * */
+    private final String key;
+
+    /*
+     * 기록할 파일 경로 (상위 디렉터리는 생성된 상태)
+     * */
+    private final Path path;
+
+    private final Volume volume;
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+
+    StoredFile(String key, Path path, Volume volume) {
+        this.key = key;
+        this.path = path;
+        this.volume = volume;
+        volume.acquire();
+    }
+
+
+    public String getKey() {
+        return key;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public Volume getVolume() {
+        return volume;
+    }
+
+    @Override
+    public void close() {
+        if (closed.compareAndSet(false, true)) volume.release();
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.audio_upload_web.common.storage;
+
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 저장 볼륨 하나 (디스크 하나의 루트 디렉터리)
+ * */
+public class Volume {
+
+    /*
+     * 설정 순서 (key 에 기록되므로 바뀌면 안됨)
+     * */
+    private final int index;
+
+    /*
+     * 볼륨 루트 디렉터리 (절대 경로)
+     * */
+    private final Path root;
+
+    /*
+     * 현재 부하 (최종 파일 : 기록중인 파일 수, 임시 볼륨 : 유지중인 세션 수)
+     * */
+    private final AtomicInteger load = new AtomicInteger();
+
+
+    Volume(int index, Path root) {
+        this.index = index;
+        this.root = root;
+    }
+
+
+    public int getIndex() {
+        return index;
+    }
+
+    public Path getRoot() {
+        return root;
+    }
+
+    public int getLoad() {
+        return load.get();
+    }
+
+    /**
+     * 남은 공간 (FileStore 조회 없이 statvfs 한번으로 확인)
+     * */
+    public long getUsableSpace() {
+        return root.toFile().getUsableSpace();
+    }
+
+    void acquire() {
+        load.incrementAndGet();
+    }
+
+    void release() {
+        load.decrementAndGet();
+    }
+}
@@ -0,0 +1,190 @@
+package com.example.audio_upload_web.common.transcode;
+
+import com.example.audio_upload_web.common.job.FinalizeJob;
+import com.example.audio_upload_web.common.metrics.UploadMetrics;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * stream 파일을 최종 음성 파일로 변환 (RealTimeService, RTCService 공통)<br/>
+ * 입력이 이미 목표 형식(opus/48kHz)이면 재인코딩 없이 컨테이너만 다시 씀(remux)
+ * */
+@Component
+@Log4j2
+public class FfmpegTranscoder {
+
+    @Autowired
+    private TranscodeScheduler transcodeScheduler;
+
+    @Autowired
+    private MediaProbe mediaProbe;
+
+    @Autowired
+    private UploadMetrics uploadMetrics;
+
+    /*
+     * 재인코딩 생략(remux) 사용 여부
+     * */
+    @Value("${upload.transcode.remux.enabled:true}")
+    private boolean remuxEnabled;
+
+    /*
+     * remux 허용 최대 채널 수 (브라우저 녹음은 보통 1~2 채널)
+     * */
+    @Value("${upload.transcode.remux.max-channels:2}")
+    private int remuxMaxChannels;
+
+    /*
+     * remux 허용 최대 비트레이트 (클라이언트 녹음 설정 128kbps + 가변 비트레이트 여유분)
+     * */
+    @Value("${upload.transcode.remux.max-bitrate:160000}")
+    private long remuxMaxBitRate;
+
+
+    /**
+     * 최종 음성 파일 생성 및 ffmpeg 로그 기록 (ffmpeg_final.log)
+     * @param workDir 세션 디렉터리
+     * @param input stream 파일
+     * @param out 최종 파일 경로
+     * @param job 진행 상황을 갱신할 작업
+     * @throws Exception ffmpeg 실행 예외
+     * */
+    public void transcode(Path workDir, Path input, Path out, FinalizeJob job) throws Exception {
+        String in = input.toAbsolutePath().toString().replace("\\","/");
+        String output = out.toAbsolutePath().toString().replace("\\","/");
+
+        String ffLog;
+        if (canRemux(workDir, input, job)) {
+            job.stage("REMUXING");
+            ffLog = runFfmpegCapture(
+                    workDir,
+                    job,
+                    // 진행 상황을 stdout 으로 출력 (out_time_ms=...)
+                    "-progress", "pipe:1",
+                    // PTS(타임스탬프) 재생성
+                    "-fflags", "+genpts",
+                    // 입력 파일 (stream.webm)
+                    "-i", in,
+                    // 첫번째 오디오 스트림만 사용
+                    "-map", "0:a:0",
+                    // 재인코딩 없이 그대로 복사
+                    "-c:a", "copy",
+                    // 시작 타임스탬프를 0으로 맞춤
+                    "-avoid_negative_ts", "make_zero",
+                    // 출력 파일 경로
+                    output
+            );
+        } else {
+            ffLog = runFfmpegCapture(
+                    workDir,
+                    job,
+                    // 진행 상황을 stdout 으로 출력 (out_time_ms=...)
+                    "-progress", "pipe:1",
+                    // PTS(타임스탬프) 재생성
+                    "-fflags", "+genpts",
+                    // 입력 파일 (stream.webm)
+                    "-i", in,
+                    // 비디오 스트림 무시
+                    "-vn",
+                    // 오디오 코덱: libopus (WebM용 표준)
+                    "-c:a", "libopus",
+                    // 오디오 비트레이트 64kbps
+                    "-b:a", "64k",
+                    // 샘플레이트 48kHz
+                    "-ar", "48000",
+                    // 채널 수: 1 (mono)
+                    "-ac", "1",
+                    // 출력 파일 경로
+                    output
+            );
+        }
+
+        // 로그 작성
+        Files.writeString(workDir.resolve("ffmpeg_final.log"), ffLog, StandardCharsets.UTF_8);
+    }
+
+
+    /**
+     * 입력 스트림이 재인코딩 없이 사용 가능한지 확인<br/>
+     * 확인에 실패하면 재인코딩으로 처리
+     * */
+    private boolean canRemux(Path workDir, Path input, FinalizeJob job) throws InterruptedException {
+        if (!remuxEnabled) return false;
+        try {
+            ProbeResult info = uploadMetrics.time(job.getSource(), "ffprobe", () -> mediaProbe.probe(workDir, input));
+            boolean fits = info != null && info.fits("opus", 48000, remuxMaxChannels, remuxMaxBitRate);
+            log.debug("입력 스트림 확인 : " + info + " remux=" + fits);
+            return fits;
+        } catch (IOException e) {
+            log.warn("입력 스트림 확인 실패, 재인코딩으로 처리 : " + e.getMessage());
+            return false;
+        }
+    }
+
+
+    /**
+     * ffmpeg 프로세스 실행 및 로그 수집
+     * @param workDir 실행 대상 파일들이 존재하는 디렉터리 경로
+     * @param job 변환 진행 시간을 갱신할 작업
+     * @param args ffmpeg 프로세스 실행 옵션들
+     * @return 수집한 로그
+     * @throws RuntimeException ffmpeg 프로세스 실행 예외
+     * */
+    private String runFfmpegCapture(Path workDir, FinalizeJob job, String... args) throws Exception {
+        // 명령어 셋팅
+        List<String> cmd = new ArrayList<>();
+        cmd.add("ffmpeg");
+        cmd.add("-y");
+        Collections.addAll(cmd, args);
+        // 동시에 실행되는 변환끼리 CPU를 나눠 쓰도록 인코더 스레드 수 제한 (출력 파일 경로 앞에 위치해야 함)
+        cmd.addAll(cmd.size() - 1, List.of("-threads", String.valueOf(transcodeScheduler.getThreadsPerJob())));
+
+        // 전역 변환 실행 자리를 얻은 뒤 ffmpeg 프로세스 실행
+        StringBuilder sb = new StringBuilder();
+        int code;
+        try (TranscodeScheduler.Slot slot = transcodeScheduler.acquire()) {
+            Process p = new ProcessBuilder(cmd)
+                    .directory(workDir.toFile())
+                    .redirectErrorStream(true)
+                    .start();
+
+            // 로그 수집
+            Timer.Sample sample = uploadMetrics.start();
+            try (BufferedReader br = new BufferedReader(new InputStreamReader(p.getInputStream()))) {
+                String line;
+                while ((line = br.readLine()) != null) {
+                    sb.append(line).append('\n');
+                    // 변환 진행 시간 (단위는 이름과 달리 마이크로초)
+                    if (line.startsWith("out_time_ms=")) {
+                        try {
+                            job.progress(Long.parseLong(line.substring(12).trim()) / 1000);
+                        } catch (NumberFormatException ignore) {}
+                    }
+                }
+            }
+
+            // 프로세스 종료 대기
+            code = p.waitFor();
+            uploadMetrics.stop(sample, job.getSource(), "ffmpeg");
+        }
+        if (code != 0) {
+            throw new RuntimeException("FFmpeg 실패 code=" + code + "\n" + sb);
+        }
+
+        // 수집한 로그 반환
+        return sb.toString();
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.audio_upload_web.common.transcode;
+
+import com.example.audio_upload_web.common.metrics.UploadMetrics;
+import com.example.audio_upload_web.common.session.ChunkCommitListener;
+import com.example.audio_upload_web.common.session.SessionCloseListener;
+import com.example.audio_upload_web.common.session.UploadSession;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 실시간 변환 모드 관리 (RealTimeService, RTCService 공통)<br/>
+ * 세션 생성 시 ffmpeg를 띄우고 청크가 이어붙여질 때마다 바로 넘겨주어,
+ * finalize 시에는 입력 종료 후 마무리만 기다리면 되도록 함
+ * */
+@Component
+@Log4j2
+public class LiveTranscodeManager implements ChunkCommitListener, SessionCloseListener {
+
+    /*
+     * 실시간 변환 결과 파일명
+     * */
+    private static final String LIVE_FILE = "live.webm";
+
+    /*
+     * 실시간 변환 모드 사용 여부 (세션당 ffmpeg 프로세스 1개를 유지하므로 기본값 false)
+     * */
+    @Value("${upload.transcode.live.enabled:false}")
+    private boolean enabled;
+
+    /*
+     * finalize 시 ffmpeg 마무리 최대 대기 시간
+     * */
+    @Value("${upload.transcode.live.finish-timeout-ms:30000}")
+    private long finishTimeoutMs;
+
+    @Autowired
+    private UploadMetrics uploadMetrics;
+
+    /*
+     * uploadId -> 변환기
+     * */
+    private final Map<String, LiveTranscoder> transcoders = new ConcurrentHashMap<>();
+
+
+    /**
+     * 세션의 실시간 변환 시작<br/>
+     * 실행에 실패하면 finalize 시 기존 방식(전체 변환)으로 처리됨
+     * @param session 생성된 세션
+     * */
+    public void start(UploadSession session) {
+        if (!enabled) return;
+
+        Path sessionDir = session.getSessionDir();
+        String output = sessionDir.resolve(LIVE_FILE).toAbsolutePath().toString().replace("\\","/");
+        List<String> cmd = List.of(
+                "ffmpeg", "-y",
+                // PTS(타임스탬프) 재생성
+                "-fflags", "+genpts",
+                // 입력: stdin (stream.webm 에 이어붙여지는 청크)
+                "-f", "matroska", "-i", "pipe:0",
+                // 비디오 스트림 무시
+                "-vn",
+                // 오디오 코덱: libopus (WebM용 표준)
+                "-c:a", "libopus",
+                // 오디오 비트레이트 64kbps
+                "-b:a", "64k",
+                // 샘플레이트 48kHz
+                "-ar", "48000",
+                // 채널 수: 1 (mono)
+                "-ac", "1",
+                // 출력 파일 경로
+                output
+        );
+
+        try {
+            LiveTranscoder t = LiveTranscoder.start(sessionDir, session.getStreamFile(),
+                    sessionDir.resolve(LIVE_FILE), cmd);
+            transcoders.put(session.getUploadId(), t);
+        } catch (IOException e) {
+            log.warn("실시간 변환 시작 실패 : " + e.getMessage());
+        }
+    }
+
+
+    @Override
+    public void onCommit(UploadSession session, FileChannel stream, int seq, long offset, long length) {
+        LiveTranscoder t = transcoders.get(session.getUploadId());
+        if (t != null) t.advance(offset + length);
+    }
+
+
+    /**
+     * 실시간 변환 마무리 및 결과 파일 이동
+     * @param session 병합중인 세션
+     * @param out 최종 파일 경로
+     * @return 실시간 변환 결과를 사용했는지 여부 (false 면 전체 변환 필요)
+     * */
+    public boolean finish(UploadSession session, Path out) throws InterruptedException {
+        LiveTranscoder t = transcoders.remove(session.getUploadId());
+        if (t == null) return false;
+
+        try {
+            Timer.Sample sample = uploadMetrics.start();
+            Path live = t.finish(finishTimeoutMs);
+            uploadMetrics.stop(sample, session.getSource(), "live_finish");
+            Files.move(live, out, StandardCopyOption.REPLACE_EXISTING);
+            return true;
+        } catch (IOException e) {
+            log.warn("실시간 변환 실패, 전체 변환으로 대체 : " + e.getMessage());
+            t.discardOutput();
+            return false;
+        }
+    }
+
+
+    /**
+     * 실시간 변환 중단 (finalize 없이 세션이 정리될 때)
+     * @param session 정리할 세션
+     * */
+    @Override
+    public void onClose(UploadSession session) {
+        LiveTranscoder t = transcoders.remove(session.getUploadId());
+        if (t != null) t.abort();
+    }
+
+
+    @PreDestroy
+    public void destroy() {
+        transcoders.values().forEach(LiveTranscoder::abort);
+        transcoders.clear();
+    }
+}
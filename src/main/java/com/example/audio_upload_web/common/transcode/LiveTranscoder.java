@@ -0,0 +1,157 @@
+package com.example.audio_upload_web.common.transcode;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 녹음 중인 세션 하나의 실시간 변환기<br/>
+ * ffmpeg 프로세스 하나를 띄워두고 stream 파일에 이어붙여진 구간을 stdin으로 계속 흘려보냄
+ * */
+class LiveTranscoder {
+
+    /*
+     * 변환중인 ffmpeg 프로세스
+     * */
+    private final Process process;
+
+    /*
+     * 읽어서 넘겨줄 stream 파일
+     * */
+    private final Path streamFile;
+
+    /*
+     * ffmpeg 결과 파일
+     * */
+    private final Path output;
+
+    /*
+     * stream 파일 -> ffmpeg stdin 전달 스레드
+     * */
+    private final Thread feeder;
+
+    /*
+     * stream 파일에 이어붙여진 크기 / 입력 종료 여부 / 전달 중 발생한 예외
+     * */
+    private long committed;
+    private boolean closed;
+    private volatile IOException failure;
+
+
+    private LiveTranscoder(Process process, Path streamFile, Path output, String name) {
+        this.process = process;
+        this.streamFile = streamFile;
+        this.output = output;
+        this.feeder = new Thread(this::feed, name);
+        this.feeder.setDaemon(true);
+    }
+
+
+    /**
+     * ffmpeg 프로세스 실행 (stdin 입력 대기 상태)
+     * @param workDir 세션 디렉터리
+     * @param streamFile stream 파일 경로
+     * @param output 변환 결과 파일 경로
+     * @param cmd ffmpeg 명령어 (입력은 pipe:0)
+     * @return 실행된 변환기
+     * @throws IOException ffmpeg 프로세스 실행 예외
+     * */
+    static LiveTranscoder start(Path workDir, Path streamFile, Path output, List<String> cmd) throws IOException {
+        Process p = new ProcessBuilder(cmd)
+                .directory(workDir.toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(workDir.resolve("ffmpeg_live.log").toFile())
+                .start();
+
+        LiveTranscoder t = new LiveTranscoder(p, streamFile, output,
+                "live-transcode-" + workDir.getFileName());
+        t.feeder.start();
+        return t;
+    }
+
+
+    /**
+     * stream 파일에 이어붙여진 크기 갱신 (전달 스레드 깨움)
+     * @param committedBytes 현재까지 이어붙여진 크기
+     * */
+    synchronized void advance(long committedBytes) {
+        if (committedBytes > committed) {
+            committed = committedBytes;
+            notifyAll();
+        }
+    }
+
+
+    /**
+     * 남은 구간을 모두 넘긴 뒤 stdin을 닫고 ffmpeg가 마무리(trailer 작성)할 때까지 대기
+     * @param timeoutMs 최대 대기 시간
+     * @return 변환 결과 파일
+     * @throws IOException 전달/변환 실패 예외
+     * */
+    Path finish(long timeoutMs) throws IOException, InterruptedException {
+        synchronized (this) {
+            closed = true;
+            notifyAll();
+        }
+
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        feeder.join(timeoutMs);
+        if (!process.waitFor(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS)) {
+            abort();
+            throw new IOException("실시간 변환 종료 대기 시간 초과");
+        }
+        if (failure != null) throw failure;
+        if (process.exitValue() != 0) throw new IOException("FFmpeg 실패 code=" + process.exitValue());
+        return output;
+    }
+
+
+    /**
+     * 변환 중단 (세션 폐기 시)
+     * */
+    void abort() {
+        process.destroyForcibly();
+        feeder.interrupt();
+    }
+
+
+    private void feed() {
+        long fed = 0;
+        FileChannel in = null;
+        try (WritableByteChannel out = Channels.newChannel(process.getOutputStream())) {
+            while (true) {
+                long target;
+                synchronized (this) {
+                    while (committed <= fed && !closed) wait();
+                    target = committed;
+                }
+                if (target <= fed) break; // 입력 종료
+
+                if (in == null) in = FileChannel.open(streamFile, StandardOpenOption.READ);
+                while (fed < target) fed += in.transferTo(fed, target - fed, out);
+            }
+        } catch (IOException e) {
+            failure = e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            if (in != null) {
+                try { in.close(); } catch (IOException ignore) {}
+            }
+        }
+    }
+
+
+    /**
+     * 변환 결과 파일 삭제 (실패 시 정리용)
+     * */
+    void discardOutput() {
+        try { Files.deleteIfExists(output); } catch (IOException ignore) {}
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.audio_upload_web.common.transcode;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+
+/**
+ * ffprobe 로 입력 파일의 오디오 스트림 정보 확인
+ * */
+@Component
+public class MediaProbe {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /*
+     * 전역 변환 실행 제한 (ffprobe 도 ffmpeg 와 같은 자리를 사용)
+     * */
+    @Autowired
+    private TranscodeScheduler transcodeScheduler;
+
+
+    /**
+     * 첫번째 오디오 스트림 정보 조회
+     * @param workDir ffprobe 실행 디렉터리
+     * @param input 확인할 파일
+     * @return 오디오 스트림 정보 (오디오 스트림이 없으면 null)
+     * @throws IOException ffprobe 실행 예외
+     * @throws InterruptedException 종료 대기 중 인터럽트
+     * */
+    public ProbeResult probe(Path workDir, Path input) throws IOException, InterruptedException {
+        JsonNode root;
+        try (TranscodeScheduler.Slot slot = transcodeScheduler.acquire()) {
+            root = run(workDir, input);
+        }
+
+        JsonNode stream = root.path("streams").path(0);
+        if (stream.isMissingNode()) return null;
+
+        long bitRate = stream.path("bit_rate").asLong(0);
+        if (bitRate == 0) bitRate = root.path("format").path("bit_rate").asLong(0);
+
+        return new ProbeResult(
+                stream.path("codec_name").asText(null),
+                stream.path("channels").asInt(0),
+                stream.path("sample_rate").asInt(0),
+                bitRate);
+    }
+
+
+    /*
+     * ffprobe 실행 및 json 출력 읽기
+     * */
+    private JsonNode run(Path workDir, Path input) throws IOException, InterruptedException {
+        Process p = new ProcessBuilder(
+                "ffprobe",
+                "-v", "error",
+                // 첫번째 오디오 스트림만 확인
+                "-select_streams", "a:0",
+                // 코덱, 채널, 샘플레이트, 비트레이트 (스트림에 없으면 컨테이너 값 사용)
+                "-show_entries", "stream=codec_name,channels,sample_rate,bit_rate:format=bit_rate",
+                "-of", "json",
+                input.toAbsolutePath().toString().replace("\\","/"))
+                .directory(workDir.toFile())
+                .redirectError(ProcessBuilder.Redirect.DISCARD)
+                .start();
+
+        JsonNode root;
+        try (InputStream in = p.getInputStream()) {
+            root = objectMapper.readTree(in);
+        } catch (IOException e) {
+            p.destroyForcibly();
+            throw e;
+        }
+
+        int code = p.waitFor();
+        if (code != 0) throw new IOException("FFprobe 실패 code=" + code);
+        return root;
+    }
+}
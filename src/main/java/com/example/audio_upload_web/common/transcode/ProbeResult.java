@@ -0,0 +1,27 @@
+package com.example.audio_upload_web.common.transcode;
+
+/**
+ * ffprobe 로 확인한 첫번째 오디오 스트림 정보
+ * @param codec 코덱명 (opus, vorbis ...)
+ * @param channels 채널 수
+ * @param sampleRate 샘플레이트 (Hz)
+ * @param bitRate 비트레이트 (bps, 알 수 없으면 0)
+ * */
+public record ProbeResult(String codec, int channels, int sampleRate, long bitRate) {
+
+    /**
+     * 재인코딩 없이 그대로 담아도 되는 입력인지 확인
+     * @param targetCodec 목표 코덱
+     * @param targetSampleRate 목표 샘플레이트
+     * @param maxChannels 허용 최대 채널 수
+     * @param maxBitRate 허용 최대 비트레이트 (bps)
+     * @return 조건 충족 여부
+     * */
+    public boolean fits(String targetCodec, int targetSampleRate, int maxChannels, long maxBitRate) {
+        return targetCodec.equals(codec)
+                && sampleRate == targetSampleRate
+                && channels >= 1 && channels <= maxChannels
+                // MediaRecorder 로 만든 webm 은 길이 정보가 없어 비트레이트를 알 수 없는 경우가 많으므로 통과시킴
+                && (bitRate == 0 || bitRate <= maxBitRate);
+    }
+}
@@ -0,0 +1,186 @@
+package com.example.audio_upload_web.common.transcode;
+
+import com.example.audio_upload_web.exception.TranscodeBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 전역 변환(ffmpeg / ffprobe) 실행 제한<br/>
+ * 동시에 실행되는 변환 프로세스 수와 접수된 finalize 수를 제한하고, 접수가 가득 차면 새 finalize 를 바로 거절(429)하여
+ * 여러 사용자가 동시에 녹음을 끝내도 서버가 과부하되지 않도록 함
+ *
+ * <pre>
+ * - finalize 작업 자체(청크 대기, 병합, JVM remux, 저장소 기록)는 FinalizeJobService 의 작업 스레드에서 실행되고,
+ *   ffmpeg / ffprobe 프로세스를 실행하는 동안만 자리(acquire)를 차지함
+ * - 접수 후 끝나지 않은 finalize(청크 대기, 작업 스레드 대기, 실행중 포함)가 queue-capacity 개 이상이면 거절 (admit)
+ *   (작업 스레드 대기열도 이 수를 넘지 않음)
+ * </pre>
+ * */
+@Component
+public class TranscodeScheduler {
+
+    /*
+     * 동시 실행 변환 수 / 대기열 크기 / 변환 하나가 사용할 ffmpeg 스레드 수
+     * */
+    private final int maxConcurrent;
+    private final int queueCapacity;
+    private final int threadsPerJob;
+
+    /*
+     * 실행 자리 (먼저 기다린 변환부터)
+     * */
+    private final Semaphore slots;
+
+    /*
+     * 접수 후 끝나지 않은 finalize 수 / 자리를 기다리는 변환 수 / 실행중인 변환 수
+     * */
+    private final AtomicInteger admitted = new AtomicInteger();
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final AtomicInteger active = new AtomicInteger();
+
+    /*
+     * 대기 시간 / 실행 시간 / 거절 수
+     * */
+    private final Timer waitTimer;
+    private final Timer runTimer;
+    private final Counter rejected;
+
+    /*
+     * 최근 실행 시간 이동 평균 (Retry-After 계산용, ms)
+     * */
+    private final AtomicLong avgRunMs = new AtomicLong(1000);
+
+
+    public TranscodeScheduler(@Value("${upload.transcode.max-concurrent:0}") int maxConcurrent,
+                              @Value("${upload.transcode.queue-capacity:0}") int queueCapacity,
+                              @Value("${upload.transcode.threads-per-job:0}") int threadsPerJob,
+                              MeterRegistry registry) {
+        int cores = Runtime.getRuntime().availableProcessors();
+
+        // 0 이하이면 코어 수 기준 기본값 사용
+        this.maxConcurrent = maxConcurrent > 0 ? maxConcurrent : cores;
+        this.queueCapacity = queueCapacity > 0 ? queueCapacity : this.maxConcurrent * 4;
+        this.threadsPerJob = threadsPerJob > 0 ? threadsPerJob : Math.max(1, cores / this.maxConcurrent);
+        this.slots = new Semaphore(this.maxConcurrent, true);
+
+        Gauge.builder("transcode.backlog", admitted, AtomicInteger::get)
+                .description("접수 후 끝나지 않은 finalize 수")
+                .register(registry);
+        Gauge.builder("transcode.queue.depth", waiting, AtomicInteger::get)
+                .description("실행 자리를 기다리는 변환 수")
+                .register(registry);
+        Gauge.builder("transcode.active", active, AtomicInteger::get)
+                .description("실행중인 변환 수")
+                .register(registry);
+        Gauge.builder("transcode.max.concurrent", this, s -> s.maxConcurrent)
+                .register(registry);
+        waitTimer = Timer.builder("transcode.wait")
+                .description("변환 실행 자리 대기 시간")
+                .publishPercentileHistogram()
+                .register(registry);
+        runTimer = Timer.builder("transcode.run")
+                .description("변환 실행 시간")
+                .publishPercentileHistogram()
+                .register(registry);
+        rejected = Counter.builder("transcode.rejected")
+                .description("접수가 가득 차 거절된 finalize 수")
+                .register(registry);
+    }
+
+
+    /**
+     * 새 finalize 접수 (작업이 끝나면 complete 호출)
+     * @throws TranscodeBusyException 끝나지 않은 finalize 가 queue-capacity 개 이상인 경우 (Retry-After 포함)
+     * */
+    public void admit() {
+        while (true) {
+            int n = admitted.get();
+            if (n >= queueCapacity) {
+                rejected.increment();
+                throw new TranscodeBusyException(retryAfterSeconds());
+            }
+            if (admitted.compareAndSet(n, n + 1)) return;
+        }
+    }
+
+    /**
+     * 접수한 finalize 종료 (성공 / 실패 모두)
+     * */
+    public void complete() {
+        admitted.decrementAndGet();
+    }
+
+
+    /**
+     * 변환 프로세스 실행 자리 획득 (자리가 날 때까지 대기)
+     * @return 실행 자리 (프로세스 종료 후 close)
+     * @throws InterruptedException 대기 중 인터럽트
+     * */
+    public Slot acquire() throws InterruptedException {
+        long enqueuedAt = System.nanoTime();
+        waiting.incrementAndGet();
+        try {
+            slots.acquire();
+        } finally {
+            waiting.decrementAndGet();
+        }
+        long startedAt = System.nanoTime();
+        waitTimer.record(startedAt - enqueuedAt, TimeUnit.NANOSECONDS);
+        active.incrementAndGet();
+        return new Slot(startedAt);
+    }
+
+
+    /**
+     * 변환 하나가 사용할 ffmpeg 스레드 수 (-threads)
+     * */
+    public int getThreadsPerJob() {
+        return threadsPerJob;
+    }
+
+
+    /**
+     * 대기열이 한 칸 비기까지 예상 시간 (자리를 기다리는 변환이 모두 실행되는 시간)
+     * @return 초 (최소 1)
+     * */
+    private long retryAfterSeconds() {
+        double rounds = (double) (waiting.get() + 1) / maxConcurrent;
+        return Math.max(1, (long) Math.ceil(rounds * avgRunMs.get() / 1000.0));
+    }
+
+
+    /**
+     * 변환 프로세스 실행 자리 (close 시 반납 및 실행 시간 기록)
+     * */
+    public class Slot implements AutoCloseable {
+
+        private final long startedAt;
+        private boolean released;
+
+        private Slot(long startedAt) {
+            this.startedAt = startedAt;
+        }
+
+        @Override
+        public void close() {
+            if (released) return;
+            released = true;
+
+            long runNanos = System.nanoTime() - startedAt;
+            runTimer.record(runNanos, TimeUnit.NANOSECONDS);
+            long runMs = TimeUnit.NANOSECONDS.toMillis(runNanos);
+            avgRunMs.updateAndGet(avg -> (avg * 7 + runMs) / 8);
+            active.decrementAndGet();
+            slots.release();
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.audio_upload_web.common.web;
+
+import com.example.audio_upload_web.common.metrics.UploadMetrics;
+import com.example.audio_upload_web.exception.AlreadyFinalizedException;
+import com.example.audio_upload_web.exception.ChecksumMismatchException;
+import com.example.audio_upload_web.exception.ChunkTooLargeException;
+import com.example.audio_upload_web.exception.NoSessionException;
+import com.example.audio_upload_web.exception.OffsetMismatchException;
+import com.example.audio_upload_web.exception.TranscodeBusyException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.util.Map;
+
+/**
+ * REST 컨트롤러 공통 예외 응답
+ * */
+@RestControllerAdvice
+public class ApiExceptionHandler {
+
+    /*
+     * 예외 종류별 발생 수 기록
+     * */
+    @Autowired
+    private UploadMetrics uploadMetrics;
+
+
+    /**
+     * 세션 미존재 -> 404 Not Found
+     * @return {"ok":false, "error":"NO_SESSION"}
+     * */
+    @ExceptionHandler(NoSessionException.class)
+    public ResponseEntity<Map<String, Object>> noSession(NoSessionException e) {
+        uploadMetrics.error(e);
+        return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(Map.of("ok", false, "error", e.getMessage()));
+    }
+
+    /**
+     * 이미 병합중이거나 완료된 세션 -> 409 Conflict
+     * @return {"ok":false, "error":"FINALIZED"}
+     * */
+    @ExceptionHandler(AlreadyFinalizedException.class)
+    public ResponseEntity<Map<String, Object>> alreadyFinalized(AlreadyFinalizedException e) {
+        uploadMetrics.error(e);
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(Map.of("ok", false, "error", e.getMessage()));
+    }
+
+    /**
+     * 이어받기 위치 불일치 -> 409 Conflict (서버가 받아둔 위치부터 다시 전송)
+     * @return {"ok":false, "error":"OFFSET_MISMATCH", "offset":long}
+     * */
+    @ExceptionHandler(OffsetMismatchException.class)
+    public ResponseEntity<Map<String, Object>> offsetMismatch(OffsetMismatchException e) {
+        uploadMetrics.error(e);
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .header("Upload-Offset", String.valueOf(e.getOffset()))
+                .body(Map.of("ok", false, "error", e.getMessage(), "offset", e.getOffset()));
+    }
+
+    /**
+     * 이어받은 청크의 CRC 불일치 -> 422 Unprocessable Entity (받아둔 부분은 버렸으므로 처음부터 다시 전송)
+     * @return {"ok":false, "error":"CHECKSUM_MISMATCH", "offset":0}
+     * */
+    @ExceptionHandler(ChecksumMismatchException.class)
+    public ResponseEntity<Map<String, Object>> checksumMismatch(ChecksumMismatchException e) {
+        uploadMetrics.error(e);
+        return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY)
+                .body(Map.of("ok", false, "error", e.getMessage(), "offset", 0));
+    }
+
+    /**
+     * 최대 크기를 넘는 청크 -> 400 Bad Request
+     * @return {"ok":false, "error":"CHUNK_TOO_LARGE", "maxBytes":long}
+     * */
+    @ExceptionHandler(ChunkTooLargeException.class)
+    public ResponseEntity<Map<String, Object>> chunkTooLarge(ChunkTooLargeException e) {
+        uploadMetrics.error(e);
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(Map.of("ok", false, "error", e.getMessage(), "maxBytes", e.getMaxBytes()));
+    }
+
+    /**
+     * 변환 대기열 포화 -> 429 Too Many Requests
+     * @return {"ok":false, "error":"TRANSCODE_BUSY", "retryAfter":long}
+     * */
+    @ExceptionHandler(TranscodeBusyException.class)
+    public ResponseEntity<Map<String, Object>> transcodeBusy(TranscodeBusyException e) {
+        uploadMetrics.error(e);
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(Map.of("ok", false, "error", e.getMessage(), "retryAfter", e.getRetryAfterSeconds()));
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.audio_upload_web.common.web;
+
+/**
+ * Range 요청 헤더의 byte 범위 (단일 범위만 지원)
+ * @param start 시작 위치
+ * @param end 끝 위치 (포함)
+ * */
+public record ByteRange(long start, long end) {
+
+    /*
+     * 파일 범위를 벗어난 요청 (416)
+     * */
+    public static final ByteRange UNSATISFIABLE = new ByteRange(-1, -1);
+
+    private static final String UNIT = "bytes=";
+
+
+    public long length() {
+        return end - start + 1;
+    }
+
+
+    /**
+     * Range 헤더 해석
+     * <pre>
+     * bytes=100-199 : 100 ~ 199
+     * bytes=100-    : 100 ~ 끝
+     * bytes=-100    : 마지막 100 byte
+     * </pre>
+     * @param header Range 헤더
+     * @param size 파일 크기
+     * @return 요청 범위 (끝은 파일 크기에 맞춤), 범위를 벗어나면 UNSATISFIABLE,
+     *         헤더가 없거나 형식이 잘못되었거나 여러 범위면 null (전체 전송)
+     * */
+    public static ByteRange parse(String header, long size) {
+        if (header == null || !header.regionMatches(true, 0, UNIT, 0, UNIT.length())) return null;
+        String spec = header.substring(UNIT.length()).trim();
+        if (spec.indexOf(',') >= 0) return null;
+
+        int dash = spec.indexOf('-');
+        if (dash < 0) return null;
+        long start, end;
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            if (first.isEmpty()) {
+                // 마지막 n byte
+                long suffix = Long.parseLong(last);
+                if (suffix < 0) return null;
+                if (suffix == 0 || size == 0) return UNSATISFIABLE;
+                return new ByteRange(Math.max(0, size - suffix), size - 1);
+            }
+            start = Long.parseLong(first);
+            end = last.isEmpty() ? Long.MAX_VALUE : Long.parseLong(last);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+
+        if (start < 0 || end < start) return null;
+        if (start >= size) return UNSATISFIABLE;
+        return new ByteRange(start, Math.min(end, size - 1));
+    }
+}
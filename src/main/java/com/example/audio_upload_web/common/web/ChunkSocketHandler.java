@@ -0,0 +1,207 @@
+package com.example.audio_upload_web.common.web;
+
+import com.example.audio_upload_web.common.metrics.UploadMetrics;
+import com.example.audio_upload_web.common.ratelimit.RateLimiter;
+import com.example.audio_upload_web.common.session.ChunkResult;
+import com.example.audio_upload_web.common.session.UploadSessionRegistry;
+import com.example.audio_upload_web.constant.UploadSource;
+import com.example.audio_upload_web.exception.AlreadyFinalizedException;
+import com.example.audio_upload_web.exception.NoSessionException;
+import com.example.audio_upload_web.exception.RateLimitedException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.BinaryWebSocketHandler;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 청크 수신 WebSocket (RealTime, RTC 공통)<br/>
+ * 연결 하나가 업로드 세션 하나에 대응하며, 바이너리 프레임 하나가 청크 하나임
+ * (청크마다 multipart 요청을 만들지 않으므로 HTTP 헤더/파싱 비용이 없음)
+ *
+ * <pre>
+ * 연결 : ws://.../{path}/ws            -> 새 세션 생성
+ *        ws://.../{path}/ws?uploadId=  -> 기존 세션에 이어서 전송 (재연결)
+ * 서버 -> {"type":"ready", "uploadId":String, "credits":int, "committed":int}
+ *          (committed : stream 파일에 이어붙여진 청크 수, 서버 재시작 후 재연결 시 이어서 보낼 위치 확인용)
+ *
+ * 프레임 : [seq (4 byte, big-endian)][청크 데이터]
+ * 서버 -> {"type":"ack", "seq":int, "result":String(COMMITTED, BUFFERED, DUPLICATE), "credits":1}
+ *         {"type":"error", "seq":int, "error":String, "credits":1}
+ *         {"type":"error", "seq":int, "error":"RATE_LIMITED", "retryAfterMs":long, "credits":1}
+ *          (클라이언트 주소별 + 세션별 요청 제한, handshake 는 RateLimitFilter 에서 클라이언트 주소별로 제한)
+ *
+ * credits : 응답을 받지 않고 보낼 수 있는 프레임 수 (응답마다 1 씩 돌려받음)
+ * 병합(finalize)은 기존과 같이 REST 로 요청함
+ * </pre>
+ * */
+@Log4j2
+public abstract class ChunkSocketHandler extends BinaryWebSocketHandler {
+
+    private static final String UPLOAD_ID = "uploadId";
+    private static final String CLIENT = "client";
+
+    /*
+     * 연결당 동시에 보낼 수 있는 프레임 수
+     * */
+    @Value("${upload.ws.credits:4}")
+    private int credits;
+
+    /*
+     * 프레임 최대 크기 (seq 포함)
+     * */
+    @Value("${upload.ws.max-frame-bytes:8388608}")
+    private int maxFrameBytes;
+
+    @Autowired
+    private UploadSessionRegistry sessionRegistry;
+
+    @Autowired
+    private UploadMetrics uploadMetrics;
+
+    @Autowired
+    private RateLimiter rateLimiter;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+
+    /**
+     * @return 업로드 종류
+     * */
+    protected abstract UploadSource source();
+
+    /**
+     * 세션 생성
+     * @return 업로드 될 파일의 UUID값
+     * @throws IOException 청크 파일 저장 위치 생성 예외
+     * */
+    protected abstract String createSession() throws IOException;
+
+    /**
+     * 청크 저장
+     * @param uploadId 업로드 될 파일의 UUID값
+     * @param seq 청크 파일의 순서
+     * @param payload 청크 데이터
+     * @return 청크 처리 결과
+     * @throws IOException 청크 파일 저장 예외
+     * */
+    protected abstract ChunkResult saveChunk(String uploadId, int seq, ByteBuffer payload) throws IOException;
+
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession ws) throws Exception {
+        ws.setBinaryMessageSizeLimit(maxFrameBytes);
+
+        String uploadId = ws.getUri() == null ? null
+                : UriComponentsBuilder.fromUri(ws.getUri()).build().getQueryParams().getFirst(UPLOAD_ID);
+        int committed = 0;
+        try {
+            if (uploadId == null || uploadId.isBlank()) {
+                uploadId = createSession();
+            } else {
+                // 재연결 : 업로드 중인 세션인지 확인
+                committed = sessionRegistry.acquire(uploadId, source()).getCommittedChunks();
+            }
+        } catch (NoSessionException | AlreadyFinalizedException e) {
+            uploadMetrics.error(e);
+            ws.close(CloseStatus.POLICY_VIOLATION.withReason(e.getMessage()));
+            return;
+        }
+
+        ws.getAttributes().put(UPLOAD_ID, uploadId);
+        ws.getAttributes().put(CLIENT, client(ws));
+        Map<String, Object> ready = new LinkedHashMap<>();
+        ready.put("type", "ready");
+        ready.put("uploadId", uploadId);
+        ready.put("credits", credits);
+        ready.put("committed", committed);
+        send(ws, ready);
+    }
+
+
+    /*
+     * 프레임은 연결마다 순서대로 처리됨 (같은 연결의 프레임이 동시에 처리되지 않음)
+     * */
+    @Override
+    protected void handleBinaryMessage(WebSocketSession ws, BinaryMessage message) throws Exception {
+        String uploadId = (String) ws.getAttributes().get(UPLOAD_ID);
+        if (uploadId == null) return;
+
+        ByteBuffer payload = message.getPayload();
+        if (payload.remaining() < Integer.BYTES) {
+            ws.close(CloseStatus.BAD_DATA.withReason("seq 누락"));
+            return;
+        }
+        int seq = payload.getInt();
+
+        Map<String, Object> reply = new LinkedHashMap<>();
+        reply.put("seq", seq);
+
+        // 클라이언트 주소별 + 세션별 요청 제한 (거절된 프레임은 저장하지 않고 대기 시간을 알려줌)
+        String client = (String) ws.getAttributes().get(CLIENT);
+        long wait = rateLimiter.acquire(payload.remaining(), client, "session:" + uploadId);
+        if (wait > 0) {
+            RateLimitedException e = new RateLimitedException(wait);
+            uploadMetrics.error(e);
+            reply.put("type", "error");
+            reply.put("error", e.getMessage());
+            reply.put("retryAfterMs", wait);
+            reply.put("credits", 1);
+            send(ws, reply);
+            return;
+        }
+
+        try {
+            ChunkResult result = saveChunk(uploadId, seq, payload.slice());
+            reply.put("type", "ack");
+            reply.put("result", result.name());
+        } catch (NoSessionException | AlreadyFinalizedException e) {
+            // 세션이 만료되었거나 병합이 시작된 연결은 종료
+            uploadMetrics.error(e);
+            reply.put("type", "error");
+            reply.put("error", e.getMessage());
+            send(ws, reply);
+            ws.close(CloseStatus.POLICY_VIOLATION.withReason(e.getMessage()));
+            return;
+        } catch (IllegalArgumentException | IOException e) {
+            // 청크 하나의 실패는 응답만 보내고 연결은 유지 (클라이언트가 재전송)
+            uploadMetrics.error(e);
+            log.warn("청크 저장 실패 (" + uploadId + ", " + seq + ") : " + e.getMessage());
+            reply.put("type", "error");
+            reply.put("error", e.getMessage());
+        }
+        reply.put("credits", 1);
+        send(ws, reply);
+    }
+
+
+    @Override
+    public void handleTransportError(WebSocketSession ws, Throwable e) {
+        log.debug("청크 수신 연결 오류 (" + ws.getAttributes().get(UPLOAD_ID) + ") : " + e.getMessage());
+    }
+
+    /*
+     * handshake 요청 기준 클라이언트 키 (RateLimitFilter 와 같은 키)
+     * */
+    private String client(WebSocketSession ws) {
+        InetSocketAddress remote = ws.getRemoteAddress();
+        String addr = remote == null ? "" : remote.getAddress() != null ? remote.getAddress().getHostAddress() : remote.getHostString();
+        return rateLimiter.clientKey(ws.getHandshakeHeaders()::getFirst, addr);
+    }
+
+    private void send(WebSocketSession ws, Map<String, Object> body) throws IOException {
+        if (ws.isOpen()) ws.sendMessage(new TextMessage(objectMapper.writeValueAsString(body)));
+    }
+}
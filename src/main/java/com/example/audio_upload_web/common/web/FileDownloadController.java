@@ -0,0 +1,242 @@
+package com.example.audio_upload_web.common.web;
+
+import com.example.audio_upload_web.common.io.FileHandleCache;
+import com.example.audio_upload_web.common.storage.ObjectStorage;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * 최종 파일 다운로드 / 재생 (finalize 응답의 key)<br/>
+ * 브라우저 audio 태그가 재생 위치를 옮길 때 보내는 Range 요청에는 요청한 구간만 보냄
+ *
+ * <pre>
+ * GET|HEAD /files/{key}
+ *  - Range (bytes 단일 범위) / If-Range      -> 206, 범위를 벗어나면 416
+ *  - If-None-Match / If-Modified-Since       -> 304
+ *  - 본문은 힙을 거치지 않고 전송
+ *    (Tomcat sendfile 을 지원하는 연결이면 sendfile, 아니면 FileChannel.transferTo)
+ *  - 원격 저장소(s3)는 Range 없이 전체를 스트림으로 전달
+ *  - 저장소가 발급하는 형태의 key 만 전송 (cas 색인 / 임시 파일, 디렉터리 등은 404)
+ * </pre>
+ * */
+@Controller
+@Log4j2
+public class FileDownloadController {
+
+    /*
+     * Tomcat sendfile 요청 속성 (응답을 돌려준 뒤 컨테이너가 파일을 직접 전송)
+     * */
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    /*
+     * 발급되는 key 형태
+     *
+     * STORED_KEY : [{볼륨 번호}/]{yyyy-MM-dd}/[{해시}/]{uuid}.{확장자} (local, s3 는 볼륨 번호 없음)
+     * BLOB_KEY : {볼륨 번호}/cas/{해시 앞 2자리}/{sha256}.{확장자}
+     * */
+    private static final Pattern STORED_KEY = Pattern.compile("(\\d+/)?\\d{4}-\\d{2}-\\d{2}/([0-9a-f]{2}/)?[0-9A-Za-z-]+\\.[0-9A-Za-z]+");
+    private static final Pattern BLOB_KEY = Pattern.compile("\\d+/cas/([0-9a-f]{2})/\\1[0-9a-f]{62}(\\.[0-9A-Za-z]+)?");
+
+    @Value("${upload.download.sendfile:true}")
+    private boolean sendfile;
+
+    @Value("${upload.download.max-age-seconds:86400}")
+    private long maxAgeSeconds;
+
+    @Autowired
+    private ObjectStorage objectStorage;
+
+    @Autowired
+    private FileHandleCache fileHandleCache;
+
+
+    /**
+     * 최종 파일 전송
+     * @param key 저장소 key (예: 0/2026-10-17/ab/{uuid}.webm)
+     * @throws IOException 파일 읽기 / 전송 예외
+     * */
+    @RequestMapping(value = "/files/{*key}", method = {RequestMethod.GET, RequestMethod.HEAD})
+    public void download(@PathVariable("key") String key, HttpServletRequest req, HttpServletResponse res) throws IOException {
+        key = key.startsWith("/") ? key.substring(1) : key;
+        if (!isIssuedKey(key)) {
+            res.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        Path path;
+        try {
+            path = objectStorage.localPath(key);
+        } catch (IllegalArgumentException e) {
+            res.sendError(HttpServletResponse.SC_BAD_REQUEST);
+            return;
+        }
+        if (path == null) {
+            streamRemote(key, req, res);
+            return;
+        }
+
+        FileHandleCache.Handle file;
+        try {
+            file = fileHandleCache.acquire(path);
+        } catch (NoSuchFileException e) {
+            res.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        try (file) {
+            String etag = file.getETag();
+            long lastModified = file.getLastModified();
+            long size = file.getSize();
+
+            res.setHeader(HttpHeaders.ETAG, etag);
+            res.setDateHeader(HttpHeaders.LAST_MODIFIED, lastModified);
+            res.setHeader(HttpHeaders.CACHE_CONTROL, "private, max-age=" + maxAgeSeconds);
+            res.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+            res.setContentType(contentType(key));
+
+            if (notModified(req, etag, lastModified)) {
+                res.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+                return;
+            }
+
+            ByteRange range = rangeApplies(req, etag, lastModified) ? ByteRange.parse(req.getHeader(HttpHeaders.RANGE), size) : null;
+            if (range == ByteRange.UNSATISFIABLE) {
+                res.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                res.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+            if (range != null) {
+                res.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                res.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + range.start() + "-" + range.end() + "/" + size);
+            } else {
+                range = new ByteRange(0, size - 1);
+            }
+
+            res.setContentLengthLong(range.length());
+            if ("HEAD".equals(req.getMethod()) || range.length() == 0) return;
+
+            if (sendfile && Boolean.TRUE.equals(req.getAttribute(SENDFILE_SUPPORTED))) {
+                req.setAttribute(SENDFILE_FILENAME, path.toAbsolutePath().toString());
+                req.setAttribute(SENDFILE_START, range.start());
+                req.setAttribute(SENDFILE_END, range.end() + 1);
+                return;
+            }
+            transfer(file.getChannel(), range, res);
+        }
+    }
+
+
+    /*
+     * 열린 파일 채널의 구간을 응답으로 전송 (transferTo, 채널 위치는 바꾸지 않음)
+     * */
+    private void transfer(FileChannel in, ByteRange range, HttpServletResponse res) throws IOException {
+        WritableByteChannel out = Channels.newChannel(res.getOutputStream());
+        long position = range.start();
+        long end = range.end() + 1;
+        try {
+            while (position < end) {
+                long n = in.transferTo(position, end - position, out);
+                if (n <= 0) throw new IOException("파일이 전송 중 줄어듦");
+                position += n;
+            }
+        } catch (IOException e) {
+            // 재생 위치 이동 등으로 클라이언트가 연결을 끊은 경우 포함
+            log.debug("파일 전송 중단 : " + e.getMessage());
+        }
+    }
+
+    /*
+     * 로컬 파일이 아닌 저장소는 전체를 그대로 전달
+     * */
+    private void streamRemote(String key, HttpServletRequest req, HttpServletResponse res) throws IOException {
+        try (InputStream in = objectStorage.open(key)) {
+            res.setHeader(HttpHeaders.ACCEPT_RANGES, "none");
+            res.setContentType(contentType(key));
+            if (!"HEAD".equals(req.getMethod())) in.transferTo(res.getOutputStream());
+        } catch (FileNotFoundException e) {
+            res.sendError(HttpServletResponse.SC_NOT_FOUND);
+        } catch (IllegalArgumentException e) {
+            res.sendError(HttpServletResponse.SC_BAD_REQUEST);
+        }
+    }
+
+
+    /*
+     * 저장소가 발급한 형태의 key 인지 확인
+     * */
+    static boolean isIssuedKey(String key) {
+        return STORED_KEY.matcher(key).matches() || BLOB_KEY.matcher(key).matches();
+    }
+
+    /*
+     * If-None-Match 가 있으면 ETag 비교 (약한 비교), 없으면 If-Modified-Since 와 수정 시각(초 단위) 비교
+     * */
+    private static boolean notModified(HttpServletRequest req, String etag, long lastModified) {
+        String ifNoneMatch = req.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            for (String tag : ifNoneMatch.split(",")) {
+                tag = tag.trim();
+                if (tag.startsWith("W/")) tag = tag.substring(2);
+                if (tag.equals("*") || tag.equals(etag)) return true;
+            }
+            return false;
+        }
+
+        long since = dateHeader(req, HttpHeaders.IF_MODIFIED_SINCE);
+        return since >= 0 && lastModified / 1000 <= since / 1000;
+    }
+
+    /*
+     * If-Range 가 현재 파일과 다르면 Range 를 무시하고 전체 전송 (ETag 는 강한 비교)
+     * */
+    private static boolean rangeApplies(HttpServletRequest req, String etag, long lastModified) {
+        String ifRange = req.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) return true;
+        ifRange = ifRange.trim();
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) return ifRange.equals(etag);
+
+        long date = dateHeader(req, HttpHeaders.IF_RANGE);
+        return date >= 0 && lastModified / 1000 == date / 1000;
+    }
+
+    private static long dateHeader(HttpServletRequest req, String name) {
+        try {
+            return req.getDateHeader(name);
+        } catch (IllegalArgumentException e) {
+            return -1;
+        }
+    }
+
+    private static String contentType(String key) {
+        String ext = key.substring(key.lastIndexOf('.') + 1).toLowerCase(Locale.ROOT);
+        return switch (ext) {
+            case "webm" -> "audio/webm";
+            case "ogg" -> "audio/ogg";
+            case "wav" -> "audio/wav";
+            case "mp3" -> "audio/mpeg";
+            default -> "application/octet-stream";
+        };
+    }
+}
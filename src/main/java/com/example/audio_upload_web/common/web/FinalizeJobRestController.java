@@ -0,0 +1,48 @@
+package com.example.audio_upload_web.common.web;
+
+import com.example.audio_upload_web.common.job.FinalizeJob;
+import com.example.audio_upload_web.common.job.FinalizeJobService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/jobs")
+public class FinalizeJobRestController {
+
+    @Autowired
+    private FinalizeJobService finalizeJobService;
+
+
+    /**
+     * finalize 작업 상태 조회
+     * @param jobId 작업 id
+     * @return {"ok":boolean, "jobId":String, "uploadId":String, "state":String, "stage":String, "processedMs":long, "result":Map, "error":String}
+     * */
+    @GetMapping("/{jobId}")
+    public ResponseEntity<Map<String, Object>> status(@PathVariable String jobId) {
+        FinalizeJob job = finalizeJobService.find(jobId);
+        if (job == null) return ResponseEntity.notFound().build();
+        return ResponseEntity.ok(job.snapshot());
+    }
+
+
+    /**
+     * finalize 작업 진행 상태 SSE 구독<br/>
+     * (event: progress / done / failed, data: 상태 조회 응답과 동일)
+     * @param jobId 작업 id
+     * */
+    @GetMapping(value = "/{jobId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> events(@PathVariable String jobId) {
+        SseEmitter emitter = finalizeJobService.subscribe(jobId);
+        if (emitter == null) return ResponseEntity.notFound().build();
+        return ResponseEntity.ok(emitter);
+    }
+}
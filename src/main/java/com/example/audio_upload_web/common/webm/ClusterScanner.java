@@ -0,0 +1,111 @@
+package com.example.audio_upload_web.common.webm;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * stream 파일의 Cluster 시작 위치만 찾는 증분 스캐너 (실시간 청취용)<br/>
+ * WebmIndexer 와 달리 타임코드/Block 은 읽지 않고 최상위 요소 경계만 따라감
+ * */
+class ClusterScanner {
+
+    /*
+     * 요소 헤더 최대 크기 (ID 4 + 크기 8)
+     * */
+    private static final int HEADER_MAX = 12;
+
+    /*
+     * 스캔 상태
+     *
+     * pos : 다음에 읽을 요소 위치
+     * ebml / segment : EBML 헤더, Segment 헤더를 지났는지 여부
+     * inCluster : 크기를 모르는 Cluster 내부 (다음 최상위 요소에서 끝남)
+     * headerEnd : 첫번째 Cluster 시작 위치 (그 앞은 청취자에게 먼저 보낼 헤더)
+     * */
+    private long pos;
+    private boolean ebml;
+    private boolean segment;
+    private boolean inCluster;
+    private long headerEnd = -1;
+
+    /*
+     * 지원하지 않는 구조 또는 손상된 데이터
+     * */
+    private String error;
+
+
+    /**
+     * available 위치까지 이어붙여진 데이터에서 Cluster 시작 위치 탐색 (이전 호출 이후 구간만 읽음)
+     * @param ch stream 파일 채널
+     * @param available stream 파일에 이어붙여진 크기
+     * @return 이번에 찾은 Cluster 중 마지막 시작 위치 (없으면 -1)
+     * @throws IOException stream 파일 읽기 예외
+     * */
+    long advance(FileChannel ch, long available) throws IOException {
+        long last = -1;
+        if (error != null) return last;
+        try {
+            while (pos < available) {
+                Ebml.Header h = header(ch, available);
+                if (h == null) break;
+                long body = pos + h.headerLength();
+                long end = h.size() == Ebml.UNKNOWN_SIZE ? Ebml.UNKNOWN_SIZE : body + h.size();
+
+                if (!ebml) {
+                    if (h.id() != Ebml.EBML || end == Ebml.UNKNOWN_SIZE) throw new IllegalArgumentException("EBML 헤더 아님");
+                    ebml = true;
+                    pos = end;
+                } else if (!segment) {
+                    if (h.id() != Ebml.SEGMENT) throw new IllegalArgumentException("Segment 아님");
+                    segment = true;
+                    pos = body;
+                } else if (inCluster && !Ebml.isTopLevel(h.id())) {
+                    if (end == Ebml.UNKNOWN_SIZE) throw new IllegalArgumentException("크기 없는 Cluster 하위 요소");
+                    pos = end;
+                } else {
+                    inCluster = false;
+                    if (h.id() == Ebml.CLUSTER) {
+                        if (headerEnd < 0) headerEnd = pos;
+                        last = pos;
+                        // 크기를 아는 Cluster 는 건너뛰고, 모르면 하위 요소를 따라감
+                        inCluster = end == Ebml.UNKNOWN_SIZE;
+                        pos = inCluster ? body : end;
+                    } else {
+                        if (end == Ebml.UNKNOWN_SIZE) throw new IllegalArgumentException("크기 없는 최상위 요소");
+                        pos = end;
+                    }
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            error = e.getMessage();
+        }
+        return last;
+    }
+
+
+    /**
+     * @return 첫번째 Cluster 시작 위치 (아직 없으면 -1)
+     * */
+    long getHeaderEnd() {
+        return headerEnd;
+    }
+
+    /**
+     * @return 스캔 실패 사유 (정상이면 null)
+     * */
+    String getError() {
+        return error;
+    }
+
+
+    private Ebml.Header header(FileChannel ch, long available) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate((int) Math.min(HEADER_MAX, available - pos));
+        while (buf.hasRemaining()) {
+            if (ch.read(buf, pos + buf.position()) < 0) throw new EOFException();
+        }
+        buf.flip();
+        return Ebml.readHeader(buf);
+    }
+}
@@ -0,0 +1,209 @@
+package com.example.audio_upload_web.common.webm;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * EBML(Matroska/WebM) 요소 ID 및 가변 길이 정수(vint) 읽기/쓰기
+ * */
+final class Ebml {
+
+    /*
+     * 요소 ID (마커 비트 포함)
+     * */
+    static final int EBML = 0x1A45DFA3;
+    static final int SEGMENT = 0x18538067;
+    static final int SEEK_HEAD = 0x114D9B74;
+    static final int SEEK = 0x4DBB;
+    static final int SEEK_ID = 0x53AB;
+    static final int SEEK_POSITION = 0x53AC;
+    static final int INFO = 0x1549A966;
+    static final int TIMECODE_SCALE = 0x2AD7B1;
+    static final int DURATION = 0x4489;
+    static final int TRACKS = 0x1654AE6B;
+    static final int TRACK_ENTRY = 0xAE;
+    static final int CODEC_ID = 0x86;
+    static final int AUDIO = 0xE1;
+    static final int SAMPLING_FREQUENCY = 0xB5;
+    static final int CHANNELS = 0x9F;
+    static final int CLUSTER = 0x1F43B675;
+    static final int TIMECODE = 0xE7;
+    static final int SIMPLE_BLOCK = 0xA3;
+    static final int BLOCK_GROUP = 0xA0;
+    static final int BLOCK = 0xA1;
+    static final int CUES = 0x1C53BB6B;
+    static final int CUE_POINT = 0xBB;
+    static final int CUE_TIME = 0xB3;
+    static final int CUE_TRACK_POSITIONS = 0xB7;
+    static final int CUE_TRACK = 0xF7;
+    static final int CUE_CLUSTER_POSITION = 0xF1;
+    static final int TAGS = 0x1254C367;
+    static final int CHAPTERS = 0x1043A770;
+    static final int ATTACHMENTS = 0x1941A469;
+
+    /*
+     * 크기를 알 수 없는 요소 (MediaRecorder 의 Segment, Cluster)
+     * */
+    static final long UNKNOWN_SIZE = -1;
+
+    private Ebml() {}
+
+
+    /**
+     * Segment 바로 아래 요소인지 확인 (크기를 모르는 Cluster 의 끝 판단용)
+     * */
+    static boolean isTopLevel(int id) {
+        return id == CLUSTER || id == INFO || id == TRACKS || id == CUES || id == SEEK_HEAD
+                || id == TAGS || id == CHAPTERS || id == ATTACHMENTS;
+    }
+
+
+    /**
+     * vint 의 바이트 수 (첫 바이트의 마커 위치)
+     * @return 1~8 (잘못된 값이면 0)
+     * */
+    static int vintLength(int first) {
+        int b = first & 0xFF;
+        if (b == 0) return 0;
+        return Integer.numberOfLeadingZeros(b) - 23;
+    }
+
+
+    /**
+     * 요소 헤더 (ID + 크기)
+     * @param id 요소 ID
+     * @param size 본문 크기 (UNKNOWN_SIZE 가능)
+     * @param headerLength 헤더 바이트 수
+     * */
+    record Header(int id, long size, int headerLength) {}
+
+
+    /**
+     * 버퍼의 현재 위치에서 요소 헤더 읽기
+     * @return 헤더 (데이터가 부족하면 null)
+     * @throws IllegalArgumentException 잘못된 헤더
+     * */
+    static Header readHeader(ByteBuffer buf) {
+        int start = buf.position();
+        if (!buf.hasRemaining()) return null;
+
+        int idLen = vintLength(buf.get(start));
+        if (idLen == 0 || idLen > 4) throw new IllegalArgumentException("잘못된 EBML ID");
+        if (buf.remaining() < idLen + 1) return null;
+        int id = 0;
+        for (int i = 0; i < idLen; i++) id = (id << 8) | (buf.get(start + i) & 0xFF);
+
+        int sizeLen = vintLength(buf.get(start + idLen));
+        if (sizeLen == 0) throw new IllegalArgumentException("잘못된 EBML 크기");
+        if (buf.remaining() < idLen + sizeLen) return null;
+        long size = buf.get(start + idLen) & (0xFF >> sizeLen);
+        boolean unknown = size == (0xFF >> sizeLen);
+        for (int i = 1; i < sizeLen; i++) {
+            int b = buf.get(start + idLen + i) & 0xFF;
+            size = (size << 8) | b;
+            unknown &= b == 0xFF;
+        }
+
+        buf.position(start + idLen + sizeLen);
+        return new Header(id, unknown ? UNKNOWN_SIZE : size, idLen + sizeLen);
+    }
+
+
+    /**
+     * 버퍼의 현재 위치에서 vint 값 읽기 (Block 의 트랙 번호 등)
+     * */
+    static long readVint(ByteBuffer buf) {
+        int len = vintLength(buf.get(buf.position()));
+        if (len == 0) throw new IllegalArgumentException("잘못된 vint");
+        long value = buf.get() & (0xFF >> len);
+        for (int i = 1; i < len; i++) value = (value << 8) | (buf.get() & 0xFF);
+        return value;
+    }
+
+    static long readUint(ByteBuffer buf, int length) {
+        long value = 0;
+        for (int i = 0; i < length; i++) value = (value << 8) | (buf.get() & 0xFF);
+        return value;
+    }
+
+    static double readFloat(ByteBuffer buf, int length) {
+        return length == 4 ? buf.getFloat() : buf.getDouble();
+    }
+
+    static String readString(ByteBuffer buf, int length) {
+        byte[] b = new byte[length];
+        buf.get(b);
+        int end = 0;
+        while (end < length && b[end] != 0) end++;
+        return new String(b, 0, end, StandardCharsets.US_ASCII);
+    }
+
+
+    static int idLength(int id) {
+        if ((id & 0xFF000000) != 0) return 4;
+        if ((id & 0xFF0000) != 0) return 3;
+        if ((id & 0xFF00) != 0) return 2;
+        return 1;
+    }
+
+    /**
+     * 크기 표현에 필요한 최소 vint 바이트 수 (모든 비트가 1인 값은 UNKNOWN 이므로 제외)
+     * */
+    static int sizeLength(long size) {
+        int len = 1;
+        while (len < 8 && size >= (1L << (7 * len)) - 1) len++;
+        return len;
+    }
+
+    static int uintLength(long value) {
+        int len = 1;
+        while (len < 8 && (value >>> (8 * len)) != 0) len++;
+        return len;
+    }
+
+    /**
+     * 헤더 포함 요소 전체 크기
+     * */
+    static long elementLength(int id, long size) {
+        return idLength(id) + sizeLength(size) + size;
+    }
+
+    static long uintElementLength(int id, long value) {
+        return elementLength(id, uintLength(value));
+    }
+
+
+    static void putId(ByteBuffer buf, int id) {
+        for (int i = idLength(id) - 1; i >= 0; i--) buf.put((byte) (id >>> (8 * i)));
+    }
+
+    static void putSize(ByteBuffer buf, long size, int length) {
+        for (int i = length - 1; i >= 0; i--) {
+            long b = size >>> (8 * i);
+            if (i == length - 1) b |= 0x100 >> length;
+            buf.put((byte) b);
+        }
+    }
+
+    static void putHeader(ByteBuffer buf, int id, long size) {
+        putId(buf, id);
+        putSize(buf, size, sizeLength(size));
+    }
+
+    static void putUint(ByteBuffer buf, int id, long value) {
+        putUint(buf, id, value, uintLength(value));
+    }
+
+    /**
+     * 고정 길이 uint 요소 (위치 계산 전에 크기를 확정해야 하는 값)
+     * */
+    static void putUint(ByteBuffer buf, int id, long value, int length) {
+        putHeader(buf, id, length);
+        for (int i = length - 1; i >= 0; i--) buf.put((byte) (value >>> (8 * i)));
+    }
+
+    static void putFloat(ByteBuffer buf, int id, double value) {
+        putHeader(buf, id, 8);
+        buf.putDouble(value);
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.audio_upload_web.common.webm;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * 녹음 중인 세션 하나의 실시간 청취 버퍼<br/>
+ * 청크가 이어붙여질 때마다 새 구간을 한번만 읽어 링 버퍼에 보관하고, 청취자들은 각자 위치에서 링 버퍼를 읽음
+ * (청취자 수와 관계없이 stream 파일은 한번만 읽음)
+ *
+ * <pre>
+ * 청취자 : 헤더(첫번째 Cluster 이전) -> 링 버퍼에 남아있는 마지막 Cluster 부터 이어서 전송
+ * 링 버퍼에서 밀려난 위치를 읽으려는 청취자는 느린 청취자로 보고 끊음 (수신은 기다리지 않음)
+ * </pre>
+ * */
+final class LiveFeed {
+
+    /*
+     * 헤더(EBML, Segment, Info, Tracks 등) 최대 크기
+     * */
+    private static final long HEADER_MAX = 1 << 20;
+
+    /*
+     * stream 파일 최근 구간 (위치 p 는 ring[p % ring.length] 에 보관)
+     * */
+    private final byte[] ring;
+
+    private final ClusterScanner scanner = new ClusterScanner();
+
+    /*
+     * 버퍼 상태 (this 로 잠금)
+     *
+     * start / end : 링 버퍼에 남아있는 stream 파일 구간
+     * header : 첫번째 Cluster 이전 데이터 (아직 모르면 null)
+     * lastCluster : 마지막으로 찾은 Cluster 시작 위치
+     * finished : 녹음 종료 (남은 구간을 보낸 뒤 청취 종료)
+     * error : 청취할 수 없는 stream (헤더가 너무 큰 경우 등)
+     * */
+    private long start;
+    private long end;
+    private byte[] header;
+    private long lastCluster = -1;
+    private boolean finished;
+    private String error;
+
+
+    LiveFeed(int capacity) {
+        this.ring = new byte[capacity];
+    }
+
+
+    /**
+     * 이어붙여진 구간을 링 버퍼에 추가 (처음 호출 시 파일 앞부분부터 Cluster 위치를 찾음)
+     * @param ch stream 파일 채널
+     * @param available stream 파일에 이어붙여진 크기
+     * @throws IOException stream 파일 읽기 예외
+     * */
+    synchronized void append(FileChannel ch, long available) throws IOException {
+        if (available <= end) return;
+
+        // 링 버퍼보다 큰 구간은 뒷부분만 보관
+        long p = Math.max(end, available - ring.length);
+        while (p < available) {
+            int index = (int) (p % ring.length);
+            int n = (int) Math.min(available - p, ring.length - index);
+            read(ch, ByteBuffer.wrap(ring, index, n), p);
+            p += n;
+        }
+        end = available;
+        start = Math.max(start, end - ring.length);
+
+        if (error != null) return;
+        long cluster = scanner.advance(ch, end);
+        if (header == null && scanner.getHeaderEnd() > 0) {
+            long size = scanner.getHeaderEnd();
+            if (size > HEADER_MAX) {
+                error = "WebM 헤더 크기 초과 : " + size;
+                return;
+            }
+            ByteBuffer buf = ByteBuffer.allocate((int) size);
+            read(ch, buf, 0);
+            header = buf.array();
+        }
+        if (cluster >= 0) lastCluster = cluster;
+    }
+
+
+    /**
+     * @return 청취자에게 먼저 보낼 헤더 (첫번째 Cluster 가 이어붙여지기 전이면 null)
+     * */
+    synchronized byte[] header() {
+        return header;
+    }
+
+    /**
+     * 새 청취자가 시작할 위치
+     * @return 링 버퍼에 남아있는 마지막 Cluster 시작 위치 (없으면 -1)
+     * */
+    synchronized long joinPosition() {
+        return lastCluster >= start ? lastCluster : -1;
+    }
+
+    /**
+     * 청취자 위치부터 링 버퍼 읽기
+     * @param pos 청취자가 다음에 받을 stream 파일 위치
+     * @param max 최대 크기
+     * @return 읽은 데이터 (새 데이터가 없으면 빈 배열, 이미 밀려난 위치면 null)
+     * */
+    synchronized byte[] read(long pos, int max) {
+        if (pos < start) return null;
+        int n = (int) Math.min(end - pos, max);
+        byte[] out = new byte[Math.max(n, 0)];
+        int done = 0;
+        while (done < n) {
+            int index = (int) ((pos + done) % ring.length);
+            int c = Math.min(n - done, ring.length - index);
+            System.arraycopy(ring, index, out, done, c);
+            done += c;
+        }
+        return out;
+    }
+
+
+    /**
+     * @return WebM 구조 오류 (정상이면 null)
+     * */
+    synchronized String getError() {
+        return error != null ? error : scanner.getError();
+    }
+
+    synchronized void finish() {
+        finished = true;
+    }
+
+    synchronized boolean isFinished() {
+        return finished;
+    }
+
+    /**
+     * 청취자가 더 받을 데이터가 있는지 여부
+     * @param pos 청취자 위치 (아직 시작하지 않았으면 -1)
+     * */
+    synchronized boolean hasMore(long pos) {
+        return pos < 0 ? lastCluster >= start : pos < end;
+    }
+
+
+    private static void read(FileChannel ch, ByteBuffer buf, long position) throws IOException {
+        int from = buf.position();
+        while (buf.hasRemaining()) {
+            if (ch.read(buf, position + buf.position() - from) < 0) throw new EOFException();
+        }
+    }
+}
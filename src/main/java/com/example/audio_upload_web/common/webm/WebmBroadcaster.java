@@ -0,0 +1,376 @@
+package com.example.audio_upload_web.common.webm;
+
+import com.example.audio_upload_web.common.metrics.UploadMetrics;
+import com.example.audio_upload_web.common.session.ChunkCommitListener;
+import com.example.audio_upload_web.common.session.SessionCloseListener;
+import com.example.audio_upload_web.common.session.UploadSession;
+import com.example.audio_upload_web.common.session.UploadStatus;
+import com.example.audio_upload_web.exception.AlreadyFinalizedException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 녹음 중인 세션 실시간 청취 (RealTimeService, RTCService 공통)<br/>
+ * 청취자가 있는 세션만 링 버퍼(LiveFeed)를 유지하며, 청크가 이어붙여지면 전송 스레드가 청취자별로 이어서 보냄
+ * (청취자 전송은 청크 수신 스레드와 분리되어 느린 청취자가 수신을 막지 않음)
+ *
+ * <pre>
+ * 전송 하나가 send-timeout-ms 를 넘기면(응답을 읽지 않는 청취자) 전송 기한 초과로 처리
+ *  - 청취자를 목록에서 제거하고, 전송이 끝나는 대로 emitter 를 오류로 종료
+ *  - 멈춘 전송이 끝날 때까지 전송 스레드를 하나 더 두어 다른 청취자 전송이 밀리지 않도록 함
+ * </pre>
+ * */
+@Component
+@Log4j2
+public class WebmBroadcaster implements ChunkCommitListener, SessionCloseListener {
+
+    private static final MediaType WEBM = MediaType.parseMediaType("audio/webm");
+
+    /*
+     * 세션별 링 버퍼 크기 (청취자가 이만큼 뒤처지면 끊음)
+     * */
+    @Value("${upload.live.buffer-bytes:1048576}")
+    private int bufferBytes;
+
+    /*
+     * 한번에 보낼 최대 크기
+     * */
+    @Value("${upload.live.send-bytes:65536}")
+    private int sendBytes;
+
+    /*
+     * 청취자 전송 스레드 수 (전송중인 청취자 수만큼만 사용)
+     * */
+    @Value("${upload.live.pump-threads:4}")
+    private int pumpThreads;
+
+    /*
+     * 청취 연결 최대 유지 시간
+     * */
+    @Value("${upload.live.timeout-ms:3600000}")
+    private long timeoutMs;
+
+    /*
+     * 청취자 전송 하나의 최대 시간 (0 이하이면 확인하지 않음)
+     * */
+    @Value("${upload.live.send-timeout-ms:10000}")
+    private long sendTimeoutMs;
+
+    @Autowired
+    private UploadMetrics uploadMetrics;
+
+    /*
+     * uploadId -> 링 버퍼 (청취자가 있는 세션만)
+     * */
+    private final Map<String, LiveFeed> feeds = new ConcurrentHashMap<>();
+
+    /*
+     * uploadId -> 청취자들
+     * */
+    private final Map<String, List<Listener>> listeners = new ConcurrentHashMap<>();
+
+    private final ThreadPoolTaskExecutor pump = new ThreadPoolTaskExecutor();
+
+    /*
+     * 전송 기한 확인 스레드 / 기한을 넘겨 멈춰 있는 전송 수 (this 로 잠금)
+     * */
+    private ScheduledExecutorService watchdog;
+    private int stalled;
+
+
+    @PostConstruct
+    public void init() {
+        pump.setCorePoolSize(pumpThreads);
+        pump.setMaxPoolSize(pumpThreads);
+        pump.setThreadNamePrefix("live-pump-");
+        pump.initialize();
+
+        if (sendTimeoutMs > 0) {
+            long tickMs = Math.max(1, sendTimeoutMs / 4);
+            watchdog = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "live-watchdog");
+                t.setDaemon(true);
+                return t;
+            });
+            watchdog.scheduleWithFixedDelay(this::checkDeadlines, tickMs, tickMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (watchdog != null) watchdog.shutdownNow();
+        listeners.values().forEach(list -> list.forEach(l -> l.emitter.complete()));
+        pump.shutdown();
+    }
+
+
+    /**
+     * 청취 시작 (헤더 전송 후 마지막 Cluster 부터 이어서 전송)
+     * @param session 녹음 중인 세션
+     * @return audio/webm 으로 응답할 emitter
+     * @throws AlreadyFinalizedException 녹음이 끝난 세션 예외
+     * @throws IOException stream 파일 읽기 예외
+     * */
+    public ResponseBodyEmitter subscribe(UploadSession session) throws IOException {
+        String uploadId = session.getUploadId();
+        ResponseBodyEmitter emitter = createEmitter(timeoutMs);
+        Listener listener;
+
+        // 청크 병합과 겹치지 않도록 세션을 잠그고 링 버퍼 생성 (finish 이후에는 청취 불가)
+        synchronized (session) {
+            if (session.getStatus() != UploadStatus.UPLOADING) throw new AlreadyFinalizedException();
+            LiveFeed feed = feeds.get(uploadId);
+            if (feed == null) {
+                feed = new LiveFeed(bufferBytes);
+                long committed = session.getCommittedBytes();
+                if (committed > 0) {
+                    try (FileChannel ch = FileChannel.open(session.getStreamFile(), StandardOpenOption.READ)) {
+                        feed.append(ch, committed);
+                    }
+                }
+                feeds.put(uploadId, feed);
+            }
+            listener = new Listener(session, feed, emitter);
+            listeners.computeIfAbsent(uploadId, k -> new CopyOnWriteArrayList<>()).add(listener);
+        }
+
+        emitter.onCompletion(() -> remove(listener));
+        emitter.onTimeout(() -> remove(listener));
+        emitter.onError(e -> remove(listener));
+        schedule(listener);
+        return emitter;
+    }
+
+
+    @Override
+    public void onCommit(UploadSession session, FileChannel stream, int seq, long offset, long length) {
+        LiveFeed feed = feeds.get(session.getUploadId());
+        if (feed == null) return;
+        try {
+            feed.append(stream, offset + length);
+        } catch (IOException e) {
+            log.warn("실시간 청취 버퍼 오류 : " + e.getMessage());
+        }
+        wake(session.getUploadId());
+    }
+
+
+    /**
+     * 녹음 종료 (모든 청크가 이어붙여진 후) - 청취자는 남은 구간을 받은 뒤 종료됨
+     * @param session 병합중인 세션
+     * */
+    public void finish(UploadSession session) {
+        LiveFeed feed;
+        synchronized (session) {
+            feed = feeds.remove(session.getUploadId());
+        }
+        if (feed == null) return;
+        feed.finish();
+        wake(session.getUploadId());
+    }
+
+    @Override
+    public void onClose(UploadSession session) {
+        finish(session);
+    }
+
+
+    private void wake(String uploadId) {
+        List<Listener> list = listeners.get(uploadId);
+        if (list != null) list.forEach(this::schedule);
+    }
+
+    /*
+     * 청취자 하나당 전송 작업은 한번에 하나만 실행
+     * */
+    private void schedule(Listener l) {
+        if (l.done || !l.scheduled.compareAndSet(false, true)) return;
+        try {
+            pump.execute(() -> run(l));
+        } catch (RuntimeException e) {
+            l.scheduled.set(false);
+            l.emitter.completeWithError(e);
+        }
+    }
+
+    private void run(Listener l) {
+        do {
+            try {
+                while (send(l)) {}
+            } catch (IOException | RuntimeException e) {
+                // 청취자 연결 종료
+                l.done = true;
+                l.emitter.completeWithError(e);
+            }
+            l.scheduled.set(false);
+            // 전송 중 새로 이어붙여진 구간이 있으면 이어서 전송
+        } while (!l.done && (l.feed.hasMore(l.pos) || l.feed.isFinished()) && l.scheduled.compareAndSet(false, true));
+    }
+
+    /**
+     * 청취자에게 보낼 수 있는 구간 하나 전송
+     * @return 이어서 보낼 데이터가 있을 수 있는지 여부
+     * */
+    private boolean send(Listener l) throws IOException {
+        LiveFeed feed = l.feed;
+        if (l.done) return false;
+
+        if (feed.getError() != null) {
+            log.info("실시간 청취 불가 (" + l.session.getUploadId() + ") : " + feed.getError());
+            end(l);
+            return false;
+        }
+
+        if (!l.headerSent) {
+            byte[] header = feed.header();
+            if (header == null) {
+                if (feed.isFinished()) end(l);
+                return false;
+            }
+            write(l, header);
+            l.headerSent = true;
+        }
+
+        if (l.pos < 0) {
+            l.pos = feed.joinPosition();
+            if (l.pos < 0) {
+                if (feed.isFinished()) end(l);
+                return false;
+            }
+        }
+
+        byte[] data = feed.read(l.pos, sendBytes);
+        if (data == null) {
+            // 링 버퍼에서 밀려날 만큼 뒤처진 청취자는 끊음
+            log.debug("느린 청취자 연결 종료 (" + l.session.getUploadId() + ")");
+            end(l);
+            return false;
+        }
+        if (data.length == 0) {
+            if (feed.isFinished()) end(l);
+            return false;
+        }
+
+        write(l, data);
+        l.pos += data.length;
+        uploadMetrics.bytes(l.session.getSource(), "live_out", data.length);
+        return true;
+    }
+
+    /*
+     * 전송 (기한 확인 대상으로 표시, 기한을 넘긴 전송이면 끝난 뒤 예외)
+     * */
+    private void write(Listener l, byte[] data) throws IOException {
+        boolean expired;
+        l.sendingSince.set(System.nanoTime());
+        try {
+            l.emitter.send(data, WEBM);
+        } finally {
+            expired = l.sendingSince.getAndSet(0) == Listener.STALLED;
+            if (expired) resizePump(-1);
+        }
+        if (expired) throw new SocketTimeoutException("청취자 전송 기한 초과");
+    }
+
+    /*
+     * 전송 기한을 넘긴 청취자 제거 (전송 스레드는 돌려받을 때까지 하나씩 더 둠)
+     * */
+    private void checkDeadlines() {
+        long now = System.nanoTime();
+        long timeout = TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs);
+        for (List<Listener> list : listeners.values()) {
+            for (Listener l : list) {
+                long since = l.sendingSince.get();
+                if (since == 0 || since == Listener.STALLED || now - since < timeout) continue;
+                if (!l.sendingSince.compareAndSet(since, Listener.STALLED)) continue;
+
+                log.info("전송이 멈춘 청취자 연결 종료 (" + l.session.getUploadId() + ")");
+                remove(l);
+                resizePump(1);
+            }
+        }
+    }
+
+    private synchronized void resizePump(int delta) {
+        stalled += delta;
+        int size = pumpThreads + stalled;
+        if (size > pump.getMaxPoolSize()) {
+            pump.setMaxPoolSize(size);
+            pump.setCorePoolSize(size);
+        } else {
+            pump.setCorePoolSize(size);
+            pump.setMaxPoolSize(size);
+        }
+    }
+
+    /*
+     * 청취 응답 생성 (테스트에서 전송이 멈춘 청취자를 흉내내기 위해 분리)
+     * */
+    ResponseBodyEmitter createEmitter(long timeoutMs) {
+        return new ResponseBodyEmitter(timeoutMs);
+    }
+
+    private void end(Listener l) {
+        l.done = true;
+        l.emitter.complete();
+    }
+
+    private void remove(Listener l) {
+        l.done = true;
+        String uploadId = l.session.getUploadId();
+        List<Listener> list = listeners.get(uploadId);
+        if (list == null) return;
+        list.remove(l);
+
+        // 마지막 청취자가 나가면 링 버퍼 해제
+        synchronized (l.session) {
+            if (list.isEmpty() && listeners.remove(uploadId, list)) feeds.remove(uploadId, l.feed);
+        }
+    }
+
+
+    /*
+     * 청취자 하나의 전송 상태 (전송 작업 안에서만 변경)
+     *
+     * sendingSince : 진행중인 전송의 시작 시각 (nanoTime, 0 = 전송중 아님, STALLED = 기한 초과)
+     * */
+    private static final class Listener {
+        static final long STALLED = Long.MIN_VALUE;
+
+        final UploadSession session;
+        final LiveFeed feed;
+        final ResponseBodyEmitter emitter;
+        final AtomicBoolean scheduled = new AtomicBoolean();
+        final AtomicLong sendingSince = new AtomicLong();
+        volatile boolean done;
+        boolean headerSent;
+        long pos = -1;
+
+        Listener(UploadSession session, LiveFeed feed, ResponseBodyEmitter emitter) {
+            this.session = session;
+            this.feed = feed;
+            this.emitter = emitter;
+        }
+    }
+}
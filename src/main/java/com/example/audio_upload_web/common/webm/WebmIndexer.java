@@ -0,0 +1,369 @@
+package com.example.audio_upload_web.common.webm;
+
+import com.example.audio_upload_web.common.transcode.ProbeResult;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * stream 파일(MediaRecorder 청크를 이어붙인 WebM)의 증분 인덱서<br/>
+ * 청크가 이어붙여질 때마다 새로 들어온 구간의 요소 헤더만 읽어 Cluster 위치와 타임코드를 기록함
+ * (Block 본문은 읽지 않음)
+ * */
+class WebmIndexer {
+
+    /*
+     * 요소 헤더 최대 크기 (ID 4 + 크기 8)
+     * */
+    private static final int HEADER_MAX = 12;
+
+    /*
+     * 메모리로 읽어둘 요소(Info, Tracks) 최대 크기
+     * */
+    private static final long BODY_MAX = 1 << 20;
+
+    /*
+     * Block 타임코드까지 읽을 크기 (트랙 번호 vint 최대 8 + 타임코드 2)
+     * */
+    private static final int BLOCK_HEAD_MAX = 10;
+
+    /*
+     * 인덱싱 상태
+     *
+     * pos : 다음에 읽을 요소 위치
+     * ebmlEnd : EBML 헤더 끝 (0 부터 그대로 복사할 범위)
+     * segmentStart / segmentEnd : Segment 본문 범위 (크기를 모르면 끝은 Long.MAX_VALUE)
+     * info / tracks : Info, Tracks 본문
+     * cluster : 읽는중인 Cluster
+     * groupEnd : 읽는중인 BlockGroup 끝 (없으면 -1)
+     * */
+    private long pos;
+    private long ebmlEnd = -1;
+    private long segmentStart = -1;
+    private long segmentEnd;
+    private byte[] info;
+    private byte[] tracks;
+    private Cluster cluster;
+    private long groupEnd = -1;
+
+    /*
+     * 인덱싱 완료된 Cluster 들 (블록이 없는 Cluster 제외)
+     * */
+    private final List<Cluster> clusters = new ArrayList<>();
+
+    /*
+     * 원본 기준 마지막 블록 시간과 직전 블록과의 간격 (마지막 프레임 길이 추정용)
+     * */
+    private long lastBlock = -1;
+    private long blockGap;
+
+    /*
+     * 지원하지 않는 구조 또는 손상된 데이터 (ffmpeg 로 대체)
+     * */
+    private String error;
+
+
+    /*
+     * Cluster 하나의 원본 위치 및 타임코드 정보
+     * */
+    static final class Cluster {
+        final long dataStart;
+        long end;
+        long timecode = -1;
+        long tcStart = -1;
+        long tcEnd = -1;
+        long childEnd;
+        long prevChildEnd;
+        long minTime = Long.MAX_VALUE;
+        long maxTime = Long.MIN_VALUE;
+        long track;
+
+        Cluster(long dataStart, long end) {
+            this.dataStart = dataStart;
+            this.end = end;
+            this.childEnd = dataStart;
+            this.prevChildEnd = dataStart;
+        }
+    }
+
+
+    /**
+     * available 위치까지 이어붙여진 데이터 인덱싱 (이전 호출 이후 구간만 읽음)
+     * @param ch stream 파일 채널
+     * @param available stream 파일에 이어붙여진 크기
+     * @throws IOException stream 파일 읽기 예외
+     * */
+    void advance(FileChannel ch, long available) throws IOException {
+        if (error != null) return;
+        try {
+            parse(ch, available);
+        } catch (IllegalArgumentException e) {
+            error = e.getMessage();
+        }
+    }
+
+
+    /**
+     * 모든 청크가 이어붙여진 후 마지막 Cluster 를 닫음<br/>
+     * 파일 끝에서 잘린 요소는 제외
+     * @param size stream 파일 최종 크기
+     * */
+    void finish(long size) {
+        if (error != null) return;
+        if (cluster != null) {
+            Cluster c = cluster;
+            closeCluster(c.childEnd <= size ? c.childEnd : c.prevChildEnd);
+        }
+        groupEnd = -1;
+
+        if (ebmlEnd < 0 || segmentStart < 0) error = "EBML/Segment 헤더 없음";
+        else if (info == null || tracks == null) error = "Info/Tracks 없음";
+        else if (clusters.isEmpty()) error = "Cluster 없음";
+    }
+
+
+    /**
+     * @return 인덱싱 실패 사유 (정상이면 null)
+     * */
+    String getError() {
+        return error;
+    }
+
+    long getEbmlEnd() {
+        return ebmlEnd;
+    }
+
+    byte[] getInfo() {
+        return info;
+    }
+
+    byte[] getTracks() {
+        return tracks;
+    }
+
+    List<Cluster> getClusters() {
+        return clusters;
+    }
+
+    long getBlockGap() {
+        return blockGap;
+    }
+
+
+    /**
+     * Tracks 에서 첫번째 오디오 트랙 정보 조회 (비트레이트 제외)
+     * @return 오디오 트랙 정보 (없으면 null)
+     * */
+    ProbeResult audioTrack() {
+        ByteBuffer buf = ByteBuffer.wrap(tracks);
+        while (buf.hasRemaining()) {
+            Ebml.Header h = Ebml.readHeader(buf);
+            if (h == null || h.size() == Ebml.UNKNOWN_SIZE) return null;
+            int end = buf.position() + (int) h.size();
+            if (h.id() == Ebml.TRACK_ENTRY) {
+                ProbeResult r = trackEntry(buf.slice(buf.position(), (int) h.size()));
+                if (r != null) return r;
+            }
+            buf.position(end);
+        }
+        return null;
+    }
+
+    private ProbeResult trackEntry(ByteBuffer buf) {
+        String codecId = null;
+        int channels = 1;
+        double sampleRate = 8000;
+        while (buf.hasRemaining()) {
+            Ebml.Header h = Ebml.readHeader(buf);
+            if (h == null || h.size() == Ebml.UNKNOWN_SIZE) break;
+            int end = buf.position() + (int) h.size();
+            if (h.id() == Ebml.CODEC_ID) {
+                codecId = Ebml.readString(buf, (int) h.size());
+            } else if (h.id() == Ebml.AUDIO) {
+                ByteBuffer audio = buf.slice(buf.position(), (int) h.size());
+                while (audio.hasRemaining()) {
+                    Ebml.Header a = Ebml.readHeader(audio);
+                    if (a == null || a.size() == Ebml.UNKNOWN_SIZE) break;
+                    int aEnd = audio.position() + (int) a.size();
+                    if (a.id() == Ebml.SAMPLING_FREQUENCY) sampleRate = Ebml.readFloat(audio, (int) a.size());
+                    else if (a.id() == Ebml.CHANNELS) channels = (int) Ebml.readUint(audio, (int) a.size());
+                    audio.position(aEnd);
+                }
+            }
+            buf.position(end);
+        }
+        if (codecId == null || !codecId.startsWith("A_")) return null;
+        // A_OPUS -> opus (ffprobe 코덱명과 맞춤)
+        return new ProbeResult(codecId.substring(2).toLowerCase(), channels, (int) sampleRate, 0);
+    }
+
+
+    private void parse(FileChannel ch, long available) throws IOException {
+        while (true) {
+            if (groupEnd >= 0 && pos >= groupEnd) {
+                groupEnd = -1;
+                endChild(pos);
+            }
+            if (cluster != null && cluster.end != Ebml.UNKNOWN_SIZE && pos >= cluster.end) {
+                if (pos > cluster.end) throw new IllegalArgumentException("Cluster 범위 초과");
+                closeCluster(cluster.end);
+            }
+            if (pos >= available) return;
+            if (segmentStart >= 0 && cluster == null && pos >= segmentEnd) return;
+
+            Ebml.Header h = header(ch, available);
+            if (h == null) return;
+            long body = pos + h.headerLength();
+            long end = h.size() == Ebml.UNKNOWN_SIZE ? Ebml.UNKNOWN_SIZE : body + h.size();
+
+            if (ebmlEnd < 0) {
+                if (h.id() != Ebml.EBML || end == Ebml.UNKNOWN_SIZE) throw new IllegalArgumentException("EBML 헤더 아님");
+                ebmlEnd = end;
+                pos = end;
+            } else if (segmentStart < 0) {
+                if (h.id() != Ebml.SEGMENT) throw new IllegalArgumentException("Segment 아님");
+                segmentStart = body;
+                segmentEnd = end == Ebml.UNKNOWN_SIZE ? Long.MAX_VALUE : end;
+                pos = body;
+            } else if (cluster == null) {
+                if (!segmentChild(ch, h, body, end, available)) return;
+            } else if (groupEnd >= 0) {
+                if (end == Ebml.UNKNOWN_SIZE) throw new IllegalArgumentException("크기 없는 Block");
+                if (h.id() == Ebml.BLOCK && !block(ch, body, h.size(), available)) return;
+                pos = end;
+            } else {
+                if (!clusterChild(ch, h, body, end, available)) return;
+            }
+        }
+    }
+
+    /**
+     * Segment 바로 아래 요소 처리
+     * @return 계속 진행 가능 여부 (false 면 데이터 부족)
+     * */
+    private boolean segmentChild(FileChannel ch, Ebml.Header h, long body, long end, long available) throws IOException {
+        switch (h.id()) {
+            case Ebml.INFO, Ebml.TRACKS -> {
+                byte[] b = body(ch, body, h.size(), available);
+                if (b == null) return false;
+                if (h.id() == Ebml.INFO) {
+                    if (info == null) info = b;
+                } else if (tracks == null) {
+                    tracks = b;
+                }
+                pos = end;
+            }
+            case Ebml.CLUSTER -> {
+                if (info == null || tracks == null) throw new IllegalArgumentException("Tracks 이전 Cluster");
+                cluster = new Cluster(body, end);
+                pos = body;
+            }
+            default -> {
+                // SeekHead, Cues, Void 등은 새로 만들거나 버림
+                if (end == Ebml.UNKNOWN_SIZE) throw new IllegalArgumentException("크기 없는 최상위 요소");
+                pos = end;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Cluster 내부 요소 처리
+     * @return 계속 진행 가능 여부 (false 면 데이터 부족)
+     * */
+    private boolean clusterChild(FileChannel ch, Ebml.Header h, long body, long end, long available) throws IOException {
+        // 크기를 모르는 Cluster 는 다음 최상위 요소에서 끝남
+        if (Ebml.isTopLevel(h.id())) {
+            if (cluster.end != Ebml.UNKNOWN_SIZE) throw new IllegalArgumentException("Cluster 범위 오류");
+            closeCluster(pos);
+            return true;
+        }
+        if (end == Ebml.UNKNOWN_SIZE) throw new IllegalArgumentException("크기 없는 Cluster 하위 요소");
+
+        switch (h.id()) {
+            case Ebml.TIMECODE -> {
+                byte[] b = body(ch, body, h.size(), available);
+                if (b == null) return false;
+                cluster.timecode = Ebml.readUint(ByteBuffer.wrap(b), b.length);
+                cluster.tcStart = pos;
+                cluster.tcEnd = end;
+            }
+            case Ebml.SIMPLE_BLOCK -> {
+                if (!block(ch, body, h.size(), available)) return false;
+            }
+            case Ebml.BLOCK_GROUP -> {
+                groupEnd = end;
+                pos = body;
+                return true;
+            }
+            default -> {}
+        }
+        pos = end;
+        endChild(end);
+        return true;
+    }
+
+    /**
+     * Block 의 트랙 번호와 타임코드만 읽음
+     * @return 계속 진행 가능 여부 (false 면 데이터 부족)
+     * */
+    private boolean block(FileChannel ch, long body, long size, long available) throws IOException {
+        int n = (int) Math.min(size, BLOCK_HEAD_MAX);
+        if (body + n > available) return false;
+        if (cluster.timecode < 0) throw new IllegalArgumentException("Timecode 이전 Block");
+
+        ByteBuffer buf = ByteBuffer.allocate(n);
+        read(ch, buf, body);
+        buf.flip();
+        long track = Ebml.readVint(buf);
+        long t = cluster.timecode + buf.getShort();
+
+        if (cluster.track == 0) cluster.track = track;
+        cluster.minTime = Math.min(cluster.minTime, t);
+        cluster.maxTime = Math.max(cluster.maxTime, t);
+        if (lastBlock >= 0 && t > lastBlock) blockGap = t - lastBlock;
+        lastBlock = t;
+        return true;
+    }
+
+    private void endChild(long end) {
+        cluster.prevChildEnd = cluster.childEnd;
+        cluster.childEnd = end;
+    }
+
+    private void closeCluster(long end) {
+        Cluster c = cluster;
+        c.end = end;
+        cluster = null;
+        if (c.minTime == Long.MAX_VALUE) return;
+        if (c.tcStart < 0) throw new IllegalArgumentException("Timecode 없는 Cluster");
+        clusters.add(c);
+    }
+
+
+    private Ebml.Header header(FileChannel ch, long available) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate((int) Math.min(HEADER_MAX, available - pos));
+        read(ch, buf, pos);
+        buf.flip();
+        return Ebml.readHeader(buf);
+    }
+
+    private byte[] body(FileChannel ch, long body, long size, long available) throws IOException {
+        if (size > BODY_MAX) throw new IllegalArgumentException("요소 크기 초과 : " + size);
+        if (body + size > available) return null;
+        ByteBuffer buf = ByteBuffer.allocate((int) size);
+        read(ch, buf, body);
+        return buf.array();
+    }
+
+    private static void read(FileChannel ch, ByteBuffer buf, long position) throws IOException {
+        while (buf.hasRemaining()) {
+            int n = ch.read(buf, position + buf.position());
+            if (n < 0) throw new EOFException();
+        }
+    }
+}
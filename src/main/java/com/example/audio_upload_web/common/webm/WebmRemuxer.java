@@ -0,0 +1,123 @@
+package com.example.audio_upload_web.common.webm;
+
+import com.example.audio_upload_web.common.job.FinalizeJob;
+import com.example.audio_upload_web.common.metrics.UploadMetrics;
+import com.example.audio_upload_web.common.session.ChunkCommitListener;
+import com.example.audio_upload_web.common.session.SessionCloseListener;
+import com.example.audio_upload_web.common.session.UploadSession;
+import com.example.audio_upload_web.common.transcode.ProbeResult;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ffmpeg 없이 JVM 안에서 처리하는 remux (RealTimeService, RTCService 공통)<br/>
+ * 청크가 이어붙여질 때마다 Cluster 를 인덱싱해두고, finalize 시 타임코드 재작성 및
+ * Duration/Cues 추가만으로 최종 파일을 만듦. 조건에 맞지 않으면 ffmpeg 로 대체
+ * */
+@Component
+@Log4j2
+public class WebmRemuxer implements ChunkCommitListener, SessionCloseListener {
+
+    /*
+     * JVM 내부 remux 사용 여부
+     * */
+    @Value("${upload.transcode.remux.native:true}")
+    private boolean enabled;
+
+    /*
+     * remux 허용 조건 (FfmpegTranscoder 와 같은 설정 사용)
+     * */
+    @Value("${upload.transcode.remux.max-channels:2}")
+    private int maxChannels;
+
+    @Value("${upload.transcode.remux.max-bitrate:160000}")
+    private long maxBitRate;
+
+    @Autowired
+    private UploadMetrics uploadMetrics;
+
+    /*
+     * uploadId -> 인덱서
+     * */
+    private final Map<String, WebmIndexer> indexers = new ConcurrentHashMap<>();
+
+
+    @Override
+    public void onCommit(UploadSession session, FileChannel stream, int seq, long offset, long length) {
+        if (!enabled) return;
+        WebmIndexer indexer = indexers.computeIfAbsent(session.getUploadId(), k -> new WebmIndexer());
+        try {
+            // 병합에 사용한 채널을 그대로 읽음 (청크마다 파일을 열지 않음)
+            indexer.advance(stream, offset + length);
+        } catch (IOException e) {
+            log.warn("WebM 인덱싱 오류 : " + e.getMessage());
+        }
+    }
+
+
+    /**
+     * 최종 파일 작성
+     * @param session 병합중인 세션 (모든 청크가 이어붙여진 상태)
+     * @param out 최종 파일 경로
+     * @param job 진행 상황을 갱신할 작업
+     * @return 처리 여부 (false 면 ffmpeg 변환 필요)
+     * */
+    public boolean remux(UploadSession session, Path out, FinalizeJob job) {
+        if (!enabled) return false;
+
+        // 재시작 후 복구된 세션은 인덱스가 없으므로 처음부터 인덱싱
+        WebmIndexer indexer = indexers.remove(session.getUploadId());
+        if (indexer == null) indexer = new WebmIndexer();
+
+        try (FileChannel in = FileChannel.open(session.getStreamFile(), StandardOpenOption.READ)) {
+            long size = in.size();
+            indexer.advance(in, size);
+            indexer.finish(size);
+            if (indexer.getError() != null) {
+                log.info("JVM remux 불가, ffmpeg 로 처리 : " + indexer.getError());
+                return false;
+            }
+
+            WebmWriter writer = new WebmWriter(indexer);
+            ProbeResult track = indexer.audioTrack();
+            long durationMs = writer.getDurationMs();
+            long bitRate = durationMs > 0 ? size * 8000 / durationMs : 0;
+            if (track == null || !track.fits("opus", 48000, maxChannels, maxBitRate)
+                    || (bitRate > 0 && bitRate > maxBitRate)) {
+                log.debug("입력 스트림 확인 : " + track + " bitRate=" + bitRate + " remux=false");
+                return false;
+            }
+
+            job.stage("REMUXING");
+            uploadMetrics.time(session.getSource(), "remux_native", () -> writer.write(in, out));
+            job.progress(durationMs);
+            return true;
+        } catch (IOException | RuntimeException e) {
+            log.warn("JVM remux 실패, ffmpeg 로 처리 : " + e.getMessage());
+            try {
+                Files.deleteIfExists(out);
+            } catch (IOException ignore) {}
+            return false;
+        }
+    }
+
+
+    /**
+     * 인덱스 제거 (세션 정리 시)
+     * @param session 정리할 세션
+     * */
+    @Override
+    public void onClose(UploadSession session) {
+        indexers.remove(session.getUploadId());
+    }
+}
@@ -0,0 +1,223 @@
+package com.example.audio_upload_web.common.webm;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * 인덱싱된 stream 파일로 탐색 가능한 WebM 파일 작성<br/>
+ * Cluster 타임코드를 0부터 단조 증가하도록 다시 쓰고, Duration 과 Cues 를 추가함
+ * (Cluster 본문은 transferTo 로 그대로 복사)
+ *
+ * <pre>
+ * EBML 헤더 (원본 복사)
+ * Segment
+ *   SeekHead (Info, Tracks, Cues 위치)
+ *   Info (Duration 추가)
+ *   Tracks (원본 복사)
+ *   Cluster ... (Timecode 재작성)
+ *   Cues
+ * </pre>
+ * */
+class WebmWriter {
+
+    /*
+     * 기본 TimecodeScale (1ms)
+     * */
+    private static final long DEFAULT_SCALE = 1_000_000;
+
+    /*
+     * 블록 간격을 알 수 없을 때 사용할 마지막 프레임 길이 (opus 기본 프레임 20ms)
+     * */
+    private static final long DEFAULT_FRAME_NS = 20_000_000;
+
+    /*
+     * SeekPosition 고정 길이 (위치 계산 전에 SeekHead 크기를 확정하기 위함)
+     * */
+    private static final int SEEK_POSITION_LENGTH = 8;
+
+    private final WebmIndexer index;
+    private final List<WebmIndexer.Cluster> clusters;
+
+    /*
+     * TimecodeScale 과 Duration 을 제외한 Info 하위 요소들
+     * */
+    private final long scale;
+    private final ByteBuffer infoRest;
+
+    /*
+     * Cluster 별 새 타임코드 및 전체 길이 (TimecodeScale 단위)
+     * */
+    private final long[] timecodes;
+    private final long duration;
+
+
+    WebmWriter(WebmIndexer index) {
+        this.index = index;
+        this.clusters = index.getClusters();
+
+        // Info 하위 요소 중 Duration 만 제외하고 그대로 사용
+        ByteBuffer src = ByteBuffer.wrap(index.getInfo());
+        ByteBuffer rest = ByteBuffer.allocate(src.remaining());
+        long s = DEFAULT_SCALE;
+        while (src.hasRemaining()) {
+            int start = src.position();
+            Ebml.Header h = Ebml.readHeader(src);
+            if (h == null || h.size() == Ebml.UNKNOWN_SIZE) throw new IllegalArgumentException("잘못된 Info");
+            int end = src.position() + (int) h.size();
+            if (h.id() == Ebml.TIMECODE_SCALE) s = Ebml.readUint(src, (int) h.size());
+            if (h.id() != Ebml.DURATION) rest.put(src.array(), start, end - start);
+            src.position(end);
+        }
+        this.scale = s > 0 ? s : DEFAULT_SCALE;
+        this.infoRest = rest.flip();
+
+        // 타임코드 재계산: 첫 블록을 0으로 맞추고, 시간이 되돌아가는 Cluster 는 직전 블록 뒤로 밀어냄
+        long frame = index.getBlockGap() > 0 ? index.getBlockGap() : Math.max(1, DEFAULT_FRAME_NS / scale);
+        WebmIndexer.Cluster first = clusters.get(0);
+        long shift = -Math.min(first.timecode, first.minTime);
+        long prevMax = -1;
+        timecodes = new long[clusters.size()];
+        for (int i = 0; i < clusters.size(); i++) {
+            WebmIndexer.Cluster c = clusters.get(i);
+            long min = c.minTime + shift;
+            if (i > 0 && min <= prevMax) shift += prevMax + frame - min;
+            if (c.timecode + shift < 0) shift -= c.timecode + shift;
+            timecodes[i] = c.timecode + shift;
+            prevMax = c.maxTime + shift;
+        }
+        this.duration = prevMax + frame;
+    }
+
+
+    /**
+     * @return 전체 재생 시간 (ms)
+     * */
+    long getDurationMs() {
+        return duration * scale / 1_000_000;
+    }
+
+
+    /**
+     * 최종 파일 작성
+     * @param in stream 파일 채널
+     * @param out 최종 파일 경로
+     * @return 작성한 파일 크기
+     * @throws IOException 파일 읽기/쓰기 예외
+     * */
+    long write(FileChannel in, Path out) throws IOException {
+        // 위치 계산 (Segment 본문 시작 기준)
+        long seekHeadSize = seekHeadLength();
+        long infoSize = infoRest.remaining() + Ebml.elementLength(Ebml.DURATION, 8);
+        long infoPos = seekHeadSize;
+        long tracksPos = infoPos + Ebml.elementLength(Ebml.INFO, infoSize);
+        long clusterPos = tracksPos + Ebml.elementLength(Ebml.TRACKS, index.getTracks().length);
+
+        long[] positions = new long[clusters.size()];
+        long[] payloads = new long[clusters.size()];
+        long p = clusterPos;
+        for (int i = 0; i < clusters.size(); i++) {
+            WebmIndexer.Cluster c = clusters.get(i);
+            positions[i] = p;
+            payloads[i] = Ebml.uintElementLength(Ebml.TIMECODE, timecodes[i])
+                    + (c.end - c.dataStart) - (c.tcEnd - c.tcStart);
+            p += Ebml.elementLength(Ebml.CLUSTER, payloads[i]);
+        }
+        long cuesPos = p;
+        ByteBuffer cues = cues(positions);
+        long segmentSize = cuesPos + cues.remaining();
+
+        try (FileChannel o = FileChannel.open(out, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            // EBML 헤더
+            transfer(in, 0, index.getEbmlEnd(), o);
+
+            // Segment 헤더 ~ Tracks
+            ByteBuffer head = ByteBuffer.allocate((int) (12 + clusterPos));
+            Ebml.putId(head, Ebml.SEGMENT);
+            Ebml.putSize(head, segmentSize, 8);
+            putSeekHead(head, infoPos, tracksPos, cuesPos);
+            Ebml.putHeader(head, Ebml.INFO, infoSize);
+            head.put(infoRest.duplicate());
+            Ebml.putFloat(head, Ebml.DURATION, duration);
+            Ebml.putHeader(head, Ebml.TRACKS, index.getTracks().length);
+            head.put(index.getTracks());
+            write(o, head.flip());
+
+            // Cluster (Timecode 만 다시 쓰고 나머지는 그대로 복사)
+            ByteBuffer header = ByteBuffer.allocate(32);
+            for (int i = 0; i < clusters.size(); i++) {
+                WebmIndexer.Cluster c = clusters.get(i);
+                header.clear();
+                Ebml.putHeader(header, Ebml.CLUSTER, payloads[i]);
+                Ebml.putUint(header, Ebml.TIMECODE, timecodes[i]);
+                write(o, header.flip());
+                transfer(in, c.dataStart, c.tcStart - c.dataStart, o);
+                transfer(in, c.tcEnd, c.end - c.tcEnd, o);
+            }
+
+            // Cues
+            write(o, cues);
+            return o.size();
+        }
+    }
+
+
+    private long seekHeadLength() {
+        long seek = Ebml.elementLength(Ebml.SEEK_ID, 4) + Ebml.elementLength(Ebml.SEEK_POSITION, SEEK_POSITION_LENGTH);
+        return Ebml.elementLength(Ebml.SEEK_HEAD, 3 * Ebml.elementLength(Ebml.SEEK, seek));
+    }
+
+    private void putSeekHead(ByteBuffer buf, long infoPos, long tracksPos, long cuesPos) {
+        long seek = Ebml.elementLength(Ebml.SEEK_ID, 4) + Ebml.elementLength(Ebml.SEEK_POSITION, SEEK_POSITION_LENGTH);
+        Ebml.putHeader(buf, Ebml.SEEK_HEAD, 3 * Ebml.elementLength(Ebml.SEEK, seek));
+        long[][] entries = {{Ebml.INFO, infoPos}, {Ebml.TRACKS, tracksPos}, {Ebml.CUES, cuesPos}};
+        for (long[] e : entries) {
+            Ebml.putHeader(buf, Ebml.SEEK, seek);
+            Ebml.putHeader(buf, Ebml.SEEK_ID, 4);
+            buf.putInt((int) e[0]);
+            Ebml.putUint(buf, Ebml.SEEK_POSITION, e[1], SEEK_POSITION_LENGTH);
+        }
+    }
+
+    private ByteBuffer cues(long[] positions) {
+        long size = 0;
+        long[] points = new long[clusters.size()];
+        long[] trackPositions = new long[clusters.size()];
+        for (int i = 0; i < clusters.size(); i++) {
+            trackPositions[i] = Ebml.uintElementLength(Ebml.CUE_TRACK, clusters.get(i).track)
+                    + Ebml.uintElementLength(Ebml.CUE_CLUSTER_POSITION, positions[i]);
+            points[i] = Ebml.uintElementLength(Ebml.CUE_TIME, timecodes[i])
+                    + Ebml.elementLength(Ebml.CUE_TRACK_POSITIONS, trackPositions[i]);
+            size += Ebml.elementLength(Ebml.CUE_POINT, points[i]);
+        }
+
+        ByteBuffer buf = ByteBuffer.allocate((int) Ebml.elementLength(Ebml.CUES, size));
+        Ebml.putHeader(buf, Ebml.CUES, size);
+        for (int i = 0; i < clusters.size(); i++) {
+            Ebml.putHeader(buf, Ebml.CUE_POINT, points[i]);
+            Ebml.putUint(buf, Ebml.CUE_TIME, timecodes[i]);
+            Ebml.putHeader(buf, Ebml.CUE_TRACK_POSITIONS, trackPositions[i]);
+            Ebml.putUint(buf, Ebml.CUE_TRACK, clusters.get(i).track);
+            Ebml.putUint(buf, Ebml.CUE_CLUSTER_POSITION, positions[i]);
+        }
+        return buf.flip();
+    }
+
+
+    private static void write(FileChannel out, ByteBuffer buf) throws IOException {
+        while (buf.hasRemaining()) out.write(buf);
+    }
+
+    private static void transfer(FileChannel in, long position, long count, FileChannel out) throws IOException {
+        long done = 0;
+        while (done < count) {
+            long n = in.transferTo(position + done, count - done, out);
+            if (n <= 0) throw new IOException("stream 파일 복사 실패");
+            done += n;
+        }
+    }
+}
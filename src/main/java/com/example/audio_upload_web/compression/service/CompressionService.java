@@ -1,15 +1,17 @@
 package com.example.audio_upload_web.compression.service;
 
-import com.example.audio_upload_web.constant.UploadPaths;
+import com.example.audio_upload_web.audio_upload.service.AudioCatalogService;
+import com.example.audio_upload_web.common.metrics.UploadMetrics;
+import com.example.audio_upload_web.common.storage.ObjectStorage;
+import com.example.audio_upload_web.common.storage.StorageUpload;
+import com.example.audio_upload_web.constant.UploadSource;
 import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.io.OutputStream;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.time.LocalDate;
 import java.util.Map;
 import java.util.UUID;
 import java.util.zip.ZipEntry;
@@ -20,9 +22,22 @@ import java.util.zip.ZipInputStream;
 public class CompressionService {
 
     /*
-     * 최종적으로 파일이 업로드 될 위치 (두 업로드 방식 공통)
+     * 최종 파일 저장소 (로컬 저장 볼륨 또는 S3, 두 업로드 방식 공통)
      * */
-    private final Path uploadRoot = UploadPaths.uploadRoot.getPath();
+    @Autowired
+    private ObjectStorage objectStorage;
+
+    /*
+     * 단계별 처리 시간/바이트 지표
+     * */
+    @Autowired
+    private UploadMetrics uploadMetrics;
+
+    /*
+     * 업로드 목록 기록 (DB 기록은 비동기)
+     * */
+    @Autowired
+    private AudioCatalogService audioCatalogService;
 
 
 
@@ -35,10 +50,11 @@ public class CompressionService {
      * */
     public Map<String, Object> upload(MultipartFile file, String contentType) throws IOException {
         // 압축 해제 및 저장
-        String uploadPath = unzipFile(file);
+        String uploadPath = uploadMetrics.time(UploadSource.COMPRESSION, "unzip", () -> unzipFile(file));
 
         // 응답
         if (!uploadPath.isEmpty()) {
+            uploadMetrics.bytes(UploadSource.COMPRESSION, "compressed", file.getSize());
             return Map.of(
                     "ok", true,
                     "storedPath", uploadPath,
@@ -57,53 +73,48 @@ public class CompressionService {
 
 
     /**
-     * 압축 파일 압축 해제
+     * 압축 파일 압축 해제 (첫번째 파일 entry 를 저장소에 바로 기록, 나머지 entry 는 무시)
      * @param file 압축되어있는 파일
-     * @return 파일 저장 경로
+     * @return 파일 저장 위치
      * @throws IOException 파일 저장 예외
      * */
     private String unzipFile(MultipartFile file) throws IOException {
-        Path dateDir = uploadRoot.resolve(LocalDate.now().toString());
-        Files.createDirectories(dateDir);
+        long startedAt = System.currentTimeMillis();
+        String uploadId = UUID.randomUUID().toString();
+        String fileNameUUID = uploadId + ".webm";
 
-        String fileNameUUID = UUID.randomUUID() + ".webm";
-        Path uploadPath = dateDir.resolve(fileNameUUID).normalize();
+        // zip 파일 압축 해제 (저장소 선택)
+        try (StorageUpload upload = objectStorage.begin(fileNameUUID);
+             ZipInputStream zis = new ZipInputStream(file.getInputStream())){
 
-        // zip 파일 압축 해제
-        try (ZipInputStream zis = new ZipInputStream(file.getInputStream())){
             ZipEntry entry;
 
-            // entry를 하나씩 읽어옴
-            while((entry = zis.getNextEntry()) != null){
+            // entry를 하나씩 읽어옴 (디렉터리 entry 는 건너뜀)
+            while((entry = zis.getNextEntry()) != null && entry.isDirectory()){
+                zis.closeEntry();
+            }
+            if(entry == null){
+                throw new IOException("zip 파일에 저장할 entry가 없습니다.");
+            }
 
-                if(!uploadPath.startsWith(dateDir.normalize())){
-                    zis.closeEntry();
-                    throw new IOException("잘못된 zip entry입니다. " + entry.getName());
-                }
-                
-                if(entry.isDirectory()){
-                    // entry가 디렉터리일 경우 해당 디렉터리 생성
-                    Files.createDirectories(uploadPath);
-                }else{
-                    // entry가 파일일 경우 해당 파일이 위치할 디렉터리 생성
-                    Files.createDirectories(uploadPath.getParent());
-                    
-                    // 파일 저장
-                    try (OutputStream os = Files.newOutputStream(uploadPath)){
-                        byte[] buffer = new byte[1024];
-                        int len;
-                        while((len = zis.read(buffer)) > 0){
-                            os.write(buffer, 0, len);
-                        }
-                    }
+            // 파일 저장 (압축 해제된 내용을 임시 파일 없이 저장소에 기록)
+            try (OutputStream os = upload.openStream()){
+                byte[] buffer = new byte[8192];
+                int len;
+                while((len = zis.read(buffer)) > 0){
+                    os.write(buffer, 0, len);
                 }
             }
 
             // entry 종료
             zis.closeEntry();
-            
-            // 파일 저장 경로 반환
-            return uploadPath.toString();
+
+            long size = uploadMetrics.time(UploadSource.COMPRESSION, "store", upload::complete);
+            uploadMetrics.bytes(UploadSource.COMPRESSION, "decompressed", size);
+            audioCatalogService.record(UploadSource.COMPRESSION, uploadId, upload.getKey(), size, "audio/webm", null, startedAt);
+
+            // 파일 저장 위치 반환
+            return upload.getLocation();
         }catch (IOException e){
             log.error("압축 파일 저장 오류 : " + e.getMessage());
             return "";
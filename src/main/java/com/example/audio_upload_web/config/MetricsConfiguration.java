@@ -0,0 +1,13 @@
+package com.example.audio_upload_web.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.PropertySource;
+
+/**
+ * actuator 지표 노출 설정 (application.properties 값이 우선함)
+ * */
+@Configuration
+@PropertySource("classpath:metrics.properties")
+public class MetricsConfiguration {
+
+}
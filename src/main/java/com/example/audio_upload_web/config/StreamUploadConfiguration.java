@@ -0,0 +1,23 @@
+package com.example.audio_upload_web.config;
+
+import com.example.audio_upload_web.audio_upload.web.AudioStreamServlet;
+import org.springframework.boot.web.servlet.ServletRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 스트리밍 업로드 경로 설정<br/>
+ * DispatcherServlet 을 거치면 multipart 설정에 따라 본문이 먼저 임시 파일에 기록될 수 있으므로 별도 servlet 으로 등록함
+ * (필터는 그대로 적용됨)
+ * */
+@Configuration
+public class StreamUploadConfiguration {
+
+    @Bean
+    public ServletRegistrationBean<AudioStreamServlet> audioStreamRegistration(AudioStreamServlet servlet) {
+        ServletRegistrationBean<AudioStreamServlet> registration = new ServletRegistrationBean<>(servlet, "/audio/stream");
+        registration.setName("audioStream");
+        registration.setAsyncSupported(true);
+        return registration;
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.audio_upload_web.config;
+
+import com.example.audio_upload_web.RealTimeCompression.web.RTCSocketHandler;
+import com.example.audio_upload_web.real_time_upload.web.RealTimeSocketHandler;
+import jakarta.servlet.ServletContextEvent;
+import jakarta.servlet.ServletContextListener;
+import jakarta.websocket.server.ServerContainer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+
+/**
+ * 청크 수신 WebSocket 경로 설정
+ * */
+@Configuration
+@EnableWebSocket
+public class WebSocketConfiguration implements WebSocketConfigurer {
+
+    /*
+     * 프레임 최대 크기 (컨테이너 기본값은 8KB 라 청크가 들어가지 않음)
+     * */
+    @Value("${upload.ws.max-frame-bytes:8388608}")
+    private int maxFrameBytes;
+
+    /*
+     * 연결 유휴 시간 (청크 간격보다 길어야 함)
+     * */
+    @Value("${upload.ws.idle-timeout-ms:120000}")
+    private long idleTimeoutMs;
+
+    @Autowired
+    private RealTimeSocketHandler realTimeSocketHandler;
+
+    @Autowired
+    private RTCSocketHandler rtcSocketHandler;
+
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        registry.addHandler(realTimeSocketHandler, "/real-time/ws");
+        registry.addHandler(rtcSocketHandler, "/rtc/ws");
+    }
+
+
+    /**
+     * 컨테이너 WebSocket 기본값 설정<br/>
+     * ServerContainer 는 내장 서버 기동 시에만 생기므로 (MOCK 테스트 환경에는 없음) 리스너에서 설정함
+     * */
+    @Bean
+    public ServletContextListener webSocketContainerDefaults() {
+        return new ServletContextListener() {
+            @Override
+            public void contextInitialized(ServletContextEvent event) {
+                Object container = event.getServletContext().getAttribute(ServerContainer.class.getName());
+                if (container instanceof ServerContainer sc) {
+                    sc.setDefaultMaxBinaryMessageBufferSize(maxFrameBytes);
+                    sc.setDefaultMaxSessionIdleTimeout(idleTimeoutMs);
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.audio_upload_web.constant;
+
+/*
+ * 업로드 요청이 들어온 경로(방식) 구분
+ * */
+public enum UploadSource {
+    AUDIO("audio"),
+    COMPRESSION("compression"),
+    REAL_TIME("real-time"),
+    RTC("rtc");
+
+    private final String endpoint;
+
+    UploadSource(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+}
@@ -0,0 +1,5 @@
+package com.example.audio_upload_web.exception;
+
+public class ChecksumMismatchException extends RuntimeException {
+    public ChecksumMismatchException() { super("CHECKSUM_MISMATCH"); }
+}
@@ -0,0 +1,16 @@
+package com.example.audio_upload_web.exception;
+
+public class ChunkTooLargeException extends RuntimeException {
+
+    /*
+     * 청크 하나의 최대 크기
+     * */
+    private final long maxBytes;
+
+    public ChunkTooLargeException(long maxBytes) {
+        super("CHUNK_TOO_LARGE");
+        this.maxBytes = maxBytes;
+    }
+
+    public long getMaxBytes() { return maxBytes; }
+}
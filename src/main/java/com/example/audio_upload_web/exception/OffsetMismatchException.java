@@ -0,0 +1,16 @@
+package com.example.audio_upload_web.exception;
+
+public class OffsetMismatchException extends RuntimeException {
+
+    /*
+     * 서버가 받아둔 청크 크기 (이어서 보낼 위치)
+     * */
+    private final long offset;
+
+    public OffsetMismatchException(long offset) {
+        super("OFFSET_MISMATCH");
+        this.offset = offset;
+    }
+
+    public long getOffset() { return offset; }
+}
@@ -0,0 +1,22 @@
+package com.example.audio_upload_web.exception;
+
+public class RateLimitedException extends RuntimeException {
+
+    /*
+     * 다시 시도하기까지 대기 시간 (ms)
+     * */
+    private final long retryAfterMillis;
+
+    public RateLimitedException(long retryAfterMillis) {
+        // 남용 중에는 초당 수천건이 생길 수 있으므로 stack trace 는 만들지 않음
+        super("RATE_LIMITED", null, false, false);
+        this.retryAfterMillis = retryAfterMillis;
+    }
+
+    public long getRetryAfterMillis() { return retryAfterMillis; }
+
+    /**
+     * Retry-After 헤더 값 (초, 올림)
+     * */
+    public long getRetryAfterSeconds() { return (retryAfterMillis + 999) / 1000; }
+}
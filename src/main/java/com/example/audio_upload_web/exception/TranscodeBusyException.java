@@ -0,0 +1,16 @@
+package com.example.audio_upload_web.exception;
+
+public class TranscodeBusyException extends RuntimeException {
+
+    /*
+     * 다시 시도하기까지 권장 대기 시간 (초)
+     * */
+    private final long retryAfterSeconds;
+
+    public TranscodeBusyException(long retryAfterSeconds) {
+        super("TRANSCODE_BUSY");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() { return retryAfterSeconds; }
+}
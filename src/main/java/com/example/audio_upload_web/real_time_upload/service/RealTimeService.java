@@ -1,77 +1,141 @@
 package com.example.audio_upload_web.real_time_upload.service;
 
-import com.example.audio_upload_web.constant.UploadPaths ;
+import com.example.audio_upload_web.audio_upload.service.AudioCatalogService;
+import com.example.audio_upload_web.common.io.BufferPool;
+import com.example.audio_upload_web.common.io.ChannelCopy;
+import com.example.audio_upload_web.common.job.FinalizeJob;
+import com.example.audio_upload_web.common.job.FinalizeJobService;
+import com.example.audio_upload_web.common.metrics.UploadMetrics;
+import com.example.audio_upload_web.common.session.ChunkAssembler;
+import com.example.audio_upload_web.common.session.ChunkResult;
+import com.example.audio_upload_web.common.session.ChunkStatus;
+import com.example.audio_upload_web.common.session.ResumableChunks;
+import com.example.audio_upload_web.common.session.StreamSync;
+import com.example.audio_upload_web.common.session.UploadSession;
+import com.example.audio_upload_web.common.session.UploadSessionRegistry;
+import com.example.audio_upload_web.common.storage.ObjectStorage;
+import com.example.audio_upload_web.common.storage.StorageUpload;
+import com.example.audio_upload_web.common.transcode.FfmpegTranscoder;
+import com.example.audio_upload_web.common.transcode.LiveTranscodeManager;
+import com.example.audio_upload_web.common.webm.WebmBroadcaster;
+import com.example.audio_upload_web.common.webm.WebmRemuxer;
+import com.example.audio_upload_web.constant.UploadSource;
 import com.example.audio_upload_web.exception.AlreadyFinalizedException;
+import com.example.audio_upload_web.exception.ChecksumMismatchException;
 import com.example.audio_upload_web.exception.NoSessionException;
-import jakarta.annotation.PostConstruct;
-import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import com.example.audio_upload_web.exception.OffsetMismatchException;
+import com.example.audio_upload_web.exception.TranscodeBusyException;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
 
 import java.io.*;
-import java.nio.charset.StandardCharsets;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
-import java.time.Duration;
-import java.time.LocalDate;
 import java.util.*;
-import java.util.stream.Stream;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 @Service
 public class RealTimeService {
 
     /*
-     * 최종적으로 파일이 업로드 될 위치
+     * 업로드 세션 상태 저장소
      * */
-    private final Path uploadRoot = UploadPaths.uploadRoot.getPath();
+    @Autowired
+    private UploadSessionRegistry sessionRegistry;
 
+    /*
+     * seq 순서대로 청크 파일을 stream 파일에 이어붙이는 재조립기
+     * */
+    @Autowired
+    private ChunkAssembler chunkAssembler;
 
     /*
-     * 청크 파일이 임시로 저장될 위치
+     * 청크 이어받기 (전송이 끊긴 청크는 받은 부분부터 이어서 받음)
      * */
-    private final Path tmpRoot = UploadPaths.tmpRoot.getPath();
+    @Autowired
+    private ResumableChunks resumableChunks;
 
     /*
-     * 업로드 처리 과정을 저장하기 위한 파일
+     * stream 파일 fsync 정책 (upload.stream.fsync)
      * */
-    private static final String META = "status.txt";
+    @Autowired
+    private StreamSync streamSync;
 
     /*
-     * 업로드 처리 과정 3단계
-     *
-     * 1. UPLOADING : 파일이 업로드 중
-     * 2. FINALIZING : 파일 병합 처리과정 중
-     * 3. FINALIZED : 파일 병합 완료
+     * 녹음 중 실시간 변환 (upload.transcode.live.enabled)
      * */
-    private static final String UPLOADING  = "UPLOADING";
-    private static final String FINALIZING = "FINALIZING";
-    private static final String FINALIZED  = "FINALIZED";
+    @Autowired
+    private LiveTranscodeManager liveTranscodeManager;
 
     /*
-     * 청크 파일을 병합하기 위한 파일
+     * finalize 작업 스레드 (요청 스레드와 분리)
      * */
-    private static final String STREAM_FILE = "stream.webm";
+    @Autowired
+    private FinalizeJobService finalizeJobService;
 
     /*
-     * 생성된 청크 파일을 자동으로 제거하기 위한 스레드 스케줄러
+     * 최종 음성 파일 변환기 (remux / 재인코딩)
      * */
-    private final ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+    @Autowired
+    private FfmpegTranscoder ffmpegTranscoder;
 
+    /*
+     * ffmpeg 없이 처리하는 remux (WebM 인덱싱)
+     * */
+    @Autowired
+    private WebmRemuxer webmRemuxer;
 
-    /**
-     * 서버 시작시 초기화할 내용.<br/>
-     * (파일 경로 생성, 스케줄러 초기화)
+    /*
+     * 녹음 중 실시간 청취 (청취자별 전송)
      * */
-    @PostConstruct
-    public void init() throws IOException {
-        Files.createDirectories(uploadRoot);
-        Files.createDirectories(tmpRoot);
-        Files.createDirectories(uploadRoot.resolve(LocalDate.now().toString()));
-        scheduler.setPoolSize(1);
-        scheduler.initialize();
-    }
+    @Autowired
+    private WebmBroadcaster webmBroadcaster;
 
+    /*
+     * 최종 파일 저장소 (로컬 저장 볼륨 또는 S3, key 발급)
+     * */
+    @Autowired
+    private ObjectStorage objectStorage;
+
+    /*
+     * 단계별 처리 시간/바이트 지표
+     * */
+    @Autowired
+    private UploadMetrics uploadMetrics;
+
+    /*
+     * 업로드 목록 기록 (DB 기록은 비동기)
+     * */
+    @Autowired
+    private AudioCatalogService audioCatalogService;
+
+    /*
+     * finalize 요청 후 아직 도착하지 않은 청크를 기다릴 최대 시간
+     * */
+    @Value("${upload.finalize.chunk-wait-ms:30000}")
+    private long chunkWaitMs;
+
+    /*
+     * 청크 복사용 direct 버퍼 풀
+     * */
+    @Autowired
+    private BufferPool bufferPool;
+
+    /*
+     * 한번의 gathering write 로 기록할 버퍼 개수
+     * */
+    @Value("${upload.buffer.gather:4}")
+    private int gather;
 
 
     /**
@@ -81,12 +145,9 @@ public class RealTimeService {
      * @throws IOException 청크 파일 저장 위치 생성 예외
      * */
     public String createSession() throws IOException {
-        String uploadId = UUID.randomUUID().toString();
-        Path sessionDir = tmpRoot.resolve(uploadId);
-        Files.createDirectories(sessionDir.resolve("chunks"));
-        Files.writeString(sessionDir.resolve(META), UPLOADING, StandardCharsets.UTF_8);
-//        System.out.println("[createSession] " + sessionDir.toAbsolutePath());
-        return uploadId;
+        UploadSession session = sessionRegistry.create(UploadSource.REAL_TIME);
+        liveTranscodeManager.start(session);
+        return session.getUploadId();
     }
 
 
@@ -95,197 +156,232 @@ public class RealTimeService {
      * @param uploadId 업로드 될 파일의 UUID값
      * @param seq 청크 파일의 순서
      * @param part 청크 파일
+     * @return 청크 처리 결과 (COMMITTED, BUFFERED, DUPLICATE)
      * @throws IllegalArgumentException 빈 청크 저장 예외
      * @throws NoSessionException 세션 미존재 예외
      * @throws AlreadyFinalizedException 비 정상 상태 호출 예외
      * @throws IOException 청크 파일 저장 예외
      * */
-    public void saveChunk(String uploadId, int seq, MultipartFile part) throws IOException {
+    public ChunkResult saveChunk(String uploadId, int seq, MultipartFile part) throws IOException {
         if (part == null || part.isEmpty()) throw new IllegalArgumentException("빈 청크");
 
-        // 경로 지정
-        Path sessionDir = tmpRoot.resolve(uploadId);
-        Path statusFile = sessionDir.resolve(META);
-        if (!Files.exists(statusFile)) throw new NoSessionException();
-
-        // 현재 업로드 상태 확인
-        String status = Files.readString(statusFile, StandardCharsets.UTF_8).trim();
-        if (!UPLOADING.equals(status)) throw new AlreadyFinalizedException();
-
-        // 업로드 임시 파일 저장 디렉터리 (미존재시)생성
-        Files.createDirectories(sessionDir);
-        
-        // stream 파일 경로 지정
-        Path streamFile = sessionDir.resolve(STREAM_FILE);
-
-        // stream 파일에 append 모드로 청크 파일을 그대로 이어붙임
-        try (InputStream in = part.getInputStream();
-             OutputStream out = Files.newOutputStream(streamFile,
-                     StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
-            in.transferTo(out);
-        }
-        
-//        System.out.println("[appendChunk] uploadId=" + uploadId + " seq=" + seq +
-//                " -> " + streamFile.toAbsolutePath());
+        // 세션 및 현재 업로드 상태 확인
+        UploadSession session = sessionRegistry.acquire(uploadId, UploadSource.REAL_TIME);
+
+        // seq 순서대로 stream 파일에 이어붙임 (재전송된 청크는 무시)
+        ChunkResult result = uploadMetrics.time(UploadSource.REAL_TIME, "append",
+                () -> chunkAssembler.accept(session, seq, out -> {
+                    try (InputStream in = part.getInputStream()) {
+                        return ChannelCopy.copy(in, out, bufferPool, gather);
+                    }
+                }));
+        if (result != ChunkResult.DUPLICATE) uploadMetrics.bytes(UploadSource.REAL_TIME, "raw", part.getSize());
+        return result;
     }
 
 
     /**
-     * 청크 파일 병합
+     * 청크 저장 (WebSocket 바이너리 프레임)<br/>
+     * multipart 파싱 없이 프레임 데이터를 그대로 stream 파일에 이어붙임
      * @param uploadId 업로드 될 파일의 UUID값
-     * @param totalChunks 전체 청크 파일 개수
-     * @return 파일 병합 처리 상태 {"ok":boolean, "id":String, "key":String, "contentType":String, "size":long}
+     * @param seq 청크 파일의 순서
+     * @param payload 청크 데이터
+     * @return 청크 처리 결과 (COMMITTED, BUFFERED, DUPLICATE)
+     * @throws IllegalArgumentException 빈 청크 저장 예외
      * @throws NoSessionException 세션 미존재 예외
      * @throws AlreadyFinalizedException 비 정상 상태 호출 예외
-     * @throws IllegalStateException stream 파일 미존재 예외
+     * @throws IOException 청크 파일 저장 예외
      * */
-    public Map<String, Object> finalize(String uploadId, Integer totalChunks) throws Exception {
-        if (totalChunks == null || totalChunks <= 0)
-            throw new IllegalArgumentException("totalChunks required");
+    public ChunkResult saveChunk(String uploadId, int seq, ByteBuffer payload) throws IOException {
+        if (!payload.hasRemaining()) throw new IllegalArgumentException("빈 청크");
+
+        UploadSession session = sessionRegistry.acquire(uploadId, UploadSource.REAL_TIME);
+        long size = payload.remaining();
+        ChunkResult result = uploadMetrics.time(UploadSource.REAL_TIME, "append",
+                () -> chunkAssembler.accept(session, seq, out -> {
+                    ByteBuffer buf = payload.duplicate();
+                    while (buf.hasRemaining()) out.write(buf);
+                    return size;
+                }));
+        if (result != ChunkResult.DUPLICATE) uploadMetrics.bytes(UploadSource.REAL_TIME, "raw", size);
+        return result;
+    }
 
-        // 경로 지정
-        Path sessionDir = tmpRoot.resolve(uploadId);
-        Path statusFile = sessionDir.resolve(META);
-        if (!Files.exists(statusFile)) throw new NoSessionException();
 
-        // 현재 업로드 상태 확인
-        String status = Files.readString(statusFile, StandardCharsets.UTF_8).trim();
-        if (!UPLOADING.equals(status)) throw new AlreadyFinalizedException();
+    /**
+     * 수신 상태 조회 (전송 실패 후 다시 보낼 청크 / 위치 확인)
+     * @param uploadId 업로드 될 파일의 UUID값
+     * @return 이어붙여진 청크 수 / 크기, 이후 받은 seq, 받다 만 청크의 크기
+     * @throws NoSessionException 세션 미존재 예외
+     * @throws AlreadyFinalizedException 비 정상 상태 호출 예외
+     * @throws IOException chunks 디렉터리 조회 예외
+     * */
+    public ChunkStatus status(String uploadId) throws IOException {
+        UploadSession session = sessionRegistry.acquire(uploadId, UploadSource.REAL_TIME);
+        return resumableChunks.status(session);
+    }
 
-        // stream 파일 경로 지정
-        Path streamFile = sessionDir.resolve(STREAM_FILE);
-        if (!Files.exists(streamFile) || Files.size(streamFile) == 0)
-            throw new IllegalStateException("NO_STREAM");
 
-        // 파일 크기 변동이 멈출 때까지 짧게 대기(안정화 목적)
-        waitFileStable(streamFile, 200, 3000);
+    /**
+     * 청크 이어받기 (요청 본문 = 청크의 offset 부터 나머지)<br/>
+     * 연결이 끊겨도 받은 부분은 남아 있으므로 status 로 확인한 크기부터 다시 보내면 됨
+     * @param uploadId 업로드 될 파일의 UUID값
+     * @param seq 청크 파일의 순서
+     * @param offset 본문이 시작하는 청크 내 위치
+     * @param length 청크 전체 크기
+     * @param crc 청크 전체의 CRC32C (16진수, 없으면 확인하지 않음)
+     * @param body 요청 본문
+     * @return 청크 처리 결과 (COMMITTED, BUFFERED, DUPLICATE, PARTIAL)
+     * @throws NoSessionException 세션 미존재 예외
+     * @throws AlreadyFinalizedException 비 정상 상태 호출 예외
+     * @throws OffsetMismatchException offset 이 받아둔 크기와 다른 경우
+     * @throws ChecksumMismatchException CRC 불일치
+     * @throws IOException 청크 파일 저장 예외
+     * */
+    public ChunkResult resumeChunk(String uploadId, int seq, long offset, long length, String crc, InputStream body) throws IOException {
+        UploadSession session = sessionRegistry.acquire(uploadId, UploadSource.REAL_TIME);
+        ChunkResult result = uploadMetrics.time(UploadSource.REAL_TIME, "resume",
+                () -> resumableChunks.accept(session, seq, offset, length, ResumableChunks.parseCrc(crc), body,
+                        file -> out -> {
+                            try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+                                long size = in.size();
+                                for (long pos = 0; pos < size; ) pos += in.transferTo(pos, size - pos, out);
+                                return size;
+                            }
+                        }));
+        if (result == ChunkResult.COMMITTED || result == ChunkResult.BUFFERED) uploadMetrics.bytes(UploadSource.REAL_TIME, "raw", length);
+        return result;
+    }
 
-        // 상태 전환
-        Files.writeString(statusFile, FINALIZING, StandardCharsets.UTF_8);
 
-        // 출력 경로 지정
-        String id   = UUID.randomUUID().toString();
-        Path out = uploadRoot.resolve(id + ".webm");
-
-        // ffmpeg 실행 및 로그 수집
-        // stream 파일을 읽어 전체 음성 데이터 추출 및 최종 음성 데이터 파일 생성
-        String ffLog = runFfmpegCapture(
-                sessionDir,
-                // PTS(타임스탬프) 재생성
-                "-fflags", "+genpts",
-                // 입력 파일 (stream.webm)
-                "-i", streamFile.toAbsolutePath().toString().replace("\\","/"),
-                // 비디오 스트림 무시
-                "-vn",
-                // 오디오 코덱: libopus (WebM용 표준)
-                "-c:a", "libopus",
-                // 오디오 비트레이트 64kbps
-                "-b:a", "64k",
-                // 샘플레이트 48kHz
-                "-ar", "48000",
-                // 채널 수: 1 (mono)
-                "-ac", "1",
-                // 출력 파일 경로
-                out.toAbsolutePath().toString().replace("\\","/")
-        );
-
-        // 로그 작성
-        Files.writeString(sessionDir.resolve("ffmpeg_final.log"), ffLog, StandardCharsets.UTF_8);
-
-        long size = Files.size(out);
-        String contentType = Files.probeContentType(out);
-
-        // 상태 전환
-        Files.writeString(statusFile, FINALIZED, StandardCharsets.UTF_8);
-        cleanupLater(sessionDir, Duration.ofSeconds(60));
-
-        return Map.of(
-                "ok", true,
-                "id", id,
-                "key", out.getFileName().toString(),
-                "contentType", contentType,
-                "size", size
-        );
+    /**
+     * 녹음 중인 세션 실시간 청취<br/>
+     * WebM 헤더를 먼저 보낸 뒤 마지막 Cluster 부터 청크가 이어붙여지는 대로 전송 (finalize 시 종료)
+     * @param uploadId 업로드 될 파일의 UUID값
+     * @return audio/webm 으로 응답할 emitter
+     * @throws NoSessionException 세션 미존재 예외
+     * @throws AlreadyFinalizedException 녹음이 끝난 세션 예외
+     * @throws IOException stream 파일 읽기 예외
+     * */
+    public ResponseBodyEmitter listen(String uploadId) throws IOException {
+        UploadSession session = sessionRegistry.find(uploadId, UploadSource.REAL_TIME);
+        return webmBroadcaster.subscribe(session);
     }
 
 
-
     /**
-     * ffmpeg 프로세스 실행 및 로그 수집
-     * @param workDir 실행 대상 파일들이 존재하는 디렉터리 경로
-     * @param args ffmpeg 프로세스 실행 옵션들
-     * @return 수집한 로그
-     * @throws RuntimeException ffmpeg 프로세스 실행 예외
+     * 청크 파일 병합
+     * @param uploadId 업로드 될 파일의 UUID값
+     * @param totalChunks 전체 청크 파일 개수
+     * @return 등록된 finalize 작업 (결과 {"ok":boolean, "id":String, "key":String, "contentType":String, "size":long} 는 작업 상태로 전달)
+     * @throws NoSessionException 세션 미존재 예외
+     * @throws AlreadyFinalizedException 비 정상 상태 호출 예외
+     * @throws TranscodeBusyException 변환 대기열이 가득 찬 경우
      * */
-    private String runFfmpegCapture(Path workDir, String... args) throws Exception {
-        // 명령어 셋팅
-        List<String> cmd = new ArrayList<>();
-        cmd.add("ffmpeg");
-        cmd.add("-y");
-        Collections.addAll(cmd, args);
-
-        // ffmpeg 프로세스 실행
-        Process p = new ProcessBuilder(cmd)
-                .directory(workDir.toFile())
-                .redirectErrorStream(true)
-                .start();
-
-        // 로그 수집
-        StringBuilder sb = new StringBuilder();
-        try (BufferedReader br = new BufferedReader(new InputStreamReader(p.getInputStream()))) {
-            String line;
-            while ((line = br.readLine()) != null) sb.append(line).append('\n');
-        }
+    public FinalizeJob finalize(String uploadId, Integer totalChunks) {
+        if (totalChunks == null || totalChunks <= 0)
+            throw new IllegalArgumentException("totalChunks required");
 
-        // 프로세스 종료 대기
-        int code = p.waitFor();
-        if (code != 0) {
-            throw new RuntimeException("FFmpeg 실패 code=" + code + "\n" + sb);
-        }
+        // 상태 전환 (동시 호출 시 하나의 요청만 통과)
+        UploadSession session = sessionRegistry.beginFinalize(uploadId, UploadSource.REAL_TIME, totalChunks);
 
-        // 수집한 로그 반환
-        return sb.toString();
+        // 병합/변환은 작업 스레드에서 처리
+        try {
+            return submitMerge(session, totalChunks);
+        } catch (TranscodeBusyException e) {
+            // 대기열이 가득 차 거절된 경우 나중에 다시 finalize 할 수 있도록 상태 복구
+            sessionRegistry.abortFinalize(session);
+            throw e;
+        }
     }
 
 
     /**
-     * src/main/resources/uploads/tmp/ 경로 내부 청크 파일 자동 삭제
-     * @param sessionDir 파일이 저장된 위치
-     * @param delay 파일을 남겨둘 시간
+     * 병합 작업 등록
+     * @param session 병합중인 세션
+     * @param totalChunks 전체 청크 파일 개수
+     * @return 등록된 finalize 작업
      * */
-    private void cleanupLater(Path sessionDir, Duration delay) {
-        scheduler.schedule(() -> {
-            try (Stream<Path> s = Files.walk(sessionDir)) {
-                s.sorted(Comparator.reverseOrder())
-                        .forEach(p -> { try { Files.deleteIfExists(p); } catch (IOException ignore) {} });
-            } catch (IOException ignore) {}
-        }, new Date(System.currentTimeMillis() + delay.toMillis()));
+    private FinalizeJob submitMerge(UploadSession session, int totalChunks) {
+        // 1 ~ totalChunks 번 청크가 모두 stream 파일에 이어붙여지면 작업 스레드에서 병합 시작
+        // (기다리는 동안 작업 스레드를 차지하지 않으며, 진행중인 청크 저장이 끝나는 즉시 시작)
+        Timer.Sample wait = uploadMetrics.start();
+        CompletableFuture<Void> committed = session.whenCommitted(totalChunks).copy()
+                .orTimeout(chunkWaitMs, TimeUnit.MILLISECONDS)
+                .whenComplete((r, e) -> uploadMetrics.stop(wait, UploadSource.REAL_TIME, "chunk_wait"));
+
+        return finalizeJobService.submit(session.getUploadId(), UploadSource.REAL_TIME, committed, job -> {
+            try {
+                Map<String, Object> result = merge(session, totalChunks, committed, job);
+                sessionRegistry.completeFinalize(session);
+                return result;
+            } catch (Exception e) {
+                // 실패 시 다시 finalize 할 수 있도록 상태 복구
+                sessionRegistry.abortFinalize(session);
+                throw e;
+            }
+        });
     }
 
 
     /**
-     * 파일이 정상적으로 전부 작성 될 때까지 일정시간 대기<br/>
-     * (정상 처리시간 확보 목적)
-     * @param f stream 파일 경로
-     * @param stableMillis 안정화 기준 시간
-     * @param timeoutMs 최대 대기 시간
-     * @return 정상 처리 여부
+     * stream 파일을 최종 음성 파일로 변환
+     * @param session 병합중인 세션
+     * @param totalChunks 전체 청크 파일 개수
+     * @param committed 모든 청크 병합 완료 (완료된 상태, 시간 초과 시 예외로 완료)
+     * @param job 진행 상태를 갱신할 작업
+     * @return 파일 병합 처리 상태 {"ok":boolean, "id":String, "key":String, "contentType":String, "size":long}
+     * @throws IllegalStateException 누락된 청크, stream 파일 미존재 예외
      * */
-    private boolean waitFileStable(Path f, long stableMillis, long timeoutMs) throws IOException, InterruptedException {
-        long deadline = System.currentTimeMillis() + timeoutMs;
-        long lastSize = -1, lastChangeTs = System.currentTimeMillis();
-        while (true) {
-            if (!Files.exists(f)) {
-                if (System.currentTimeMillis() > deadline) return false;
-                Thread.sleep(50);
-                continue;
+    private Map<String, Object> merge(UploadSession session, int totalChunks, CompletableFuture<Void> committed,
+                                      FinalizeJob job) throws Exception {
+        Path sessionDir = session.getSessionDir();
+
+        // chunk-wait-ms 안에 모든 청크가 이어붙여지지 않은 경우
+        try {
+            committed.join();
+        } catch (CompletionException e) {
+            if (!(e.getCause() instanceof TimeoutException)) throw e;
+            throw new IllegalStateException("MISSING_CHUNKS (" + session.getCommittedChunks() + "/" + totalChunks + ")");
+        }
+
+        // 모든 청크가 이어붙여졌으므로 열어둔 stream 파일 채널을 정리 (정책에 따라 fsync)
+        streamSync.finish(session);
+        // 실시간 청취자는 남은 구간을 받은 뒤 종료
+        webmBroadcaster.finish(session);
+
+        // stream 파일 경로 지정
+        Path streamFile = session.getStreamFile();
+        if (session.getCommittedBytes() == 0)
+            throw new IllegalStateException("NO_STREAM");
+
+        // 출력 경로 지정 (원격 저장소는 기록되는 동안 완성된 구간부터 전송)
+        String id   = UUID.randomUUID().toString();
+        try (StorageUpload upload = objectStorage.begin(id + ".webm")) {
+            Path out = upload.getPath();
+
+            // 실시간 변환 모드: 녹음 중 변환된 결과의 마무리만 기다림
+            // 그 외에는 JVM 내부 remux -> ffmpeg (remux / 재인코딩) 순으로 처리
+            job.stage("TRANSCODING");
+            if (!liveTranscodeManager.finish(session, out) && !webmRemuxer.remux(session, out, job)) {
+                ffmpegTranscoder.transcode(sessionDir, streamFile, out, job);
             }
-            long sz = Files.size(f);
-            long now = System.currentTimeMillis();
-            if (sz != lastSize) { lastSize = sz; lastChangeTs = now; }
-            if (sz > 0 && (now - lastChangeTs) >= stableMillis) return true;
-            if (now >= deadline) return false;
-            Thread.sleep(50);
+
+            String contentType = uploadMetrics.time(UploadSource.REAL_TIME, "probe_content_type", () -> Files.probeContentType(out));
+            long size = uploadMetrics.time(UploadSource.REAL_TIME, "store", upload::complete);
+
+            // 음성 길이는 JVM remux / ffmpeg 가 확인한 경우에만 기록
+            long durationMs = job.getProcessedMs();
+            audioCatalogService.record(UploadSource.REAL_TIME, session.getUploadId(), upload.getKey(), size, contentType,
+                    durationMs > 0 ? durationMs : null, session.getCreatedAt());
+
+            return Map.of(
+                    "ok", true,
+                    "id", id,
+                    "key", upload.getKey(),
+                    "contentType", contentType,
+                    "size", size
+            );
         }
     }
 
@@ -0,0 +1,37 @@
+package com.example.audio_upload_web.real_time_upload.web;
+
+import com.example.audio_upload_web.common.session.ChunkResult;
+import com.example.audio_upload_web.common.web.ChunkSocketHandler;
+import com.example.audio_upload_web.constant.UploadSource;
+import com.example.audio_upload_web.real_time_upload.service.RealTimeService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * 실시간 녹음 청크 수신 WebSocket (/real-time/ws)
+ * */
+@Component
+public class RealTimeSocketHandler extends ChunkSocketHandler {
+
+    @Autowired
+    private RealTimeService realTimeService;
+
+
+    @Override
+    protected UploadSource source() {
+        return UploadSource.REAL_TIME;
+    }
+
+    @Override
+    protected String createSession() throws IOException {
+        return realTimeService.createSession();
+    }
+
+    @Override
+    protected ChunkResult saveChunk(String uploadId, int seq, ByteBuffer payload) throws IOException {
+        return realTimeService.saveChunk(uploadId, seq, payload);
+    }
+}
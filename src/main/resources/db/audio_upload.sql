@@ -0,0 +1,18 @@
+-- 업로드 목록 (AudioMapper)
+-- 날짜 / 업로드 방식별 목록은 id 순 keyset 페이지로 조회하므로 (날짜[, 방식], id) 인덱스 사용
+CREATE TABLE IF NOT EXISTS audio_upload (
+    id           BIGINT       NOT NULL AUTO_INCREMENT,
+    upload_id    VARCHAR(64)  NOT NULL,
+    storage_key  VARCHAR(512) NOT NULL,
+    size         BIGINT       NOT NULL,
+    content_type VARCHAR(100) NULL,
+    duration_ms  BIGINT       NULL,
+    source       VARCHAR(20)  NOT NULL,
+    upload_date  DATE         NOT NULL,
+    started_at   DATETIME(3)  NULL,
+    created_at   DATETIME(3)  NOT NULL,
+    PRIMARY KEY (id),
+    KEY ix_audio_upload_date (upload_date, id),
+    KEY ix_audio_upload_date_source (upload_date, source, id),
+    KEY ix_audio_upload_upload_id (upload_id)
+);
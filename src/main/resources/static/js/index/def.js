@@ -122,16 +122,17 @@ function toFile(blob) {
 }
 
 // ====== 업로드 ======
+/*
+    파일 내용을 요청 본문으로 그대로 전송 (/audio/stream).
+    multipart 가 아니므로 서버가 임시 파일 없이 받는 즉시 최종 위치에 기록함.
+*/
 function uploadFile(file) {
-    const fd = new FormData();
-    fd.append('file', file);
-
     return $.ajax({
-        url: '/audio',
+        url: '/audio/stream',
         method: 'POST',
-        data: fd,
+        data: file,
         processData: false,
-        contentType: false
+        contentType: file.type || 'application/octet-stream'
     });
 }
 
@@ -9,15 +9,28 @@ const sendSec = 10000; // 10초 단위 청크 파일 전송
 const API = {
     session:  '/rtc/session',
     chunk:    '/rtc/chunk',
-    finalize: '/rtc/finalize'
+    finalize: '/rtc/finalize',
+    socket:   '/rtc/ws'
 };
 
 let mediaRecorder, stream;
 let uploadId = null;
 let seq = 0;
-let sending = Promise.resolve(); // 업로드 순서 보장(백프레셔)
 let stoppedP = null;
 
+// 청크는 서버가 seq 순서대로 재조립하므로 순서와 상관없이 병렬 업로드
+const MAX_PARALLEL = 3;          // 동시 업로드 청크 수(백프레셔)
+const MAX_RETRY = 3;             // 청크별 재시도 횟수 (재전송된 청크는 서버가 무시)
+let pending = new Set();         // 업로드 진행중인 청크 Promise
+let active = 0;
+let slotQueue = [];
+
+// 청크는 WebSocket 이 연결되어 있으면 바이너리 프레임으로, 아니면 HTTP 로 전송
+let socket = null;
+let credits = 0;                 // 서버 응답 없이 보낼 수 있는 프레임 수
+let frameQueue = [];             // credits 를 기다리는 프레임
+let acks = new Map();            // seq -> 응답 대기중인 청크
+
 
 /* 
     초(sec) 정보를 HH:MM:SS 형식으로 변환하는 함수
@@ -88,6 +101,96 @@ async function createSession() {
 }
 
 
+/* 
+    WebSocket 으로 세션을 생성(연결)하고 uploadId 를 받는 함수
+    연결되어 있는 동안 청크는 바이너리 프레임([seq 4byte][청크 데이터])으로 전송되며,
+    연결이 끊기면 응답을 받지 못한 청크는 HTTP 로 재전송됨
+*/
+function openSocket() {
+    return new Promise((resolve, reject) => {
+        if (!window.WebSocket) {
+            reject(new Error('WebSocket 미지원'));
+            return;
+        }
+
+        const scheme = location.protocol === 'https:' ? 'wss' : 'ws';
+        const ws = new WebSocket(`${scheme}://${location.host}${API.socket}`);
+        ws.binaryType = 'arraybuffer';
+        ws.onmessage = (e) => {
+            const msg = JSON.parse(e.data);
+            if (msg.type === 'ready') {
+                socket = ws;
+                credits = msg.credits;
+                resolve(msg.uploadId);
+                return;
+            }
+
+            // 응답마다 보낼 수 있는 프레임 수를 돌려받음
+            credits += msg.credits || 0;
+            const waiter = acks.get(msg.seq);
+            if (waiter) {
+                acks.delete(msg.seq);
+                if (msg.type === 'ack') {
+                    waiter.resolve(msg);
+                } else {
+                    const err = new Error(msg.error);
+                    err.retryAfterMs = msg.retryAfterMs;
+                    waiter.reject(err);
+                }
+            }
+            flushFrames();
+        };
+        ws.onclose = () => {
+            if (socket === ws) closeSocket();
+            else reject(new Error('WebSocket 연결 실패'));
+        };
+    });
+}
+
+
+/* 
+    WebSocket 연결 종료 (응답 대기중인 청크는 실패 처리되어 HTTP 로 재전송됨)
+*/
+function closeSocket() {
+    const ws = socket;
+    socket = null;
+    credits = 0;
+    frameQueue = [];
+    acks.forEach(waiter => waiter.reject(new Error('WebSocket 연결 종료')));
+    acks.clear();
+    if (ws && ws.readyState <= WebSocket.OPEN) ws.close();
+}
+
+
+/* 
+    청크를 바이너리 프레임으로 전송하고 서버 응답(ack)을 기다리는 함수
+*/
+async function sendFrame(index, blob) {
+    const data = await blob.arrayBuffer();
+    const frame = new Uint8Array(4 + data.byteLength);
+    new DataView(frame.buffer).setInt32(0, index);
+    frame.set(new Uint8Array(data), 4);
+
+    if (!socket) throw new Error('WebSocket 연결 종료');
+    return new Promise((resolve, reject) => {
+        acks.set(index, { resolve, reject });
+        frameQueue.push(frame);
+        flushFrames();
+    });
+}
+
+
+/* 
+    남은 credits 만큼 대기중인 프레임 전송 (서버 처리 속도에 맞춰 전송)
+*/
+function flushFrames() {
+    while (socket && credits > 0 && frameQueue.length > 0) {
+        socket.send(frameQueue.shift());
+        credits--;
+    }
+}
+
+
 /* 
     Blob을 File 객체로 래핑(업로드 편의를 위함)
 */
@@ -98,31 +201,152 @@ function toFile(blob, index) {
 
 
 /* 
-    청크 파일을 압축하여 업로드하는 함수
+    청크 파일을 압축하여 업로드하는 함수 (WebSocket 연결이 없으면 HTTP)
+    압축은 한번만 하므로 재시도 시 같은 내용을 이어서 보냄
+*/
+async function sendChunk(c) {
+    if (!c.blob) {
+        // console.log(`압축 전 : ${c.file.size}`);
+        const zip = new JSZip();
+        zip.file(c.file.name, c.file);
+        c.blob = await zip.generateAsync({type: 'blob', compression: "DEFLATE", compressionOptions: {level: 6}});
+        // console.log(`압축 후 : ${c.blob.size}`);
+    }
+
+    // WebSocket 이 연결되어 있으면 바이너리 프레임으로 업로드
+    if (socket) return sendFrame(c.index, c.blob);
+    return putChunk(c);
+}
+
+
+/* 
+    HTTP 로 보낼 청크의 이어받기 상태 (재시도 시 서버가 받아둔 위치부터 나머지만 전송)
+*/
+function resumable(id, index, file) {
+    return { id, index, file, blob: null, offset: 0, crc: null, retry: false };
+}
+
+
+/* 
+    압축된 청크를 HTTP 로 업로드하는 함수
+    이전 전송이 실패했으면 서버 수신 상태를 먼저 확인하여 이미 받은 청크는 다시 보내지 않음
+*/
+async function putChunk(c) {
+    if (c.crc === null) c.crc = crc32c(new Uint8Array(await c.blob.arrayBuffer()));
+    if (c.retry) {
+        const st = await chunkStatus(c.id);
+        if (c.index <= st.committedChunks || st.received.includes(c.index)) {
+            return { ok: true, seq: c.index, result: 'DUPLICATE' };
+        }
+        c.offset = st.partial[c.index] || 0;
+    }
+
+    c.retry = true;
+    const res = await $.ajax({
+        url: `${API.chunk}?` + $.param({ uploadId: c.id, seq: c.index, offset: c.offset, length: c.blob.size, crc: c.crc }),
+        method: 'PUT',
+        data: c.blob.slice(c.offset),
+        processData: false,
+        contentType: 'application/zip'
+    });
+    c.retry = false;
+    return res;
+}
+
+
+/* 
+    서버 수신 상태 조회 (이어붙여진 청크 수, 이후 받은 seq, 받다 만 청크의 크기)
+*/
+async function chunkStatus(id) {
+    return $.ajax({ url: API.session, method: 'GET', data: { uploadId: id }, cache: false });
+}
+
+
+/* 
+    CRC32C (서버에서 이어받은 청크 전체를 확인하는 값, 16진수 8자리)
+*/
+const CRC32C_TABLE = (() => {
+    const table = new Uint32Array(256);
+    for (let i = 0; i < 256; i++) {
+        let c = i;
+        for (let k = 0; k < 8; k++) c = (c & 1) ? (c >>> 1) ^ 0x82F63B78 : c >>> 1;
+        table[i] = c >>> 0;
+    }
+    return table;
+})();
+
+function crc32c(bytes) {
+    let c = 0xFFFFFFFF;
+    for (let i = 0; i < bytes.length; i++) c = CRC32C_TABLE[(c ^ bytes[i]) & 0xFF] ^ (c >>> 8);
+    return ((c ^ 0xFFFFFFFF) >>> 0).toString(16).padStart(8, '0');
+}
+
+
+/* 
+    업로드 슬롯 획득/반납 (동시 업로드 수 제한)
+*/
+function acquireSlot() {
+    if (active < MAX_PARALLEL) {
+        active++;
+        return Promise.resolve();
+    }
+    return new Promise(resolve => slotQueue.push(resolve));
+}
+
+function releaseSlot() {
+    const next = slotQueue.shift();
+    if (next) next(); else active--;
+}
+
+
+/* 
+    슬롯을 얻은 뒤 청크를 업로드하며, 실패 시 같은 seq로 재전송
+*/
+async function uploadWithRetry(send) {
+    await acquireSlot();
+    try {
+        for (let attempt = 1; ; attempt++) {
+            try {
+                return await send();
+            } catch (err) {
+                // 요청 제한(429)은 서버가 알려준 시간만큼 기다린 뒤 재전송 (재시도 횟수에 포함하지 않음)
+                const wait = retryAfterMs(err);
+                if (wait > 0) {
+                    attempt--;
+                    await new Promise(resolve => setTimeout(resolve, wait));
+                    continue;
+                }
+                if (attempt >= MAX_RETRY) throw err;
+                // 네트워크가 잠시 끊긴 경우를 위해 점점 길게 대기 (이어받기이므로 받은 부분은 다시 보내지 않음)
+                await new Promise(resolve => setTimeout(resolve, 500 * attempt));
+            }
+        }
+    } finally {
+        releaseSlot();
+    }
+}
+
+
+/* 
+    요청 제한으로 거절된 경우 다시 보낼 수 있을 때까지의 시간(ms), 그 외 실패는 0
 */
-async function sendChunk(id, index, file) {
-    // console.log(`압축 전 : ${file.size}`);
-    const zip = new JSZip();
-    zip.file(file.name, file);
+function retryAfterMs(err) {
+    if (err && err.retryAfterMs) return err.retryAfterMs;
+    if (err && err.status === 429) {
+        if (err.responseJSON && err.responseJSON.retryAfterMs) return err.responseJSON.retryAfterMs;
+        return (Number(err.getResponseHeader('Retry-After')) || 1) * 1000;
+    }
+    return 0;
+}
 
-    zip.generateAsync({type: 'blob', compression: "DEFLATE", compressionOptions: {level: 6}})
-        .then((resZip) => {
-            // 업로드
-            const fd = new FormData();
-            fd.append('uploadId', id);
-            fd.append('seq', String(index));
-            fd.append('file', resZip, file.name + ".zip");
-            // console.log(`압축 후 : ${resZip.size}`);
-            // console.log();
-    
-            return $.ajax({
-                url: API.chunk,
-                method: 'POST',
-                data: fd,
-                processData: false,
-                contentType: false
-            });
-        })
+
+/* 
+    진행중인 업로드 목록에 등록 (완료되면 자동으로 제거)
+*/
+function track(p) {
+    const tracked = p.catch(err => console.error('chunk 업로드 실패:', err))
+                     .finally(() => pending.delete(tracked));
+    pending.add(tracked);
 }
 
 
@@ -138,6 +362,42 @@ async function finalizeUpload(id, total) {
 }
 
 
+/* 
+    finalize 작업 완료 대기 (SSE 구독, 연결 실패 시 상태 조회 폴링으로 대체)
+*/
+function waitForJob(jobId) {
+    return new Promise((resolve, reject) => {
+        if (!window.EventSource) {
+            pollJob(jobId).then(resolve, reject);
+            return;
+        }
+
+        const es = new EventSource(`/jobs/${jobId}/events`);
+        let finished = false;
+        es.addEventListener('progress', (e) => console.log('finalize 진행:', JSON.parse(e.data)));
+        es.addEventListener('done', (e) => { finished = true; es.close(); resolve(JSON.parse(e.data)); });
+        es.addEventListener('failed', (e) => { finished = true; es.close(); reject(JSON.parse(e.data)); });
+        es.onerror = () => {
+            es.close();
+            if (!finished) pollJob(jobId).then(resolve, reject);
+        };
+    });
+}
+
+
+/* 
+    finalize 작업 상태를 완료될 때까지 주기적으로 조회
+*/
+async function pollJob(jobId) {
+    while (true) {
+        const job = await $.get(`/jobs/${jobId}`);
+        if (job.state === 'DONE') return job;
+        if (job.state === 'FAILED') throw job;
+        await new Promise(resolve => setTimeout(resolve, 1000));
+    }
+}
+
+
 /* 
     녹음 종료 이벤트
 */
@@ -149,10 +409,9 @@ function bindRecorder(recorder) {
     recorder.ondataavailable = (e) => {
     if (!e.data || e.data.size === 0) return;
         const mySeq = ++seq;
-        const file = toFile(e.data, mySeq);
+        const chunk = resumable(uploadId, mySeq, toFile(e.data, mySeq));
         // 청크 파일 업로드
-        sending = sending.then(() => sendChunk(uploadId, mySeq, file))
-                            .catch(err => console.error('chunk 업로드 실패:', err));
+        track(uploadWithRetry(() => sendChunk(chunk)));
     };
 }
 
@@ -170,7 +429,8 @@ async function requestMicStream() {
 // ====== 녹음 제어 ======
 async function startRecording() {
     try {
-        uploadId = await createSession();
+        // WebSocket 연결 실패 시 HTTP 로 세션 생성
+        uploadId = await openSocket().catch(() => createSession());
         seq = 0;
 
         stream = await requestMicStream();
@@ -185,10 +445,20 @@ async function startRecording() {
     } catch (e) {
         console.error(e);
         alert('마이크 권한 또는 세션 생성 실패');
+        closeSocket();
         setUI(false);
     }
 }
 
+/* 
+    저장된 최종 파일 재생 (재생 위치를 옮기면 브라우저가 Range 요청으로 필요한 구간만 받음)
+*/
+function showPlayback(result) {
+    if (!result || !result.key) return;
+    const src = '/files/' + result.key.split('/').map(encodeURIComponent).join('/');
+    $('#playback').attr('src', src).prop('hidden', false);
+}
+
 async function stopRecording() {
     try {
         // 남은 버퍼 강제 방출
@@ -201,19 +471,23 @@ async function stopRecording() {
         // stop 이벤트까지 대기(마지막 dataavailable 발생 보장)
         await stoppedP;
 
-        // 지금까지 체인에 올라간 모든 청크 업로드 완료 대기
-        await sending;
+        // 지금까지 시작된 모든 청크 업로드 완료 대기
+        await Promise.all([...pending]);
 
         // finalize
+        // finalize 는 작업으로 등록되고 결과는 별도로 전달됨
         const res = await finalizeUpload(uploadId, seq);
         if (res.ok) {
-            console.log('최종 파일 준비 완료:', res);
+            const job = await waitForJob(res.jobId);
+            console.log('최종 파일 준비 완료:', job.result);
+            showPlayback(job.result);
         } else {
             console.error(res);
         }
     } catch (e) {
         console.error('finalize 실패:', e);
     } finally {
+        closeSocket();
         setUI(false);
         uploadId = null; seq = 0; mediaRecorder = null; stream = null;
     }
@@ -0,0 +1,81 @@
+package com.example.audio_upload_web.audio_upload.mapper;
+
+import com.example.audio_upload_web.audio_upload.dto.AudioDTO;
+import com.example.audio_upload_web.constant.UploadSource;
+import org.junit.jupiter.api.Test;
+import org.mybatis.spring.boot.test.autoconfigure.MybatisTest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 업로드 목록 쿼리 (내장 H2, MySQL 호환 모드)
+ * */
+@MybatisTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:catalog;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "mybatis.mapper-locations=classpath:mapper/**/*.xml"
+})
+@Sql("classpath:db/audio_upload.sql")
+class AudioMapperTests {
+
+    private static final LocalDateTime DAY = LocalDateTime.of(2026, 10, 17, 9, 0);
+
+    @Autowired
+    private AudioMapper audioMapper;
+
+
+    @Test
+    void batchInsertWritesAllRows() {
+        List<AudioDTO> audios = List.of(
+                audio("a", UploadSource.AUDIO, DAY),
+                audio("b", UploadSource.COMPRESSION, DAY),
+                audio("c", UploadSource.RTC, DAY));
+
+        assertThat(audioMapper.insertAudios(audios)).isEqualTo(3);
+
+        List<AudioDTO> found = audioMapper.selectAudiosByDate(DAY.toLocalDate(), null, null, 10);
+        assertThat(found).extracting(AudioDTO::getUploadId).containsExactly("a", "b", "c");
+        AudioDTO first = found.get(0);
+        assertThat(first.getStorageKey()).isEqualTo("0/2026-10-17/ab/a.webm");
+        assertThat(first.getSource()).isEqualTo(UploadSource.AUDIO);
+        assertThat(first.getUploadDate()).isEqualTo(DAY.toLocalDate());
+        assertThat(first.getDurationMs()).isNull();
+        assertThat(first.getCreatedAt()).isEqualTo(DAY);
+    }
+
+    @Test
+    void listingPagesByIdWithinDateAndSource() {
+        audioMapper.insertAudios(List.of(
+                audio("r1", UploadSource.REAL_TIME, DAY),
+                audio("a1", UploadSource.AUDIO, DAY),
+                audio("r2", UploadSource.REAL_TIME, DAY),
+                audio("x1", UploadSource.REAL_TIME, DAY.plusDays(1)),
+                audio("r3", UploadSource.REAL_TIME, DAY)));
+        LocalDate date = DAY.toLocalDate();
+
+        List<AudioDTO> page = audioMapper.selectAudiosByDate(date, UploadSource.REAL_TIME, null, 2);
+        assertThat(page).extracting(AudioDTO::getUploadId).containsExactly("r1", "r2");
+
+        page = audioMapper.selectAudiosByDate(date, UploadSource.REAL_TIME, page.get(1).getId(), 2);
+        assertThat(page).extracting(AudioDTO::getUploadId).containsExactly("r3");
+
+        assertThat(audioMapper.selectAudiosByDate(date, null, null, 10)).hasSize(4);
+        assertThat(audioMapper.selectAudiosByDate(date.minusDays(1), null, null, 10)).isEmpty();
+    }
+
+
+    private static AudioDTO audio(String uploadId, UploadSource source, LocalDateTime createdAt) {
+        return new AudioDTO(uploadId, "0/" + createdAt.toLocalDate() + "/ab/" + uploadId + ".webm", 1024,
+                "audio/webm", null, source, createdAt.minusSeconds(30), createdAt);
+    }
+}
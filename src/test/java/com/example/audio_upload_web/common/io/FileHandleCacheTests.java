@@ -0,0 +1,66 @@
+package com.example.audio_upload_web.common.io;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FileHandleCacheTests {
+
+    @TempDir
+    Path tmp;
+
+    @Test
+    void sameFileReusesChannelUntilChanged() throws IOException {
+        FileHandleCache cache = new FileHandleCache(4);
+        Path file = Files.writeString(tmp.resolve("a.webm"), "hello");
+
+        FileChannel first;
+        try (FileHandleCache.Handle h = cache.acquire(file)) {
+            first = h.getChannel();
+        }
+        try (FileHandleCache.Handle h = cache.acquire(file)) {
+            assertThat(h.getChannel()).isSameAs(first);
+        }
+
+        Files.writeString(file, "hello world");
+        Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() + 5000));
+        try (FileHandleCache.Handle h = cache.acquire(file)) {
+            assertThat(h.getChannel()).isNotSameAs(first);
+            assertThat(h.getSize()).isEqualTo(11);
+        }
+        assertThat(first.isOpen()).isFalse();
+    }
+
+    @Test
+    void evictedChannelClosesAfterLastUse() throws IOException {
+        FileHandleCache cache = new FileHandleCache(1);
+        Path a = Files.writeString(tmp.resolve("a.webm"), "a");
+        Path b = Files.writeString(tmp.resolve("b.webm"), "b");
+
+        FileHandleCache.Handle inUse = cache.acquire(a);
+        try (FileHandleCache.Handle h = cache.acquire(b)) {
+            assertThat(cache.size()).isEqualTo(1);
+            // 캐시에서 밀려났지만 사용중이므로 열려 있음
+            assertThat(inUse.getChannel().isOpen()).isTrue();
+        }
+        inUse.close();
+        assertThat(inUse.getChannel().isOpen()).isFalse();
+    }
+
+    @Test
+    void directoryIsNotOpened() {
+        FileHandleCache cache = new FileHandleCache(4);
+
+        assertThatThrownBy(() -> cache.acquire(tmp)).isInstanceOf(NoSuchFileException.class);
+        assertThat(cache.size()).isEqualTo(0);
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.audio_upload_web.common.io;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ZipEntryInflaterTests {
+
+    private final BufferPool pool = new BufferPool(8, 4);
+
+    @Test
+    void singleEntryIsInflatedToChannel() throws IOException {
+        byte[] zipped = zip(new ZipEntry("chunk/"), null, new ZipEntry("chunk/1.webm"), "hello webm chunk".getBytes(StandardCharsets.UTF_8));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long written = ZipEntryInflater.inflateSingleEntry(new ByteArrayInputStream(zipped), Channels.newChannel(out), pool, 1024);
+
+        assertThat(written).isEqualTo(16);
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo("hello webm chunk");
+    }
+
+    @Test
+    void multipleOrNoEntriesAreRejected() throws IOException {
+        byte[] two = zip(new ZipEntry("a.webm"), new byte[]{1}, new ZipEntry("b.webm"), new byte[]{2});
+        assertThatThrownBy(() -> inflate(two, 1024)).isInstanceOf(ZipException.class);
+
+        byte[] empty = zip(new ZipEntry("dir/"), null, null, null);
+        assertThatThrownBy(() -> inflate(empty, 1024)).isInstanceOf(ZipException.class);
+    }
+
+    @Test
+    void inflatedSizeOverLimitIsRejected() throws IOException {
+        byte[] data = new byte[4096];
+        Arrays.fill(data, (byte) 'a');
+
+        // 압축 해제하면서 크기를 세어 중단 (DEFLATED 는 헤더에 크기가 없음)
+        byte[] deflated = zip(new ZipEntry("a.webm"), data, null, null);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertThatThrownBy(() -> ZipEntryInflater.inflateSingleEntry(new ByteArrayInputStream(deflated),
+                Channels.newChannel(out), pool, 1000)).isInstanceOf(ZipException.class);
+        assertThat(out.size()).isLessThanOrEqualTo(1000);
+
+        // 헤더에 기록된 크기로 바로 거절
+        ZipEntry stored = new ZipEntry("a.webm");
+        stored.setMethod(ZipEntry.STORED);
+        stored.setSize(data.length);
+        CRC32 crc = new CRC32();
+        crc.update(data);
+        stored.setCrc(crc.getValue());
+        byte[] storedZip = zip(stored, data, null, null);
+        assertThatThrownBy(() -> inflate(storedZip, 1000)).isInstanceOf(ZipException.class);
+    }
+
+
+    private long inflate(byte[] zipped, long maxBytes) throws IOException {
+        return ZipEntryInflater.inflateSingleEntry(new ByteArrayInputStream(zipped),
+                Channels.newChannel(new ByteArrayOutputStream()), pool, maxBytes);
+    }
+
+    /*
+     * 항목 1~2개짜리 zip (내용이 null 이면 내용 없이 항목만 기록)
+     * */
+    private static byte[] zip(ZipEntry first, byte[] firstData, ZipEntry second, byte[] secondData) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream zos = new ZipOutputStream(bytes)) {
+            zos.putNextEntry(first);
+            if (firstData != null) zos.write(firstData);
+            zos.closeEntry();
+            if (second != null) {
+                zos.putNextEntry(second);
+                if (secondData != null) zos.write(secondData);
+                zos.closeEntry();
+            }
+        }
+        return bytes.toByteArray();
+    }
+}
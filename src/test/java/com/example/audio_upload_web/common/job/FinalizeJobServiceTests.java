@@ -0,0 +1,81 @@
+package com.example.audio_upload_web.common.job;
+
+import com.example.audio_upload_web.common.metrics.UploadMetrics;
+import com.example.audio_upload_web.common.transcode.TranscodeScheduler;
+import com.example.audio_upload_web.common.web.ApiExceptionHandler;
+import com.example.audio_upload_web.constant.UploadSource;
+import com.example.audio_upload_web.exception.TranscodeBusyException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FinalizeJobServiceTests {
+
+    private final FinalizeJobService service = new FinalizeJobService();
+
+    @BeforeEach
+    void setUp() {
+        // 변환 동시 실행 1, 접수 2
+        ReflectionTestUtils.setField(service, "transcodeScheduler", new TranscodeScheduler(1, 2, 1, new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(service, "workers", 1);
+        ReflectionTestUtils.setField(service, "retentionMs", 60_000L);
+        service.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.destroy();
+    }
+
+
+    @Test
+    void finalizeIsRejectedWith429OnceBacklogIsFull() throws Exception {
+        // 청크를 기다리는 작업도 접수 수에 포함됨
+        CompletableFuture<Void> first = new CompletableFuture<>();
+        FinalizeJob job = service.submit("a", UploadSource.REAL_TIME, first, j -> Map.of("ok", true));
+        service.submit("b", UploadSource.REAL_TIME, new CompletableFuture<>(), j -> Map.of("ok", true));
+
+        TranscodeBusyException busy = null;
+        try {
+            service.submit("c", UploadSource.REAL_TIME, new CompletableFuture<>(), j -> Map.of("ok", true));
+        } catch (TranscodeBusyException e) {
+            busy = e;
+        }
+        assertThat(busy).isNotNull();
+
+        ApiExceptionHandler handler = new ApiExceptionHandler();
+        ReflectionTestUtils.setField(handler, "uploadMetrics", new UploadMetrics(new SimpleMeterRegistry(), Long.MAX_VALUE));
+        ResponseEntity<Map<String, Object>> res = handler.transcodeBusy(busy);
+        assertThat(res.getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(Long.parseLong(res.getHeaders().getFirst(HttpHeaders.RETRY_AFTER))).isGreaterThan(0);
+
+        // 작업이 끝나면 다시 접수
+        first.complete(null);
+        long deadline = System.currentTimeMillis() + 5000;
+        while (job.getState() != FinalizeJob.State.DONE && System.currentTimeMillis() < deadline) Thread.sleep(10);
+        assertThat(job.getState()).isEqualTo(FinalizeJob.State.DONE);
+        while (true) {
+            try {
+                service.submit("d", UploadSource.REAL_TIME, new CompletableFuture<>(), j -> Map.of("ok", true));
+                break;
+            } catch (TranscodeBusyException e) {
+                // 상태가 DONE 으로 바뀐 뒤 접수가 반납되기까지의 짧은 구간
+                assertThat(System.currentTimeMillis()).isLessThan(deadline);
+                Thread.sleep(10);
+            }
+        }
+        assertThatThrownBy(() -> service.submit("e", UploadSource.REAL_TIME, new CompletableFuture<>(), j -> Map.of("ok", true)))
+                .isInstanceOf(TranscodeBusyException.class);
+    }
+}
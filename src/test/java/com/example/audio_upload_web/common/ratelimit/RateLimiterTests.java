@@ -0,0 +1,71 @@
+package com.example.audio_upload_web.common.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimiterTests {
+
+    private final RateLimiter rateLimiter = new RateLimiter();
+
+    @BeforeEach
+    void setUp() {
+        // 키별 요청 2개, 전송량 100 byte (채워지는 속도는 테스트 중 무시할 만큼 느리게)
+        ReflectionTestUtils.setField(rateLimiter, "enabled", true);
+        ReflectionTestUtils.setField(rateLimiter, "requestsPerSec", 1L);
+        ReflectionTestUtils.setField(rateLimiter, "requestBurst", 2L);
+        ReflectionTestUtils.setField(rateLimiter, "bytesPerSec", 1L);
+        ReflectionTestUtils.setField(rateLimiter, "byteBurst", 100L);
+        ReflectionTestUtils.setField(rateLimiter, "maxKeys", 100);
+        ReflectionTestUtils.setField(rateLimiter, "clientHeader", "X-Forwarded-For");
+        ReflectionTestUtils.setField(rateLimiter, "meterRegistry", new SimpleMeterRegistry());
+        rateLimiter.init();
+    }
+
+
+    @Test
+    void framesAreChargedToClientAndSession() {
+        // 같은 클라이언트의 두 세션이 클라이언트 버킷을 나누어 씀
+        assertThat(rateLimiter.acquire(10, "c", "session:a")).isZero();
+        assertThat(rateLimiter.acquire(10, "c", "session:b")).isZero();
+        assertThat(rateLimiter.acquire(10, "c", "session:b")).isGreaterThan(0);
+
+        // 다른 클라이언트는 영향 없음
+        assertThat(rateLimiter.acquire(10, "d", "session:c")).isZero();
+    }
+
+    @Test
+    void rejectedFrameRefundsEarlierKeys() {
+        // 세션 버킷 전송량 초과로 거절되면 클라이언트 버킷에서 쓴 토큰은 돌려받음
+        assertThat(rateLimiter.acquire("session:a", 100)).isZero();
+        assertThat(rateLimiter.acquire(1, "c", "session:a")).isGreaterThan(0);
+
+        // 돌려받지 않았다면 클라이언트 버킷의 요청 수 / 전송량이 부족함
+        assertThat(rateLimiter.acquire("c", 100)).isZero();
+        assertThat(rateLimiter.acquire("c", 0)).isZero();
+    }
+
+    @Test
+    void streamedBodyIsChargedToBytesOnly() {
+        // Content-Length 없이 받는 본문은 전송량만 사용
+        assertThat(rateLimiter.acquireBytes("c", 60)).isZero();
+        assertThat(rateLimiter.acquireBytes("c", 60)).isGreaterThan(0);
+
+        // 요청 수는 그대로 남아 있음
+        assertThat(rateLimiter.acquire("c", 0)).isZero();
+        assertThat(rateLimiter.acquire("c", 0)).isZero();
+        assertThat(rateLimiter.acquire("c", 0)).isGreaterThan(0);
+    }
+
+    @Test
+    void clientKeyUsesFirstForwardedAddress() {
+        Map<String, String> headers = Map.of("X-Forwarded-For", "10.0.0.1, 10.0.0.2");
+        assertThat(rateLimiter.clientKey(headers::get, "127.0.0.1")).isEqualTo("10.0.0.1");
+        assertThat(rateLimiter.clientKey(name -> null, "127.0.0.1")).isEqualTo("127.0.0.1");
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.audio_upload_web.common.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketTests {
+
+    private static final long SEC = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void burstIsAllowedThenWaitMatchesRefillRate() {
+        // 초당 10개, 한번에 5개
+        TokenBucket bucket = new TokenBucket(10, 5);
+        long now = 1_000 * SEC;
+
+        for (int i = 0; i < 5; i++) assertThat(bucket.tryAcquire(1, now)).isZero();
+        assertThat(bucket.tryAcquire(1, now)).isEqualTo(SEC / 10);
+
+        // 대기 시간이 지나면 허용
+        assertThat(bucket.tryAcquire(1, now + SEC / 10)).isZero();
+        assertThat(bucket.tryAcquire(1, now + SEC / 10)).isEqualTo(SEC / 10);
+    }
+
+    @Test
+    void oversizedRequestIsAllowedOnlyWhenFullAndDelaysNextOne() {
+        // 초당 100 byte, 한번에 100 byte
+        TokenBucket bucket = new TokenBucket(100, 100);
+        long now = 1_000 * SEC;
+
+        assertThat(bucket.tryAcquire(300, now)).isZero();
+        // 300 byte 를 채우는 3초 중 버킷 크기(1초)를 뺀 2초 뒤부터 작은 요청 허용
+        assertThat(bucket.tryAcquire(1, now)).isEqualTo(2 * SEC + SEC / 100);
+        assertThat(bucket.tryAcquire(0, now + SEC)).isEqualTo(SEC);
+        assertThat(bucket.tryAcquire(300, now + 2 * SEC + SEC / 100)).isEqualTo(SEC - SEC / 100);
+        assertThat(bucket.isIdle(now + 3 * SEC)).isTrue();
+    }
+
+    @Test
+    void refundedTokensCanBeReused() {
+        TokenBucket bucket = new TokenBucket(1, 1);
+        long now = 1_000 * SEC;
+
+        assertThat(bucket.tryAcquire(1, now)).isZero();
+        assertThat(bucket.tryAcquire(1, now)).isPositive();
+        bucket.refund(1);
+        assertThat(bucket.tryAcquire(1, now)).isZero();
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.audio_upload_web.common.session;
+
+import com.example.audio_upload_web.common.io.BufferPool;
+import com.example.audio_upload_web.common.io.ChannelCopy;
+import com.example.audio_upload_web.constant.UploadSource;
+import com.example.audio_upload_web.exception.AlreadyFinalizedException;
+import com.example.audio_upload_web.exception.NoSessionException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ChunkAssemblerTests {
+
+    @TempDir
+    Path tmp;
+
+    private final ChunkAssembler assembler = new ChunkAssembler();
+    private UploadSession session;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        ReflectionTestUtils.setField(assembler, "maxAhead", 16);
+        session = new UploadSession("s", UploadSource.REAL_TIME, tmp, UploadStatus.UPLOADING);
+        Files.createDirectories(session.getChunkDir());
+    }
+
+    @AfterEach
+    void tearDown() {
+        session.closeStream();
+    }
+
+    @Test
+    void outOfOrderChunksAreCommittedInSeqOrder() throws IOException {
+        assertThat(assembler.accept(session, 3, text("c"))).isEqualTo(ChunkResult.BUFFERED);
+        assertThat(assembler.accept(session, 2, text("b"))).isEqualTo(ChunkResult.BUFFERED);
+        assertThat(session.getCommittedChunks()).isZero();
+
+        assertThat(assembler.accept(session, 1, text("a"))).isEqualTo(ChunkResult.COMMITTED);
+        assertThat(session.getCommittedChunks()).isEqualTo(3);
+        assertThat(session.getCommittedBytes()).isEqualTo(3);
+        assertThat(Files.readString(session.getStreamFile())).isEqualTo("abc");
+        assertThat(session.getChunkDir()).isEmptyDirectory();
+    }
+
+    @Test
+    void retransmittedChunkIsIgnored() throws IOException {
+        assembler.accept(session, 1, text("a"));
+        assembler.accept(session, 3, text("c"));
+
+        assertThat(assembler.accept(session, 1, text("x"))).isEqualTo(ChunkResult.DUPLICATE);
+        assertThat(assembler.accept(session, 3, text("x"))).isEqualTo(ChunkResult.DUPLICATE);
+        assembler.accept(session, 2, text("b"));
+
+        assertThat(Files.readString(session.getStreamFile())).isEqualTo("abc");
+    }
+
+    @Test
+    void failedWriteIsRolledBackAndCanBeRetried() throws IOException {
+        assembler.accept(session, 1, text("a"));
+        assertThatThrownBy(() -> assembler.accept(session, 2, out -> {
+            out.write(ByteBuffer.wrap("broken".getBytes(StandardCharsets.UTF_8)));
+            throw new IOException("disconnected");
+        })).isInstanceOf(IOException.class);
+
+        assertThat(assembler.accept(session, 2, text("b"))).isEqualTo(ChunkResult.COMMITTED);
+        assertThat(Files.readString(session.getStreamFile())).isEqualTo("ab");
+    }
+
+    @Test
+    void commitSignalCompletesWhenLastMissingChunkArrives() throws IOException {
+        assembler.accept(session, 1, text("a"));
+        CompletableFuture<Void> committed = session.whenCommitted(3);
+
+        assembler.accept(session, 3, text("c"));
+        assertThat(committed).isNotDone();
+
+        assembler.accept(session, 2, text("b"));
+        assertThat(committed).isDone();
+        assertThat(session.whenCommitted(3)).isDone();
+    }
+
+    @Test
+    void streamChannelIsReopenedOnlyAfterFinalizeIsAborted() throws IOException {
+        assembler.accept(session, 1, text("a"));
+        session.closeStream();
+        assertThatThrownBy(() -> assembler.accept(session, 2, text("b")))
+                .isInstanceOf(ClosedChannelException.class);
+
+        session.reopenStream();
+        assertThat(assembler.accept(session, 2, text("b"))).isEqualTo(ChunkResult.COMMITTED);
+        assertThat(Files.readString(session.getStreamFile())).isEqualTo("ab");
+    }
+
+    @Test
+    void chunkBeyondTotalIsRejectedWhileFinalizing() throws IOException {
+        assembler.accept(session, 1, text("a"));
+        assembler.accept(session, 4, text("d"));
+        synchronized (session) {
+            session.totalChunks = 3;
+        }
+
+        assertThatThrownBy(() -> assembler.accept(session, 5, text("e")))
+                .isInstanceOf(AlreadyFinalizedException.class);
+
+        // 병합 전에 보관된 범위 밖 청크도 이어붙이지 않음
+        assembler.accept(session, 3, text("c"));
+        assembler.accept(session, 2, text("b"));
+        assertThat(session.getCommittedChunks()).isEqualTo(3);
+        assertThat(Files.readString(session.getStreamFile())).isEqualTo("abc");
+    }
+
+    @Test
+    void expiredSessionRejectsChunks() throws IOException {
+        assembler.accept(session, 1, text("a"));
+
+        // 보관하는 동안 만료된 경우 청크 파일을 남기지 않음
+        assertThatThrownBy(() -> assembler.accept(session, 3, out -> {
+            session.close();
+            return text("c").writeTo(out);
+        })).isInstanceOf(NoSessionException.class);
+        assertThat(session.getChunkDir()).isEmptyDirectory();
+
+        assertThatThrownBy(() -> assembler.accept(session, 2, text("b")))
+                .isInstanceOf(NoSessionException.class);
+        assertThat(Files.readString(session.getStreamFile())).isEqualTo("a");
+    }
+
+    @Test
+    void gatheredCopyKeepsByteOrder() throws IOException {
+        BufferPool pool = new BufferPool(4, 8);
+        byte[] data = "0123456789abcdefghij".getBytes(StandardCharsets.UTF_8);
+
+        assembler.accept(session, 1, out -> ChannelCopy.copy(new ByteArrayInputStream(data), out, pool, 3));
+
+        assertThat(session.getCommittedBytes()).isEqualTo(data.length);
+        assertThat(Files.readAllBytes(session.getStreamFile())).isEqualTo(data);
+    }
+
+    @Test
+    void seqTooFarAheadIsRejected() {
+        assertThatThrownBy(() -> assembler.accept(session, 17, text("z")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static ChunkWriter text(String s) {
+        return out -> out.write(ByteBuffer.wrap(s.getBytes(StandardCharsets.UTF_8)));
+    }
+}
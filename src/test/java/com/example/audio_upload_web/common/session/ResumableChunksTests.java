@@ -0,0 +1,163 @@
+package com.example.audio_upload_web.common.session;
+
+import com.example.audio_upload_web.common.io.BufferPool;
+import com.example.audio_upload_web.constant.UploadSource;
+import com.example.audio_upload_web.exception.ChecksumMismatchException;
+import com.example.audio_upload_web.exception.ChunkTooLargeException;
+import com.example.audio_upload_web.exception.NoSessionException;
+import com.example.audio_upload_web.exception.OffsetMismatchException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.zip.CRC32C;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ResumableChunksTests {
+
+    @TempDir
+    Path tmp;
+
+    private final ChunkAssembler assembler = new ChunkAssembler();
+    private final ResumableChunks resumable = new ResumableChunks();
+    private UploadSession session;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        BufferPool pool = new BufferPool(4, 8);
+        ReflectionTestUtils.setField(assembler, "maxAhead", 16);
+        ReflectionTestUtils.setField(assembler, "bufferPool", pool);
+        ReflectionTestUtils.setField(resumable, "maxAhead", 16);
+        ReflectionTestUtils.setField(resumable, "maxBytes", 64L);
+        ReflectionTestUtils.setField(resumable, "chunkAssembler", assembler);
+        ReflectionTestUtils.setField(resumable, "bufferPool", pool);
+        session = new UploadSession("s", UploadSource.REAL_TIME, tmp, UploadStatus.UPLOADING);
+        Files.createDirectories(session.getChunkDir());
+    }
+
+    @AfterEach
+    void tearDown() {
+        session.closeStream();
+    }
+
+
+    @Test
+    void droppedChunkResumesFromReceivedOffset() throws IOException {
+        String chunk = "aaaaabbbbbccccc";
+        Integer crc = crc(chunk);
+
+        // 6 byte 받은 뒤 연결 끊김
+        assertThatThrownBy(() -> resumable.accept(session, 1, 0, 15, crc, dropAfter(chunk, 6), copy()))
+                .isInstanceOf(IOException.class);
+        assertThat(resumable.status(session).partial()).isEqualTo(Map.of(1, 6L));
+
+        // 받아둔 위치와 다른 offset 은 거절
+        assertThatThrownBy(() -> resumable.accept(session, 1, 0, 15, crc, body(chunk), copy()))
+                .isInstanceOf(OffsetMismatchException.class);
+
+        assertThat(resumable.accept(session, 1, 6, 15, crc, body(chunk.substring(6)), copy()))
+                .isEqualTo(ChunkResult.COMMITTED);
+        assertThat(Files.readString(session.getStreamFile())).isEqualTo(chunk);
+
+        ChunkStatus status = resumable.status(session);
+        assertThat(status.committedChunks()).isEqualTo(1);
+        assertThat(status.committedBytes()).isEqualTo(15);
+        assertThat(status.partial()).isEqualTo(Map.of());
+    }
+
+    @Test
+    void receivedChunkIsDuplicateWithoutReadingBody() throws IOException {
+        assertThat(resumable.accept(session, 2, 0, 3, null, body("bbb"), copy())).isEqualTo(ChunkResult.BUFFERED);
+        assertThat(resumable.status(session).received()).isEqualTo(List.of(2));
+
+        InputStream unread = body("bbb");
+        assertThat(resumable.accept(session, 2, 0, 3, null, unread, copy())).isEqualTo(ChunkResult.DUPLICATE);
+        assertThat(unread.available()).isEqualTo(3);
+    }
+
+    @Test
+    void checksumMismatchDiscardsReceivedPart() throws IOException {
+        assertThatThrownBy(() -> resumable.accept(session, 1, 0, 5, crc("aaaaa"), body("aaaab"), copy()))
+                .isInstanceOf(ChecksumMismatchException.class);
+
+        assertThat(resumable.status(session).partial()).isEqualTo(Map.of());
+        assertThat(resumable.accept(session, 1, 0, 5, crc("aaaaa"), body("aaaaa"), copy())).isEqualTo(ChunkResult.COMMITTED);
+    }
+
+    @Test
+    void expiredSessionIsRejectedBeforePartialFile() {
+        session.close();
+
+        assertThatThrownBy(() -> resumable.accept(session, 1, 0, 5, null, body("aaaaa"), copy()))
+                .isInstanceOf(NoSessionException.class);
+        assertThat(Files.exists(session.getPartialFile(1))).isFalse();
+    }
+
+    @Test
+    void oversizedChunkIsRejectedBeforePartialFile() throws IOException {
+        assertThatThrownBy(() -> resumable.accept(session, 1, 0, 65, null, body("a"), copy()))
+                .isInstanceOf(ChunkTooLargeException.class);
+
+        assertThat(Files.exists(session.getPartialFile(1))).isFalse();
+        assertThat(resumable.accept(session, 1, 0, 1, null, body("a"), copy())).isEqualTo(ChunkResult.COMMITTED);
+    }
+
+
+    private static Function<Path, ChunkWriter> copy() {
+        return file -> out -> {
+            try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+                return in.transferTo(0, in.size(), out);
+            }
+        };
+    }
+
+    private static InputStream body(String s) {
+        return new ByteArrayInputStream(s.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /*
+     * n byte 전송 후 연결이 끊기는 본문
+     * */
+    private static InputStream dropAfter(String s, int n) {
+        byte[] data = s.getBytes(StandardCharsets.UTF_8);
+        return new InputStream() {
+            private int pos;
+
+            @Override
+            public int read() throws IOException {
+                if (pos >= n) throw new IOException("connection reset");
+                return data[pos++];
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                if (pos >= n) throw new IOException("connection reset");
+                int count = Math.min(len, n - pos);
+                System.arraycopy(data, pos, b, off, count);
+                pos += count;
+                return count;
+            }
+        };
+    }
+
+    private static Integer crc(String s) {
+        CRC32C crc = new CRC32C();
+        crc.update(s.getBytes(StandardCharsets.UTF_8));
+        return (int) crc.getValue();
+    }
+}
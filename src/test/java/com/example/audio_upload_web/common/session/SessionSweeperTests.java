@@ -0,0 +1,116 @@
+package com.example.audio_upload_web.common.session;
+
+import com.example.audio_upload_web.constant.UploadSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SessionSweeperTests {
+
+    @TempDir
+    Path tmp;
+
+    private SessionSweeper sweeper;
+
+    @AfterEach
+    void tearDown() {
+        if (sweeper != null) sweeper.destroy();
+    }
+
+    @Test
+    void idleSessionIsExpiredAndDeleted() throws Exception {
+        // tick 10ms, 8칸 (한 바퀴 80ms), idle 50ms
+        sweeper = new SessionSweeper(10, 8, 50, 60_000, 1);
+        List<UploadSession> expired = new CopyOnWriteArrayList<>();
+        sweeper.setOnExpire(expired::add);
+
+        UploadSession session = session("idle");
+        sweeper.track(session);
+
+        await(() -> !Files.exists(session.getSessionDir()));
+        assertThat(expired).containsExactly(session);
+        assertThat(session.isClosed()).isTrue();
+    }
+
+    @Test
+    void activeSessionSurvivesMoreThanOneRevolution() throws Exception {
+        // idle 200ms 가 wheel 한 바퀴(80ms)보다 길어도 활동이 있으면 유지
+        sweeper = new SessionSweeper(10, 8, 200, 60_000, 1);
+        UploadSession session = session("active");
+        sweeper.track(session);
+
+        for (int i = 0; i < 10; i++) {
+            Thread.sleep(50);
+            session.touch();
+        }
+        assertThat(Files.exists(session.getSessionDir())).isTrue();
+
+        await(() -> !Files.exists(session.getSessionDir()));
+    }
+
+    @Test
+    void finalizedSessionUsesRetention() throws Exception {
+        sweeper = new SessionSweeper(10, 8, 60_000, 0, 1);
+        UploadSession session = session("finalized");
+        sweeper.track(session);
+
+        session.transition(UploadStatus.UPLOADING, UploadStatus.FINALIZING);
+        session.transition(UploadStatus.FINALIZING, UploadStatus.FINALIZED);
+        session.touch();
+        sweeper.track(session);
+
+        await(() -> !Files.exists(session.getSessionDir()));
+    }
+
+    @Test
+    void finalizingSessionIsNotExpired() throws Exception {
+        sweeper = new SessionSweeper(10, 8, 0, 0, 1);
+        UploadSession session = session("finalizing");
+        session.transition(UploadStatus.UPLOADING, UploadStatus.FINALIZING);
+        sweeper.track(session);
+
+        Thread.sleep(100);
+        assertThat(Files.exists(session.getSessionDir())).isTrue();
+    }
+
+    @Test
+    void orphanDirectoriesAreReclaimed() throws Exception {
+        sweeper = new SessionSweeper(1000, 8, 60_000, 60_000, 2);
+        Path live = Files.createDirectories(tmp.resolve("live"));
+        Path orphan = Files.createDirectories(tmp.resolve("orphan").resolve("chunks"));
+        Files.writeString(orphan.resolve("1.part"), "x");
+        Path journal = Files.writeString(tmp.resolve("sessions.journal"), "");
+
+        assertThat(sweeper.reclaimOrphans(tmp, Set.of("live"))).isEqualTo(1);
+
+        await(() -> !Files.exists(tmp.resolve("orphan")));
+        assertThat(Files.exists(live)).isTrue();
+        assertThat(Files.exists(journal)).isTrue();
+    }
+
+
+    private UploadSession session(String id) throws IOException {
+        UploadSession session = new UploadSession(id, UploadSource.REAL_TIME, tmp.resolve(id), UploadStatus.UPLOADING);
+        Files.createDirectories(session.getChunkDir());
+        Files.writeString(session.getStreamFile(), "data");
+        return session;
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).as("timeout").isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+}
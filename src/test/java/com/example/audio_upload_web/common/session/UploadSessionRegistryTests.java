@@ -0,0 +1,166 @@
+package com.example.audio_upload_web.common.session;
+
+import com.example.audio_upload_web.common.io.BufferPool;
+import com.example.audio_upload_web.common.storage.StorageVolumes;
+import com.example.audio_upload_web.constant.UploadSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UploadSessionRegistryTests {
+
+    @TempDir
+    Path tmp;
+
+    private final ChunkAssembler assembler = new ChunkAssembler();
+    private final List<SessionSweeper> sweepers = new ArrayList<>();
+    private UploadSessionRegistry registry;
+    private long journalMaxBytes;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        ReflectionTestUtils.setField(assembler, "maxAhead", 16);
+        ReflectionTestUtils.setField(assembler, "bufferPool", new BufferPool(4, 8));
+        registry = start();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        registry.destroy();
+        sweepers.forEach(SessionSweeper::destroy);
+    }
+
+
+    @Test
+    void sessionResumesAfterRestartWithTornTailCut() throws IOException {
+        UploadSession session = registry.create(UploadSource.REAL_TIME);
+        assembler.accept(session, 1, text("aaaaa"));
+        assembler.accept(session, 2, text("bbbbb"));
+        assembler.accept(session, 4, text("ddddd"));
+
+        // 3번 청크 기록 도중 종료 (stream 파일 뒷부분과 저널 마지막 레코드가 잘림)
+        append(session.getStreamFile(), "cc");
+        append(tmp.resolve("tmp").resolve("sessions.journal"), "K\u0001\u0002");
+        UploadSession restored = restart(session);
+
+        assertThat(restored.getStatus()).isEqualTo(UploadStatus.UPLOADING);
+        assertThat(restored.getCommittedChunks()).isEqualTo(2);
+        assertThat(restored.getCommittedBytes()).isEqualTo(10);
+        assertThat(Files.readString(restored.getStreamFile())).isEqualTo("aaaaabbbbb");
+
+        // 이미 받은 청크는 중복, 보관된 4번은 3번 수신 시 이어붙여짐
+        assertThat(assembler.accept(restored, 2, text("xxxxx"))).isEqualTo(ChunkResult.DUPLICATE);
+        assertThat(assembler.accept(restored, 4, text("xxxxx"))).isEqualTo(ChunkResult.DUPLICATE);
+        assertThat(assembler.accept(restored, 3, text("ccccc"))).isEqualTo(ChunkResult.COMMITTED);
+        assertThat(restored.getCommittedChunks()).isEqualTo(4);
+        assertThat(Files.readString(restored.getStreamFile())).isEqualTo("aaaaabbbbbcccccddddd");
+    }
+
+    @Test
+    void lostChunkIsRolledBackToLastIntactOne() throws IOException {
+        UploadSession session = registry.create(UploadSource.RTC);
+        assembler.accept(session, 1, text("aaaaa"));
+        assembler.accept(session, 2, text("bbbbb"));
+        assembler.accept(session, 3, text("ccccc"));
+
+        // fsync 전 데이터 유실 : 3번은 잘리고 2번은 내용이 바뀜
+        try (RandomAccessFile f = new RandomAccessFile(session.getStreamFile().toFile(), "rw")) {
+            f.setLength(12);
+            f.seek(7);
+            f.write(0);
+        }
+        UploadSession restored = restart(session);
+
+        assertThat(restored.getCommittedChunks()).isEqualTo(1);
+        assertThat(Files.readString(restored.getStreamFile())).isEqualTo("aaaaa");
+        assertThat(assembler.accept(restored, 2, text("bbbbb"))).isEqualTo(ChunkResult.COMMITTED);
+
+        // 복구 후 다시 작성된 저널로 한번 더 재시작
+        restored = restart(restored);
+        assertThat(restored.getCommittedChunks()).isEqualTo(2);
+        assertThat(restored.getCommittedBytes()).isEqualTo(10);
+    }
+
+    @Test
+    void finalizingSessionCanBeFinalizedAgainAfterRestart() throws IOException {
+        UploadSession session = registry.create(UploadSource.REAL_TIME);
+        assembler.accept(session, 1, text("aaaaa"));
+        registry.beginFinalize(session.getUploadId(), UploadSource.REAL_TIME, 1);
+
+        UploadSession restored = restart(session);
+
+        assertThat(restored.getStatus()).isEqualTo(UploadStatus.UPLOADING);
+        assertThat(restored.getCommittedChunks()).isEqualTo(1);
+        assertThat(restored.whenCommitted(1)).isDone();
+    }
+
+    @Test
+    void journalIsRewrittenWhileRunning() throws IOException {
+        registry.destroy();
+        journalMaxBytes = 2048;
+        registry = start();
+        Path journal = tmp.resolve("tmp").resolve("sessions.journal");
+
+        UploadSession session = registry.create(UploadSource.REAL_TIME);
+        for (int seq = 1; seq <= 20; seq++) assembler.accept(session, seq, text("aaaaa"));
+        session.syncStream();
+        for (int i = 0; i < 200; i++) registry.remove(registry.create(UploadSource.AUDIO));
+
+        // 제거된 세션과 fsync 이전 청크 기록은 정리됨
+        assertThat(Files.size(journal)).isLessThanOrEqualTo(2048);
+
+        UploadSession restored = restart(session);
+        assertThat(restored.getCommittedChunks()).isEqualTo(20);
+        assertThat(restored.getCommittedBytes()).isEqualTo(100);
+        assertThat(assembler.accept(restored, 21, text("bbbbb"))).isEqualTo(ChunkResult.COMMITTED);
+    }
+
+
+    private UploadSessionRegistry start() throws IOException {
+        StorageVolumes volumes = new StorageVolumes(tmp.resolve("up").toString(), tmp.resolve("tmp").toString(), "most-free", 256);
+        SessionSweeper sweeper = new SessionSweeper(1000, 64, 60_000, 60_000, 1);
+        sweepers.add(sweeper);
+
+        UploadSessionRegistry r = new UploadSessionRegistry();
+        ReflectionTestUtils.setField(r, "journalEnabled", true);
+        ReflectionTestUtils.setField(r, "journalMaxBytes", journalMaxBytes);
+        ReflectionTestUtils.setField(r, "storageVolumes", volumes);
+        ReflectionTestUtils.setField(r, "sweeper", sweeper);
+        ReflectionTestUtils.setField(r, "meterRegistry", new SimpleMeterRegistry());
+        r.init();
+        return r;
+    }
+
+    /*
+     * 정리 없이 종료 후 재시작 (열린 채널만 닫음)
+     * */
+    private UploadSession restart(UploadSession session) throws IOException {
+        session.closeStream();
+        registry.destroy();
+        registry = start();
+        return registry.find(session.getUploadId(), session.getSource());
+    }
+
+    private static void append(Path file, String s) throws IOException {
+        Files.writeString(file, s, StandardOpenOption.APPEND);
+    }
+
+    private static ChunkWriter text(String s) {
+        return out -> out.write(ByteBuffer.wrap(s.getBytes(StandardCharsets.UTF_8)));
+    }
+}
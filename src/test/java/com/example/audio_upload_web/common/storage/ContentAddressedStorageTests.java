@@ -0,0 +1,96 @@
+package com.example.audio_upload_web.common.storage;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ContentAddressedStorageTests {
+
+    @TempDir
+    Path tmp;
+
+    @Test
+    void sameContentIsStoredOnceAndDeletedWithLastReference() throws IOException {
+        StorageVolumes volumes = volumes();
+        ContentAddressedStorage storage = new ContentAddressedStorage(volumes, new SimpleMeterRegistry());
+
+        String first = stream(storage, "a.webm", "hello");
+        String second = path(storage, "b.webm", "hello");
+        assertThat(second).isEqualTo(first);
+        assertThat(first).matches("[01]/cas/[0-9a-f]{2}/[0-9a-f]{64}\\.webm");
+        assertThat(path(storage, "c.webm", "other")).isNotEqualTo(first);
+
+        assertThat(storage.delete(first)).isEqualTo(false);
+        assertThat(Files.readString(volumes.resolve(first))).isEqualTo("hello");
+        assertThat(storage.delete(second)).isEqualTo(true);
+        assertThat(Files.exists(volumes.resolve(first))).isEqualTo(false);
+    }
+
+    @Test
+    void indexSurvivesRestartAndRebuildsWithoutLog() throws IOException {
+        StorageVolumes volumes = volumes();
+        ContentAddressedStorage storage = new ContentAddressedStorage(volumes, new SimpleMeterRegistry());
+        String key = stream(storage, "a.webm", "hello");
+        storage.destroy();
+
+        // 로그로 참조 수 복구
+        storage = new ContentAddressedStorage(volumes, new SimpleMeterRegistry());
+        assertThat(stream(storage, "b.webm", "hello")).isEqualTo(key);
+        assertThat(storage.delete(key)).isEqualTo(false);
+        storage.destroy();
+
+        // 로그가 없으면 blob 을 다시 찾되 참조 수를 모르므로 삭제하지 않음
+        Files.delete(tmp.resolve("u0/cas/index.log"));
+        storage = new ContentAddressedStorage(volumes, new SimpleMeterRegistry());
+        assertThat(stream(storage, "c.webm", "hello")).isEqualTo(key);
+        assertThat(storage.delete(key)).isEqualTo(false);
+        assertThat(storage.delete(key)).isEqualTo(false);
+        assertThat(Files.exists(volumes.resolve(key))).isEqualTo(true);
+    }
+
+    @Test
+    void abandonedUploadLeavesNoFile() throws IOException {
+        StorageVolumes volumes = volumes();
+        ContentAddressedStorage storage = new ContentAddressedStorage(volumes, new SimpleMeterRegistry());
+
+        StorageUpload upload = storage.begin("a.webm");
+        try (upload; OutputStream out = upload.openStream()) {
+            out.write(1);
+        }
+        assertThat(Files.exists(upload.getPath())).isEqualTo(false);
+        assertThatThrownBy(upload::getKey).isInstanceOf(IllegalStateException.class);
+    }
+
+
+    private static String stream(ContentAddressedStorage storage, String fileName, String content) throws IOException {
+        try (StorageUpload upload = storage.begin(fileName)) {
+            try (OutputStream out = upload.openStream()) {
+                out.write(content.getBytes(StandardCharsets.UTF_8));
+            }
+            upload.complete();
+            return upload.getKey();
+        }
+    }
+
+    private static String path(ContentAddressedStorage storage, String fileName, String content) throws IOException {
+        try (StorageUpload upload = storage.begin(fileName)) {
+            Files.writeString(upload.getPath(), content);
+            upload.complete();
+            return upload.getKey();
+        }
+    }
+
+    private StorageVolumes volumes() throws IOException {
+        return new StorageVolumes(tmp.resolve("u0") + "," + tmp.resolve("u1"),
+                tmp.resolve("t0") + "," + tmp.resolve("t1"), "least-loaded", 256);
+    }
+}
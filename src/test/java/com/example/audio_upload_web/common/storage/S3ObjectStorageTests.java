@@ -0,0 +1,312 @@
+package com.example.audio_upload_web.common.storage;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class S3ObjectStorageTests {
+
+    private static final int PART = S3ObjectStorage.MIN_PART_SIZE;
+
+    @TempDir
+    Path tmp;
+
+    private FakeS3 s3;
+    private S3ObjectStorage storage;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        s3 = new FakeS3();
+        StorageVolumes volumes = new StorageVolumes(tmp.resolve("up").toString(), tmp.resolve("tmp").toString(), "most-free", 256);
+        storage = new S3ObjectStorage(volumes, s3.endpoint(), "us-east-1", "bucket", "audio", "test", "test",
+                true, PART, 4, 2, 20, 256);
+    }
+
+    @AfterEach
+    void tearDown() {
+        storage.destroy();
+        s3.stop();
+    }
+
+
+    @Test
+    void streamIsUploadedInParts() throws IOException {
+        byte[] data = random(PART * 2 + 123);
+
+        String key;
+        try (StorageUpload upload = storage.begin("a.webm")) {
+            try (OutputStream os = upload.openStream()) {
+                os.write(data);
+            }
+            assertThat(upload.complete()).isEqualTo(data.length);
+            key = upload.getKey();
+        }
+
+        assertThat(s3.objects.get("audio/" + key)).isEqualTo(data);
+        assertThat(s3.partUploads.get()).isEqualTo(3);
+        try (InputStream in = storage.open(key)) {
+            assertThat(in.readAllBytes()).isEqualTo(data);
+        }
+    }
+
+    @Test
+    void growingFileIsUploadedWhileWritingWithRewrittenHeader() throws Exception {
+        byte[] data = random(PART * 3 + 77);
+
+        String key;
+        try (StorageUpload upload = storage.begin("b.webm")) {
+            Path out = upload.getPath();
+            try (OutputStream os = Files.newOutputStream(out)) {
+                os.write(data, 0, PART * 3);
+                os.flush();
+                // 한 part 만큼 늦게 전송하므로 두번째 part 까지 전송될 때까지 대기
+                waitFor(() -> s3.partUploads.get() >= 1);
+                os.write(data, PART * 3, 77);
+            }
+            // 헤더 다시 기록 (첫 part 는 complete 시 전송되어야 함)
+            data[0] = 42;
+            try (var ch = Files.newByteChannel(out, StandardOpenOption.WRITE)) {
+                ch.write(ByteBuffer.wrap(new byte[]{42}));
+            }
+
+            assertThat(upload.complete()).isEqualTo(data.length);
+            assertThat(out).doesNotExist();
+            key = upload.getKey();
+        }
+
+        assertThat(s3.objects.get("audio/" + key)).isEqualTo(data);
+    }
+
+    @Test
+    void replacedFileRestartsUpload() throws Exception {
+        byte[] first = random(PART * 3);
+        byte[] second = random(PART + 5);
+
+        String key;
+        try (StorageUpload upload = storage.begin("c.webm")) {
+            Path out = upload.getPath();
+            Files.write(out, first);
+            waitFor(() -> s3.partUploads.get() >= 1);
+
+            // remux 실패 후 ffmpeg 이 같은 경로에 다시 기록
+            Files.delete(out);
+            Files.write(out, second);
+
+            assertThat(upload.complete()).isEqualTo(second.length);
+            key = upload.getKey();
+        }
+
+        assertThat(s3.objects.get("audio/" + key)).isEqualTo(second);
+        assertThat(s3.aborted.get()).isEqualTo(1);
+    }
+
+    @Test
+    void closeWithoutCompleteAbortsUpload() throws IOException {
+        try (StorageUpload upload = storage.begin("d.webm")) {
+            try (OutputStream os = upload.openStream()) {
+                os.write(random(PART + 1));
+            }
+        }
+
+        assertThat(s3.objects).isEmpty();
+        assertThat(s3.uploads).isEmpty();
+        assertThat(s3.aborted.get()).isEqualTo(1);
+    }
+
+    @Test
+    void emptyFileIsStoredWithSingleRequest() throws IOException {
+        String key;
+        try (StorageUpload upload = storage.begin("e.webm")) {
+            upload.openStream().close();
+            assertThat(upload.complete()).isZero();
+            key = upload.getKey();
+        }
+
+        assertThat(s3.objects.get("audio/" + key)).isEmpty();
+    }
+
+
+    private static byte[] random(int size) {
+        byte[] data = new byte[size];
+        new Random(size).nextBytes(data);
+        return data;
+    }
+
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) throw new AssertionError("timeout");
+            Thread.sleep(10);
+        }
+    }
+
+
+    /*
+     * multipart / put / get 만 지원하는 path-style S3 서버
+     * */
+    private static class FakeS3 {
+
+        private static final Pattern PART_NUMBER = Pattern.compile("<PartNumber>(\\d+)</PartNumber>");
+
+        final Map<String, byte[]> objects = new ConcurrentHashMap<>();
+        final Map<String, Map<Integer, byte[]>> uploads = new ConcurrentHashMap<>();
+        final AtomicInteger partUploads = new AtomicInteger();
+        final AtomicInteger aborted = new AtomicInteger();
+        private final AtomicInteger ids = new AtomicInteger();
+        private final HttpServer server;
+
+        FakeS3() throws IOException {
+            server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+            server.createContext("/", this::handle);
+            server.start();
+        }
+
+        String endpoint() {
+            return "http://127.0.0.1:" + server.getAddress().getPort();
+        }
+
+        void stop() {
+            server.stop(0);
+        }
+
+        private void handle(HttpExchange ex) throws IOException {
+            URI uri = ex.getRequestURI();
+            String key = uri.getPath().substring("/bucket/".length());
+            Map<String, String> query = query(uri.getRawQuery());
+            byte[] body = body(ex);
+
+            switch (ex.getRequestMethod()) {
+                case "POST" -> {
+                    if (query.containsKey("uploads")) {
+                        String id = "u" + ids.incrementAndGet();
+                        uploads.put(id, new ConcurrentHashMap<>());
+                        xml(ex, "<InitiateMultipartUploadResult><Bucket>bucket</Bucket><Key>" + key
+                                + "</Key><UploadId>" + id + "</UploadId></InitiateMultipartUploadResult>");
+                    } else {
+                        Map<Integer, byte[]> parts = uploads.remove(query.get("uploadId"));
+                        ByteArrayOutputStream out = new ByteArrayOutputStream();
+                        Matcher m = PART_NUMBER.matcher(new String(body, StandardCharsets.UTF_8));
+                        while (m.find()) out.write(parts.get(Integer.parseInt(m.group(1))));
+                        objects.put(key, out.toByteArray());
+                        xml(ex, "<CompleteMultipartUploadResult><Bucket>bucket</Bucket><Key>" + key
+                                + "</Key><ETag>\"x\"</ETag></CompleteMultipartUploadResult>");
+                    }
+                }
+                case "PUT" -> {
+                    if (query.containsKey("partNumber")) {
+                        uploads.get(query.get("uploadId")).put(Integer.parseInt(query.get("partNumber")), body);
+                        partUploads.incrementAndGet();
+                    } else {
+                        objects.put(key, body);
+                    }
+                    ex.getResponseHeaders().add("ETag", "\"" + md5(body) + "\"");
+                    ex.sendResponseHeaders(200, -1);
+                }
+                case "DELETE" -> {
+                    uploads.remove(query.get("uploadId"));
+                    aborted.incrementAndGet();
+                    ex.sendResponseHeaders(204, -1);
+                }
+                case "GET" -> {
+                    byte[] data = objects.get(key);
+                    if (data == null) {
+                        byte[] err = "<Error><Code>NoSuchKey</Code></Error>".getBytes(StandardCharsets.UTF_8);
+                        ex.getResponseHeaders().add("Content-Type", "application/xml");
+                        ex.sendResponseHeaders(404, err.length);
+                        ex.getResponseBody().write(err);
+                    } else {
+                        ex.sendResponseHeaders(200, data.length == 0 ? -1 : data.length);
+                        ex.getResponseBody().write(data);
+                    }
+                }
+                default -> ex.sendResponseHeaders(405, -1);
+            }
+            ex.close();
+        }
+
+        private static void xml(HttpExchange ex, String xml) throws IOException {
+            byte[] b = xml.getBytes(StandardCharsets.UTF_8);
+            ex.getResponseHeaders().add("Content-Type", "application/xml");
+            ex.sendResponseHeaders(200, b.length);
+            ex.getResponseBody().write(b);
+        }
+
+        /*
+         * aws-chunked 로 전송된 본문은 chunk 데이터만 추출
+         * */
+        private static byte[] body(HttpExchange ex) throws IOException {
+            byte[] raw = ex.getRequestBody().readAllBytes();
+            String sha = ex.getRequestHeaders().getFirst("x-amz-content-sha256");
+            String encoding = ex.getRequestHeaders().getFirst("Content-Encoding");
+            boolean chunked = (sha != null && sha.startsWith("STREAMING-"))
+                    || (encoding != null && encoding.contains("aws-chunked"));
+            if (!chunked) return raw;
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            int pos = 0;
+            while (pos < raw.length) {
+                int eol = indexOfCrlf(raw, pos);
+                String header = new String(raw, pos, eol - pos, StandardCharsets.US_ASCII);
+                int size = Integer.parseInt(header.split(";")[0].trim(), 16);
+                pos = eol + 2;
+                if (size == 0) break;
+                out.write(raw, pos, size);
+                pos += size + 2;
+            }
+            return out.toByteArray();
+        }
+
+        private static int indexOfCrlf(byte[] b, int from) {
+            for (int i = from; i + 1 < b.length; i++) {
+                if (b[i] == '\r' && b[i + 1] == '\n') return i;
+            }
+            return b.length;
+        }
+
+        private static Map<String, String> query(String raw) {
+            Map<String, String> query = new HashMap<>();
+            if (raw == null) return query;
+            for (String pair : raw.split("&")) {
+                int eq = pair.indexOf('=');
+                if (eq < 0) query.put(pair, "");
+                else query.put(pair.substring(0, eq), pair.substring(eq + 1));
+            }
+            return query;
+        }
+
+        private static String md5(byte[] data) {
+            try {
+                return HexFormat.of().formatHex(MessageDigest.getInstance("MD5").digest(data));
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.audio_upload_web.common.storage;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StorageVolumesTests {
+
+    @TempDir
+    Path tmp;
+
+    @Test
+    void allocatedKeyResolvesToSamePath() throws IOException {
+        StorageVolumes storage = volumes("least-loaded");
+
+        try (StoredFile stored = storage.allocate("a.webm")) {
+            assertThat(stored.getKey()).matches("[01]/" + LocalDate.now() + "/[0-9a-f]{2}/a\\.webm");
+            assertThat(stored.getPath().getParent()).isDirectory();
+            assertThat(storage.resolve(stored.getKey())).isEqualTo(stored.getPath());
+        }
+    }
+
+    @Test
+    void leastLoadedStripesAcrossVolumes() throws IOException {
+        StorageVolumes storage = volumes("least-loaded");
+
+        try (StoredFile first = storage.allocate("a.webm");
+             StoredFile second = storage.allocate("b.webm")) {
+            assertThat(first.getKey().charAt(0)).isNotEqualTo(second.getKey().charAt(0));
+        }
+
+        Path one = storage.allocateSessionDir("s1");
+        Path two = storage.allocateSessionDir("s2");
+        assertThat(one.getParent()).isNotEqualTo(two.getParent());
+    }
+
+    @Test
+    void legacyKeyResolvesAgainstFirstVolume() throws IOException {
+        StorageVolumes storage = volumes("most-free");
+
+        assertThat(storage.resolve("2024-01-01/a.webm")).isEqualTo(tmp.resolve("u0/2024-01-01/a.webm"));
+        assertThat(storage.resolve("a.webm")).isEqualTo(tmp.resolve("u0/a.webm"));
+    }
+
+    @Test
+    void keyOutsideVolumeIsRejected() throws IOException {
+        StorageVolumes storage = volumes("most-free");
+
+        assertThatThrownBy(() -> storage.resolve("1/../../etc/passwd")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> storage.resolve("7/2024-01-01/a.webm")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private StorageVolumes volumes(String placement) throws IOException {
+        return new StorageVolumes(tmp.resolve("u0") + "," + tmp.resolve("u1"),
+                tmp.resolve("t0") + "," + tmp.resolve("t1"), placement, 256);
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.audio_upload_web.common.web;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FileDownloadControllerTests {
+
+    private static final String HASH = "ab" + "0123456789abcdef".repeat(3) + "0123456789abcd";
+
+    @Test
+    void onlyIssuedKeysAreServed() {
+        assertThat(FileDownloadController.isIssuedKey("0/2026-10-17/ab/0f8fad5b-d9cb-469f-a165-70867728950e.webm")).isTrue();
+        assertThat(FileDownloadController.isIssuedKey("1/2026-10-17/0f8fad5b-d9cb-469f-a165-70867728950e.ogg")).isTrue();
+        assertThat(FileDownloadController.isIssuedKey("2026-10-17/ab/0f8fad5b-d9cb-469f-a165-70867728950e.webm")).isTrue();
+        assertThat(FileDownloadController.isIssuedKey("0/cas/ab/" + HASH + ".webm")).isTrue();
+
+        assertThat(FileDownloadController.isIssuedKey("0/cas/index.log")).isFalse();
+        assertThat(FileDownloadController.isIssuedKey("0/cas/tmp/0f8fad5b-d9cb-469f-a165-70867728950e-a.webm")).isFalse();
+        assertThat(FileDownloadController.isIssuedKey("0/cas/cd/" + HASH + ".webm")).isFalse();
+        assertThat(FileDownloadController.isIssuedKey("0/2026-10-17/ab")).isFalse();
+        assertThat(FileDownloadController.isIssuedKey("0/2026-10-17/../../etc.webm")).isFalse();
+    }
+}
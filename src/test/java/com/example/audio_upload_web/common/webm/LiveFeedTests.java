@@ -0,0 +1,106 @@
+package com.example.audio_upload_web.common.webm;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LiveFeedTests {
+
+    @TempDir
+    Path dir;
+
+
+    @Test
+    void lateListenerGetsHeaderThenLatestCluster() throws IOException {
+        byte[] src = WebmRemuxTests.recording(new long[]{0, 60, 120}, new short[][]{{0, 20, 40}, {0, 20, 40}, {0, 20}});
+        List<Integer> clusters = clusters(src);
+        Path stream = dir.resolve("stream.webm");
+
+        // 두번째 Cluster 중간까지 녹음된 뒤 청취 시작
+        int joinedAt = clusters.get(1) + 7;
+        Files.write(stream, Arrays.copyOf(src, joinedAt));
+        LiveFeed feed = new LiveFeed(4096);
+        try (FileChannel r = FileChannel.open(stream, StandardOpenOption.READ)) {
+            feed.append(r, joinedAt);
+        }
+
+        assertArrayEquals(Arrays.copyOf(src, clusters.get(0)), feed.header());
+        assertEquals((long) clusters.get(1), feed.joinPosition());
+
+        // 요소 경계와 무관한 크기로 나누어 이어붙임
+        Random random = new Random(1);
+        try (FileChannel w = FileChannel.open(stream, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+             FileChannel r = FileChannel.open(stream, StandardOpenOption.READ)) {
+            int off = joinedAt;
+            while (off < src.length) {
+                int n = Math.min(src.length - off, 1 + random.nextInt(7));
+                w.write(ByteBuffer.wrap(src, off, n));
+                off += n;
+                feed.append(r, off);
+            }
+        }
+
+        assertNull(feed.getError());
+        assertEquals((long) clusters.get(2), feed.joinPosition());
+        long pos = clusters.get(1);
+        byte[] received = feed.read(pos, src.length);
+        assertArrayEquals(Arrays.copyOfRange(src, clusters.get(1), src.length), received);
+        assertEquals(0, feed.read(src.length, 16).length);
+    }
+
+    @Test
+    void slowListenerFallsOutOfRing() throws IOException {
+        byte[] src = WebmRemuxTests.recording(new long[]{0, 60}, new short[][]{{0, 20, 40}, {0, 20, 40}});
+        Path stream = dir.resolve("stream.webm");
+        Files.write(stream, src);
+
+        LiveFeed feed = new LiveFeed(32);
+        try (FileChannel r = FileChannel.open(stream, StandardOpenOption.READ)) {
+            feed.append(r, src.length);
+        }
+
+        // 링 버퍼에서 밀려난 위치는 읽을 수 없음
+        assertNull(feed.read(0, 16));
+        assertNull(feed.read(src.length - 33, 16));
+        assertArrayEquals(Arrays.copyOfRange(src, src.length - 32, src.length - 16), feed.read(src.length - 32, 16));
+    }
+
+    @Test
+    void rejectsNonWebm() throws IOException {
+        Path stream = dir.resolve("stream.webm");
+        Files.writeString(stream, "RIFF....WAVEfmt ");
+
+        LiveFeed feed = new LiveFeed(4096);
+        try (FileChannel r = FileChannel.open(stream, StandardOpenOption.READ)) {
+            feed.append(r, Files.size(stream));
+        }
+        assertNotNull(feed.getError());
+        assertNull(feed.header());
+        assertEquals(-1, feed.joinPosition());
+    }
+
+
+    /*
+     * Cluster ID 위치 (테스트 데이터는 Block 본문에 ID 가 나오지 않음)
+     * */
+    private static List<Integer> clusters(byte[] src) {
+        byte[] id = ByteBuffer.allocate(4).putInt(Ebml.CLUSTER).array();
+        List<Integer> found = new ArrayList<>();
+        for (int i = 0; i + 4 <= src.length; i++) {
+            if (Arrays.equals(src, i, i + 4, id, 0, 4)) found.add(i);
+        }
+        return found;
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.audio_upload_web.common.webm;
+
+import com.example.audio_upload_web.common.metrics.UploadMetrics;
+import com.example.audio_upload_web.common.session.SessionSweeper;
+import com.example.audio_upload_web.common.session.UploadSession;
+import com.example.audio_upload_web.common.session.UploadSessionRegistry;
+import com.example.audio_upload_web.common.storage.StorageVolumes;
+import com.example.audio_upload_web.constant.UploadSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WebmBroadcasterTests {
+
+    @TempDir
+    Path tmp;
+
+    private final Queue<ResponseBodyEmitter> emitters = new ArrayDeque<>();
+    private SessionSweeper sweeper;
+    private UploadSessionRegistry registry;
+    private WebmBroadcaster broadcaster;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        sweeper = new SessionSweeper(1000, 64, 60_000, 60_000, 1);
+        registry = new UploadSessionRegistry();
+        ReflectionTestUtils.setField(registry, "storageVolumes",
+                new StorageVolumes(tmp.resolve("up").toString(), tmp.resolve("tmp").toString(), "most-free", 256));
+        ReflectionTestUtils.setField(registry, "sweeper", sweeper);
+        ReflectionTestUtils.setField(registry, "meterRegistry", new SimpleMeterRegistry());
+        registry.init();
+
+        broadcaster = new WebmBroadcaster() {
+            @Override
+            ResponseBodyEmitter createEmitter(long timeoutMs) {
+                return emitters.remove();
+            }
+        };
+        ReflectionTestUtils.setField(broadcaster, "bufferBytes", 4096);
+        ReflectionTestUtils.setField(broadcaster, "sendBytes", 16);
+        ReflectionTestUtils.setField(broadcaster, "pumpThreads", 1);
+        ReflectionTestUtils.setField(broadcaster, "timeoutMs", 60_000L);
+        ReflectionTestUtils.setField(broadcaster, "sendTimeoutMs", 100L);
+        ReflectionTestUtils.setField(broadcaster, "uploadMetrics", new UploadMetrics(new SimpleMeterRegistry(), Long.MAX_VALUE));
+        broadcaster.init();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        broadcaster.destroy();
+        registry.destroy();
+        sweeper.destroy();
+    }
+
+
+    @Test
+    void stalledListenerDoesNotHoldUpOthers() throws Exception {
+        byte[] src = WebmRemuxTests.recording(new long[]{0}, new short[][]{{0, 20, 40}});
+        UploadSession session = registry.create(UploadSource.REAL_TIME);
+        Files.write(session.getStreamFile(), src);
+
+        // 전송 스레드가 하나뿐일 때 먼저 전송을 시작한 청취자가 응답을 읽지 않음
+        CountDownLatch release = new CountDownLatch(1);
+        Recorder stalled = new Recorder(release);
+        Recorder healthy = new Recorder(null);
+        emitters.add(stalled);
+        emitters.add(healthy);
+        broadcaster.subscribe(session);
+        broadcaster.subscribe(session);
+        try (FileChannel stream = FileChannel.open(session.getStreamFile(), StandardOpenOption.READ)) {
+            broadcaster.onCommit(session, stream, 1, 0, src.length);
+        }
+
+        // 전송 기한이 지나면 다른 청취자는 계속 받음
+        await(() -> healthy.received().length == src.length);
+        assertArrayEquals(src, healthy.received());
+        assertNull(healthy.error);
+
+        // 멈춘 전송이 끝나면 기한 초과로 종료
+        release.countDown();
+        await(() -> stalled.error != null);
+        assertInstanceOf(SocketTimeoutException.class, stalled.error);
+    }
+
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) fail("시간 초과");
+            Thread.sleep(10);
+        }
+    }
+
+    /*
+     * 보낸 내용을 기록하는 응답 (release 가 있으면 열릴 때까지 전송이 멈춤)
+     * */
+    private static final class Recorder extends ResponseBodyEmitter {
+        private final CountDownLatch release;
+        private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        volatile Throwable error;
+
+        Recorder(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void send(Object object, MediaType mediaType) throws IOException {
+            if (release != null) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+            }
+            synchronized (out) {
+                out.write((byte[]) object);
+            }
+        }
+
+        @Override
+        public void completeWithError(Throwable ex) {
+            error = ex;
+        }
+
+        byte[] received() {
+            synchronized (out) {
+                return out.toByteArray();
+            }
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.example.audio_upload_web.common.webm;
+
+import com.example.audio_upload_web.common.transcode.ProbeResult;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WebmRemuxTests {
+
+    @TempDir
+    Path dir;
+
+
+    @Test
+    void indexesChunksAndWritesSeekableFile() throws IOException {
+        // MediaRecorder 처럼 Segment/Cluster 크기를 모르는 스트림 (시작 타임코드 5000)
+        byte[] src = recording(new long[]{5000, 5060}, new short[][]{{0, 20, 40}, {0, 20}});
+        Path stream = dir.resolve("stream.webm");
+
+        // 요소 경계와 무관한 크기로 나누어 이어붙이며 인덱싱
+        WebmIndexer indexer = new WebmIndexer();
+        Random random = new Random(1);
+        try (FileChannel w = FileChannel.open(stream, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+             FileChannel r = FileChannel.open(stream, StandardOpenOption.READ)) {
+            int off = 0;
+            while (off < src.length) {
+                int n = Math.min(src.length - off, 1 + random.nextInt(7));
+                w.write(ByteBuffer.wrap(src, off, n));
+                off += n;
+                indexer.advance(r, off);
+            }
+        }
+        indexer.finish(src.length);
+
+        assertNull(indexer.getError());
+        assertEquals(2, indexer.getClusters().size());
+        assertEquals(new ProbeResult("opus", 1, 48000, 0), indexer.audioTrack());
+
+        // 최종 파일: 타임코드 0 부터, Duration = 마지막 블록 + 프레임 길이
+        WebmIndexer result = rewrite(indexer, stream);
+        assertNull(result.getError());
+        assertEquals(0, result.getClusters().get(0).timecode);
+        assertEquals(60, result.getClusters().get(1).timecode);
+        assertEquals(100.0, duration(result.getInfo()));
+        assertTrue(contains(Files.readAllBytes(dir.resolve("out.webm")), Ebml.CUES));
+    }
+
+    @Test
+    void shiftsClusterWhenTimecodeGoesBackward() throws IOException {
+        byte[] src = recording(new long[]{1000, 0}, new short[][]{{0, 20}, {0, 20}});
+        Path stream = dir.resolve("stream.webm");
+        Files.write(stream, src);
+
+        WebmIndexer indexer = new WebmIndexer();
+        try (FileChannel r = FileChannel.open(stream, StandardOpenOption.READ)) {
+            indexer.advance(r, src.length);
+        }
+        indexer.finish(src.length);
+
+        WebmIndexer result = rewrite(indexer, stream);
+        assertEquals(0, result.getClusters().get(0).timecode);
+        assertEquals(40, result.getClusters().get(1).timecode);
+    }
+
+    @Test
+    void dropsTruncatedBlockAtEnd() throws IOException {
+        byte[] src = recording(new long[]{0}, new short[][]{{0, 20, 40}});
+        Path stream = dir.resolve("stream.webm");
+        Files.write(stream, Arrays.copyOf(src, src.length - 2));
+
+        WebmIndexer indexer = new WebmIndexer();
+        try (FileChannel r = FileChannel.open(stream, StandardOpenOption.READ)) {
+            indexer.advance(r, src.length - 2);
+        }
+        indexer.finish(src.length - 2);
+
+        assertNull(indexer.getError());
+        WebmIndexer.Cluster c = indexer.getClusters().get(0);
+        assertTrue(c.end <= src.length - 2);
+        assertNull(rewrite(indexer, stream).getError());
+    }
+
+    @Test
+    void rejectsNonWebm() throws IOException {
+        Path stream = dir.resolve("stream.webm");
+        Files.writeString(stream, "RIFF....WAVEfmt ");
+
+        WebmIndexer indexer = new WebmIndexer();
+        try (FileChannel r = FileChannel.open(stream, StandardOpenOption.READ)) {
+            indexer.advance(r, Files.size(stream));
+        }
+        indexer.finish(Files.size(stream));
+        assertNotNull(indexer.getError());
+    }
+
+
+    /*
+     * 작성한 최종 파일을 다시 인덱싱
+     * */
+    private WebmIndexer rewrite(WebmIndexer indexer, Path stream) throws IOException {
+        Path out = dir.resolve("out.webm");
+        try (FileChannel in = FileChannel.open(stream, StandardOpenOption.READ)) {
+            new WebmWriter(indexer).write(in, out);
+        }
+        WebmIndexer result = new WebmIndexer();
+        try (FileChannel r = FileChannel.open(out, StandardOpenOption.READ)) {
+            result.advance(r, r.size());
+            result.finish(r.size());
+        }
+        return result;
+    }
+
+    private static Double duration(byte[] info) {
+        ByteBuffer buf = ByteBuffer.wrap(info);
+        while (buf.hasRemaining()) {
+            Ebml.Header h = Ebml.readHeader(buf);
+            if (h.id() == Ebml.DURATION) return Ebml.readFloat(buf, (int) h.size());
+            buf.position(buf.position() + (int) h.size());
+        }
+        return null;
+    }
+
+    private static boolean contains(byte[] data, int id) {
+        byte[] b = ByteBuffer.allocate(4).putInt(id).array();
+        outer:
+        for (int i = 0; i + 4 <= data.length; i++) {
+            for (int j = 0; j < 4; j++) if (data[i + j] != b[j]) continue outer;
+            return true;
+        }
+        return false;
+    }
+
+
+    /*
+     * MediaRecorder 출력 형태의 WebM (opus 48kHz mono)
+     * */
+    static byte[] recording(long[] timecodes, short[][] blocks) {
+        ByteBuffer buf = ByteBuffer.allocate(4096);
+
+        ByteBuffer ebml = ByteBuffer.allocate(64);
+        putString(ebml, 0x4282, "webm");
+        element(buf, Ebml.EBML, ebml);
+
+        // Segment (크기 모름)
+        Ebml.putId(buf, Ebml.SEGMENT);
+        buf.put(new byte[]{0x01, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF});
+
+        ByteBuffer info = ByteBuffer.allocate(64);
+        Ebml.putUint(info, Ebml.TIMECODE_SCALE, 1_000_000);
+        putString(info, 0x4D80, "Chrome");
+        element(buf, Ebml.INFO, info);
+
+        ByteBuffer audio = ByteBuffer.allocate(32);
+        Ebml.putFloat(audio, Ebml.SAMPLING_FREQUENCY, 48000);
+        Ebml.putUint(audio, Ebml.CHANNELS, 1);
+        ByteBuffer entry = ByteBuffer.allocate(64);
+        Ebml.putUint(entry, 0xD7, 1);
+        putString(entry, Ebml.CODEC_ID, "A_OPUS");
+        element(entry, Ebml.AUDIO, audio);
+        ByteBuffer tracks = ByteBuffer.allocate(96);
+        element(tracks, Ebml.TRACK_ENTRY, entry);
+        element(buf, Ebml.TRACKS, tracks);
+
+        for (int i = 0; i < timecodes.length; i++) {
+            // Cluster (크기 모름)
+            Ebml.putId(buf, Ebml.CLUSTER);
+            buf.put((byte) 0xFF);
+            Ebml.putUint(buf, Ebml.TIMECODE, timecodes[i]);
+            for (short rel : blocks[i]) {
+                ByteBuffer block = ByteBuffer.allocate(16);
+                block.put((byte) 0x81).putShort(rel).put((byte) 0x80).put(new byte[]{0x78, 1, 2, 3, 4, 5});
+                element(buf, Ebml.SIMPLE_BLOCK, block);
+            }
+        }
+
+        byte[] out = new byte[buf.position()];
+        buf.flip().get(out);
+        return out;
+    }
+
+    private static void element(ByteBuffer buf, int id, ByteBuffer body) {
+        body.flip();
+        Ebml.putHeader(buf, id, body.remaining());
+        buf.put(body);
+    }
+
+    private static void putString(ByteBuffer buf, int id, String value) {
+        byte[] b = value.getBytes(StandardCharsets.US_ASCII);
+        Ebml.putHeader(buf, id, b.length);
+        buf.put(b);
+    }
+}
@@ -0,0 +1,294 @@
+package com.example.audio_upload_web.load;
+
+import com.example.audio_upload_web.common.job.FinalizeJob;
+import com.example.audio_upload_web.common.transcode.FfmpegTranscoder;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 동시 녹음 부하 테스트 (기본 빌드에서는 실행되지 않음)<br/>
+ * 실제 클라이언트(static/js/real-time, real-time-compression)처럼 세션마다 일정 간격으로 청크를 보내고
+ * 마지막에 finalize 후 작업 완료까지 기다리며, 결과를 JSON 보고서로 남김
+ *
+ * <pre>
+ * ./gradlew test --tests '*RecordingLoadTests' -Dload.sessions=200
+ *
+ * load.sessions         동시 세션 수 (필수)
+ * load.chunks           세션당 청크 수 (기본 10)
+ * load.chunk-ms         청크 길이 = 전송 간격 (기본 3000, 클라이언트 설정 3초/10초)
+ * load.endpoints        대상 업로드 방식 (기본 real-time,rtc, 세션마다 번갈아 사용)
+ * load.stub-transcoder  ffmpeg 대신 복사만 하는 변환기 사용 (기본 true)
+ *                       (JVM 내부 remux 가 먼저 처리하므로 ffmpeg 경로 측정 시 -Dupload.transcode.remux.native=false)
+ * load.report           보고서 경로 (기본 build/reports/load/load-report.json)
+ * </pre>
+ * */
+@EnabledIfSystemProperty(named = "load.sessions", matches = "\\d+")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        // 모든 세션이 같은 주소에서 접속하므로 요청 제한은 끔
+        properties = {"upload.finalize.chunk-wait-ms=60000", "upload.rate-limit.enabled=false"})
+class RecordingLoadTests {
+
+    private static final Logger log = LogManager.getLogger(RecordingLoadTests.class);
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final HttpClient http = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(10))
+            .executor(Executors.newCachedThreadPool())
+            .build();
+
+
+    /*
+     * ffmpeg 를 실행하지 않고 stream 파일을 그대로 복사하는 변환기
+     * */
+    @TestConfiguration
+    static class StubTranscoderConfiguration {
+
+        @Bean
+        @Primary
+        @ConditionalOnProperty(name = "load.stub-transcoder", havingValue = "true", matchIfMissing = true)
+        FfmpegTranscoder stubTranscoder() {
+            return new FfmpegTranscoder() {
+                @Override
+                public void transcode(Path workDir, Path input, Path out, FinalizeJob job) throws IOException {
+                    Files.copy(input, out, StandardCopyOption.REPLACE_EXISTING);
+                }
+            };
+        }
+    }
+
+
+    @Test
+    void concurrentRecordings() throws Exception {
+        int sessions = Integer.getInteger("load.sessions");
+        int chunks = Integer.getInteger("load.chunks", 10);
+        int chunkMs = Integer.getInteger("load.chunk-ms", 3000);
+        List<String> endpoints = List.of(System.getProperty("load.endpoints", "real-time,rtc").split(","));
+        Path report = Path.of(System.getProperty("load.report", "build/reports/load/load-report.json"));
+
+        Map<String, Endpoint> stats = new LinkedHashMap<>();
+        endpoints.forEach(e -> stats.put(e, new Endpoint()));
+
+        // 세션 시작 시점을 한 청크 간격 안에 고르게 분산 (실제 사용자처럼 전송 시점이 겹치지 않도록)
+        ExecutorService workers = Executors.newFixedThreadPool(sessions);
+        List<Future<?>> futures = new ArrayList<>();
+        long started = System.nanoTime();
+        for (int i = 0; i < sessions; i++) {
+            String endpoint = endpoints.get(i % endpoints.size());
+            long delay = (long) chunkMs * i / sessions;
+            int seed = i;
+            futures.add(workers.submit(() -> {
+                Thread.sleep(delay);
+                record(endpoint, stats.get(endpoint), new SyntheticRecording(chunkMs, seed), chunks, chunkMs);
+                return null;
+            }));
+        }
+        for (Future<?> f : futures) f.get();
+        long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+        workers.shutdown();
+
+        // 보고서 작성
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("sessions", sessions);
+        body.put("chunksPerSession", chunks);
+        body.put("chunkMs", chunkMs);
+        body.put("stubTranscoder", Boolean.parseBoolean(System.getProperty("load.stub-transcoder", "true")));
+        body.put("elapsedMs", elapsedMs);
+        Map<String, Object> byEndpoint = new LinkedHashMap<>();
+        stats.forEach((name, s) -> byEndpoint.put(name, s.report(elapsedMs)));
+        body.put("endpoints", byEndpoint);
+
+        Files.createDirectories(report.toAbsolutePath().getParent());
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(report.toFile(), body);
+        log.info("부하 테스트 보고서 : " + report.toAbsolutePath());
+
+        assertTrue(stats.values().stream().allMatch(s -> s.finalize.count() > 0), "완료된 녹음 없음");
+    }
+
+
+    /**
+     * 녹음 한 건 (세션 생성 -> 청크 전송 -> finalize -> 작업 완료 대기)
+     * */
+    private void record(String endpoint, Endpoint stats, SyntheticRecording recording, int chunks, int chunkMs)
+            throws InterruptedException {
+        String base = "http://localhost:" + port + "/" + endpoint;
+        boolean zip = endpoint.equals("rtc");
+        try {
+            JsonNode session = post(base + "/session", HttpRequest.BodyPublishers.noBody(), null);
+            String uploadId = session.path("uploadId").asText();
+
+            for (int seq = 1; seq <= chunks; seq++) {
+                long next = System.nanoTime() + chunkMs * 1_000_000L;
+                byte[] data = recording.chunk(seq);
+                if (zip) data = SyntheticRecording.zip(data);
+
+                long t0 = System.nanoTime();
+                String boundary = "----load" + UUID.randomUUID();
+                try {
+                    post(base + "/chunk", multipart(boundary, uploadId, seq, data, zip),
+                            "multipart/form-data; boundary=" + boundary);
+                    stats.chunkAck.add(System.nanoTime() - t0);
+                    stats.bytes.addAndGet(data.length);
+                } catch (LoadError e) {
+                    stats.error("chunk", e.status);
+                }
+
+                long sleep = next - System.nanoTime();
+                if (sleep > 0 && seq < chunks) TimeUnit.NANOSECONDS.sleep(sleep);
+            }
+
+            long t0 = System.nanoTime();
+            JsonNode job = post(base + "/finalize?uploadId=" + uploadId + "&totalChunks=" + chunks,
+                    HttpRequest.BodyPublishers.noBody(), null);
+            String state = awaitJob(job.path("jobId").asText());
+            if (state.equals("DONE")) stats.finalize.add(System.nanoTime() - t0);
+            else stats.error("finalize", state);
+        } catch (LoadError e) {
+            stats.error("session", e.status);
+        } catch (IOException e) {
+            stats.error("io", e.getClass().getSimpleName());
+        }
+    }
+
+    private String awaitJob(String jobId) throws IOException, InterruptedException {
+        while (true) {
+            HttpResponse<String> res = http.send(HttpRequest.newBuilder(
+                    URI.create("http://localhost:" + port + "/jobs/" + jobId)).GET().build(),
+                    HttpResponse.BodyHandlers.ofString());
+            if (res.statusCode() != 200) return String.valueOf(res.statusCode());
+            String state = objectMapper.readTree(res.body()).path("state").asText();
+            if (state.equals("DONE") || state.equals("FAILED")) return state;
+            Thread.sleep(200);
+        }
+    }
+
+    private JsonNode post(String url, HttpRequest.BodyPublisher body, String contentType)
+            throws IOException, InterruptedException {
+        HttpRequest.Builder req = HttpRequest.newBuilder(URI.create(url)).POST(body).timeout(Duration.ofSeconds(60));
+        if (contentType != null) req.header("Content-Type", contentType);
+        HttpResponse<String> res = http.send(req.build(), HttpResponse.BodyHandlers.ofString());
+        if (res.statusCode() / 100 != 2) throw new LoadError(String.valueOf(res.statusCode()));
+        return objectMapper.readTree(res.body());
+    }
+
+    private static HttpRequest.BodyPublisher multipart(String boundary, String uploadId, int seq, byte[] data, boolean zip) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length + 512);
+        String head = "--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"uploadId\"\r\n\r\n" + uploadId + "\r\n"
+                + "--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"seq\"\r\n\r\n" + seq + "\r\n"
+                + "--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"" + seq + (zip ? ".zip" : ".webm") + "\"\r\n"
+                + "Content-Type: " + (zip ? "application/zip" : "audio/webm") + "\r\n\r\n";
+        out.writeBytes(head.getBytes(StandardCharsets.UTF_8));
+        out.writeBytes(data);
+        out.writeBytes(("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8));
+        return HttpRequest.BodyPublishers.ofByteArray(out.toByteArray());
+    }
+
+
+    /*
+     * 2xx 가 아닌 응답
+     * */
+    private static final class LoadError extends IOException {
+        final String status;
+
+        LoadError(String status) {
+            super(status);
+            this.status = status;
+        }
+    }
+
+    /*
+     * 업로드 방식 하나의 집계
+     * */
+    private static final class Endpoint {
+        final Latencies chunkAck = new Latencies();
+        final Latencies finalize = new Latencies();
+        final AtomicLong bytes = new AtomicLong();
+        final Map<String, AtomicLong> errors = new ConcurrentHashMap<>();
+
+        void error(String step, String status) {
+            errors.computeIfAbsent(step + ":" + status, k -> new AtomicLong()).incrementAndGet();
+        }
+
+        Map<String, Object> report(long elapsedMs) {
+            long errorCount = errors.values().stream().mapToLong(AtomicLong::get).sum();
+            long requests = chunkAck.count() + finalize.count() + errorCount;
+            Map<String, Object> r = new LinkedHashMap<>();
+            r.put("chunkAck", chunkAck.report());
+            r.put("finalize", finalize.report());
+            r.put("chunksPerSec", chunkAck.count() * 1000.0 / elapsedMs);
+            r.put("bytesPerSec", bytes.get() * 1000.0 / elapsedMs);
+            r.put("errorRate", requests == 0 ? 0.0 : (double) errorCount / requests);
+            Map<String, Long> e = new TreeMap<>();
+            errors.forEach((k, v) -> e.put(k, v.get()));
+            r.put("errors", e);
+            return r;
+        }
+    }
+
+    /*
+     * 응답 시간 기록 (ns) 및 백분위 계산
+     * */
+    private static final class Latencies {
+        private final ConcurrentLinkedQueue<Long> samples = new ConcurrentLinkedQueue<>();
+
+        void add(long nanos) {
+            samples.add(nanos);
+        }
+
+        long count() {
+            return samples.size();
+        }
+
+        Map<String, Object> report() {
+            long[] s = samples.stream().mapToLong(Long::longValue).sorted().toArray();
+            Map<String, Object> r = new LinkedHashMap<>();
+            r.put("count", s.length);
+            r.put("p50Ms", percentile(s, 0.50));
+            r.put("p99Ms", percentile(s, 0.99));
+            r.put("p999Ms", percentile(s, 0.999));
+            r.put("maxMs", s.length == 0 ? 0.0 : s[s.length - 1] / 1e6);
+            return r;
+        }
+
+        private static double percentile(long[] sorted, double p) {
+            if (sorted.length == 0) return 0.0;
+            int i = (int) Math.ceil(p * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(i, sorted.length - 1))] / 1e6;
+        }
+    }
+}
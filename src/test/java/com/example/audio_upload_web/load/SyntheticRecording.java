@@ -0,0 +1,152 @@
+package com.example.audio_upload_web.load;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * MediaRecorder(audio/webm;codecs=opus) 청크와 같은 구조의 합성 데이터<br/>
+ * 1번 청크에 EBML 헤더/Segment/Info/Tracks 가 포함되고, 청크마다 크기를 모르는 Cluster 하나가 들어감
+ * (블록 본문은 임의 값이므로 디코딩은 불가)
+ * */
+class SyntheticRecording {
+
+    /*
+     * opus 20ms 프레임, 128kbps 기준 프레임 크기
+     * */
+    private static final int FRAME_MS = 20;
+    private static final int FRAME_BYTES = 128_000 / 8 * FRAME_MS / 1000;
+
+    private final int chunkMs;
+    private final Random random;
+
+
+    SyntheticRecording(int chunkMs, long seed) {
+        this.chunkMs = chunkMs;
+        this.random = new Random(seed);
+    }
+
+
+    /**
+     * seq 번째 청크 (1부터 시작)
+     * */
+    byte[] chunk(int seq) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(chunkMs / FRAME_MS * (FRAME_BYTES + 8) + 256);
+        if (seq == 1) header(out);
+
+        // Cluster (크기 모름)
+        id(out, 0x1F43B675);
+        out.write(0x01);
+        for (int i = 0; i < 7; i++) out.write(0xFF);
+        uint(out, 0xE7, (long) (seq - 1) * chunkMs);
+
+        byte[] frame = new byte[FRAME_BYTES];
+        for (int t = 0; t < chunkMs; t += FRAME_MS) {
+            random.nextBytes(frame);
+            id(out, 0xA3);
+            size(out, 4 + FRAME_BYTES);
+            out.write(0x81);                 // track 1
+            out.write((t >> 8) & 0xFF);      // 상대 타임코드
+            out.write(t & 0xFF);
+            out.write(0x80);                 // keyframe
+            out.write(frame, 0, FRAME_BYTES);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * RTC 클라이언트(JSZip)와 같이 단일 entry zip 으로 압축한 청크
+     * */
+    static byte[] zip(byte[] data) {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream(data.length + 256);
+        try (ZipOutputStream zos = new ZipOutputStream(bos)) {
+            zos.putNextEntry(new ZipEntry("chunk.webm"));
+            zos.write(data);
+            zos.closeEntry();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bos.toByteArray();
+    }
+
+
+    private static void header(ByteArrayOutputStream out) {
+        ByteArrayOutputStream ebml = new ByteArrayOutputStream();
+        string(ebml, 0x4282, "webm");
+        uint(ebml, 0x4287, 4);
+        uint(ebml, 0x4285, 2);
+        element(out, 0x1A45DFA3, ebml);
+
+        // Segment (크기 모름)
+        id(out, 0x18538067);
+        out.write(0x01);
+        for (int i = 0; i < 7; i++) out.write(0xFF);
+
+        ByteArrayOutputStream info = new ByteArrayOutputStream();
+        uint(info, 0x2AD7B1, 1_000_000);
+        string(info, 0x4D80, "load-test");
+        string(info, 0x5741, "load-test");
+        element(out, 0x1549A966, info);
+
+        ByteArrayOutputStream audio = new ByteArrayOutputStream();
+        id(audio, 0xB5);
+        size(audio, 8);
+        long bits = Double.doubleToLongBits(48000.0);
+        for (int i = 7; i >= 0; i--) audio.write((int) (bits >>> (8 * i)));
+        uint(audio, 0x9F, 1);
+
+        ByteArrayOutputStream entry = new ByteArrayOutputStream();
+        uint(entry, 0xD7, 1);
+        uint(entry, 0x83, 2);
+        string(entry, 0x86, "A_OPUS");
+        element(entry, 0xE1, audio);
+
+        ByteArrayOutputStream tracks = new ByteArrayOutputStream();
+        element(tracks, 0xAE, entry);
+        element(out, 0x1654AE6B, tracks);
+    }
+
+    private static void element(ByteArrayOutputStream out, int id, ByteArrayOutputStream body) {
+        id(out, id);
+        size(out, body.size());
+        out.writeBytes(body.toByteArray());
+    }
+
+    private static void string(ByteArrayOutputStream out, int id, String value) {
+        byte[] b = value.getBytes(StandardCharsets.US_ASCII);
+        id(out, id);
+        size(out, b.length);
+        out.write(b, 0, b.length);
+    }
+
+    private static void uint(ByteArrayOutputStream out, int id, long value) {
+        id(out, id);
+        size(out, 8);
+        for (int i = 7; i >= 0; i--) out.write((int) (value >>> (8 * i)));
+    }
+
+    private static void id(ByteArrayOutputStream out, int id) {
+        boolean started = false;
+        for (int i = 3; i >= 0; i--) {
+            int b = (id >>> (8 * i)) & 0xFF;
+            if (b != 0 || started) {
+                out.write(b);
+                started = true;
+            }
+        }
+    }
+
+    /*
+     * 4 byte vint 크기 (최대 256MB)
+     * */
+    private static void size(ByteArrayOutputStream out, int size) {
+        out.write(0x10 | (size >>> 24));
+        out.write((size >>> 16) & 0xFF);
+        out.write((size >>> 8) & 0xFF);
+        out.write(size & 0xFF);
+    }
+}